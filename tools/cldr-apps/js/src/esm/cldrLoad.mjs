@@ -33,6 +33,7 @@ import * as cldrStatus from "./cldrStatus.mjs";
 import * as cldrSurvey from "./cldrSurvey.mjs";
 import * as cldrTable from "./cldrTable.mjs";
 import * as cldrText from "./cldrText.mjs";
+import * as cldrValueChanges from "./cldrValueChanges.mjs";
 import * as cldrVueMap from "./cldrVueMap.mjs";
 
 import { h } from "vue";
@@ -575,6 +576,7 @@ function shower(itemLoadInfo) {
 function specialLoad(itemLoadInfo, curSpecial, theDiv) {
   const special = getSpecial(curSpecial); // special is an object; curSpecial is a string
   if (special && special.load) {
+    cldrValueChanges.stop();
     cldrEvent.hideOverlayAndSidebar();
     if (curSpecial !== GENERAL_SPECIAL) {
       cldrDashContext.hide(false /* userWantsHidden */);
@@ -871,6 +873,7 @@ function loadAllRowsFromJson(json, theDiv) {
         cldrStatus.getSessionId(),
         json
       ); // pageid is the xpath..
+      cldrValueChanges.listen(cldrStatus.getCurrentLocale(), json.pageId);
       cldrCoverage.updateCoverage(flipper.get(pages.data)); // make sure cov is set right before we show.
       flipper.flipTo(pages.data); // TODO now? or later?
       showCurrentId(); // already calls scroll
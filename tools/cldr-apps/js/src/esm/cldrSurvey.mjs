@@ -220,6 +220,31 @@ function handleChangedLocaleStamp(stamp, name) {
   surveyNextLocaleStamp = stamp;
 }
 
+/**
+ * Take the new locale stamp pushed with changed rows, which the caller fetches itself,
+ * so that the rows do not also make handleChangedLocaleStamp reload the whole page
+ *
+ * @param {Number} since the stamp before the changes
+ * @param {Number} stamp the stamp after the changes
+ * @return true if taken, or false if the stamp we have is not the one before the changes,
+ *         so that there may have been other changes, which only reloading the page will show
+ */
+function adoptPushedLocaleStamp(since, stamp) {
+  if (since != surveyNextLocaleStamp) {
+    if (DEBUG_LOCALE_STAMP) {
+      console.log(
+        "cldrSurvey.adoptPushedLocaleStamp: " +
+          since +
+          " is not surveyNextLocaleStamp " +
+          surveyNextLocaleStamp
+      );
+    }
+    return false;
+  }
+  surveyNextLocaleStamp = stamp;
+  return true;
+}
+
 /**
  * Update the 'status' if need be.
  */
@@ -980,6 +1005,7 @@ function setShower(id, func) {
 export {
   INHERITANCE_MARKER,
   addIcon,
+  adoptPushedLocaleStamp,
   appendExtraAttributes,
   cacheBuster,
   cacheKill,
@@ -297,7 +297,7 @@ function addPartitionHeader(newPartition, tbody, parRow) {
 /**
  * Reload a specific row
  *
- * Called only by load handler of cldrVote.handleWiredClick
+ * Called by load handler of cldrVote.handleWiredClick, and by refreshRowIfShown
  */
 function refreshSingleRow(tr, theRow, onSuccess, onFailure) {
   cldrSurvey.showLoader(cldrText.get("loadingOneRow"));
@@ -320,6 +320,25 @@ function refreshSingleRow(tr, theRow, onSuccess, onFailure) {
   }
 }
 
+/**
+ * Reload a row if it is shown, since it changed on the server
+ *
+ * @param {String} xpstrid the xpath string id of the row
+ */
+function refreshRowIfShown(xpstrid) {
+  const tr = document.getElementById(makeRowId(xpstrid));
+  const theRow = tr?.theTable?.json?.page?.rows?.[tr.rowHash];
+  if (!theRow) {
+    return;
+  }
+  refreshSingleRow(
+    tr,
+    theRow,
+    () => {},
+    (err) => console.log("refreshRowIfShown: " + err)
+  );
+}
+
 function singleRowLoadHandler(json, tr, theRow, onSuccess, onFailure) {
   if (CLDR_TABLE_DEBUG) {
     console.log("singleRowLoadHandler start time = " + Date.now());
@@ -1465,6 +1484,7 @@ export {
   insertRows,
   listen,
   makeRowId,
+  refreshRowIfShown,
   refreshSingleRow,
   resetLastShown,
   setDivClassSelected,
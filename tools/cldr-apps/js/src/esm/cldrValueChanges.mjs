@@ -0,0 +1,93 @@
+/*
+ * cldrValueChanges: listen for the rows that change on the server while a page is shown,
+ * and fetch just those rows, rather than reloading the whole page for every vote
+ */
+import * as cldrAjax from "./cldrAjax.mjs";
+import * as cldrStatus from "./cldrStatus.mjs";
+import * as cldrSurvey from "./cldrSurvey.mjs";
+import * as cldrTable from "./cldrTable.mjs";
+import * as cldrVote from "./cldrVote.mjs";
+
+const CLDR_VALUE_CHANGES_DEBUG = false;
+
+/** The EventSource, or null if not listening */
+let source = null;
+
+/** The locale and page being listened to, as "locale/page" */
+let listeningTo = null;
+
+/**
+ * Listen for changes to the rows of the given page, stopping any earlier listening
+ *
+ * The server knows the session from its cookie, rather than from the URL, which
+ * would end up in logs. It closes the stream when the session ends.
+ *
+ * If a change is missed, for example while the connection is down, the locale stamp
+ * polled by cldrSurvey will not match, and the whole page is reloaded as before.
+ *
+ * @param {String} locale the locale id
+ * @param {String} page the page id
+ */
+function listen(locale, page) {
+  if (!window.EventSource || !cldrStatus.getSessionId() || !locale || !page) {
+    stop();
+    return;
+  }
+  if (source && listeningTo === locale + "/" + page) {
+    return;
+  }
+  stop();
+  const p = new URLSearchParams();
+  p.append("page", page);
+  const url = cldrAjax.makeApiUrl("voting/" + locale + "/changes", p);
+  source = new EventSource(url);
+  listeningTo = locale + "/" + page;
+  source.addEventListener("changes", (event) =>
+    handleChanges(JSON.parse(event.data))
+  );
+  // another tab of the same session took its place: leave it to the stamp polling
+  const replaced = source;
+  source.addEventListener("replaced", () => {
+    if (source === replaced) {
+      stop();
+    }
+  });
+  if (CLDR_VALUE_CHANGES_DEBUG) {
+    console.log("cldrValueChanges.listen: " + listeningTo);
+  }
+}
+
+/**
+ * Stop listening, such as when leaving the page
+ */
+function stop() {
+  if (source) {
+    source.close();
+    source = null;
+    listeningTo = null;
+  }
+}
+
+/**
+ * Fetch the changed rows that are shown
+ *
+ * @param {Object} message the changed rows, with the locale stamp before and after them
+ */
+function handleChanges(message) {
+  if (CLDR_VALUE_CHANGES_DEBUG) {
+    console.log("cldrValueChanges.handleChanges: " + JSON.stringify(message));
+  }
+  if (cldrVote.isBusy() || cldrSurvey.isInputBusy()) {
+    // leave it to the stamp polling, which reloads the page when it can
+    return;
+  }
+  if (!cldrSurvey.adoptPushedLocaleStamp(message.since, message.stamp)) {
+    // a change was missed; the stamp polling will reload the whole page
+    return;
+  }
+  for (const change of message.changes) {
+    cldrTable.refreshRowIfShown(change.xpstrid);
+  }
+}
+
+export { listen, stop };
@@ -3,6 +3,7 @@ package org.unicode.cldr.web;
 import java.util.Date;
 import java.util.logging.Logger;
 import org.unicode.cldr.util.CLDRFile.DraftStatus;
+import org.unicode.cldr.util.VoteResolutionCache;
 import org.unicode.cldr.util.VoteResolver;
 import org.unicode.cldr.util.VoteResolver.Status;
 import org.unicode.cldr.util.XMLSource;
@@ -19,11 +20,18 @@ public class BallotBoxXMLSource<T> extends DelegateXMLSource {
     /** original data before any votes */
     XMLSource diskData;
 
+    /** outcomes of vote resolution, shared between locales, or null to resolve every time */
+    private final VoteResolutionCache<String> resolutionCache;
+
     /** Writeable XMLSource to delegate to */
-    BallotBoxXMLSource(XMLSource diskData, BallotBox<T> makeFrom) {
+    BallotBoxXMLSource(
+            XMLSource diskData,
+            BallotBox<T> makeFrom,
+            VoteResolutionCache<String> resolutionCache) {
         super(diskData.cloneAsThawed());
         this.diskData = diskData;
         ballotBox = makeFrom;
+        this.resolutionCache = resolutionCache;
     }
 
     @Override
@@ -70,8 +78,17 @@ public class BallotBoxXMLSource<T> extends DelegateXMLSource {
             fullPath = diskData.getFullPathAtDPath(path);
         } else {
             resolver = ballotBox.getResolver(path, resolver);
-            value = resolver.getWinningValue();
-            fullPath = getFullPathWithResolver(path, resolver);
+            final Status win;
+            if (resolutionCache == null) {
+                value = resolver.getWinningValue();
+                win = resolver.getWinningStatus();
+            } else {
+                final VoteResolutionCache.Outcome<String> outcome =
+                        resolutionCache.resolve(resolver);
+                value = outcome.getValue();
+                win = outcome.getStatus();
+            }
+            fullPath = getFullPathWithStatus(path, win);
         }
         delegate.removeValueAtDPath(path);
         if (value != null) {
@@ -80,7 +97,7 @@ public class BallotBoxXMLSource<T> extends DelegateXMLSource {
         return resolver;
     }
 
-    private String getFullPathWithResolver(String path, VoteResolver<String> resolver) {
+    private String getFullPathWithStatus(String path, Status win) {
         String diskFullPath = diskData.getFullPathAtDPath(path);
         if (diskFullPath == null) {
             /*
@@ -92,7 +109,6 @@ public class BallotBoxXMLSource<T> extends DelegateXMLSource {
          * Remove JUST draft alt proposed. Leave 'numbers=' etc.
          */
         String baseXPath = XPathTable.removeDraftAltProposed(diskFullPath);
-        Status win = resolver.getWinningStatus();
         /*
          * Catch Status.missing, or it will trigger an exception in draftStatusFromWinningStatus
          * since there is no "missing" in DraftStatus.
@@ -262,12 +262,18 @@ public class Dashboard {
         if (xpath != null) {
             args.setXpath(xpath);
         }
-        return reallyGet(vv, args);
+        return reallyGet(vv, args, sourceFactory);
     }
 
-    private ReviewOutput reallyGet(VettingViewer<Organization> vv, VettingParameters args) {
+    private ReviewOutput reallyGet(
+            VettingViewer<Organization> vv, VettingParameters args, STFactory sourceFactory) {
         VettingViewer<Organization>.DashboardData dd;
-        dd = vv.generateDashboard(args);
+        if (args.isOnlyForSinglePath()) {
+            dd = vv.generateDashboard(args);
+        } else {
+            // kept up to date as votes come in
+            dd = DashboardAggregates.getInstance().getDashboardData(vv, args, sourceFactory);
+        }
 
         ReviewOutput reviewOutput = new ReviewOutput();
 
@@ -0,0 +1,151 @@
+package org.unicode.cldr.web;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import org.unicode.cldr.util.CLDRConfig;
+import org.unicode.cldr.util.CLDRLocale;
+import org.unicode.cldr.util.Organization;
+import org.unicode.cldr.util.VettingParameters;
+import org.unicode.cldr.util.VettingViewer;
+
+/**
+ * Keeps the Dashboards recently requested, and the counts of the Priority Items Summary, up to date
+ * as votes come in, so that they don't have to be computed from scratch for each request.
+ *
+ * <p>Each Dashboard (for a locale, user, coverage level and set of notification categories) listens
+ * to its locale and the locales it inherits from, and {@link STFactory} calls {@link #voteChanged}
+ * for every vote, since a vote can change the notifications for a path without changing its value.
+ * Every so often, each Dashboard is computed from scratch, as a consistency check.
+ */
+public class DashboardAggregates {
+    static final Logger logger = SurveyLog.forClass(DashboardAggregates.class);
+
+    private static final class DashboardAggregatesHelper {
+        static final DashboardAggregates INSTANCE = new DashboardAggregates();
+    }
+
+    public static DashboardAggregates getInstance() {
+        return DashboardAggregatesHelper.INSTANCE;
+    }
+
+    private static final int CACHE_SIZE =
+            CLDRConfig.getInstance().getProperty("CLDR_DASHBOARD_CACHE_SIZE", 20);
+
+    /** Minutes between consistency checks, and the most minutes to keep summary counts */
+    private static final int RECOMPUTE_MINUTES =
+            CLDRConfig.getInstance().getProperty("CLDR_DASHBOARD_RECOMPUTE_MINUTES", 60);
+
+    private final Cache<String, VettingViewer<Organization>.DashboardAggregate> dashboards =
+            CacheBuilder.newBuilder()
+                    .maximumSize(CACHE_SIZE)
+                    .expireAfterAccess(RECOMPUTE_MINUTES, TimeUnit.MINUTES)
+                    .build();
+
+    private final VettingViewer.SummaryCounts summaryCounts =
+            new VettingViewer.SummaryCounts(TimeUnit.MINUTES.toMillis(RECOMPUTE_MINUTES));
+
+    private boolean checkScheduled = false;
+
+    private DashboardAggregates() {}
+
+    /**
+     * Get the Dashboard for the given parameters, from the one kept for them if any
+     *
+     * @param vv the VettingViewer, used if the Dashboard needs to be made
+     * @param args the parameters, for all paths
+     * @param factory the factory that the source file comes from
+     * @return the Dashboard data, which the caller may keep
+     */
+    VettingViewer<Organization>.DashboardData getDashboardData(
+            VettingViewer<Organization> vv, VettingParameters args, STFactory factory) {
+        scheduleCheck();
+        final String key = getKey(args);
+        VettingViewer<Organization>.DashboardAggregate dashboard = dashboards.getIfPresent(key);
+        if (dashboard != null && dashboard.getSourceFile() != args.getSourceFile()) {
+            // the locale was loaded again since
+            dashboards.invalidate(key);
+        }
+        try {
+            dashboard = dashboards.get(key, () -> newDashboard(vv, args, factory));
+        } catch (ExecutionException e) {
+            throw new RuntimeException("While making the Dashboard for " + key, e);
+        }
+        return dashboard.getDashboardData();
+    }
+
+    private static String getKey(VettingParameters args) {
+        return args.getLocale()
+                + " "
+                + args.getUserId()
+                + " "
+                + args.getOrganization()
+                + " "
+                + args.getCoverageLevel()
+                + " "
+                + args.getChoices();
+    }
+
+    private static VettingViewer<Organization>.DashboardAggregate newDashboard(
+            VettingViewer<Organization> vv, VettingParameters args, STFactory factory) {
+        VettingViewer<Organization>.DashboardAggregate dashboard = vv.newDashboardAggregate(args);
+        for (CLDRLocale loc = args.getLocale(); loc != null; loc = loc.getParent()) {
+            factory.get(loc).getSource().addListener(dashboard);
+        }
+        return dashboard;
+    }
+
+    /**
+     * Note a vote, which may change the notifications for the path without changing its value, in
+     * the locale and the locales that inherit from it
+     */
+    void voteChanged(CLDRLocale locale, String xpath) {
+        for (VettingViewer<Organization>.DashboardAggregate dashboard :
+                dashboards.asMap().values()) {
+            if (dashboard.getLocale().childOf(locale)) {
+                dashboard.pathChanged(xpath);
+            }
+        }
+        summaryCounts.localeChanged(locale);
+    }
+
+    /** The counts kept for the Priority Items Summary */
+    VettingViewer.SummaryCounts getSummaryCounts() {
+        return summaryCounts;
+    }
+
+    private synchronized void scheduleCheck() {
+        if (!checkScheduled) {
+            checkScheduled = true;
+            SurveyThreadManager.getScheduledExecutorService()
+                    .scheduleWithFixedDelay(
+                            this::checkConsistency,
+                            RECOMPUTE_MINUTES,
+                            RECOMPUTE_MINUTES,
+                            TimeUnit.MINUTES);
+        }
+    }
+
+    /** Compute each Dashboard from scratch, and log any that had drifted */
+    void checkConsistency() {
+        for (VettingViewer<Organization>.DashboardAggregate dashboard :
+                dashboards.asMap().values()) {
+            try {
+                final int updated = dashboard.getPathsUpdated();
+                if (!dashboard.recompute()) {
+                    logger.warning(
+                            "Dashboard for "
+                                    + dashboard.getLocale()
+                                    + " had drifted after updating "
+                                    + updated
+                                    + " paths");
+                }
+            } catch (RuntimeException e) {
+                SurveyLog.logException(
+                        logger, e, "Checking Dashboard for " + dashboard.getLocale());
+            }
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package org.unicode.cldr.web;
+
+import java.util.Date;
+import java.util.function.IntPredicate;
+import org.unicode.cldr.util.VoteType;
+import org.unicode.cldr.web.UserRegistry.User;
+
+/**
+ * The votes for one path in one locale, as parallel arrays of primitives sorted by user id, rather
+ * than a map from users to objects with a boxed override and a Date.
+ *
+ * <p>Never changed once made: each vote makes a new one, so that readers need no lock. There are
+ * only ever a few votes for a path, so the copying is cheap.
+ *
+ * <p>The users are kept as given when voting, as the map did, so that listing the voters never
+ * goes back to the UserRegistry.
+ *
+ * @see STFactory.PerLocaleData.PerXPathData
+ */
+final class PackedVotes {
+    static final PackedVotes EMPTY = new PackedVotes(0);
+
+    /** No override: the user votes with the usual strength for their level */
+    private static final int NO_OVERRIDE = Integer.MIN_VALUE;
+
+    /** No date */
+    private static final long NO_WHEN = Long.MIN_VALUE;
+
+    private static final VoteType[] VOTE_TYPES = VoteType.values();
+
+    private final User[] users;
+    private final String[] values;
+    private final int[] overrides;
+    private final byte[] voteTypes;
+    private final long[] whens;
+
+    private PackedVotes(int size) {
+        users = new User[size];
+        values = new String[size];
+        overrides = new int[size];
+        voteTypes = new byte[size];
+        whens = new long[size];
+    }
+
+    int size() {
+        return users.length;
+    }
+
+    boolean isEmpty() {
+        return users.length == 0;
+    }
+
+    /**
+     * Find a user's vote
+     *
+     * @param user the user id
+     * @return the index of the vote, or negative if the user did not vote
+     */
+    int indexOf(int user) {
+        int low = 0;
+        int high = users.length - 1;
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+            final int id = users[mid].id;
+            if (id < user) {
+                low = mid + 1;
+            } else if (id > user) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    User getUser(int i) {
+        return users[i];
+    }
+
+    int getUserId(int i) {
+        return users[i].id;
+    }
+
+    /** What is this user voting for? May be null for a vote for missing. */
+    String getValue(int i) {
+        return values[i];
+    }
+
+    /** The user's override strength, or null for no override */
+    Integer getOverride(int i) {
+        return overrides[i] == NO_OVERRIDE ? null : overrides[i];
+    }
+
+    VoteType getVoteType(int i) {
+        return VOTE_TYPES[voteTypes[i]];
+    }
+
+    Date getWhen(int i) {
+        return whens[i] == NO_WHEN ? null : new Date(whens[i]);
+    }
+
+    /**
+     * Add or replace a user's vote
+     *
+     * @return the new votes
+     */
+    PackedVotes with(User user, String value, Integer override, VoteType voteType, Date when) {
+        int i = indexOf(user.id);
+        final PackedVotes result;
+        if (i >= 0) {
+            result = copy(size(), -1);
+        } else {
+            i = -i - 1;
+            result = copy(size() + 1, i);
+        }
+        result.users[i] = user;
+        result.values[i] = value;
+        result.overrides[i] = override == null ? NO_OVERRIDE : override;
+        result.voteTypes[i] = (byte) voteType.ordinal();
+        result.whens[i] = when == null ? NO_WHEN : when.getTime();
+        return result;
+    }
+
+    /**
+     * Remove a user's vote
+     *
+     * @return the new votes, or this if the user did not vote
+     */
+    PackedVotes without(int user) {
+        final int i = indexOf(user);
+        if (i < 0) {
+            return this;
+        }
+        return keep(j -> j != i);
+    }
+
+    /**
+     * Remove the votes with the given override strength
+     *
+     * @return the new votes, or this if there were none
+     */
+    PackedVotes withoutOverride(int override) {
+        return keep(j -> overrides[j] != override);
+    }
+
+    private PackedVotes keep(IntPredicate filter) {
+        int kept = 0;
+        for (int i = 0; i < size(); i++) {
+            if (filter.test(i)) {
+                kept++;
+            }
+        }
+        if (kept == size()) {
+            return this;
+        } else if (kept == 0) {
+            return EMPTY;
+        }
+        final PackedVotes result = new PackedVotes(kept);
+        int k = 0;
+        for (int i = 0; i < size(); i++) {
+            if (filter.test(i)) {
+                result.set(k++, this, i);
+            }
+        }
+        return result;
+    }
+
+    /** Copy into a new size, leaving a gap at the given index unless it is negative */
+    private PackedVotes copy(int newSize, int gap) {
+        final PackedVotes result = new PackedVotes(newSize);
+        for (int i = 0, k = 0; i < size(); i++, k++) {
+            if (k == gap) {
+                k++;
+            }
+            result.set(k, this, i);
+        }
+        return result;
+    }
+
+    private void set(int k, PackedVotes from, int i) {
+        users[k] = from.users[i];
+        values[k] = from.values[i];
+        overrides[k] = from.overrides[i];
+        voteTypes[k] = from.voteTypes[i];
+        whens[k] = from.whens[i];
+    }
+}
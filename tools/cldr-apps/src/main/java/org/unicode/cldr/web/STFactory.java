@@ -20,6 +20,7 @@ import java.util.ArrayList;
 import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -31,6 +32,10 @@ import java.util.TreeMap;
 import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
 import org.unicode.cldr.icu.dev.util.ElapsedTimer;
@@ -47,6 +52,7 @@ import org.unicode.cldr.util.InternalCldrException;
 import org.unicode.cldr.util.Pair;
 import org.unicode.cldr.util.PathHeader;
 import org.unicode.cldr.util.SimpleXMLSource;
+import org.unicode.cldr.util.VoteResolutionCache;
 import org.unicode.cldr.util.VoteResolver;
 import org.unicode.cldr.util.VoteResolver.Level;
 import org.unicode.cldr.util.VoteResolver.Status;
@@ -121,69 +127,28 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
         /** Voting information for each XPath */
         private final Map<String, PerXPathData> xpathToData = new HashMap<>();
 
+        /**
+         * The latest vote by each user for each XPath, while it waits for the journal, keyed by
+         * {@link #rowKey}; guarded by this
+         */
+        private final Map<Long, Long> votesBeingForced = new HashMap<>();
+
+        /** Numbers the votes in this locale, for votesBeingForced; guarded by this */
+        private long voteTicket = 0;
+
         public void nextStamp() {
             stamp.next();
         }
 
         /** Per-xpath data. There's one of these per xpath- voting data, etc. */
         final class PerXPathData {
+            /** When last voted on, in milliseconds, or 0 */
+            private long lastMod = 0;
 
-            /**
-             * Per (voting) user data. For each xpath, there's one of these per user that is voting.
-             *
-             * @author srl
-             */
-            final class PerUserData {
-                /** What is this user voting for? */
-                String vote;
-
-                /** What is this user's override strength? */
-                Integer override;
-
-                Date when;
-
-                VoteType voteType;
-
-                public PerUserData(
-                        String value, Integer voteOverride, Date when, VoteType voteType) {
-                    this.vote = value;
-                    this.override = voteOverride;
-                    this.when = when;
-                    if (voteType == null || voteType == VoteType.NONE) {
-                        logger.warning(
-                                "PerUserData got vote type " + voteType + "; changed to UNKNOWN");
-                        voteType = VoteType.UNKNOWN;
-                    }
-                    this.voteType = voteType;
-                    if (lastModDate == null || lastModDate.before(when)) {
-                        lastModDate = when;
-                    }
-                }
-
-                /**
-                 * Has this user overridden their vote? Integer with override strength, null for no
-                 * override
-                 */
-                public Integer getOverride() {
-                    return override;
-                }
-
-                public String getValue() {
-                    return vote;
-                }
-
-                public Date getWhen() {
-                    return when;
-                }
-
-                public VoteType getVoteType() {
-                    return voteType;
-                }
-            }
-
-            Date lastModDate = null;
             Set<String> otherValues = null;
-            Map<User, PerUserData> userToData = null;
+
+            /** The votes, replaced (never changed) by each vote, so that readers need no lock */
+            private volatile PackedVotes votes = PackedVotes.EMPTY;
 
             /**
              * Is there any user data (votes)?
@@ -191,7 +156,7 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
              * @return
              */
             public boolean isEmpty() {
-                return userToData == null || userToData.isEmpty();
+                return votes.isEmpty();
             }
 
             /**
@@ -199,8 +164,8 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
              *
              * @return
              */
-            public Iterable<Entry<User, PerUserData>> getVotes() {
-                return userToData.entrySet();
+            PackedVotes getVotes() {
+                return votes;
             }
 
             /**
@@ -213,14 +178,12 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
             }
 
             public Set<User> getVotesForValue(String value) {
-                if (isEmpty()) {
-                    return null;
-                }
+                final PackedVotes v = votes;
                 TreeSet<User> ts = new TreeSet<>();
-                for (Entry<User, PerUserData> e : userToData.entrySet()) {
-                    if (e.getValue().getVoteType() != VoteType.VOTE_FOR_MISSING
-                            && e.getValue().getValue().equals(value)) {
-                        ts.add(e.getKey());
+                for (int i = 0; i < v.size(); i++) {
+                    if (v.getVoteType(i) != VoteType.VOTE_FOR_MISSING
+                            && v.getValue(i).equals(value)) {
+                        ts.add(v.getUser(i));
                     }
                 }
                 if (ts.isEmpty()) return null;
@@ -228,35 +191,32 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
             }
 
             public String getVoteValue(User user) {
-                if (isEmpty()) {
-                    return null;
-                } else {
-                    PerUserData pud = peekUserToData(user);
-                    if (pud == null) return null;
-                    return pud.getValue();
-                }
+                final PackedVotes v = votes;
+                final int i = v.indexOf(user.id);
+                return i < 0 ? null : v.getValue(i);
             }
 
-            private PerUserData peekUserToData(User user) {
-                if (userToData == null) return null;
-                return userToData.get(user);
-            }
-
-            private void setVoteForValue(
+            private synchronized void setVoteForValue(
                     User user, String value, Integer voteOverride, Date when, VoteType voteType) {
                 if (value != null || voteType == VoteType.VOTE_FOR_MISSING) {
-                    setPerUserData(user, new PerUserData(value, voteOverride, when, voteType));
+                    if (voteType == null || voteType == VoteType.NONE) {
+                        logger.warning(
+                                "PerXPathData got vote type " + voteType + "; changed to UNKNOWN");
+                        voteType = VoteType.UNKNOWN;
+                    }
+                    votes = votes.with(user, value, voteOverride, voteType, when);
+                    if (when != null && lastMod < when.getTime()) {
+                        lastMod = when.getTime();
+                    }
                 } else {
                     removePerUserData(user);
                 }
             }
 
-            private void removePerUserData(User user) {
-                if (userToData != null) {
-                    userToData.remove(user);
-                    if (userToData.isEmpty()) {
-                        lastModDate = null; // date is now null- object is empty
-                    }
+            private synchronized void removePerUserData(User user) {
+                votes = votes.without(user.id);
+                if (votes.isEmpty()) {
+                    lastMod = 0; // date is now null- object is empty
                 }
             }
 
@@ -265,47 +225,23 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
              *
              * @param overrideVoteCount
              */
-            private void removeOverrideVotes(int overrideVoteCount) {
-                if (userToData != null) {
-                    HashSet<User> toDelete = new HashSet<>();
-                    userToData.forEach(
-                            (k, v) -> {
-                                Integer override = v.getOverride();
-                                if (override != null && override == overrideVoteCount) {
-                                    toDelete.add(k);
-                                }
-                            });
-                    for (User k : toDelete) {
-                        userToData.remove(k);
-                    }
-                }
+            private synchronized void removeOverrideVotes(int overrideVoteCount) {
+                votes = votes.withoutOverride(overrideVoteCount);
             }
 
             public Map<User, VoteAPIHelper.VoteDetails> getVoteDetails() {
-                if (isEmpty()) {
+                final PackedVotes v = votes;
+                if (v.isEmpty()) {
                     return null;
                 }
                 Map<User, VoteAPIHelper.VoteDetails> map = new TreeMap<>();
-                userToData.forEach(
-                        (user, data) ->
-                                map.put(
-                                        user,
-                                        new VoteAPIHelper.VoteDetails(
-                                                data.override, data.voteType, data.when)));
-                return map;
-            }
-
-            /**
-             * Set this user's vote.
-             *
-             * @param user
-             * @param pud
-             */
-            private void setPerUserData(User user, PerUserData pud) {
-                if (userToData == null) {
-                    userToData = new ConcurrentHashMap<>();
+                for (int i = 0; i < v.size(); i++) {
+                    map.put(
+                            v.getUser(i),
+                            new VoteAPIHelper.VoteDetails(
+                                    v.getOverride(i), v.getVoteType(i), v.getWhen(i)));
                 }
-                userToData.put(user, pud);
+                return map;
             }
 
             /**
@@ -315,26 +251,22 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
              * @return
              */
             public boolean userDidVote(User myUser) {
-                if (userToData == null) {
-                    return false;
-                }
-                PerUserData pud = peekUserToData(myUser);
-                return (pud != null && pud.getValue() != null);
+                final PackedVotes v = votes;
+                final int i = v.indexOf(myUser.id);
+                return (i >= 0 && v.getValue(i) != null);
             }
 
             public VoteType getUserVoteType(User myUser) {
-                if (userToData == null) {
-                    return VoteType.NONE;
-                }
-                PerUserData pud = peekUserToData(myUser);
-                if (pud == null) {
+                final PackedVotes v = votes;
+                final int i = v.indexOf(myUser.id);
+                if (i < 0) {
                     return VoteType.NONE;
                 }
-                return pud.getVoteType();
+                return v.getVoteType(i);
             }
 
             public Date getLastModDate() {
-                return lastModDate;
+                return lastMod == 0 ? null : new Date(lastMod);
             }
         }
 
@@ -369,7 +301,9 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
                 xmlsource =
                         dataBackedSource =
                                 new BallotBoxXMLSource<>(
-                                        diskDataEntry.diskData.cloneAsThawed(), this);
+                                        diskDataEntry.diskData.cloneAsThawed(),
+                                        this,
+                                        resolutionCache);
                 registerXmlSource(dataBackedSource);
                 loadVoteValues();
                 nextStamp();
@@ -447,92 +381,23 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
             VoteResolver<String> resolver = null; // save recalculating this.
             ElapsedTimer et =
                     (SurveyLog.DEBUG) ? new ElapsedTimer("Loading PLD for " + locale) : null;
-            Connection conn = null;
-            PreparedStatement ps = null;
-            ResultSet rs = null;
+            List<LoadedVote> votes = preloadedVotes.remove(locale);
+            if (votes == null) {
+                flushVotes(); // including any for this locale
+                votes = readVotes(locale);
+            }
             int n = 0;
-            int del = 0;
-
-            try {
-                /*
-                 * Select several columns (xp, submitter, value, override, last_mod, vote_type),
-                 * from all rows with the given locale in the votes table.
-                 */
-                conn = DBUtils.getInstance().getAConnection();
-                ps = openQueryByLocaleRW(conn);
-                ps.setString(1, locale.getBaseName());
-                rs = ps.executeQuery();
-
-                while (rs.next()) {
-                    int xp = rs.getInt(1);
-                    String xpath = sm.xpt.getById(xp);
-                    int submitter = rs.getInt(2);
-                    String value = DBUtils.getStringUTF8(rs, 3);
-                    /*
-                     * 4 = locale is unused here, but is required in the query in case deleteRow
-                     * is called below. See openQueryByLocaleRW for explanation.
-                     */
-                    Integer voteOverride = rs.getInt(5); // 5 override
-                    if (voteOverride == 0 && rs.wasNull()) { // if override was a null..
-                        voteOverride = null;
-                    }
-                    Timestamp last_mod = rs.getTimestamp(6); // last mod
-                    VoteType voteType = VoteType.fromId(rs.getInt(7)); // vote_type
-                    User theSubmitter = sm.reg.getInfo(submitter);
-                    if (theSubmitter == null) {
-                        SurveyLog.warnOnce(logger, "Ignoring votes for deleted user #" + submitter);
-                    }
-                    if (!UserRegistry.countUserVoteForLocale(
-                            theSubmitter, locale)) { // check user permission to submit
-                        continue;
-                    }
-                    if (!isValidSurveyToolVote(
-                            theSubmitter, xpath)) { // Make sure it is a visible path
-                        SurveyLog.warnOnce(logger, "Ignoring invalid vote for path " + xpath);
-                        continue;
-                    }
-                    try {
-                        if (voteType == null || voteType == VoteType.NONE) {
-                            logger.warning(
-                                    "loadVoteValues got vote type "
-                                            + voteType
-                                            + "; changed to UNKNOWN");
-                            voteType = VoteType.UNKNOWN;
-                        }
-                        internalSetVoteForValue(
-                                theSubmitter, xpath, value, voteOverride, last_mod, voteType);
-                        n++;
-                    } catch (BallotBox.InvalidXPathException e) {
-                        logger.severe(
-                                "InvalidXPathException: Deleting vote for "
-                                        + theSubmitter
-                                        + ":"
-                                        + locale
-                                        + ":"
-                                        + xpath);
-                        rs.deleteRow();
-                        del++;
-                    }
-                }
-                if (del > 0) {
-                    logger.warning("Summary: delete of " + del + " invalid votes from " + locale);
-                }
-                DBUtils.close(rs, ps);
-                ps = openPermVoteQuery(conn);
-                ps.setString(1, locale.getBaseName());
-                rs = ps.executeQuery();
-                while (rs.next()) {
-                    int xp = rs.getInt(1);
-                    String xpath = sm.xpt.getById(xp);
-                    String value = DBUtils.getStringUTF8(rs, 2);
-                    Timestamp last_mod = rs.getTimestamp(3);
+            final List<LoadedVote> invalid = new ArrayList<>();
+            for (final LoadedVote vote : votes) {
+                final String xpath = sm.xpt.getById(vote.xpath);
+                if (vote.locked) {
                     try {
                         internalSetVoteForValue(
                                 sm.reg.getInfo(UserRegistry.ADMIN_ID),
                                 xpath,
-                                value,
+                                vote.value,
                                 VoteResolver.Level.LOCKING_VOTES,
-                                last_mod,
+                                vote.lastMod,
                                 VoteType.DIRECT);
                         n++;
                     } catch (BallotBox.InvalidXPathException e) {
@@ -542,14 +407,53 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
                                         + ":"
                                         + xpath);
                     }
+                    continue;
                 }
-            } catch (SQLException e) {
-                SurveyLog.logException(logger, e, "In setValueFromResolver");
-                SurveyMain.busted("Could not read locale " + locale, e);
-                throw new InternalError(
-                        "Could not load locale " + locale + " : " + DBUtils.unchainSqlException(e));
-            } finally {
-                DBUtils.close(rs, ps, conn);
+                User theSubmitter = sm.reg.getInfo(vote.submitter);
+                if (theSubmitter == null) {
+                    SurveyLog.warnOnce(
+                            logger, "Ignoring votes for deleted user #" + vote.submitter);
+                }
+                if (!UserRegistry.countUserVoteForLocale(
+                        theSubmitter, locale)) { // check user permission to submit
+                    continue;
+                }
+                if (!isValidSurveyToolVote(theSubmitter, xpath)) { // Make sure it is a visible path
+                    SurveyLog.warnOnce(logger, "Ignoring invalid vote for path " + xpath);
+                    continue;
+                }
+                VoteType voteType = vote.voteType;
+                try {
+                    if (voteType == null || voteType == VoteType.NONE) {
+                        logger.warning(
+                                "loadVoteValues got vote type "
+                                        + voteType
+                                        + "; changed to UNKNOWN");
+                        voteType = VoteType.UNKNOWN;
+                    }
+                    internalSetVoteForValue(
+                            theSubmitter,
+                            xpath,
+                            vote.value,
+                            vote.voteOverride,
+                            vote.lastMod,
+                            voteType);
+                    n++;
+                } catch (BallotBox.InvalidXPathException e) {
+                    logger.severe(
+                            "InvalidXPathException: Deleting vote for "
+                                    + theSubmitter
+                                    + ":"
+                                    + locale
+                                    + ":"
+                                    + xpath);
+                    invalid.add(vote);
+                }
+            }
+            if (!invalid.isEmpty()) {
+                deleteVotes(locale, invalid);
+                logger.warning(
+                        "Summary: delete of " + invalid.size() + " invalid votes from " + locale);
             }
             SurveyLog.debug(et + " - read " + n + " items  (" + xpathToData.size() + " xpaths.)");
 
@@ -639,15 +543,14 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
             r.setBaileyValue(baseFile.getBaileyValue(path, null, null));
 
             // add each vote
-            if (perXPathData != null && !perXPathData.isEmpty()) {
-                for (Entry<User, PerLocaleData.PerXPathData.PerUserData> e :
-                        perXPathData.getVotes()) {
-                    final int userId = e.getKey().id;
-                    final PerLocaleData.PerXPathData.PerUserData v = e.getValue();
-                    if (v.getVoteType() == VoteType.VOTE_FOR_MISSING) {
-                        r.addVoteForMissing(userId, v.getOverride(), v.getWhen());
+            if (perXPathData != null) {
+                final PackedVotes v = perXPathData.getVotes();
+                for (int i = 0; i < v.size(); i++) {
+                    final int userId = v.getUserId(i);
+                    if (v.getVoteType(i) == VoteType.VOTE_FOR_MISSING) {
+                        r.addVoteForMissing(userId, v.getOverride(i), v.getWhen(i));
                     } else {
-                        r.add(v.getValue(), userId, v.getOverride(), v.getWhen());
+                        r.add(v.getValue(i), userId, v.getOverride(i), v.getWhen(i));
                     }
                 }
             }
@@ -702,13 +605,12 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
                     ts.addAll(other);
                 }
                 // add the actual votes
-                if (!xpd.isEmpty()) {
-                    for (Entry<User, PerXPathData.PerUserData> ud : xpd.getVotes()) {
-                        if (ud.getValue().voteType == VoteType.VOTE_FOR_MISSING) {
-                            ts.add(VoteResolver.VOTE_FOR_MISSING);
-                        } else {
-                            ts.add(ud.getValue().getValue());
-                        }
+                final PackedVotes v = xpd.getVotes();
+                for (int i = 0; i < v.size(); i++) {
+                    if (v.getVoteType(i) == VoteType.VOTE_FOR_MISSING) {
+                        ts.add(VoteResolver.VOTE_FOR_MISSING);
+                    } else {
+                        ts.add(v.getValue(i));
                     }
                 }
             }
@@ -870,22 +772,44 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
                 return;
             }
 
-            // small critical section for actual vote
+            // small critical sections for actual vote
+            final Date when = new Date();
+            final Long row = rowKey(user, xpathId);
+            final long seq;
+            final long ticket;
             synchronized (this) {
-                saveVoteToDb(user, distinguishingXpath, value, withVote, xpathId, voteType);
-
-                internalSetVoteForValue(
-                        user, distinguishingXpath, value, withVote, new Date(), voteType);
-
-                if (withVote != null && withVote == VoteResolver.Level.PERMANENT_VOTES) {
-                    doPermanentVote(distinguishingXpath, xpathId, value);
+                seq = saveVote(user, value, withVote, xpathId, voteType, when);
+                ticket = ++voteTicket;
+                votesBeingForced.put(row, ticket);
+            }
+            // on disk before it is applied, so that a vote that fails leaves nothing behind.
+            // Outside of the lock, so that the votes cast meanwhile share the force.
+            try {
+                forceVote(seq);
+            } catch (InternalError e) {
+                synchronized (this) {
+                    votesBeingForced.remove(row, ticket);
                 }
+                throw e;
+            }
+            synchronized (this) {
+                // if the same user voted again for the path meanwhile, only the later vote counts,
+                // whichever thread gets here first
+                if (votesBeingForced.remove(row, ticket)) {
+                    internalSetVoteForValue(
+                            user, distinguishingXpath, value, withVote, when, voteType);
+
+                    if (withVote != null && withVote == VoteResolver.Level.PERMANENT_VOTES) {
+                        flushVotes(); // PermanentVote counts the votes in the database
+                        doPermanentVote(distinguishingXpath, xpathId, value);
+                    }
 
-                dataBackedSource.setValueFromResolver(
-                        distinguishingXpath,
-                        null,
-                        VoteLoadingContext.SINGLE_VOTE,
-                        peekXpathData(distinguishingXpath));
+                    dataBackedSource.setValueFromResolver(
+                            distinguishingXpath,
+                            null,
+                            VoteLoadingContext.SINGLE_VOTE,
+                            peekXpathData(distinguishingXpath));
+                }
             }
 
             String newVal = dataBackedSource.getValueAtDPath(distinguishingXpath);
@@ -896,6 +820,9 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
                             && (!newVal.equals(oldVal) || !oldFullPath.equals(newFullPath)))) {
                 dataBackedSource.notifyListeners(distinguishingXpath);
             }
+            // even if the value is the same, the Dashboard notifications may not be
+            DashboardAggregates.getInstance().voteChanged(locale, distinguishingXpath);
+            ValueChangeBroadcaster.getInstance().voteChanged(locale, distinguishingXpath);
         }
 
         /**
@@ -948,131 +875,77 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
         }
 
         /**
-         * Save the vote to the database
+         * Save the vote: append it to the vote journal, or, if there is none, write it to the
+         * database
          *
          * @param user
-         * @param distinguishingXpath
          * @param value
          * @param withVote
          * @param xpathId
+         * @param voteType
+         * @param when
+         * @return the seq to force the journal to before the vote is acknowledged, or 0 if the vote
+         *     is already in the database
          */
-        private void saveVoteToDb(
+        private long saveVote(
                 final User user,
-                final String distinguishingXpath,
                 final String value,
                 final Integer withVote,
                 final int xpathId,
-                VoteType voteType) {
-            boolean didClearFlag = false;
-            ElapsedTimer et =
-                    !SurveyLog.DEBUG
-                            ? null
-                            : new ElapsedTimer(
-                                    "{0} Recording PLD for "
-                                            + locale
-                                            + " "
-                                            + distinguishingXpath
-                                            + " : "
-                                            + user
-                                            + " voting for '"
-                                            + value);
-            Connection conn = null;
-            PreparedStatement saveOld = null; // save off old value
-            PreparedStatement ps = null;
-            final boolean wasFlagged = getFlag(locale, xpathId); // do this outside of the txn..
-            int submitter = user.id;
+                final VoteType voteType,
+                final Date when) {
+            discardPreloadedVotes(locale);
+            final List<VoteJournal.Entry> entries =
+                    Collections.singletonList(
+                            new VoteJournal.Entry(
+                                    locale.getBaseName(),
+                                    xpathId,
+                                    user.id,
+                                    value,
+                                    withVote,
+                                    voteType.id(),
+                                    when.getTime()));
+            final VoteJournal journal = getVoteJournal();
             try {
-                conn = DBUtils.getInstance().getDBConnection();
-
-                String add0 = "", add1 = "", add2 = "";
-
-                // #1 - save the "VOTE_VALUE_ALT"  ( possible proposal) value.
-                if (DBUtils.db_Mysql) {
-                    add0 = "IGNORE";
-                } else {
-                    throw new RuntimeException("Unexpected db type, expected " + DBUtils.db_Mysql);
+                if (journal != null) {
+                    return journal.append(entries.get(0));
                 }
-                String sql =
-                        "insert "
-                                + add0
-                                + " into "
-                                + DBUtils.Table.VOTE_VALUE_ALT
-                                + " "
-                                + add1
-                                + " select "
-                                + DBUtils.Table.VOTE_VALUE
-                                + ".locale,"
-                                + DBUtils.Table.VOTE_VALUE
-                                + ".xpath,"
-                                + DBUtils.Table.VOTE_VALUE
-                                + ".value "
-                                + " from "
-                                + DBUtils.Table.VOTE_VALUE
-                                + " where locale=? and xpath=? and submitter=? and value is not null "
-                                + add2;
-                saveOld =
-                        DBUtils.prepareStatementWithArgs(
-                                conn, sql, locale.getBaseName(), xpathId, user.id);
-                saveOld.executeUpdate();
-
-                // #2 - save the actual vote.
-                ps =
-                        DBUtils.prepareForwardReadOnly(
-                                conn,
-                                "INSERT INTO "
-                                        + DBUtils.Table.VOTE_VALUE
-                                        + " (locale,xpath,submitter,value,last_mod,"
-                                        + VOTE_OVERRIDE
-                                        + ","
-                                        + VOTE_TYPE
-                                        + ") values (?,?,?,?,CURRENT_TIMESTAMP,?,?) "
-                                        + "ON DUPLICATE KEY UPDATE locale=?,xpath=?,submitter=?,value=?,last_mod=CURRENT_TIMESTAMP,"
-                                        + VOTE_OVERRIDE
-                                        + "=?,"
-                                        + VOTE_TYPE
-                                        + "=?");
-                int colNum = 1;
-                for (int repeat = 1; repeat <= 2; repeat++) {
-                    ps.setString(colNum++, locale.getBaseName());
-                    ps.setInt(colNum++, xpathId);
-                    ps.setInt(colNum++, submitter);
-                    DBUtils.setStringUTF8(ps, colNum++, value);
-                    DBUtils.setInteger(ps, colNum++, withVote);
-                    DBUtils.setInteger(ps, colNum++, voteType.id());
-                }
-                ps.executeUpdate();
-
-                if (wasFlagged && UserRegistry.userIsTCOrStronger(user)) {
-                    clearFlag(conn, locale, xpathId);
-                    didClearFlag = true;
-                }
-                conn.commit();
-            } catch (SQLException e) {
-                SurveyLog.logException(logger, e, "Exception in saveVoteToDb");
+                voteWriter.write(entries);
+            } catch (IOException | SQLException e) {
+                SurveyLog.logException(logger, e, "Exception in saveVote");
                 SurveyMain.busted("Could not vote for value in locale " + locale, e);
                 throw new InternalError(
-                        "Could not load locale " + locale + " : " + DBUtils.unchainSqlException(e));
-            } finally {
-                DBUtils.close(saveOld, ps, conn);
+                        "Could not vote for value in locale "
+                                + locale
+                                + " : "
+                                + (e instanceof SQLException
+                                        ? DBUtils.unchainSqlException((SQLException) e)
+                                        : e.toString()));
             }
-            SurveyLog.debug(et);
+            voteWriter.written(entries);
+            return 0;
+        }
 
-            // Voting can trigger adding a forum post (agree/decline) and/or closing a forum thread.
-            // AUTO_IMPORT and MANUAL_IMPORT votes are excluded; DIRECT and BULK_UPLOAD are not
-            // excluded.
-            if (sm.fora != null
-                    && (voteType != VoteType.AUTO_IMPORT && voteType != VoteType.MANUAL_IMPORT)) {
-                final boolean clearFlag = didClearFlag;
-                SurveyThreadManager.getExecutorService()
-                        .submit(
-                                () ->
-                                        sm.fora.doForumAfterVote(
-                                                locale,
-                                                user,
-                                                distinguishingXpath,
-                                                xpathId,
-                                                value,
-                                                clearFlag));
+        /** The key of a user's vote for a path, in votesBeingForced */
+        private Long rowKey(User user, int xpathId) {
+            return ((long) user.id << 32) | (xpathId & 0xFFFFFFFFL);
+        }
+
+        /**
+         * Make sure that the journaled vote is on disk. If it can't be, the journal drops it.
+         *
+         * @param seq from {@link #saveVote}
+         */
+        private void forceVote(long seq) {
+            if (seq == 0) {
+                return; // already in the database
+            }
+            try {
+                getVoteJournal().force(seq);
+            } catch (IOException e) {
+                SurveyLog.logException(logger, e, "Exception forcing vote journal");
+                SurveyMain.busted("Could not journal vote in locale " + locale, e);
+                throw new InternalError("Could not journal vote in locale " + locale, e);
             }
         }
 
@@ -1263,6 +1136,9 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
             }
         }
         sb.append(good + "/" + locales.size() + " locales. }");
+        if (resolutionCache != null) {
+            sb.append(resolutionCache);
+        }
         return sb.toString();
     }
 
@@ -1445,32 +1321,355 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
      * @throws SQLException
      *     <p>Called only by loadVoteValues.
      */
-    private PreparedStatement openQueryByLocaleRW(Connection conn) throws SQLException {
+    /** One vote to load into a PerLocaleData: a row of VOTE_VALUE, or of LOCKED_XPATHS */
+    static final class LoadedVote {
+        final int xpath;
+        final int submitter;
+        final String value;
+        final Integer voteOverride;
+        final Timestamp lastMod;
+        final VoteType voteType;
+
+        /** True for a row of LOCKED_XPATHS, voted by the admin at LOCKING_VOTES */
+        final boolean locked;
+
+        private LoadedVote(
+                int xpath,
+                int submitter,
+                String value,
+                Integer voteOverride,
+                Timestamp lastMod,
+                VoteType voteType,
+                boolean locked) {
+            this.xpath = xpath;
+            this.submitter = submitter;
+            this.value = value;
+            this.voteOverride = voteOverride;
+            this.lastMod = lastMod;
+            this.voteType = voteType;
+            this.locked = locked;
+        }
+
+        /** Read a row of {@link #VOTE_COLUMNS} */
+        static LoadedVote fromVoteRow(ResultSet rs) throws SQLException {
+            // 4 = locale
+            Integer voteOverride = rs.getInt(5);
+            if (voteOverride == 0 && rs.wasNull()) { // if override was a null..
+                voteOverride = null;
+            }
+            return new LoadedVote(
+                    rs.getInt(1),
+                    rs.getInt(2),
+                    DBUtils.getStringUTF8(rs, 3),
+                    voteOverride,
+                    rs.getTimestamp(6),
+                    VoteType.fromId(rs.getInt(7)),
+                    false);
+        }
+
+        /** Read a row of {@link #LOCKED_COLUMNS} */
+        static LoadedVote fromLockedRow(ResultSet rs) throws SQLException {
+            return new LoadedVote(
+                    rs.getInt(1),
+                    UserRegistry.ADMIN_ID,
+                    DBUtils.getStringUTF8(rs, 2),
+                    VoteResolver.Level.LOCKING_VOTES,
+                    rs.getTimestamp(3),
+                    VoteType.DIRECT,
+                    true);
+        }
+    }
+
+    private static final String VOTE_COLUMNS =
+            "xpath,submitter,value,locale," + VOTE_OVERRIDE + ",last_mod," + VOTE_TYPE;
+
+    private static final String LOCKED_COLUMNS = "xpath,value,last_mod,locale";
+
+    /**
+     * Votes read ahead of time by {@link #warmUp}, for the PerLocaleData about to be made. Each
+     * entry is removed when used, since the votes may change once the locale is loaded.
+     */
+    final Map<CLDRLocale, List<LoadedVote>> preloadedVotes = new ConcurrentHashMap<>();
+
+    /**
+     * The locales voted in since {@link #warmUp} started reading votes, whose votes read then are
+     * out of date; or null when not warming up. Guarded by preloadedVotes.
+     */
+    private Set<CLDRLocale> votedDuringWarmUp = null;
+
+    /** A vote is being cast in the locale: any votes read ahead of time are now out of date */
+    private void discardPreloadedVotes(CLDRLocale locale) {
+        synchronized (preloadedVotes) {
+            preloadedVotes.remove(locale);
+            if (votedDuringWarmUp != null) {
+                votedDuringWarmUp.add(locale);
+            }
+        }
+    }
+
+    /** Read the votes of one locale, the locked ones last */
+    List<LoadedVote> readVotes(CLDRLocale locale) {
         setupDB();
-        /*
-         * locale must be included in the SELECT list as well as the WHERE clause,
-         * to prevent SQL exception in the special case where deleteRow is called on
-         * the result set for votes for invalid (e.g., obsolete) paths. The query
-         * "must select all primary keys from that table".
-         */
-        return DBUtils.prepareForwardUpdateable(
-                conn,
-                "SELECT xpath,submitter,value,locale,"
-                        + VOTE_OVERRIDE
-                        + ",last_mod, "
-                        + VOTE_TYPE
-                        + " FROM "
-                        + DBUtils.Table.VOTE_VALUE
-                        + " WHERE locale = ?");
+        final List<LoadedVote> votes = new ArrayList<>();
+        Connection conn = null;
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+        try {
+            conn = DBUtils.getInstance().getAConnection();
+            ps =
+                    DBUtils.prepareStatementWithArgs(
+                            conn,
+                            "SELECT "
+                                    + VOTE_COLUMNS
+                                    + " FROM "
+                                    + DBUtils.Table.VOTE_VALUE
+                                    + " WHERE locale = ?",
+                            locale.getBaseName());
+            rs = ps.executeQuery();
+            while (rs.next()) {
+                votes.add(LoadedVote.fromVoteRow(rs));
+            }
+            DBUtils.close(rs, ps);
+            ps =
+                    DBUtils.prepareStatementWithArgs(
+                            conn,
+                            "SELECT "
+                                    + LOCKED_COLUMNS
+                                    + " FROM "
+                                    + DBUtils.Table.LOCKED_XPATHS
+                                    + " WHERE locale = ?",
+                            locale.getBaseName());
+            rs = ps.executeQuery();
+            while (rs.next()) {
+                votes.add(LoadedVote.fromLockedRow(rs));
+            }
+        } catch (SQLException e) {
+            SurveyLog.logException(logger, e, "In readVotes");
+            SurveyMain.busted("Could not read locale " + locale, e);
+            throw new InternalError(
+                    "Could not load locale " + locale + " : " + DBUtils.unchainSqlException(e));
+        } finally {
+            DBUtils.close(rs, ps, conn);
+        }
+        return votes;
     }
 
-    private PreparedStatement openPermVoteQuery(Connection conn) throws SQLException {
+    /**
+     * Read the votes of all locales, in one scan of each table
+     *
+     * @return the votes of each locale, the locked ones last
+     */
+    Map<CLDRLocale, List<LoadedVote>> readAllVotes() throws SQLException {
         setupDB();
-        return DBUtils.prepareForwardUpdateable(
-                conn,
-                "SELECT xpath,value,last_mod FROM "
-                        + DBUtils.Table.LOCKED_XPATHS
-                        + " WHERE locale = ?");
+        final Map<CLDRLocale, List<LoadedVote>> votes = new HashMap<>();
+        try (Connection conn = DBUtils.getInstance().getAConnection()) {
+            readAllVotes(
+                    conn,
+                    "SELECT "
+                            + VOTE_COLUMNS
+                            + " FROM "
+                            + DBUtils.Table.VOTE_VALUE
+                            + " ORDER BY locale",
+                    4,
+                    false,
+                    votes);
+            readAllVotes(
+                    conn,
+                    "SELECT "
+                            + LOCKED_COLUMNS
+                            + " FROM "
+                            + DBUtils.Table.LOCKED_XPATHS
+                            + " ORDER BY locale",
+                    4,
+                    true,
+                    votes);
+        }
+        return votes;
+    }
+
+    private static void readAllVotes(
+            Connection conn,
+            String sql,
+            int localeColumn,
+            boolean locked,
+            Map<CLDRLocale, List<LoadedVote>> votes)
+            throws SQLException {
+        try (PreparedStatement ps = DBUtils.prepareForwardReadOnly(conn, sql);
+                ResultSet rs = ps.executeQuery()) {
+            String lastLocale = null;
+            List<LoadedVote> list = null;
+            while (rs.next()) {
+                final String locale = rs.getString(localeColumn);
+                if (!locale.equals(lastLocale)) {
+                    // ordered by locale, so this is the only run of rows for it
+                    lastLocale = locale;
+                    list =
+                            votes.computeIfAbsent(
+                                    CLDRLocale.getInstance(locale), k -> new ArrayList<>());
+                }
+                list.add(locked ? LoadedVote.fromLockedRow(rs) : LoadedVote.fromVoteRow(rs));
+            }
+        }
+    }
+
+    /** Delete votes that can't be loaded, such as those for obsolete paths */
+    void deleteVotes(CLDRLocale locale, List<LoadedVote> votes) {
+        Connection conn = null;
+        PreparedStatement ps = null;
+        try {
+            conn = DBUtils.getInstance().getDBConnection();
+            ps =
+                    DBUtils.prepareForwardReadOnly(
+                            conn,
+                            "DELETE FROM "
+                                    + DBUtils.Table.VOTE_VALUE
+                                    + " WHERE locale=? AND xpath=? AND submitter=?");
+            for (final LoadedVote vote : votes) {
+                ps.setString(1, locale.getBaseName());
+                ps.setInt(2, vote.xpath);
+                ps.setInt(3, vote.submitter);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+            conn.commit();
+        } catch (SQLException e) {
+            SurveyLog.logException(logger, e, "Deleting invalid votes from " + locale);
+        } finally {
+            DBUtils.close(ps, conn);
+        }
+    }
+
+    /** Config: # of the locales with the most votes to load at startup, or 0 for none */
+    private final int CLDR_WARMUP_LOCALES =
+            CLDRConfig.getInstance().getProperty("CLDR_WARMUP_LOCALES", 0);
+
+    /** Config: # of threads loading locales at startup */
+    private final int CLDR_WARMUP_THREADS =
+            CLDRConfig.getInstance().getProperty("CLDR_WARMUP_THREADS", 4);
+
+    /**
+     * Load the locales with the most votes, so that the first users to open them don't wait.
+     *
+     * <p>The votes of all locales are read in one scan, and the locales are then loaded in
+     * parallel, one depth at a time so that each locale's parents are loaded before it. At most
+     * CLDR_WARMUP_LOCALES are loaded, and no more than half of CLDR_LOCALE_CACHE_MAX, to leave
+     * room in the cache for their parents and for other locales.
+     */
+    public void warmUp() {
+        final int count = Math.min(CLDR_WARMUP_LOCALES, CLDR_LOCALE_CACHE_MAX / 2);
+        if (count <= 0) {
+            return;
+        }
+        final ElapsedTimer et = new ElapsedTimer("Warm-up of " + count + " locales");
+        try (CLDRProgressTask progress = sm.openProgress("Loading busiest locales", count)) {
+            progress.update("Reading all votes");
+            startPreloading();
+            final AtomicInteger done = new AtomicInteger();
+            final ExecutorService pool =
+                    Executors.newFixedThreadPool(
+                            Math.max(1, CLDR_WARMUP_THREADS),
+                            SurveyThreadManager.getThreadFactory());
+            try {
+                final List<CLDRLocale> busiest = preloadVotes(readAllVotes(), count);
+                final Map<Integer, List<CLDRLocale>> byDepth =
+                        busiest.stream()
+                                .collect(
+                                        Collectors.groupingBy(
+                                                STFactory::getDepth,
+                                                TreeMap::new,
+                                                Collectors.toList()));
+                for (final List<CLDRLocale> wave : byDepth.values()) {
+                    final List<Future<?>> futures = new ArrayList<>();
+                    for (final CLDRLocale locale : wave) {
+                        futures.add(
+                                pool.submit(
+                                        () -> {
+                                            get(locale);
+                                            synchronized (progress) {
+                                                progress.update(
+                                                        done.incrementAndGet(),
+                                                        locale.toString());
+                                            }
+                                        }));
+                    }
+                    for (int i = 0; i < futures.size(); i++) {
+                        try {
+                            futures.get(i).get();
+                        } catch (ExecutionException e) {
+                            SurveyLog.logException(
+                                    logger, e.getCause(), "Warm-up of " + wave.get(i));
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                SurveyLog.logException(logger, e, "Reading votes for warm-up");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                pool.shutdownNow();
+                stopPreloading();
+            }
+            logger.info(et + " - loaded " + done.get() + " locales");
+        }
+    }
+
+    /**
+     * Start noting the locales voted in, before reading votes for {@link #preloadVotes}. Must be
+     * followed by {@link #stopPreloading}.
+     */
+    void startPreloading() {
+        synchronized (preloadedVotes) {
+            votedDuringWarmUp = new HashSet<>();
+        }
+        flushVotes();
+    }
+
+    /**
+     * Keep the votes of the busiest locales, for them to be loaded with. Locales voted in since
+     * {@link #startPreloading}, or already loaded, are left out.
+     *
+     * @param votes the votes of all locales, from {@link #readAllVotes}
+     * @param count the number of locales to keep
+     * @return the busiest locales, including any left out
+     */
+    List<CLDRLocale> preloadVotes(Map<CLDRLocale, List<LoadedVote>> votes, int count) {
+        final Set<CLDRLocale> available = getAvailableCLDRLocales();
+        final List<CLDRLocale> busiest =
+                votes.keySet().stream()
+                        .filter(l -> available.contains(l) && !isReadOnlyLocale(l))
+                        .sorted(
+                                Comparator.comparingInt((CLDRLocale l) -> votes.get(l).size())
+                                        .reversed())
+                        .limit(count)
+                        .collect(Collectors.toList());
+        synchronized (preloadedVotes) {
+            for (final CLDRLocale locale : busiest) {
+                // a locale already loaded may be evicted and loaded again meanwhile, and
+                // must then read the votes cast since
+                if (locales.getIfPresent(locale) == null
+                        && !votedDuringWarmUp.contains(locale)) {
+                    preloadedVotes.put(locale, votes.get(locale));
+                }
+            }
+        }
+        return busiest;
+    }
+
+    /** Drop any votes not used, which would go stale, and stop noting the locales voted in */
+    void stopPreloading() {
+        synchronized (preloadedVotes) {
+            preloadedVotes.clear();
+            votedDuringWarmUp = null;
+        }
+    }
+
+    /** The number of parents of the locale */
+    private static int getDepth(CLDRLocale locale) {
+        int depth = 0;
+        for (CLDRLocale parent = locale.getParent(); parent != null; parent = parent.getParent()) {
+            depth++;
+        }
+        return depth;
     }
 
     public synchronized void setupDB() {
@@ -1808,12 +2007,235 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
     /** In memory cache. */
     private Set<Pair<CLDRLocale, Integer>> flagList = null;
 
+    /** Config: journal votes, and write them to the database in the background */
+    private final boolean CLDR_VOTE_JOURNAL =
+            CLDRConfig.getInstance().getProperty("CLDR_VOTE_JOURNAL", true);
+
+    /** Config: max # of journaled votes to write to the database at once */
+    private final int CLDR_VOTE_JOURNAL_BATCH =
+            CLDRConfig.getInstance().getProperty("CLDR_VOTE_JOURNAL_BATCH", 500);
+
+    /** Config: # of milliseconds between writes of journaled votes to the database */
+    private final int CLDR_VOTE_JOURNAL_MILLIS =
+            CLDRConfig.getInstance().getProperty("CLDR_VOTE_JOURNAL_MILLIS", 1000);
+
+    /**
+     * Config: max # of vote resolution outcomes to remember, or 0 to resolve every time. See
+     * TestPerf.TestVoteResolutionPerf for the time it saves on a vote table dump.
+     */
+    private static final int CLDR_VOTE_RESOLUTION_CACHE_SIZE =
+            CLDRConfig.getInstance().getProperty("CLDR_VOTE_RESOLUTION_CACHE_SIZE", 10_000);
+
+    /**
+     * Outcomes of vote resolution, or null. Shared by all locales and factories, since an outcome
+     * depends only on the shape of the ballot.
+     */
+    private static final VoteResolutionCache<String> resolutionCache =
+            CLDR_VOTE_RESOLUTION_CACHE_SIZE > 0
+                    ? new VoteResolutionCache<>(CLDR_VOTE_RESOLUTION_CACHE_SIZE)
+                    : null;
+
+    /** The outcomes of vote resolution, for the metrics, or null if they are not cached */
+    static VoteResolutionCache<String> getResolutionCache() {
+        return resolutionCache;
+    }
+
+    private final VoteWriter voteWriter = new VoteWriter();
+
+    /**
+     * The vote journal, or null if votes are written straight to the database. Opening it writes
+     * any votes left in it from before a restart, before any locale loads its votes.
+     */
+    private final Supplier<VoteJournal> voteJournal =
+            Suppliers.memoize(
+                    () -> {
+                        if (!CLDR_VOTE_JOURNAL) {
+                            return null;
+                        }
+                        setupDB();
+                        final File file =
+                                new File(SurveyMain.getSurveyHome(), "vote-journal.jsonl");
+                        final VoteJournal journal;
+                        try {
+                            journal = new VoteJournal(file, voteWriter, CLDR_VOTE_JOURNAL_BATCH);
+                        } catch (IOException e) {
+                            SurveyMain.busted("Could not open vote journal " + file, e);
+                            throw new InternalError("Could not open vote journal " + file, e);
+                        }
+                        logger.info("Opened " + journal);
+                        journal.flushQuietly();
+                        journal.startWriter(CLDR_VOTE_JOURNAL_MILLIS);
+                        return journal;
+                    });
+
+    private VoteJournal getVoteJournal() {
+        return voteJournal.get();
+    }
+
+    /**
+     * Write any journaled votes to the database now, for code that reads the votes from there.
+     * Otherwise, they are written within CLDR_VOTE_JOURNAL_MILLIS.
+     */
+    public void flushVotes() {
+        final VoteJournal journal = getVoteJournal();
+        if (journal != null) {
+            try {
+                journal.flush();
+            } catch (Exception e) {
+                SurveyLog.logException(logger, e, "Exception writing journaled votes");
+                SurveyMain.busted("Could not write journaled votes", e);
+                throw new InternalError("Could not write journaled votes: " + e);
+            }
+        }
+    }
+
+    /**
+     * Writes votes to the database, first saving any value each one replaces to VOTE_VALUE_ALT as a
+     * possible proposal. Used for the vote journal, or directly if there is none.
+     */
+    private class VoteWriter implements VoteJournal.Sink {
+        /** The votes written that cleared a flag, until {@link #written} */
+        private final Set<VoteJournal.Entry> clearedFlags = ConcurrentHashMap.newKeySet();
+
+        @Override
+        public void write(List<VoteJournal.Entry> entries) throws SQLException {
+            if (!DBUtils.db_Mysql) {
+                throw new RuntimeException("Unexpected db type, expected " + DBUtils.db_Mysql);
+            }
+            ElapsedTimer et =
+                    !SurveyLog.DEBUG
+                            ? null
+                            : new ElapsedTimer("{0} Recording " + entries.size() + " vote(s)");
+            Connection conn = null;
+            PreparedStatement saveOld = null; // save off old value
+            PreparedStatement ps = null;
+            try {
+                conn = DBUtils.getInstance().getDBConnection();
+                // #1 - save the "VOTE_VALUE_ALT"  ( possible proposal) value.
+                saveOld =
+                        DBUtils.prepareForwardReadOnly(
+                                conn,
+                                "insert IGNORE into "
+                                        + DBUtils.Table.VOTE_VALUE_ALT
+                                        + " select "
+                                        + DBUtils.Table.VOTE_VALUE
+                                        + ".locale,"
+                                        + DBUtils.Table.VOTE_VALUE
+                                        + ".xpath,"
+                                        + DBUtils.Table.VOTE_VALUE
+                                        + ".value "
+                                        + " from "
+                                        + DBUtils.Table.VOTE_VALUE
+                                        + " where locale=? and xpath=? and submitter=? and value is not null ");
+                // #2 - save the actual vote, with the time it was cast, in case it is written again
+                ps =
+                        DBUtils.prepareForwardReadOnly(
+                                conn,
+                                "INSERT INTO "
+                                        + DBUtils.Table.VOTE_VALUE
+                                        + " (locale,xpath,submitter,value,last_mod,"
+                                        + VOTE_OVERRIDE
+                                        + ","
+                                        + VOTE_TYPE
+                                        + ") values (?,?,?,?,?,?,?) "
+                                        + "ON DUPLICATE KEY UPDATE locale=?,xpath=?,submitter=?,value=?,last_mod=?,"
+                                        + VOTE_OVERRIDE
+                                        + "=?,"
+                                        + VOTE_TYPE
+                                        + "=?");
+                for (final VoteJournal.Entry e : entries) {
+                    saveOld.setString(1, e.locale);
+                    saveOld.setInt(2, e.xpath);
+                    saveOld.setInt(3, e.submitter);
+                    saveOld.addBatch();
+
+                    int colNum = 1;
+                    for (int repeat = 1; repeat <= 2; repeat++) {
+                        ps.setString(colNum++, e.locale);
+                        ps.setInt(colNum++, e.xpath);
+                        ps.setInt(colNum++, e.submitter);
+                        DBUtils.setStringUTF8(ps, colNum++, e.value);
+                        ps.setTimestamp(colNum++, new Timestamp(e.when));
+                        DBUtils.setInteger(ps, colNum++, e.withVote);
+                        ps.setInt(colNum++, e.voteType);
+                    }
+                    ps.addBatch();
+                }
+                // no two entries are for the same row, so all the old values can be saved first
+                saveOld.executeBatch();
+                ps.executeBatch();
+
+                for (final VoteJournal.Entry e : entries) {
+                    final CLDRLocale locale = CLDRLocale.getInstance(e.locale);
+                    if (getFlag(locale, e.xpath)
+                            && UserRegistry.userIsTCOrStronger(sm.reg.getInfo(e.submitter))) {
+                        clearFlag(conn, locale, e.xpath);
+                        clearedFlags.add(e);
+                    }
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                clearedFlags.removeAll(entries);
+                if (conn != null) {
+                    conn.rollback();
+                }
+                throw e;
+            } finally {
+                DBUtils.close(saveOld, ps, conn);
+            }
+            SurveyLog.debug(et);
+        }
+
+        @Override
+        public void written(List<VoteJournal.Entry> entries) {
+            for (final VoteJournal.Entry e : entries) {
+                final boolean clearFlag = clearedFlags.remove(e);
+                if (sm.fora == null) {
+                    continue;
+                }
+                // Voting can trigger adding a forum post (agree/decline) and/or closing a forum
+                // thread. AUTO_IMPORT and MANUAL_IMPORT votes are excluded; DIRECT and BULK_UPLOAD
+                // are not excluded.
+                final VoteType voteType = VoteType.fromId(e.voteType);
+                if (voteType == VoteType.AUTO_IMPORT || voteType == VoteType.MANUAL_IMPORT) {
+                    continue;
+                }
+                final CLDRLocale locale = CLDRLocale.getInstance(e.locale);
+                final User user = sm.reg.getInfo(e.submitter);
+                final String xpath = sm.xpt.getById(e.xpath);
+                SurveyThreadManager.getExecutorService()
+                        .submit(
+                                () ->
+                                        sm.fora.doForumAfterVote(
+                                                locale, user, xpath, e.xpath, e.value, clearFlag));
+            }
+        }
+    }
+
+    /**
+     * Drop a locale from the cache, as if it had expired. For testing only!
+     *
+     * @param locale
+     */
+    void TESTING_evict(CLDRLocale locale) {
+        locales.invalidate(locale);
+    }
+
     /**
      * Close and re-open the factory. For testing only!
      *
      * @return
      */
     public STFactory TESTING_shutdownAndRestart() {
+        flushVotes();
+        final VoteJournal journal = getVoteJournal();
+        if (journal != null) {
+            try {
+                journal.close();
+            } catch (IOException e) {
+                SurveyLog.logException(logger, e, "Closing vote journal");
+            }
+        }
         sm.TESTING_removeSTFactory();
         return sm.getSTFactory();
     }
@@ -0,0 +1,407 @@
+package org.unicode.cldr.web;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.logging.Logger;
+import org.unicode.cldr.util.CLDRFile;
+import org.unicode.cldr.util.PathHeader;
+import org.unicode.cldr.util.XMLSource;
+
+/**
+ * An index of one locale for {@link SearchManager}, so that a search doesn't have to go through
+ * every path. It covers the locale's own values, the PathHeader codes, and the xpaths of the paths
+ * shown in the Survey Tool.
+ *
+ * <p>Values and codes are found through the trigrams (three-character substrings) of their lower
+ * case forms: the paths having all the trigrams of the query are the candidates, and each candidate
+ * is then checked for the whole query. Queries shorter than a trigram only match whole values and
+ * codes. Xpaths are kept sorted, and match exactly or by prefix.
+ *
+ * <p>The index listens to the locale's XMLSource, and updates the value of a path when it changes.
+ * If the locale is loaded again, as when STFactory drops it from its cache, the index no longer
+ * hears of changes: see {@link #isCurrent}.
+ */
+class SearchIndex implements XMLSource.Listener {
+    static final Logger logger = SurveyLog.forClass(SearchIndex.class);
+
+    private static final String ANNOTATION_PREFIX = "//ldml/annotations/annotation";
+
+    /** The kinds of match, best first */
+    enum Kind {
+        EXACT_VALUE,
+        EXACT_CODE,
+        EXACT_XPATH,
+        PARTIAL_XPATH,
+        PARTIAL_VALUE,
+        PARTIAL_CODE;
+
+        boolean isValue() {
+            return this == EXACT_VALUE || this == PARTIAL_VALUE;
+        }
+    }
+
+    /** One path found by {@link #search} */
+    static final class Match {
+        final String xpath;
+        final Kind kind;
+
+        /** The value or code that matched, or the xpath */
+        final String text;
+
+        private final PathHeader pathHeader;
+
+        private Match(String xpath, Kind kind, String text, PathHeader pathHeader) {
+            this.xpath = xpath;
+            this.kind = kind;
+            this.text = text;
+            this.pathHeader = pathHeader;
+        }
+
+        /** The context of the match, as shown to the user */
+        String getContext() {
+            switch (kind) {
+                case EXACT_VALUE:
+                case PARTIAL_VALUE:
+                    return text;
+                case EXACT_CODE:
+                case PARTIAL_CODE:
+                    return "code: " + text;
+                case EXACT_XPATH:
+                    return "Exact XPath";
+                default:
+                    return "Partial XPath";
+            }
+        }
+
+        @Override
+        public String toString() {
+            return kind + ":" + xpath + "=" + text;
+        }
+    }
+
+    /** Better kinds first, then closer matches (shorter text), then Survey Tool order */
+    private static final Comparator<Match> RANKING =
+            Comparator.comparing((Match m) -> m.kind)
+                    .thenComparingInt(m -> m.text.length())
+                    .thenComparing(m -> m.pathHeader);
+
+    /** A sorted set of path ids */
+    private static final class Postings {
+        private int[] ids = new int[2];
+        private int size;
+
+        void add(int id) {
+            if (size > 0 && ids[size - 1] < id) {
+                append(id); // usual case, while building
+                return;
+            }
+            int i = Arrays.binarySearch(ids, 0, size, id);
+            if (i >= 0) {
+                return;
+            }
+            i = -i - 1;
+            append(0);
+            System.arraycopy(ids, i, ids, i + 1, size - 1 - i);
+            ids[i] = id;
+        }
+
+        private void append(int id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+
+        void remove(int id) {
+            int i = Arrays.binarySearch(ids, 0, size, id);
+            if (i >= 0) {
+                System.arraycopy(ids, i + 1, ids, i, size - 1 - i);
+                --size;
+            }
+        }
+
+        boolean contains(int id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+    }
+
+    private static final int VALUE_FIELD = 0;
+    private static final int CODE_FIELD = 1;
+
+    private final String locale;
+
+    /** Each indexed path, by id */
+    private final List<String> paths = new ArrayList<>();
+
+    private final List<PathHeader> pathHeaders = new ArrayList<>();
+
+    /** The value of each path, or null; by id */
+    private final List<String> values = new ArrayList<>();
+
+    /** The ids of the paths shown in the Survey Tool, and of all annotations */
+    private final NavigableMap<String, Integer> idByPath = new TreeMap<>();
+
+    /** The ids of the annotations that aren't shown, and so can't be found by value */
+    private final BitSet hidden = new BitSet();
+
+    private final Map<String, Postings> byValue = new HashMap<>();
+    private final Map<String, Postings> byCode = new HashMap<>();
+    private final Map<Long, Postings> byTrigram = new HashMap<>();
+
+    /** The unresolved source listened to */
+    private final XMLSource source;
+
+    /** The paths that changed while the index was being built, or null once it is built */
+    private Set<String> changedWhileBuilding = new HashSet<>();
+
+    /**
+     * Index a locale, and listen for changes to its values.
+     *
+     * @param resolvedFile the resolved file, for all of the paths
+     * @param file the unresolved file, for the values
+     * @param phf for the PathHeaders of the paths
+     */
+    SearchIndex(CLDRFile resolvedFile, CLDRFile file, PathHeader.Factory phf) {
+        final long start = System.currentTimeMillis();
+        locale = file.getLocaleID();
+        // listen first, so that no change is missed; changes are only noted until this is done
+        source = resolvedFile.getResolvingDataSource().getUnresolving();
+        source.addListener(this);
+        // not holding the monitor, so that a vote meanwhile doesn't wait for the whole locale
+        for (final String xpath : resolvedFile.fullIterable()) {
+            addPath(xpath, phf);
+        }
+        for (final String xpath : file) {
+            final Integer id = idByPath.get(xpath);
+            if (id != null && file.isHere(xpath)) {
+                setValue(id, file.getStringValue(xpath));
+            }
+        }
+        synchronized (this) {
+            for (final String xpath : changedWhileBuilding) {
+                final Integer id = idByPath.get(xpath);
+                if (id != null) {
+                    setValue(id, source.getValueAtDPath(xpath));
+                }
+            }
+            changedWhileBuilding = null;
+        }
+        logger.fine(
+                () ->
+                        String.format(
+                                "Indexed %d paths of %s in %d ms",
+                                paths.size(), locale, System.currentTimeMillis() - start));
+    }
+
+    /**
+     * Is the index still listening to the locale's data? It is not if the locale was loaded again
+     * since the index was built.
+     *
+     * @param resolvedFile the current resolved file of the locale
+     */
+    boolean isCurrent(CLDRFile resolvedFile) {
+        return resolvedFile.getResolvingDataSource().getUnresolving() == source;
+    }
+
+    /** The number of paths in the index */
+    synchronized int size() {
+        return paths.size();
+    }
+
+    /** Is this path in the locale, and either shown or an annotation? */
+    synchronized boolean contains(String xpath) {
+        return idByPath.containsKey(xpath);
+    }
+
+    /**
+     * Find the paths matching a query.
+     *
+     * @param query the text to look for
+     * @param limit the most matches to return
+     * @return the matches, best first, with at most one match for each path
+     */
+    synchronized List<Match> search(String query, int limit) {
+        final Map<Integer, Match> best = new HashMap<>();
+        final String folded = fold(query);
+
+        addAll(best, byValue.get(query), Kind.EXACT_VALUE, query);
+        addAll(best, byCode.get(folded), Kind.EXACT_CODE, null);
+        final Integer xpathId = idByPath.get(query);
+        if (xpathId != null && !paths.get(xpathId).startsWith(ANNOTATION_PREFIX)) {
+            add(best, xpathId, Kind.EXACT_XPATH, query);
+        }
+        for (final Map.Entry<String, Integer> e :
+                idByPath.subMap(query, false, query + Character.MAX_VALUE, false).entrySet()) {
+            if (!e.getKey().startsWith(ANNOTATION_PREFIX)) {
+                add(best, e.getValue(), Kind.PARTIAL_XPATH, e.getKey());
+            }
+        }
+        if (folded.length() >= 3) {
+            for (final int id : candidates(VALUE_FIELD, folded)) {
+                final String value = values.get(id);
+                if (value != null && fold(value).contains(folded)) {
+                    add(best, id, Kind.PARTIAL_VALUE, value);
+                }
+            }
+            for (final int id : candidates(CODE_FIELD, folded)) {
+                final String code = pathHeaders.get(id).getCode();
+                if (fold(code).contains(folded)) {
+                    add(best, id, Kind.PARTIAL_CODE, code);
+                }
+            }
+        }
+        final List<Match> result = new ArrayList<>(best.values());
+        result.sort(RANKING);
+        return result.size() > limit ? result.subList(0, limit) : result;
+    }
+
+    /** Forget the old value of the path and index the new one */
+    @Override
+    public synchronized void valueChanged(String xpath, XMLSource nonResolvingSource) {
+        if (changedWhileBuilding != null) {
+            changedWhileBuilding.add(xpath);
+            return;
+        }
+        final Integer id = idByPath.get(xpath);
+        if (id == null) {
+            return; // not shown, or not a path in the locale when indexed
+        }
+        setValue(id, nonResolvingSource.getValueAtDPath(xpath));
+    }
+
+    private void addPath(String xpath, PathHeader.Factory phf) {
+        final boolean isAnnotation = xpath.startsWith(ANNOTATION_PREFIX);
+        final PathHeader ph = phf.fromPath(xpath);
+        final boolean visible = ph.getSurveyToolStatus().visible();
+        if (!isAnnotation && !visible) {
+            return;
+        }
+        final int id = paths.size();
+        paths.add(xpath);
+        pathHeaders.add(ph);
+        values.add(null);
+        idByPath.put(xpath, id);
+        hidden.set(id, !visible);
+        if (!isAnnotation) {
+            // codes of annotations aren't searched
+            final String code = fold(ph.getCode());
+            byCode.computeIfAbsent(code, k -> new Postings()).add(id);
+            forEachTrigram(CODE_FIELD, code, key -> addPosting(key, id));
+        }
+    }
+
+    private void setValue(int id, String value) {
+        final String old = values.get(id);
+        if (old != null) {
+            final Postings postings = byValue.get(old);
+            if (postings != null) {
+                postings.remove(id);
+            }
+            forEachTrigram(
+                    VALUE_FIELD,
+                    fold(old),
+                    key -> {
+                        final Postings p = byTrigram.get(key);
+                        if (p != null) {
+                            p.remove(id);
+                        }
+                    });
+        }
+        values.set(id, value);
+        if (value != null) {
+            byValue.computeIfAbsent(value, k -> new Postings()).add(id);
+            forEachTrigram(VALUE_FIELD, fold(value), key -> addPosting(key, id));
+        }
+    }
+
+    private void addPosting(long key, int id) {
+        byTrigram.computeIfAbsent(key, k -> new Postings()).add(id);
+    }
+
+    /** The ids of the paths whose field has every trigram of the (folded) query */
+    private int[] candidates(int field, String folded) {
+        final List<Postings> lists = new ArrayList<>();
+        final boolean[] missing = {false};
+        forEachTrigram(
+                field,
+                folded,
+                key -> {
+                    final Postings p = byTrigram.get(key);
+                    if (p == null || p.size == 0) {
+                        missing[0] = true;
+                    } else {
+                        lists.add(p);
+                    }
+                });
+        if (missing[0] || lists.isEmpty()) {
+            return new int[0];
+        }
+        lists.sort(Comparator.comparingInt(p -> p.size));
+        final Postings smallest = lists.get(0);
+        int[] result = new int[smallest.size];
+        int count = 0;
+        outer:
+        for (int i = 0; i < smallest.size; ++i) {
+            final int id = smallest.ids[i];
+            for (int j = 1; j < lists.size(); ++j) {
+                if (!lists.get(j).contains(id)) {
+                    continue outer;
+                }
+            }
+            result[count++] = id;
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    private interface TrigramConsumer {
+        void accept(long key);
+    }
+
+    private static void forEachTrigram(int field, String folded, TrigramConsumer consumer) {
+        for (int i = 0; i + 3 <= folded.length(); ++i) {
+            consumer.accept(
+                    ((long) field << 48)
+                            | ((long) folded.charAt(i) << 32)
+                            | ((long) folded.charAt(i + 1) << 16)
+                            | folded.charAt(i + 2));
+        }
+    }
+
+    private void addAll(Map<Integer, Match> best, Postings postings, Kind kind, String text) {
+        if (postings != null) {
+            for (int i = 0; i < postings.size; ++i) {
+                final int id = postings.ids[i];
+                add(best, id, kind, text != null ? text : pathHeaders.get(id).getCode());
+            }
+        }
+    }
+
+    private void add(Map<Integer, Match> best, int id, Kind kind, String text) {
+        if (kind.isValue() && hidden.get(id)) {
+            return;
+        }
+        best.merge(
+                id,
+                new Match(paths.get(id), kind, text, pathHeaders.get(id)),
+                (a, b) -> RANKING.compare(a, b) <= 0 ? a : b);
+    }
+
+    private static String fold(String s) {
+        return s.toLowerCase(Locale.ROOT);
+    }
+
+    @Override
+    public String toString() {
+        return "[SearchIndex " + locale + ", " + size() + " paths]";
+    }
+}
@@ -2,6 +2,8 @@ package org.unicode.cldr.web;
 
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
 import java.io.Closeable;
 import java.io.IOException;
 import java.util.ArrayList;
@@ -18,6 +20,7 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.eclipse.microprofile.openapi.annotations.media.Schema;
 import org.unicode.cldr.util.AnnotationUtil;
+import org.unicode.cldr.util.CLDRConfig;
 import org.unicode.cldr.util.CLDRFile;
 import org.unicode.cldr.util.CLDRLocale;
 import org.unicode.cldr.util.Factory;
@@ -180,22 +183,20 @@ public class SearchManager implements Closeable {
         @Override
         public Search call() throws Exception {
             logger.finest("begin call()");
-            // first, simple search of exact values
-            addExactMatches(locale);
+            // first, the values, codes, and xpaths in the locale itself
+            final boolean foundValue = addIndexMatches(locale);
             CLDRLocale cLoc = CLDRLocale.getInstance(locale);
             CLDRLocale parLoc = cLoc.getParent();
-            while (response.isEmpty() && parLoc != null) {
+            boolean foundParentValue = false;
+            while (!foundValue && !foundParentValue && parLoc != null) {
                 final String parLocName = parLoc.getBaseName();
                 logger.finest(() -> " trying " + parLocName);
-                addExactMatches(parLocName);
+                foundParentValue = addExactMatches(parLocName);
                 parLoc = parLoc.getParent();
             }
 
-            // add codes (in the locale)
-            addCodes(locale);
-
             // Add English (if we didn't already search it)
-            if (response.isEmpty() && !cLoc.childOf(EN)) {
+            if (!foundValue && !foundParentValue && !cLoc.childOf(EN)) {
                 addExactMatches(EN.getBaseName());
             }
 
@@ -206,53 +207,42 @@ public class SearchManager implements Closeable {
             return this;
         }
 
-        private void addCodes(final String locale) {
-            logger.finest(() -> "AddCodes " + locale);
-            final CLDRFile resolvedFile = factory.make(locale, true);
-            logger.finest(() -> "AddCodes made resolved " + locale);
-
-            for (final String x : resolvedFile.fullIterable()) {
-                if (x.startsWith("//ldml/annotations/annotation")) {
-                    final String cp = AnnotationUtil.removeEmojiVariationSelector(request.value);
-                    if (x.contains("[@cp=\"" + cp + "\"]") && x.contains("[@type=\"tts\"]")) {
-                        response.addResult(new SearchResult(x, "tts: " + cp, locale));
-                    }
-                    continue; // Do not try to match otherwise code for annotation
-                }
-
-                final PathHeader ph = phf.fromPath(x);
-                if (!ph.getSurveyToolStatus().visible()) continue; // skip invisible paths
-
-                // match exact xpath
-                if (x.equals(request.value)) {
-                    response.addResult(new SearchResult(x, "Exact XPath", locale));
-                    return;
-                }
-
-                // match partial xpath
-                if (x.startsWith(request.value)) {
-                    response.addResult(new SearchResult(x, "Partial XPath", locale));
-                    return;
-                }
-
-                if (ph.getCode().equalsIgnoreCase(request.value)) {
-                    response.addResult(new SearchResult(x, "code: " + ph.getCode(), locale));
-                    return;
-                }
+        /**
+         * Add the matches from the index of the locale
+         *
+         * @return true if any values matched exactly
+         */
+        private boolean addIndexMatches(final String locale) {
+            logger.finest(() -> "AIM " + locale);
+            final SearchIndex index = getIndex(locale);
+            logger.finest(() -> "AIM got " + index);
+
+            final String cp = AnnotationUtil.removeEmojiVariationSelector(request.value);
+            final String ttsPath =
+                    "//ldml/annotations/annotation[@cp=\"" + cp + "\"][@type=\"tts\"]";
+            if (index.contains(ttsPath)) {
+                response.addResult(new SearchResult(ttsPath, "tts: " + cp, locale));
+            }
 
-                // partial code
-                if (ph.getCode().contains(request.value)) {
-                    response.addResult(new SearchResult(x, "code: " + ph.getCode(), locale));
-                    return;
-                }
+            boolean foundValue = false;
+            for (final SearchIndex.Match m : index.search(request.value, MAX_RESULTS)) {
+                response.addResult(new SearchResult(m.xpath, m.getContext(), locale));
+                foundValue |= m.kind == SearchIndex.Kind.EXACT_VALUE;
             }
+            return foundValue;
         }
 
-        private CLDRFile addExactMatches(final String locale) {
+        /**
+         * Add the paths in the locale having exactly the value
+         *
+         * @return true if any were found
+         */
+        private boolean addExactMatches(final String locale) {
             logger.finest(() -> "AEM " + locale + " on " + factory);
             CLDRFile file = factory.make(locale, false);
             logger.finest(() -> "AEM called make on " + locale);
             Set<String> xresult = new TreeSet<>();
+            boolean found = false;
             file.getPathsWithValue(request.value, "", null, xresult);
             for (final String xpath : xresult) {
                 // Skip if this isn’t found "here"
@@ -269,8 +259,9 @@ public class SearchManager implements Closeable {
                 if (!v.equals(request.value)) continue; // TODO: CLDR-18700
 
                 response.addResult(new SearchResult(xpath, v, locale));
+                found = true;
             }
-            return file;
+            return found;
         }
 
         public void stop() {
@@ -286,11 +277,37 @@ public class SearchManager implements Closeable {
 
     private org.unicode.cldr.util.PathHeader.Factory phf;
 
+    /** The most results from one locale's index, for a search */
+    static final int MAX_RESULTS = 200;
+
+    /** Indexes of the locales searched recently, built on first use */
+    private final LoadingCache<String, SearchIndex> indexes =
+            CacheBuilder.newBuilder()
+                    .maximumSize(CLDRConfig.getInstance().getProperty("CLDR_SEARCH_INDEX_SIZE", 20))
+                    .build(
+                            CacheLoader.from(
+                                    locale ->
+                                            new SearchIndex(
+                                                    factory.make(locale, true),
+                                                    factory.make(locale, false),
+                                                    phf)));
+
     private SearchManager(Factory f) {
         this.factory = f;
         this.phf = PathHeader.getFactory(f.make("en", true));
     }
 
+    /** Get the index of a locale, building it if needed */
+    SearchIndex getIndex(String locale) {
+        final SearchIndex index = indexes.getUnchecked(locale);
+        if (index.isCurrent(factory.make(locale, true))) {
+            return index;
+        }
+        // the locale was loaded again, so the index no longer hears of its changes
+        indexes.asMap().remove(locale, index);
+        return indexes.getUnchecked(locale);
+    }
+
     /**
      * Factory for the SearchManager
      *
@@ -374,5 +391,6 @@ public class SearchManager implements Closeable {
             deleteSearch((String) k);
         }
         searches.invalidateAll();
+        indexes.invalidateAll();
     }
 }
@@ -280,7 +280,11 @@ public class SurveyAjax extends HttpServlet {
                     String xpath_path;
                     String xpstrid;
                     if (xpath.startsWith("/")) {
-                        xpid = sm.xpt.getByXpath(xpath);
+                        // only look up known paths, so that requests can't grow the path tables
+                        xpid = sm.xpt.peekByXpath(xpath);
+                        if (xpid == XPathTable.NO_XPATH) {
+                            throw new SurveyException(ErrorCode.E_BAD_XPATH, "Unknown XPath");
+                        }
                         xpath_path = xpath;
                         xpstrid = getStringIDString(xpath_path);
                     } else if (xpath.startsWith("#")) {
@@ -2730,7 +2734,9 @@ public class SurveyAjax extends HttpServlet {
                 XPathTable.xPathPartsToBase(xppMine);
                 xppMine.removeAttribute(-1, LDMLConstants.DRAFT);
                 String base = xppMine.toString();
-                int base_xpath_id = sm.xpt.getByXpath(base);
+                // only look up valid paths, so that an uploaded file can't grow the path tables
+                final boolean validPath = allValidPaths.contains(base);
+                int base_xpath_id = validPath ? sm.xpt.getByXpath(base) : XPathTable.NO_XPATH;
 
                 String valb = baseFile.getWinningValue(base);
 
@@ -2752,9 +2758,9 @@ public class SurveyAjax extends HttpServlet {
                 String resultStyle = "";
                 String resultIcon = "okay";
 
-                PathHeader ph = stf.getPathHeader(base);
+                PathHeader ph = validPath ? stf.getPathHeader(base) : null;
 
-                if (!allValidPaths.contains(base)) {
+                if (!validPath) {
                     result = "Item is not a valid XPath.";
                     resultIcon = "stop";
                 } else if (ph == null) {
@@ -2831,21 +2837,24 @@ public class SurveyAjax extends HttpServlet {
                                 + " #"
                                 + base_xpath_id
                                 + "'"
-                                + " style='text-align: left; font-size: smaller;'>"
-                                + "<a target='"
-                                + WebContext.TARGET_ZOOMED
-                                + "'"
-                                + "href='"
-                                + contextPath
-                                + "/survey?_="
-                                + loc
-                                + "&strid="
-                                + sm.xpt.getStringIDString(base_xpath_id)
-                                + ident
-                                + "'>"
-                                + ph.toString()
-                                + "</a>");
-                out.write("<br>");
+                                + " style='text-align: left; font-size: smaller;'>");
+                if (ph != null) {
+                    out.write(
+                            "<a target='"
+                                    + WebContext.TARGET_ZOOMED
+                                    + "'"
+                                    + "href='"
+                                    + contextPath
+                                    + "/survey?_="
+                                    + loc
+                                    + "&strid="
+                                    + sm.xpt.getStringIDString(base_xpath_id)
+                                    + ident
+                                    + "'>"
+                                    + ph.toString()
+                                    + "</a>");
+                    out.write("<br>");
+                }
                 out.write("<tt>" + base + "</tt></th>\n");
 
                 out.write("<td style='" + style + "'>" + val0 + "\n");
@@ -2961,6 +2961,11 @@ public class SurveyMain extends HttpServlet implements CLDRProgressIndicator, Ex
             isLocaleAliased(CLDRLocale.ROOT);
         }
 
+        if (!isBusted()) {
+            // load the busiest locales before users arrive, if so configured
+            getSTFactory().warmUp();
+        }
+
         {
             CLDRConfig cconfig = CLDRConfig.getInstance();
             logger.info(
@@ -34,12 +34,10 @@ public class SurveyMenus implements Iterable<SurveyMenus.Section> {
 
         CLDRFile b = stFactory.sm.getEnglishFile();
         phf = PathHeader.getFactory(b);
-        for (String xp : b) {
-            phf.fromPath(xp);
-        }
-        for (String xp : b.getExtraPaths()) {
-            phf.fromPath(xp);
-        }
+        List<String> paths = new ArrayList<>();
+        b.forEach(paths::add);
+        paths.addAll(b.getExtraPaths());
+        phf.prebuild(paths);
 
         Relation<SectionId, PageId> s2p = Factory.getSectionIdsToPageIds();
 
@@ -1,11 +1,21 @@
 package org.unicode.cldr.web;
 
+import java.util.function.LongSupplier;
+import javax.annotation.PostConstruct;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 import org.eclipse.microprofile.metrics.Counter;
+import org.eclipse.microprofile.metrics.Metadata;
+import org.eclipse.microprofile.metrics.MetricRegistry;
+import org.eclipse.microprofile.metrics.MetricType;
 import org.eclipse.microprofile.metrics.MetricUnits;
+import org.eclipse.microprofile.metrics.Tag;
 import org.eclipse.microprofile.metrics.annotation.Gauge;
 import org.eclipse.microprofile.metrics.annotation.Metric;
+import org.unicode.cldr.test.CheckStatistics;
+import org.unicode.cldr.util.VoteResolutionCache;
+import org.unicode.cldr.util.XMLNormalizingLoader;
+import org.unicode.cldr.util.XPathParts;
 
 /** Metrics availble from the /metrics endpoint */
 @ApplicationScoped
@@ -24,5 +34,166 @@ public class SurveyMetrics {
         return CookieSession.getUserCount();
     }
 
+    @Gauge(
+            name = "xpathparts_cache_size",
+            description = "Number of cached frozen XPathParts",
+            unit = MetricUnits.NONE)
+    public long getXPathPartsCacheSize() {
+        return XPathParts.getCacheSize();
+    }
+
+    @Gauge(
+            name = "xpathparts_cache_hits",
+            description = "XPathParts cache hits since startup",
+            unit = MetricUnits.NONE)
+    public long getXPathPartsCacheHits() {
+        return XPathParts.getCacheStats().hitCount();
+    }
+
+    @Gauge(
+            name = "xpathparts_cache_misses",
+            description = "XPathParts cache misses (paths parsed) since startup",
+            unit = MetricUnits.NONE)
+    public long getXPathPartsCacheMisses() {
+        return XPathParts.getCacheStats().missCount();
+    }
+
+    @Gauge(
+            name = "xpathparts_cache_evictions",
+            description = "XPathParts evicted from the cache since startup",
+            unit = MetricUnits.NONE)
+    public long getXPathPartsCacheEvictions() {
+        return XPathParts.getCacheStats().evictionCount();
+    }
+
+    @Gauge(
+            name = "xmlsource_cache_size",
+            description = "Number of cached XMLSources",
+            unit = MetricUnits.NONE)
+    public long getXMLSourceCacheSize() {
+        return XMLNormalizingLoader.getCacheSize();
+    }
+
+    @Gauge(
+            name = "xmlsource_cache_hits",
+            description = "XMLSource cache hits since startup",
+            unit = MetricUnits.NONE)
+    public long getXMLSourceCacheHits() {
+        return XMLNormalizingLoader.getCacheStats().hitCount();
+    }
+
+    @Gauge(
+            name = "xmlsource_cache_loads",
+            description = "XMLSources loaded since startup",
+            unit = MetricUnits.NONE)
+    public long getXMLSourceCacheLoads() {
+        return XMLNormalizingLoader.getCacheStats().loadCount();
+    }
+
+    @Gauge(
+            name = "xmlsource_cache_load_time",
+            description = "Total time spent loading XMLSources since startup",
+            unit = MetricUnits.NANOSECONDS)
+    public long getXMLSourceCacheLoadTime() {
+        return XMLNormalizingLoader.getCacheStats().totalLoadTime();
+    }
+
+    @Gauge(
+            name = "xmlsource_cache_evictions",
+            description = "XMLSources evicted from the cache since startup",
+            unit = MetricUnits.NONE)
+    public long getXMLSourceCacheEvictions() {
+        return XMLNormalizingLoader.getCacheStats().evictionCount();
+    }
+
+    @Gauge(
+            name = "vote_resolution_cache_hits",
+            description = "Vote resolutions answered from the cache since startup",
+            unit = MetricUnits.NONE)
+    public long getVoteResolutionCacheHits() {
+        final VoteResolutionCache<String> cache = STFactory.getResolutionCache();
+        return cache == null ? 0 : cache.getStats().hitCount();
+    }
+
+    @Gauge(
+            name = "vote_resolution_cache_misses",
+            description = "Vote resolutions done and then cached since startup",
+            unit = MetricUnits.NONE)
+    public long getVoteResolutionCacheMisses() {
+        final VoteResolutionCache<String> cache = STFactory.getResolutionCache();
+        return cache == null ? 0 : cache.getStats().missCount();
+    }
+
+    @Gauge(
+            name = "vote_resolution_uncacheable",
+            description = "Vote resolutions that could not be cached since startup",
+            unit = MetricUnits.NONE)
+    public long getVoteResolutionUncacheable() {
+        final VoteResolutionCache<String> cache = STFactory.getResolutionCache();
+        return cache == null ? 0 : cache.getUncacheableCount();
+    }
+
+    @Inject MetricRegistry registry;
+
+    private static Metadata checkMetadata(String name, String description, String unit) {
+        return Metadata.builder()
+                .withName(name)
+                .withDescription(description)
+                .withType(MetricType.GAUGE)
+                .withUnit(unit)
+                .build();
+    }
+
+    private static final Metadata CHECK_CALLS =
+            checkMetadata("check_calls", "Calls of each CheckCLDR check", MetricUnits.NONE);
+    private static final Metadata CHECK_TIME =
+            checkMetadata(
+                    "check_time",
+                    "Total CPU time spent in each CheckCLDR check",
+                    MetricUnits.NANOSECONDS);
+    private static final Metadata CHECK_TIME_P50 =
+            checkMetadata(
+                    "check_time_p50",
+                    "Median CPU time of a call of each CheckCLDR check",
+                    MetricUnits.NANOSECONDS);
+    private static final Metadata CHECK_TIME_P99 =
+            checkMetadata(
+                    "check_time_p99",
+                    "99th percentile CPU time of a call of each CheckCLDR check",
+                    MetricUnits.NANOSECONDS);
+    private static final Metadata CHECK_TIME_MAX =
+            checkMetadata(
+                    "check_time_max",
+                    "Longest CPU time of a call of each CheckCLDR check",
+                    MetricUnits.NANOSECONDS);
+    private static final Metadata CHECK_ALLOCATED =
+            checkMetadata(
+                    "check_allocated",
+                    "Bytes allocated by each CheckCLDR check, or -1 if not measured",
+                    MetricUnits.BYTES);
+
+    /** Publish the statistics of each check that the Survey Tool runs, tagged by check. */
+    @PostConstruct
+    void registerCheckStatistics() {
+        CheckStatistics.getGlobal()
+                .forEachTiming(
+                        (name, timing) -> {
+                            Tag tag = new Tag("check", name);
+                            registerCheckGauge(CHECK_CALLS, tag, timing::getCalls);
+                            registerCheckGauge(CHECK_TIME, tag, timing::getNanos);
+                            registerCheckGauge(
+                                    CHECK_TIME_P50, tag, () -> timing.getPercentileNanos(50));
+                            registerCheckGauge(
+                                    CHECK_TIME_P99, tag, () -> timing.getPercentileNanos(99));
+                            registerCheckGauge(CHECK_TIME_MAX, tag, timing::getMaxNanos);
+                            registerCheckGauge(CHECK_ALLOCATED, tag, timing::getAllocatedBytes);
+                        });
+    }
+
+    private void registerCheckGauge(Metadata metadata, Tag tag, LongSupplier value) {
+        org.eclipse.microprofile.metrics.Gauge<Long> gauge = value::getAsLong;
+        registry.register(metadata, gauge, tag);
+    }
+
     public SurveyMetrics() {}
 }
@@ -0,0 +1,331 @@
+package org.unicode.cldr.web;
+
+import com.google.gson.Gson;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import org.unicode.cldr.util.CLDRConfig;
+import org.unicode.cldr.util.CLDRLocale;
+import org.unicode.cldr.util.PathHeader;
+import org.unicode.cldr.util.PathHeader.PageId;
+
+/**
+ * Pushes the paths whose votes changed, with their new winning values, to the clients showing them,
+ * so that the clients can fetch just those rows again, rather than polling the locale's stamp and
+ * reloading the whole page whenever anybody votes.
+ *
+ * <p>Each client subscribes to a locale, and optionally a page. {@link STFactory} calls {@link
+ * #voteChanged} for every vote; changes are gathered for a short while and then sent together. Each
+ * message carries the stamp of the client's locale before and after, so that a client that missed a
+ * message can tell, and fall back to reloading the page.
+ */
+public class ValueChangeBroadcaster {
+    static final Logger logger = SurveyLog.forClass(ValueChangeBroadcaster.class);
+
+    private static final class ValueChangeBroadcasterHelper {
+        static final ValueChangeBroadcaster INSTANCE =
+                new ValueChangeBroadcaster(
+                        new FactoryValues(), SurveyThreadManager.getScheduledExecutorService());
+    }
+
+    public static ValueChangeBroadcaster getInstance() {
+        return ValueChangeBroadcasterHelper.INSTANCE;
+    }
+
+    /** Milliseconds to gather changes before sending them */
+    private static final int PUSH_MILLIS =
+            CLDRConfig.getInstance().getProperty("CLDR_VALUE_PUSH_MILLIS", 250);
+
+    /**
+     * Seconds between pings, which drop the clients that have gone away without a word, such as
+     * those whose connection was dropped without a send failing
+     */
+    private static final int PING_SECONDS =
+            CLDRConfig.getInstance().getProperty("CLDR_VALUE_PUSH_PING_SECONDS", 60);
+
+    /** The most clients to push to at once */
+    static final int MAX_CLIENTS =
+            CLDRConfig.getInstance().getProperty("CLDR_VALUE_PUSH_MAX_CLIENTS", 500);
+
+    /** The most clients to push to at once for one session, such as one for each browser tab */
+    static final int MAX_CLIENTS_PER_SESSION =
+            CLDRConfig.getInstance().getProperty("CLDR_VALUE_PUSH_MAX_CLIENTS_PER_SESSION", 4);
+
+    private static final Gson gson = new Gson();
+
+    /** Something to push changes to, such as an event stream */
+    public interface Client {
+        /**
+         * Send a message
+         *
+         * @param json the message
+         * @return false if the client has gone away, and should not be sent any more
+         */
+        boolean send(String json);
+
+        /**
+         * Send nothing much, to find out whether the client has gone away
+         *
+         * @return false if the client has gone away
+         */
+        boolean ping();
+
+        /** Tell the client that a newer subscription of its session replaced it, and close it */
+        void replaced();
+    }
+
+    /** Where the winning values and stamps come from */
+    interface Values {
+        String getWinningValue(CLDRLocale locale, String xpath);
+
+        long getStamp(CLDRLocale locale);
+
+        /** The page of the path, or null if it has none */
+        PageId getPageId(String xpath);
+    }
+
+    private static final class FactoryValues implements Values {
+        @Override
+        public String getWinningValue(CLDRLocale locale, String xpath) {
+            return CookieSession.sm.getSTFactory().make(locale, false).getStringValue(xpath);
+        }
+
+        @Override
+        public long getStamp(CLDRLocale locale) {
+            return CookieSession.sm.getSTFactory().mintLocaleStamp(locale).current();
+        }
+
+        @Override
+        public PageId getPageId(String xpath) {
+            final PathHeader ph = CookieSession.sm.getSTFactory().getPathHeader(xpath);
+            return ph == null ? null : ph.getPageId();
+        }
+    }
+
+    /** One client's interest in a locale, and optionally one page */
+    private static final class Subscription {
+        final CLDRLocale locale;
+        final PageId page;
+        final String session;
+        final Client client;
+
+        /** The stamp of the locale as of the last message sent; guarded by this */
+        long stamp;
+
+        Subscription(CLDRLocale locale, PageId page, String session, Client client, long stamp) {
+            this.locale = locale;
+            this.page = page;
+            this.session = session;
+            this.client = client;
+            this.stamp = stamp;
+        }
+    }
+
+    /** One changed path, as sent */
+    private static final class Change {
+        final String xpstrid;
+        final String locale;
+        final String value;
+        final transient CLDRLocale cldrLocale;
+        final transient PageId page;
+
+        Change(String xpstrid, CLDRLocale locale, String value, PageId page) {
+            this.xpstrid = xpstrid;
+            this.locale = locale.getBaseName();
+            this.value = value;
+            this.cldrLocale = locale;
+            this.page = page;
+        }
+    }
+
+    /** One message, as sent */
+    private static final class Message {
+        final long since;
+        final long stamp;
+        final List<Change> changes;
+
+        Message(long since, long stamp, List<Change> changes) {
+            this.since = since;
+            this.stamp = stamp;
+            this.changes = changes;
+        }
+    }
+
+    private final Values values;
+    private final ScheduledExecutorService executor;
+    /** In the order subscribed; additions are guarded by itself, so that the cap holds */
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+
+    /** The paths changed since the last flush, by locale; guarded by this */
+    private Map<CLDRLocale, Set<String>> pending = new HashMap<>();
+
+    private boolean pingScheduled = false;
+
+    ValueChangeBroadcaster(Values values, ScheduledExecutorService executor) {
+        this.values = values;
+        this.executor = executor;
+    }
+
+    /**
+     * Push the changes in a locale, and the locales it inherits from, to a client
+     *
+     * <p>The session's earlier subscription to the same locale and page, if any, is replaced, as
+     * is its oldest one if it has too many. Those are most likely for pages since left.
+     *
+     * @param locale the locale
+     * @param page the page, or null for all pages
+     * @param session the session of the client
+     * @param client the client, until it goes away, is unsubscribed or is replaced
+     * @return false if there are too many clients already
+     */
+    public boolean subscribe(CLDRLocale locale, PageId page, String session, Client client) {
+        final Subscription added =
+                new Subscription(locale, page, session, client, values.getStamp(locale));
+        final List<Subscription> replaced = new ArrayList<>();
+        synchronized (subscriptions) {
+            final List<Subscription> theirs = new ArrayList<>();
+            for (Subscription s : subscriptions) {
+                if (s.session.equals(session)) {
+                    if (s.locale.equals(locale) && s.page == page) {
+                        replaced.add(s);
+                    } else {
+                        theirs.add(s);
+                    }
+                }
+            }
+            // oldest first
+            for (int i = 0; i <= theirs.size() - MAX_CLIENTS_PER_SESSION; i++) {
+                replaced.add(theirs.get(i));
+            }
+            if (subscriptions.size() - replaced.size() >= MAX_CLIENTS) {
+                return false;
+            }
+            subscriptions.removeAll(replaced);
+            subscriptions.add(added);
+        }
+        for (Subscription s : replaced) {
+            try {
+                s.client.replaced();
+            } catch (RuntimeException e) {
+                // gone already
+            }
+        }
+        schedulePing();
+        return true;
+    }
+
+    private synchronized void schedulePing() {
+        if (!pingScheduled) {
+            pingScheduled = true;
+            executor.scheduleWithFixedDelay(
+                    this::ping, PING_SECONDS, PING_SECONDS, TimeUnit.SECONDS);
+        }
+    }
+
+    /** Drop the clients that have gone away */
+    void ping() {
+        for (Subscription s : subscriptions) {
+            boolean open;
+            try {
+                open = s.client.ping();
+            } catch (RuntimeException e) {
+                open = false;
+            }
+            if (!open) {
+                subscriptions.remove(s);
+            }
+        }
+    }
+
+    /** Stop pushing to the client, such as when it has gone away */
+    public void unsubscribe(Client client) {
+        subscriptions.removeIf(s -> s.client == client);
+    }
+
+    int getClientCount() {
+        return subscriptions.size();
+    }
+
+    /** Note a vote, which may have changed the winning value of the path in the locale */
+    void voteChanged(CLDRLocale locale, String xpath) {
+        if (subscriptions.isEmpty()) {
+            return;
+        }
+        synchronized (this) {
+            final boolean scheduled = !pending.isEmpty();
+            pending.computeIfAbsent(locale, k -> new LinkedHashSet<>()).add(xpath);
+            if (!scheduled) {
+                executor.schedule(this::flush, PUSH_MILLIS, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /** Send the pending changes to the clients subscribed to them */
+    void flush() {
+        final Map<CLDRLocale, Set<String>> changed;
+        synchronized (this) {
+            changed = pending;
+            pending = new HashMap<>();
+        }
+        if (changed.isEmpty()) {
+            return;
+        }
+        final List<Change> changes = new ArrayList<>();
+        for (Map.Entry<CLDRLocale, Set<String>> e : changed.entrySet()) {
+            final CLDRLocale locale = e.getKey();
+            for (String xpath : e.getValue()) {
+                try {
+                    changes.add(
+                            new Change(
+                                    XPathTable.getStringIDString(xpath),
+                                    locale,
+                                    values.getWinningValue(locale, xpath),
+                                    values.getPageId(xpath)));
+                } catch (RuntimeException ex) {
+                    SurveyLog.logException(logger, ex, "Getting the value of " + xpath);
+                }
+            }
+        }
+        for (Subscription s : subscriptions) {
+            if (!changed.keySet().stream().anyMatch(s.locale::childOf)) {
+                continue;
+            }
+            try {
+                send(s, changes);
+            } catch (RuntimeException ex) {
+                SurveyLog.logException(logger, ex, "Pushing changes in " + s.locale);
+                subscriptions.remove(s);
+            }
+        }
+    }
+
+    /** Flushes may overlap if one is slow, so each subscription sends one message at a time */
+    private void send(Subscription s, List<Change> changes) {
+        final List<Change> theirs = new ArrayList<>();
+        for (Change change : changes) {
+            if (s.locale.childOf(change.cldrLocale) && (s.page == null || s.page == change.page)) {
+                theirs.add(change);
+            }
+        }
+        synchronized (s) {
+            final long stamp = values.getStamp(s.locale);
+            if (theirs.isEmpty() && stamp == s.stamp) {
+                return;
+            }
+            // changes elsewhere in the locale are sent too, as an empty list, to keep the stamp
+            // current
+            if (s.client.send(gson.toJson(new Message(s.stamp, stamp, theirs)))) {
+                s.stamp = stamp;
+            } else {
+                subscriptions.remove(s);
+            }
+        }
+    }
+}
@@ -312,6 +312,7 @@ public class VettingViewerQueue {
                         "Starting generation of Priority Items Summary, " + taskDescription());
             }
             vv.setLocaleBaselineCount(new VVQueueLocaleBaselineCount());
+            vv.setSummaryCounts(DashboardAggregates.getInstance().getSummaryCounts());
             vv.generatePriorityItemsSummary(aBuffer, choiceSet, usersOrg);
             if (myThread.isAlive()) {
                 if (DEBUG) {
@@ -0,0 +1,425 @@
+package org.unicode.cldr.web;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * An append-only journal of votes, so that a vote can be acknowledged as soon as it is on disk,
+ * without waiting for the database.
+ *
+ * <p>Each vote is appended to the journal file as a line of JSON, and the file is forced to disk
+ * (once for all the votes appended meanwhile) before the vote is acknowledged. A background writer
+ * passes the forced votes, in order and in batches, to a {@link Sink} that writes them to the
+ * database, and appends a checkpoint line after each batch. Once all the votes have been written,
+ * the file is emptied.
+ *
+ * <p>On startup, the votes after the last checkpoint are read back, to be written again. The sink
+ * must therefore be able to write a vote more than once. A line cut short by a crash is dropped,
+ * since that vote was never acknowledged. So is a vote that could not be forced, which is followed
+ * by a line dropping it.
+ */
+public class VoteJournal implements AutoCloseable {
+    static final Logger logger = SurveyLog.forClass(VoteJournal.class);
+
+    /** One vote, as journaled */
+    public static final class Entry {
+        /** Sequence number, increasing through the life of the journal file */
+        long seq;
+
+        final String locale;
+        final int xpath;
+        final int submitter;
+
+        /** The value, or null for abstain */
+        final String value;
+
+        /** The vote override, or null */
+        final Integer withVote;
+
+        /** The {@link org.unicode.cldr.util.VoteType} id */
+        final int voteType;
+
+        /** When the vote was cast, in milliseconds */
+        final long when;
+
+        public Entry(
+                String locale,
+                int xpath,
+                int submitter,
+                String value,
+                Integer withVote,
+                int voteType,
+                long when) {
+            this.locale = locale;
+            this.xpath = xpath;
+            this.submitter = submitter;
+            this.value = value;
+            this.withVote = withVote;
+            this.voteType = voteType;
+            this.when = when;
+        }
+
+        /** Do the two entries replace the same row? */
+        boolean sameRow(Entry other) {
+            return xpath == other.xpath
+                    && submitter == other.submitter
+                    && locale.equals(other.locale);
+        }
+
+        @Override
+        public String toString() {
+            return "#" + seq + " " + locale + ":" + xpath + " by " + submitter + "=" + value;
+        }
+    }
+
+    /** A checkpoint line: the last seq written to the database */
+    private static final class Checkpoint {
+        final long flushed;
+
+        Checkpoint(long flushed) {
+            this.flushed = flushed;
+        }
+    }
+
+    /** A line dropping a vote that could not be forced to disk, so that it is not read back */
+    private static final class Dropped {
+        final long dropped;
+
+        Dropped(long dropped) {
+            this.dropped = dropped;
+        }
+    }
+
+    /** Writes votes to the database */
+    public interface Sink {
+        /**
+         * Write the votes, all or none. No two of the votes are for the same row.
+         *
+         * @param entries the votes, in order
+         * @throws Exception if nothing was written; the votes will be passed again later
+         */
+        void write(List<Entry> entries) throws Exception;
+
+        /**
+         * Called after the votes have been written and their checkpoint forced to disk, for
+         * anything that must wait for that. Since a vote is only written again after a crash if
+         * its checkpoint was not on disk, this is called once for each vote. (It is also called
+         * if the checkpoint could not be written at all, since the votes are in the database.)
+         *
+         * @param entries the votes, in order
+         */
+        default void written(List<Entry> entries) {}
+    }
+
+    private static final Gson gson = new Gson();
+
+    private final File file;
+    private final Sink sink;
+    private final int batchSize;
+
+    private final FileChannel channel;
+
+    /** Votes appended but not yet written, in order */
+    private final Deque<Entry> pending = new ArrayDeque<>();
+
+    /** The last seq appended */
+    private long appended;
+
+    /** The last seq forced to disk. Only forced votes are passed to the sink. */
+    private long forced;
+
+    /** The length of the file read back, up to the end of its last complete line */
+    private long recoveredLength;
+
+    /** The last seq written by the sink */
+    private long flushed;
+
+    private ScheduledFuture<?> writer;
+
+    private final Object forceLock = new Object();
+    private final Object flushLock = new Object();
+
+    /**
+     * Open the journal, reading back any votes that were not written
+     *
+     * @param file the journal file, created if missing
+     * @param sink where the votes are written
+     * @param batchSize the most votes to pass to the sink at once
+     */
+    public VoteJournal(File file, Sink sink, int batchSize) throws IOException {
+        this.file = file;
+        this.sink = sink;
+        this.batchSize = batchSize;
+        recover();
+        channel =
+                FileChannel.open(
+                        file.toPath(),
+                        StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE,
+                        StandardOpenOption.APPEND);
+        if (pending.isEmpty()) {
+            channel.truncate(0); // only checkpointed votes left
+        } else if (channel.size() > recoveredLength) {
+            // drop the torn line, so that the next vote does not run on from it
+            channel.truncate(recoveredLength);
+            channel.force(false);
+        }
+        forced = appended;
+    }
+
+    private void recover() throws IOException {
+        if (!file.exists()) {
+            return;
+        }
+        final byte[] bytes = Files.readAllBytes(file.toPath());
+        final Set<Long> dropped = new HashSet<>();
+        int lineNo = 0;
+        int start = 0;
+        for (int end = start; end < bytes.length; end++) {
+            if (bytes[end] != '\n') {
+                continue;
+            }
+            ++lineNo;
+            final String line = new String(bytes, start, end - start, StandardCharsets.UTF_8);
+            start = end + 1;
+            if (line.isBlank()) {
+                continue;
+            }
+            final Entry e;
+            try {
+                e = gson.fromJson(line, Entry.class);
+            } catch (JsonParseException ex) {
+                logger.warning("Ignoring unreadable line " + lineNo + " of " + file + ": " + ex);
+                continue;
+            }
+            if (e.locale == null) {
+                final Dropped d = gson.fromJson(line, Dropped.class);
+                if (d.dropped > 0) {
+                    dropped.add(d.dropped);
+                } else {
+                    final Checkpoint c = gson.fromJson(line, Checkpoint.class);
+                    flushed = Math.max(flushed, c.flushed);
+                }
+            } else {
+                pending.add(e);
+                appended = Math.max(appended, e.seq);
+            }
+        }
+        recoveredLength = start;
+        if (start < bytes.length) {
+            // the server stopped while appending: that vote was never acknowledged
+            logger.warning(
+                    "Dropping incomplete line "
+                            + (lineNo + 1)
+                            + " of "
+                            + file
+                            + " ("
+                            + (bytes.length - start)
+                            + " bytes)");
+        }
+        pending.removeIf(e -> e.seq <= flushed || dropped.contains(e.seq));
+        appended = Math.max(appended, flushed);
+        if (!pending.isEmpty()) {
+            logger.warning("Recovered " + pending.size() + " unwritten vote(s) from " + file);
+        }
+    }
+
+    /**
+     * Append a vote. It is not durable until {@link #force} returns.
+     *
+     * @return the seq of the vote, to pass to {@link #force}
+     */
+    public synchronized long append(Entry e) throws IOException {
+        e.seq = appended + 1;
+        writeLine(e);
+        appended = e.seq;
+        pending.add(e);
+        return e.seq;
+    }
+
+    /**
+     * Make sure that the vote is on disk. Votes appended meanwhile by other threads are forced
+     * along with it.
+     *
+     * @throws IOException if the vote could not be forced; it is then dropped, and never passed to
+     *     the sink, nor read back on startup if the line that drops it reaches the disk
+     */
+    public void force(long seq) throws IOException {
+        synchronized (forceLock) {
+            final long upTo;
+            final FileChannel c;
+            synchronized (this) {
+                if (forced >= seq) {
+                    return; // another thread got here first
+                }
+                upTo = appended;
+                c = channel;
+            }
+            try {
+                forceFile(c);
+            } catch (IOException e) {
+                // still holding forceLock, so the vote can't have been forced by another thread
+                drop(seq, c);
+                throw e;
+            }
+            synchronized (this) {
+                forced = upTo;
+            }
+        }
+    }
+
+    /** Drop a vote that could not be forced, in memory and, if the disk allows, in the file */
+    private void drop(long seq, FileChannel c) {
+        synchronized (this) {
+            pending.removeIf(p -> p.seq == seq);
+            try {
+                writeLine(new Dropped(seq));
+            } catch (IOException e) {
+                logger.warning("Could not drop vote #" + seq + " from " + file + ": " + e);
+                return;
+            }
+        }
+        try {
+            forceFile(c);
+        } catch (IOException e) {
+            logger.warning("Could not force the drop of vote #" + seq + " in " + file + ": " + e);
+        }
+    }
+
+    /** Force the votes to disk; for tests to override */
+    void forceFile(FileChannel c) throws IOException {
+        c.force(false);
+    }
+
+    /** Append one line of JSON; the caller holds the lock */
+    private void writeLine(Object record) throws IOException {
+        final ByteBuffer line =
+                StandardCharsets.UTF_8.encode(gson.toJson(record) + System.lineSeparator());
+        while (line.hasRemaining()) {
+            channel.write(line);
+        }
+    }
+
+    /** Has the vote been written to the database? */
+    public synchronized boolean isFlushed(long seq) {
+        return flushed >= seq;
+    }
+
+    /** The number of votes not yet written to the database */
+    public synchronized int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Write the pending votes to the database, in batches, until there are none
+     *
+     * @throws Exception from the sink; the votes not written are kept
+     */
+    public void flush() throws Exception {
+        synchronized (flushLock) {
+            List<Entry> batch;
+            while (!(batch = nextBatch()).isEmpty()) {
+                sink.write(batch);
+                try {
+                    checkpoint(batch);
+                } finally {
+                    // the votes are in the database, even if the checkpoint is not on disk
+                    sink.written(batch);
+                }
+            }
+        }
+    }
+
+    /** Like {@link #flush}, but log any failure, for the background writer */
+    void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            SurveyLog.logException(
+                    logger, e, "Writing journaled votes; " + getPendingCount() + " pending");
+        }
+    }
+
+    /**
+     * The next votes to write: up to batchSize, in order, stopping before a second vote for the
+     * same row, so that each vote still sees the one it replaces, and before a vote not yet
+     * forced, since it may yet be dropped
+     */
+    private synchronized List<Entry> nextBatch() {
+        final List<Entry> batch = new ArrayList<>();
+        for (final Entry e : pending) {
+            if (batch.size() >= batchSize
+                    || e.seq > forced
+                    || batch.stream().anyMatch(e::sameRow)) {
+                break;
+            }
+            batch.add(e);
+        }
+        return batch;
+    }
+
+    /**
+     * Record that the batch has been written, and force the checkpoint to disk, so that the batch
+     * is not written again after a crash
+     */
+    private void checkpoint(List<Entry> batch) throws IOException {
+        final FileChannel c;
+        synchronized (this) {
+            for (int i = 0; i < batch.size(); i++) {
+                pending.removeFirst();
+            }
+            flushed = batch.get(batch.size() - 1).seq;
+            c = channel;
+            if (pending.isEmpty()) {
+                // everything is in the database: start the file over
+                channel.truncate(0);
+            } else {
+                writeLine(new Checkpoint(flushed));
+            }
+        }
+        // outside of the lock, so that votes can still be appended meanwhile
+        c.force(false);
+    }
+
+    /**
+     * Write the pending votes every so often, in the background
+     *
+     * @param millis the delay between writes
+     */
+    synchronized void startWriter(long millis) {
+        writer =
+                SurveyThreadManager.getScheduledExecutorService()
+                        .scheduleWithFixedDelay(
+                                this::flushQuietly, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    /** Stop the background writer and close the file. Votes not yet written stay in the file. */
+    @Override
+    public synchronized void close() throws IOException {
+        if (writer != null) {
+            writer.cancel(false);
+        }
+        channel.close();
+    }
+
+    @Override
+    public String toString() {
+        return "[VoteJournal " + file + ", " + getPendingCount() + " pending]";
+    }
+}
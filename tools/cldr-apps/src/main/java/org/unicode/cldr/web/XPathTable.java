@@ -17,7 +17,6 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.Collections;
 import java.util.HashSet;
-import java.util.Hashtable;
 import java.util.Map;
 import java.util.Set;
 import java.util.logging.Logger;
@@ -26,6 +25,8 @@ import org.unicode.cldr.icu.dev.util.ElapsedTimer;
 import org.unicode.cldr.util.CLDRConfig;
 import org.unicode.cldr.util.CLDRConfig.Environment;
 import org.unicode.cldr.util.LDMLUtilities;
+import org.unicode.cldr.util.PathDictionary;
+import org.unicode.cldr.util.PathIdMap;
 import org.unicode.cldr.util.PrettyPath;
 import org.unicode.cldr.util.StringId;
 import org.unicode.cldr.util.XMLSource;
@@ -72,7 +73,7 @@ public class XPathTable {
     }
 
     private void loadXPaths(Connection conn) throws SQLException {
-        if (stringToId.size() != 0) { // Only load the entire stringToId map
+        if (xpidByPathId.size() != 0) { // Only load the entire xpidByPathId map
             // once.
             return;
         }
@@ -148,8 +149,11 @@ public class XPathTable {
         }
     }
 
-    public Hashtable<String, Integer> stringToId =
-            new Hashtable<>(4096); // public for statistics only
+    /**
+     * xpids, keyed by {@link PathDictionary} id, so that the paths themselves are only held (and
+     * hashed) once, in the shared dictionary
+     */
+    private final PathIdMap<Integer> xpidByPathId = new PathIdMap<>();
 
     public String statistics() {
         return "DB: "
@@ -195,7 +199,7 @@ public class XPathTable {
         for (String xpath : source) {
             unloadedXpaths.add(xpath);
         }
-        unloadedXpaths.removeAll(stringToId.keySet());
+        unloadedXpaths.removeIf(xpath -> xpidByPathId.get(xpath) != null);
 
         Connection conn = null;
         PreparedStatement queryStmt = null;
@@ -267,7 +271,7 @@ public class XPathTable {
      */
     private synchronized Integer addXpath(String xpath, boolean addIfNotFound, Connection inConn) {
         xpath = xpath.intern();
-        Integer nid = stringToId.get(xpath); // double check
+        Integer nid = xpidByPathId.get(xpath); // double check
         if (nid != null) {
             return nid;
         }
@@ -370,8 +374,9 @@ public class XPathTable {
      *     //ldml/dates/timeZoneNames/zone[@type="America/Guadeloupe"]/short/daylight
      */
     public final void setById(int id, String xpath) {
-        xpath = xpath.intern();
-        stringToId.put(idToString_put(id, xpath), id);
+        int pathId = PathDictionary.getId(xpath.intern());
+        xpidByPathId.put(pathId, id);
+        idToString_put(id, PathDictionary.getPath(pathId));
         StringId.getId(xpath); // ensure in cache
     }
 
@@ -383,7 +388,7 @@ public class XPathTable {
      */
     public final int getByXpath(String xpath) {
         xpath = xpath.intern();
-        Integer nid = stringToId.get(xpath);
+        Integer nid = xpidByPathId.get(xpath);
         if (nid != null) {
             return nid.intValue();
         } else {
@@ -398,7 +403,7 @@ public class XPathTable {
      * @return id, or -1 if not found
      */
     public final int peekByXpath(String xpath) {
-        Integer nid = stringToId.get(xpath);
+        Integer nid = xpidByPathId.get(xpath);
         if (nid != null) {
             return nid.intValue();
         } else {
@@ -413,7 +418,7 @@ public class XPathTable {
      * @return the id for the specified path
      */
     public final int getByXpath(String xpath, Connection conn) {
-        Integer nid = stringToId.get(xpath);
+        Integer nid = xpidByPathId.get(xpath);
         if (nid != null) {
             return nid.intValue();
         } else {
@@ -428,7 +433,7 @@ public class XPathTable {
      * @return id, or -1 if not found
      */
     public final int peekByXpath(String xpath, Connection conn) {
-        Integer nid = stringToId.get(xpath);
+        Integer nid = xpidByPathId.get(xpath);
         if (nid != null) {
             return nid.intValue();
         } else {
@@ -674,7 +679,7 @@ public class XPathTable {
      * @return Number of xpaths in the table
      */
     public int count() {
-        return stringToId.size();
+        return xpidByPathId.size();
     }
 
     /**
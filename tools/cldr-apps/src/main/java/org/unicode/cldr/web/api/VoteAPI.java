@@ -7,8 +7,11 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import javax.ws.rs.*;
+import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.sse.Sse;
+import javax.ws.rs.sse.SseEventSink;
 import org.eclipse.microprofile.openapi.annotations.Operation;
 import org.eclipse.microprofile.openapi.annotations.enums.SchemaType;
 import org.eclipse.microprofile.openapi.annotations.media.Content;
@@ -144,6 +147,41 @@ public class VoteAPI {
         return VoteAPIHelper.handleGetOnePage(loc, session, page, xpstrid);
     }
 
+    @GET
+    @Path("/{locale}/changes")
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    @Operation(
+            summary = "Listen for changed rows",
+            description =
+                    "Stream of 'changes' events, each with the xpath string ids and new winning"
+                            + " values of the rows whose votes changed, and the locale stamp"
+                            + " before and after them")
+    @APIResponses(
+            value = {
+                @APIResponse(responseCode = "200", description = "Event stream"),
+                @APIResponse(
+                        responseCode = "401",
+                        description = "Authorization required, send a valid session cookie"),
+                @APIResponse(responseCode = "404", description = "Page or Locale does not exist"),
+                @APIResponse(responseCode = "503", description = "Too many listeners"),
+            })
+    public void getChanges(
+            @Parameter(required = true, example = "br", schema = @Schema(type = SchemaType.STRING))
+                    @PathParam("locale")
+                    String loc,
+            @QueryParam("page") @Schema(description = "Page to listen to, or all pages if absent")
+                    String page,
+            @CookieParam(Auth.SESSION_HEADER)
+                    @Schema(
+                            description =
+                                    "Session id, from the cookie, since an EventSource cannot"
+                                            + " send the session header")
+                    String session,
+            @Context SseEventSink sink,
+            @Context Sse sse) {
+        VoteAPIHelper.handleGetChanges(loc, page, session, sink, sse);
+    }
+
     /** Array of status items. Only stores one example entry per subtype. */
     public static final class EntireLocaleStatusResponse {
         public EntireLocaleStatusResponse() {}
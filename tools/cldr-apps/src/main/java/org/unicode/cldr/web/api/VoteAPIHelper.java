@@ -5,7 +5,12 @@ import java.util.*;
 import java.util.Map.Entry;
 import java.util.logging.Logger;
 import javax.json.bind.spi.JsonbProvider;
+import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.sse.OutboundSseEvent;
+import javax.ws.rs.sse.Sse;
+import javax.ws.rs.sse.SseBroadcaster;
+import javax.ws.rs.sse.SseEventSink;
 import org.unicode.cldr.test.CheckCLDR;
 import org.unicode.cldr.test.CheckCLDR.CheckStatus;
 import org.unicode.cldr.test.CheckCLDR.CheckStatus.Subtype;
@@ -64,7 +69,7 @@ public class VoteAPIHelper {
     /**
      * Details about a single voting event, for use on the front end
      *
-     * <p>This is a subset of the data included in STFactory.PerLocaleData.PerXPathData.PerUserData.
+     * <p>This is a subset of the data kept for each vote in STFactory.PerLocaleData.PerXPathData.
      */
     public static final class VoteDetails {
 
@@ -199,6 +204,102 @@ public class VoteAPIHelper {
         }
     }
 
+    /**
+     * Subscribe an event stream to the changed rows of a locale, and optionally a page. The stream
+     * is closed once the session expires or logs out.
+     *
+     * @see ValueChangeBroadcaster
+     */
+    static void handleGetChanges(
+            String loc, String page, String session, SseEventSink sink, Sse sse) {
+        if (Auth.getSession(session) == null) {
+            throw new WebApplicationException(Auth.noSessionResponse());
+        }
+        final CLDRLocale locale = CLDRLocale.getInstance(loc);
+        if (!SurveyMain.getLocalesSet().contains(locale)) {
+            throw new WebApplicationException(Response.Status.NOT_FOUND);
+        }
+        PageId pageId = null;
+        if (page != null && !page.isEmpty()) {
+            try {
+                pageId = PageId.fromStringCompatible(page);
+            } catch (RuntimeException e) {
+                throw new WebApplicationException(Response.Status.NOT_FOUND);
+            }
+        }
+        final SseClient client = new SseClient(session, sink, sse);
+        if (!ValueChangeBroadcaster.getInstance().subscribe(locale, pageId, session, client)) {
+            client.close();
+            throw new WebApplicationException(Response.Status.SERVICE_UNAVAILABLE);
+        }
+        // send something at once, so that the client knows it is listening
+        client.ping();
+    }
+
+    /**
+     * Pushes changed rows as "changes" events, while the session lasts. The stream is unsubscribed
+     * as soon as it is closed or fails, rather than at the next ping.
+     */
+    private static final class SseClient implements ValueChangeBroadcaster.Client {
+        private final String session;
+        private final SseEventSink sink;
+        private final Sse sse;
+
+        /** For its close and error callbacks, which the sink doesn't have */
+        private final SseBroadcaster broadcaster;
+
+        SseClient(String session, SseEventSink sink, Sse sse) {
+            this.session = session;
+            this.sink = sink;
+            this.sse = sse;
+            broadcaster = sse.newBroadcaster();
+            broadcaster.register(sink);
+            broadcaster.onClose(s -> ValueChangeBroadcaster.getInstance().unsubscribe(this));
+            broadcaster.onError(
+                    (s, t) -> {
+                        // gone away
+                        ValueChangeBroadcaster.getInstance().unsubscribe(this);
+                        close();
+                    });
+        }
+
+        @Override
+        public boolean send(String json) {
+            return send(sse.newEventBuilder().name("changes").data(json).build());
+        }
+
+        @Override
+        public boolean ping() {
+            return send(sse.newEventBuilder().comment("listening").build());
+        }
+
+        @Override
+        public void replaced() {
+            // the page stops listening, rather than reconnecting
+            broadcaster
+                    .broadcast(sse.newEventBuilder().name("replaced").data("").build())
+                    .whenComplete((r, t) -> close());
+        }
+
+        void close() {
+            broadcaster.close();
+            sink.close();
+        }
+
+        private boolean send(OutboundSseEvent event) {
+            if (sink.isClosed()) {
+                return false;
+            }
+            if (Auth.getSession(session) == null) {
+                // expired or logged out: checked on every send and ping
+                close();
+                return false;
+            }
+            broadcaster.broadcast(event);
+            return true;
+        }
+    }
+
     public static RowResponse getRowsResponse(
             ArgsForGet args,
             final SurveyMain sm,
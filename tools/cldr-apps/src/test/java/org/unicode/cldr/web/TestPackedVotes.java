@@ -0,0 +1,176 @@
+package org.unicode.cldr.web;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntFunction;
+import org.junit.jupiter.api.Test;
+import org.unicode.cldr.util.VoteResolver;
+import org.unicode.cldr.util.VoteType;
+import org.unicode.cldr.web.UserRegistry.User;
+
+/**
+ * @see {@link PackedVotes}
+ */
+public class TestPackedVotes {
+    private static final UserRegistry reg = new UserRegistry();
+
+    private static User user(int id) {
+        return reg.new User(id);
+    }
+
+    private static List<Integer> users(PackedVotes votes) {
+        final List<Integer> result = new ArrayList<>();
+        for (int i = 0; i < votes.size(); i++) {
+            result.add(votes.getUserId(i));
+        }
+        return result;
+    }
+
+    @Test
+    void TestWith() {
+        final Date when = new Date(1_700_000_000_000L);
+        PackedVotes votes = PackedVotes.EMPTY;
+        votes = votes.with(user(30), "c", null, VoteType.DIRECT, when);
+        votes = votes.with(user(10), "a", 4, VoteType.BULK_UPLOAD, null);
+        final PackedVotes before = votes;
+        votes = votes.with(user(20), null, null, VoteType.VOTE_FOR_MISSING, when);
+        assertEquals(List.of(10, 20, 30), users(votes), "sorted by user");
+        assertEquals(2, before.size(), "unchanged");
+
+        int i = votes.indexOf(10);
+        assertEquals("a", votes.getValue(i));
+        assertEquals(4, votes.getOverride(i));
+        assertEquals(VoteType.BULK_UPLOAD, votes.getVoteType(i));
+        assertNull(votes.getWhen(i));
+
+        i = votes.indexOf(20);
+        assertNull(votes.getValue(i));
+        assertNull(votes.getOverride(i));
+        assertEquals(VoteType.VOTE_FOR_MISSING, votes.getVoteType(i));
+        assertEquals(when, votes.getWhen(i));
+
+        assertTrue(votes.indexOf(15) < 0);
+        assertTrue(votes.indexOf(5) < 0);
+        assertTrue(votes.indexOf(35) < 0);
+
+        // a new vote replaces the old one
+        votes = votes.with(user(30), "d", null, VoteType.DIRECT, when);
+        assertEquals(List.of(10, 20, 30), users(votes));
+        assertEquals("d", votes.getValue(votes.indexOf(30)));
+        assertEquals("c", before.getValue(before.indexOf(30)));
+    }
+
+    @Test
+    void TestWithout() {
+        final Date when = new Date();
+        PackedVotes votes = PackedVotes.EMPTY;
+        votes =
+                votes.with(user(1), "a", VoteResolver.Level.PERMANENT_VOTES, VoteType.DIRECT, when);
+        votes = votes.with(user(2), "b", null, VoteType.DIRECT, when);
+        votes =
+                votes.with(user(3), "c", VoteResolver.Level.LOCKING_VOTES, VoteType.DIRECT, when);
+
+        assertSame(votes, votes.without(4), "no such vote");
+        assertEquals(List.of(1, 3), users(votes.without(2)));
+        assertEquals(List.of(1, 2), users(votes.withoutOverride(VoteResolver.Level.LOCKING_VOTES)));
+        assertSame(votes, votes.withoutOverride(999), "no such votes");
+        assertSame(PackedVotes.EMPTY, votes.without(1).without(2).without(3));
+    }
+
+    /** The votes for one path, as STFactory kept them before PackedVotes */
+    private static class PerUserData {
+        String vote;
+        Integer override;
+        Date when;
+        VoteType voteType;
+
+        PerUserData(String vote, Integer override, Date when, VoteType voteType) {
+            this.vote = vote;
+            this.override = override;
+            this.when = when;
+            this.voteType = voteType;
+        }
+    }
+
+    private static long usedHeap() {
+        final Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /** Bytes per path to keep what each path makes, measured over many paths */
+    private static long bytesPerPath(IntFunction<Object> makePath) {
+        final int paths = 100_000;
+        final Object[] kept = new Object[paths];
+        final long before = usedHeap();
+        for (int p = 0; p < paths; p++) {
+            kept[p] = makePath.apply(p);
+        }
+        final long after = usedHeap();
+        assertEquals(paths, kept.length); // keep them reachable until measured
+        return (after - before) / paths;
+    }
+
+    /**
+     * Most paths have one or two votes; compare the heap used for those with the map of users to
+     * PerUserData that PackedVotes replaced. The users and values are shared, as they are in the
+     * Survey Tool, so only what each path holds is counted.
+     */
+    @Test
+    void TestMemory() {
+        final User[] voters = {user(1), user(2)};
+        final String[] values = {"a", "b"};
+        for (int votes = 1; votes <= 2; votes++) {
+            final int n = votes;
+            final long map =
+                    bytesPerPath(
+                            p -> {
+                                final Map<User, PerUserData> m = new ConcurrentHashMap<>();
+                                for (int i = 0; i < n; i++) {
+                                    m.put(
+                                            voters[i],
+                                            new PerUserData(
+                                                    values[i],
+                                                    null,
+                                                    new Date(p),
+                                                    VoteType.DIRECT));
+                                }
+                                return m;
+                            });
+            final long packed =
+                    bytesPerPath(
+                            p -> {
+                                PackedVotes v = PackedVotes.EMPTY;
+                                for (int i = 0; i < n; i++) {
+                                    v =
+                                            v.with(
+                                                    voters[i],
+                                                    values[i],
+                                                    null,
+                                                    VoteType.DIRECT,
+                                                    new Date(p));
+                                }
+                                return v;
+                            });
+            System.out.println(
+                    "TestPackedVotes: "
+                            + n
+                            + " vote(s) per path: map "
+                            + map
+                            + " bytes, packed "
+                            + packed
+                            + " bytes");
+            assertTrue(packed < map, n + " vote(s): packed " + packed + " >= map " + map);
+        }
+    }
+}
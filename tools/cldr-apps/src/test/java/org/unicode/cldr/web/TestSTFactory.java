@@ -12,10 +12,15 @@ import java.io.File;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
+import java.util.stream.Collectors;
 import net.jcip.annotations.NotThreadSafe;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
@@ -639,6 +644,181 @@ public class TestSTFactory {
         }
     }
 
+    private static final String WARMUP_PATH_A =
+            "//ldml/localeDisplayNames/keys/key[@type=\"collation\"]";
+    private static final String WARMUP_PATH_B =
+            "//ldml/localeDisplayNames/keys/key[@type=\"numbers\"]";
+    private static final CLDRLocale WARMUP_LOCALE = CLDRLocale.getInstance("cy");
+    private static final CLDRLocale WARMUP_OTHER = CLDRLocale.getInstance("ga");
+
+    /** The votes as strings, sorted, locked ones marked */
+    private static List<String> voteStrings(List<STFactory.LoadedVote> votes) {
+        return votes.stream()
+                .map(v -> (v.locked ? "locked:" : "") + v.xpath + ":" + v.submitter + ":" + v.value)
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    /** Are all the locked votes after all the others? */
+    private static boolean lockedLast(List<STFactory.LoadedVote> votes) {
+        boolean locked = false;
+        for (STFactory.LoadedVote v : votes) {
+            if (locked && !v.locked) {
+                return false;
+            }
+            locked = v.locked;
+        }
+        return true;
+    }
+
+    private static void setLocked(CLDRLocale locale, int xpath, String value)
+            throws SQLException {
+        try (Connection conn = DBUtils.getInstance().getDBConnection();
+                PreparedStatement ps =
+                        DBUtils.prepareForwardReadOnly(
+                                conn,
+                                value == null
+                                        ? "DELETE FROM "
+                                                + DBUtils.Table.LOCKED_XPATHS
+                                                + " WHERE locale=? AND xpath=?"
+                                        : "INSERT INTO "
+                                                + DBUtils.Table.LOCKED_XPATHS
+                                                + "(locale,xpath,value,last_mod)"
+                                                + " VALUES(?,?,?,CURRENT_TIMESTAMP)")) {
+            ps.setString(1, locale.getBaseName());
+            ps.setInt(2, xpath);
+            if (value != null) {
+                DBUtils.setStringUTF8(ps, 3, value);
+            }
+            ps.executeUpdate();
+            conn.commit();
+        }
+    }
+
+    @Test
+    public void TestReadAllVotes()
+            throws SQLException, InvalidXPathException, VoteNotAcceptedException, LogoutException {
+        final STFactory fac = getFactory();
+        final int xpathA = fac.sm.xpt.getByXpath(WARMUP_PATH_A);
+        fac.ballotBoxForLocale(WARMUP_LOCALE).voteForValue(getMyUser(), WARMUP_PATH_A, "cy-a");
+        fac.ballotBoxForLocale(WARMUP_OTHER).voteForValue(getMyUser(), WARMUP_PATH_A, "ga-a");
+        setLocked(WARMUP_LOCALE, xpathA, "cy-locked");
+        try {
+            fac.flushVotes();
+            final Map<CLDRLocale, List<STFactory.LoadedVote>> all = fac.readAllVotes();
+            for (CLDRLocale locale : List.of(WARMUP_LOCALE, WARMUP_OTHER)) {
+                final List<STFactory.LoadedVote> votes = all.get(locale);
+                assertNotNull(votes, locale.toString());
+                assertEquals(voteStrings(fac.readVotes(locale)), voteStrings(votes), locale + "");
+                assertTrue(lockedLast(votes), locale + ": locked votes last");
+            }
+            final List<String> cy = voteStrings(all.get(WARMUP_LOCALE));
+            final int me = getMyUser().id;
+            assertTrue(cy.contains(xpathA + ":" + me + ":cy-a"), cy::toString);
+            assertTrue(
+                    cy.contains("locked:" + xpathA + ":" + UserRegistry.ADMIN_ID + ":cy-locked"));
+            assertFalse(cy.contains(xpathA + ":" + me + ":ga-a"), "votes of another locale");
+            assertFalse(
+                    voteStrings(all.get(WARMUP_OTHER)).stream()
+                            .anyMatch(v -> v.startsWith("locked:")));
+        } finally {
+            setLocked(WARMUP_LOCALE, xpathA, null);
+            fac.ballotBoxForLocale(WARMUP_LOCALE).voteForValue(getMyUser(), WARMUP_PATH_A, null);
+            fac.ballotBoxForLocale(WARMUP_OTHER).voteForValue(getMyUser(), WARMUP_PATH_A, null);
+        }
+    }
+
+    @Test
+    public void TestDeleteVotes()
+            throws SQLException, InvalidXPathException, VoteNotAcceptedException, LogoutException {
+        final STFactory fac = getFactory();
+        final int xpathA = fac.sm.xpt.getByXpath(WARMUP_PATH_A);
+        final int xpathB = fac.sm.xpt.getByXpath(WARMUP_PATH_B);
+        final int me = getMyUser().id;
+        fac.ballotBoxForLocale(WARMUP_LOCALE).voteForValue(getMyUser(), WARMUP_PATH_A, "cy-a");
+        fac.ballotBoxForLocale(WARMUP_LOCALE).voteForValue(getMyUser(), WARMUP_PATH_B, "cy-b");
+        fac.ballotBoxForLocale(WARMUP_OTHER).voteForValue(getMyUser(), WARMUP_PATH_A, "ga-a");
+        try {
+            fac.flushVotes();
+            final List<STFactory.LoadedVote> invalid = new ArrayList<>();
+            for (STFactory.LoadedVote v : fac.readVotes(WARMUP_LOCALE)) {
+                if (v.xpath == xpathA && v.submitter == me) {
+                    invalid.add(v);
+                }
+            }
+            assertEquals(1, invalid.size());
+            fac.deleteVotes(WARMUP_LOCALE, invalid);
+
+            final List<String> cy = voteStrings(fac.readVotes(WARMUP_LOCALE));
+            assertFalse(cy.contains(xpathA + ":" + me + ":cy-a"), "deleted");
+            assertTrue(cy.contains(xpathB + ":" + me + ":cy-b"), "another path");
+            final List<String> ga = voteStrings(fac.readVotes(WARMUP_OTHER));
+            assertTrue(ga.contains(xpathA + ":" + me + ":ga-a"), "another locale");
+        } finally {
+            fac.ballotBoxForLocale(WARMUP_LOCALE).voteForValue(getMyUser(), WARMUP_PATH_A, null);
+            fac.ballotBoxForLocale(WARMUP_LOCALE).voteForValue(getMyUser(), WARMUP_PATH_B, null);
+            fac.ballotBoxForLocale(WARMUP_OTHER).voteForValue(getMyUser(), WARMUP_PATH_A, null);
+        }
+    }
+
+    @Test
+    public void TestPreloadedVotes()
+            throws SQLException, InvalidXPathException, VoteNotAcceptedException, LogoutException {
+        final STFactory fac = getFactory();
+        fac.ballotBoxForLocale(WARMUP_LOCALE).voteForValue(getMyUser(), WARMUP_PATH_A, "cy-1");
+        try {
+            // a vote cast during the scan
+            fac.TESTING_evict(WARMUP_LOCALE);
+            fac.startPreloading();
+            try {
+                final Map<CLDRLocale, List<STFactory.LoadedVote>> votes = fac.readAllVotes();
+                fac.ballotBoxForLocale(WARMUP_LOCALE)
+                        .voteForValue(getMyUser(), WARMUP_PATH_A, "cy-2");
+                fac.TESTING_evict(WARMUP_LOCALE);
+                assertTrue(
+                        fac.preloadVotes(votes, Integer.MAX_VALUE).contains(WARMUP_LOCALE),
+                        "among the busiest");
+                assertFalse(fac.preloadedVotes.containsKey(WARMUP_LOCALE), "voted during scan");
+                assertEquals(
+                        "cy-2",
+                        fac.ballotBoxForLocale(WARMUP_LOCALE)
+                                .getVoteValue(getMyUser(), WARMUP_PATH_A));
+            } finally {
+                fac.stopPreloading();
+            }
+
+            // a vote cast after the put, in a locale loaded meanwhile
+            fac.TESTING_evict(WARMUP_LOCALE);
+            fac.startPreloading();
+            try {
+                final Map<CLDRLocale, List<STFactory.LoadedVote>> votes = fac.readAllVotes();
+                fac.preloadVotes(votes, Integer.MAX_VALUE);
+                assertTrue(fac.preloadedVotes.containsKey(WARMUP_LOCALE));
+                assertEquals(
+                        "cy-2",
+                        fac.ballotBoxForLocale(WARMUP_LOCALE)
+                                .getVoteValue(getMyUser(), WARMUP_PATH_A),
+                        "loaded from the votes kept");
+                assertFalse(fac.preloadedVotes.containsKey(WARMUP_LOCALE), "used once");
+                // as if put by a warm-up racing the load
+                fac.preloadedVotes.put(WARMUP_LOCALE, votes.get(WARMUP_LOCALE));
+                fac.ballotBoxForLocale(WARMUP_LOCALE)
+                        .voteForValue(getMyUser(), WARMUP_PATH_A, "cy-3");
+                assertFalse(fac.preloadedVotes.containsKey(WARMUP_LOCALE), "out of date");
+                fac.TESTING_evict(WARMUP_LOCALE);
+                assertEquals(
+                        "cy-3",
+                        fac.ballotBoxForLocale(WARMUP_LOCALE)
+                                .getVoteValue(getMyUser(), WARMUP_PATH_A));
+            } finally {
+                fac.stopPreloading();
+            }
+            assertEquals(Collections.emptyMap(), fac.preloadedVotes, "none left to go stale");
+        } finally {
+            fac.ballotBoxForLocale(WARMUP_LOCALE).voteForValue(getMyUser(), WARMUP_PATH_A, null);
+        }
+    }
+
     @Test
     void testLocMapSerialization() throws SQLException {
         // this particular test doesn't really need SQL
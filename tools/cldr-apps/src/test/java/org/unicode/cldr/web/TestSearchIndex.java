@@ -0,0 +1,105 @@
+package org.unicode.cldr.web;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.unicode.cldr.util.CLDRConfig;
+import org.unicode.cldr.util.CLDRFile;
+import org.unicode.cldr.util.Factory;
+import org.unicode.cldr.util.PathHeader;
+import org.unicode.cldr.util.SimpleXMLSource;
+import org.unicode.cldr.util.XMLSource;
+
+/**
+ * @see {@link SearchIndex}
+ */
+public class TestSearchIndex {
+    private static final String MARCH =
+            "//ldml/dates/calendars/calendar[@type=\"gregorian\"]/months/monthContext[@type=\"format\"]/monthWidth[@type=\"wide\"]/month[@type=\"3\"]";
+
+    private static Factory factory;
+    private static CLDRFile resolved;
+    private static SearchIndex index;
+
+    @BeforeAll
+    static void setup() {
+        factory = CLDRConfig.getInstance().getMainAndAnnotationsFactory();
+        resolved = factory.make("mt", true);
+        index =
+                new SearchIndex(
+                        resolved,
+                        factory.make("mt", false),
+                        PathHeader.getFactory(factory.make("en", true)));
+    }
+
+    @Test
+    void TestRanking() {
+        final List<SearchIndex.Match> matches = index.search("Marz", 1000);
+        assertFalse(matches.isEmpty());
+        for (int i = 1; i < matches.size(); ++i) {
+            assertTrue(
+                    matches.get(i - 1).kind.compareTo(matches.get(i).kind) <= 0,
+                    () -> "ranked: " + matches);
+        }
+        assertTrue(
+                matches.stream()
+                        .anyMatch(
+                                m ->
+                                        m.xpath.equals(MARCH)
+                                                && m.kind == SearchIndex.Kind.PARTIAL_VALUE),
+                () -> "partial value: " + matches);
+
+        final SearchIndex.Match exact = index.search("Marzu", 1000).get(0);
+        assertEquals(SearchIndex.Kind.EXACT_VALUE, exact.kind);
+        assertEquals("Marzu", exact.getContext());
+
+        final List<SearchIndex.Match> xpaths = index.search(MARCH.substring(0, 30), 5);
+        assertEquals(5, xpaths.size(), "limited");
+        assertEquals(SearchIndex.Kind.PARTIAL_XPATH, xpaths.get(0).kind);
+    }
+
+    @Test
+    void TestShortQuery() {
+        // shorter than a trigram, so only whole values and codes match
+        for (final SearchIndex.Match m : index.search("ar", 1000)) {
+            assertTrue(
+                    m.kind == SearchIndex.Kind.EXACT_VALUE || m.kind == SearchIndex.Kind.EXACT_CODE,
+                    m::toString);
+        }
+    }
+
+    @Test
+    void TestValueChanged() {
+        final String changed = "Marzuxyz";
+        assertTrue(index.search(changed, 10).isEmpty());
+        final XMLSource source = new SimpleXMLSource("mt");
+        source.putValueAtDPath(MARCH, changed);
+        index.valueChanged(MARCH, source);
+        try {
+            final List<SearchIndex.Match> matches = index.search(changed, 10);
+            assertEquals(1, matches.size(), matches::toString);
+            assertEquals(MARCH, matches.get(0).xpath);
+            assertEquals(SearchIndex.Kind.EXACT_VALUE, matches.get(0).kind);
+            assertTrue(
+                    index.search("Marzu", 1000).stream()
+                            .noneMatch(
+                                    m ->
+                                            m.xpath.equals(MARCH)
+                                                    && m.kind == SearchIndex.Kind.EXACT_VALUE),
+                    "old value forgotten");
+        } finally {
+            source.putValueAtDPath(MARCH, "Marzu");
+            index.valueChanged(MARCH, source);
+        }
+    }
+
+    @Test
+    void TestIsCurrent() {
+        assertTrue(index.isCurrent(resolved));
+        assertFalse(index.isCurrent(factory.make("de", true)), "other data");
+    }
+}
@@ -0,0 +1,281 @@
+package org.unicode.cldr.web;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.unicode.cldr.util.CLDRLocale;
+import org.unicode.cldr.util.PathHeader.PageId;
+
+/**
+ * @see {@link ValueChangeBroadcaster}
+ */
+public class TestValueChangeBroadcaster {
+    private static final CLDRLocale FR = CLDRLocale.getInstance("fr");
+    private static final CLDRLocale FR_CA = CLDRLocale.getInstance("fr_CA");
+    private static final CLDRLocale DE = CLDRLocale.getInstance("de");
+
+    private static final String PATH_A = "//ldml/characters/exemplarCharacters";
+    private static final String PATH_B = "//ldml/numbers/defaultNumberingSystem";
+
+    /** Values from maps, with each path's value made from its locale */
+    private static class MapValues implements ValueChangeBroadcaster.Values {
+        final Map<CLDRLocale, Long> stamps = new HashMap<>();
+        final Map<String, PageId> pages =
+                Map.of(
+                        PATH_A, PageId.Alphabetic_Information,
+                        PATH_B, PageId.Numbering_Systems);
+
+        @Override
+        public String getWinningValue(CLDRLocale locale, String xpath) {
+            return locale + ":" + xpath;
+        }
+
+        @Override
+        public long getStamp(CLDRLocale locale) {
+            return stamps.getOrDefault(locale, 0L);
+        }
+
+        @Override
+        public PageId getPageId(String xpath) {
+            return pages.get(xpath);
+        }
+
+        /** Vote, as STFactory does */
+        void vote(ValueChangeBroadcaster b, CLDRLocale locale, String xpath) {
+            stamps.merge(locale, 1L, Long::sum);
+            b.voteChanged(locale, xpath);
+        }
+    }
+
+    /** Counts the flushes scheduled, without running them or the pings */
+    private static class ManualExecutor extends ScheduledThreadPoolExecutor {
+        int scheduled = 0;
+
+        ManualExecutor() {
+            super(1);
+        }
+
+        @Override
+        public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+            scheduled++;
+            return null;
+        }
+
+        @Override
+        public ScheduledFuture<?> scheduleWithFixedDelay(
+                Runnable command, long initialDelay, long delay, TimeUnit unit) {
+            return null;
+        }
+    }
+
+    /** Keeps the messages sent */
+    private static class ListClient implements ValueChangeBroadcaster.Client {
+        final List<JsonObject> messages = new ArrayList<>();
+        boolean gone = false;
+
+        @Override
+        public boolean send(String json) {
+            if (gone) {
+                return false;
+            }
+            messages.add(JsonParser.parseString(json).getAsJsonObject());
+            return true;
+        }
+
+        @Override
+        public boolean ping() {
+            return !gone;
+        }
+
+        @Override
+        public void replaced() {
+            gone = true;
+        }
+
+        List<String> changedPaths() {
+            final List<String> result = new ArrayList<>();
+            for (JsonObject message : messages) {
+                for (JsonElement change : message.getAsJsonArray("changes")) {
+                    result.add(change.getAsJsonObject().get("value").getAsString());
+                }
+            }
+            return result;
+        }
+    }
+
+    @Test
+    void TestPagesAndLocales() {
+        final MapValues values = new MapValues();
+        final ManualExecutor executor = new ManualExecutor();
+        final ValueChangeBroadcaster b = new ValueChangeBroadcaster(values, executor);
+        final ListClient frPage = new ListClient();
+        final ListClient frAll = new ListClient();
+        final ListClient frCaPage = new ListClient();
+        final ListClient de = new ListClient();
+        b.subscribe(FR, PageId.Alphabetic_Information, "s1", frPage);
+        b.subscribe(FR, null, "s2", frAll);
+        b.subscribe(FR_CA, PageId.Alphabetic_Information, "s3", frCaPage);
+        b.subscribe(DE, null, "s4", de);
+
+        values.vote(b, FR, PATH_A);
+        values.vote(b, FR, PATH_B);
+        values.vote(b, FR, PATH_A);
+        assertEquals(1, executor.scheduled, "one flush for all the votes");
+        b.flush();
+
+        assertEquals(List.of("fr:" + PATH_A), frPage.changedPaths());
+        assertEquals(List.of("fr:" + PATH_A, "fr:" + PATH_B), frAll.changedPaths());
+        assertEquals(List.of("fr:" + PATH_A), frCaPage.changedPaths(), "inherited");
+        assertTrue(de.messages.isEmpty());
+        final JsonObject change =
+                frAll.messages.get(0).getAsJsonArray("changes").get(0).getAsJsonObject();
+        assertEquals(XPathTable.getStringIDString(PATH_A), change.get("xpstrid").getAsString());
+        assertEquals("fr", change.get("locale").getAsString());
+
+        b.flush();
+        assertEquals(1, frAll.messages.size(), "nothing more to send");
+        values.vote(b, DE, PATH_A);
+        assertEquals(2, executor.scheduled);
+    }
+
+    @Test
+    void TestStamps() {
+        final MapValues values = new MapValues();
+        final ValueChangeBroadcaster b = new ValueChangeBroadcaster(values, new ManualExecutor());
+        values.stamps.put(FR, 10L);
+        final ListClient client = new ListClient();
+        b.subscribe(FR, PageId.Alphabetic_Information, "s1", client);
+
+        values.vote(b, FR, PATH_A);
+        b.flush();
+        JsonObject message = client.messages.get(0);
+        assertEquals(10, message.get("since").getAsLong());
+        assertEquals(11, message.get("stamp").getAsLong());
+
+        // a change on another page still moves the stamp along
+        values.vote(b, FR, PATH_B);
+        values.vote(b, FR, PATH_B);
+        b.flush();
+        message = client.messages.get(1);
+        assertEquals(11, message.get("since").getAsLong());
+        assertEquals(13, message.get("stamp").getAsLong());
+        assertEquals(0, message.getAsJsonArray("changes").size());
+    }
+
+    @Test
+    void TestClientsGone() {
+        final MapValues values = new MapValues();
+        final ManualExecutor executor = new ManualExecutor();
+        final ValueChangeBroadcaster b = new ValueChangeBroadcaster(values, executor);
+        values.vote(b, FR, PATH_A);
+        assertEquals(0, executor.scheduled, "nobody listening");
+
+        final ListClient gone = new ListClient();
+        final ListClient staying = new ListClient();
+        b.subscribe(FR, null, "s1", gone);
+        b.subscribe(FR, null, "s2", staying);
+        b.subscribe(
+                FR,
+                null,
+                "s3",
+                new ListClient() {
+                    @Override
+                    public boolean send(String json) {
+                        throw new IllegalStateException("closed");
+                    }
+                });
+        gone.gone = true;
+        values.vote(b, FR, PATH_A);
+        b.flush();
+        assertEquals(1, b.getClientCount());
+        assertEquals(1, staying.messages.size());
+
+        // gone without ever being sent anything
+        final ListClient quiet = new ListClient();
+        b.subscribe(DE, null, "s4", quiet);
+        b.ping();
+        assertEquals(2, b.getClientCount());
+        quiet.gone = true;
+        b.ping();
+        assertEquals(1, b.getClientCount());
+
+        b.unsubscribe(staying);
+        assertEquals(0, b.getClientCount());
+    }
+
+    @Test
+    void TestReplaced() {
+        final ValueChangeBroadcaster b =
+                new ValueChangeBroadcaster(new MapValues(), new ManualExecutor());
+        final ListClient first = new ListClient();
+        final ListClient other = new ListClient();
+        b.subscribe(FR, PageId.Alphabetic_Information, "s1", first);
+        b.subscribe(FR, PageId.Alphabetic_Information, "s2", other);
+        // the same session, on the same page again
+        final ListClient again = new ListClient();
+        b.subscribe(FR, PageId.Alphabetic_Information, "s1", again);
+        assertEquals(2, b.getClientCount());
+        assertTrue(first.gone, "replaced");
+        assertFalse(other.gone, "another session");
+
+        // the same session on other pages, up to the cap
+        final List<ListClient> pages = new ArrayList<>();
+        for (PageId page : PageId.values()) {
+            if (page == PageId.Alphabetic_Information) {
+                continue;
+            }
+            if (pages.size() == ValueChangeBroadcaster.MAX_CLIENTS_PER_SESSION) {
+                break;
+            }
+            final ListClient client = new ListClient();
+            b.subscribe(FR, page, "s1", client);
+            pages.add(client);
+        }
+        assertEquals(1 + ValueChangeBroadcaster.MAX_CLIENTS_PER_SESSION, b.getClientCount());
+        assertTrue(again.gone, "the oldest replaced");
+        assertFalse(pages.get(0).gone);
+    }
+
+    @Test
+    void TestMaxClients() throws InterruptedException {
+        final ValueChangeBroadcaster b =
+                new ValueChangeBroadcaster(new MapValues(), new ManualExecutor());
+        final int threads = 8;
+        final int each = ValueChangeBroadcaster.MAX_CLIENTS / threads + 10;
+        final AtomicInteger accepted = new AtomicInteger();
+        final List<Thread> started = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            final int thread = t;
+            final Thread th =
+                    new Thread(
+                            () -> {
+                                for (int i = 0; i < each; i++) {
+                                    if (b.subscribe(
+                                            FR, null, "s" + thread + "-" + i, new ListClient())) {
+                                        accepted.incrementAndGet();
+                                    }
+                                }
+                            });
+            th.start();
+            started.add(th);
+        }
+        for (Thread th : started) {
+            th.join();
+        }
+        assertEquals(ValueChangeBroadcaster.MAX_CLIENTS, accepted.get());
+        assertEquals(ValueChangeBroadcaster.MAX_CLIENTS, b.getClientCount());
+    }
+}
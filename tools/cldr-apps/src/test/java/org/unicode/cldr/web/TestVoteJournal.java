@@ -0,0 +1,214 @@
+package org.unicode.cldr.web;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * @see {@link VoteJournal}
+ */
+public class TestVoteJournal {
+    /** Keeps the batches written, failing once {@link #allowed} batches have been */
+    private static class ListSink implements VoteJournal.Sink {
+        final List<List<VoteJournal.Entry>> batches = new ArrayList<>();
+        int allowed = Integer.MAX_VALUE;
+
+        @Override
+        public void write(List<VoteJournal.Entry> entries) throws Exception {
+            if (allowed-- <= 0) {
+                throw new IOException("database is down");
+            }
+            batches.add(new ArrayList<>(entries));
+        }
+
+        List<String> values() {
+            return batches.stream()
+                    .flatMap(List::stream)
+                    .map(e -> e.value)
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static VoteJournal.Entry vote(int xpath, int submitter, String value) {
+        return new VoteJournal.Entry("mt", xpath, submitter, value, null, 1, 0L);
+    }
+
+    @Test
+    void TestFlush(@TempDir Path dir) throws Exception {
+        final File file = dir.resolve("journal.jsonl").toFile();
+        final ListSink sink = new ListSink();
+        try (VoteJournal journal = new VoteJournal(file, sink, 2)) {
+            long seq = 0;
+            for (int i = 1; i <= 5; i++) {
+                seq = journal.append(vote(i, 1, "v" + i));
+            }
+            journal.force(seq);
+            assertTrue(file.length() > 0);
+            assertEquals(5, journal.getPendingCount());
+
+            journal.flush();
+            assertEquals(0, journal.getPendingCount());
+            assertTrue(journal.isFlushed(seq));
+            assertEquals(List.of("v1", "v2", "v3", "v4", "v5"), sink.values());
+            assertEquals(3, sink.batches.size(), "batches of 2");
+            assertEquals(0, file.length(), "emptied once all written");
+        }
+    }
+
+    @Test
+    void TestSameRow(@TempDir Path dir) throws Exception {
+        final ListSink sink = new ListSink();
+        try (VoteJournal journal = new VoteJournal(dir.resolve("j").toFile(), sink, 100)) {
+            journal.append(vote(1, 1, "a"));
+            journal.append(vote(2, 1, "b"));
+            journal.append(vote(1, 1, "c")); // replaces "a"
+            journal.force(journal.append(vote(1, 2, "d"))); // another voter
+            journal.flush();
+            assertEquals(2, sink.batches.size(), sink.batches::toString);
+            assertEquals(List.of("a", "b", "c", "d"), sink.values());
+        }
+    }
+
+    @Test
+    void TestRecovery(@TempDir Path dir) throws Exception {
+        final File file = dir.resolve("journal.jsonl").toFile();
+        final ListSink sink = new ListSink();
+        try (VoteJournal journal = new VoteJournal(file, sink, 1)) {
+            journal.append(vote(1, 1, "v1"));
+            journal.append(vote(2, 1, "v2"));
+            journal.append(vote(3, 1, null));
+            journal.force(3);
+            journal.flush();
+            assertEquals(0, journal.getPendingCount());
+        }
+        assertEquals(0, file.length());
+
+        try (VoteJournal journal = new VoteJournal(file, sink, 1)) {
+            journal.append(vote(4, 1, "v4"));
+            journal.append(vote(5, 1, "v5"));
+            journal.force(2);
+            sink.allowed = 0;
+            assertThrows(IOException.class, journal::flush);
+            assertEquals(2, journal.getPendingCount(), "kept for later");
+        }
+        // the server stopped in the middle of appending another vote
+        Files.write(
+                file.toPath(),
+                "{\"seq\":3,\"loc".getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.APPEND);
+
+        sink.batches.clear();
+        sink.allowed = Integer.MAX_VALUE;
+        try (VoteJournal journal = new VoteJournal(file, sink, 1)) {
+            assertEquals(2, journal.getPendingCount(), "recovered");
+            journal.flush();
+            assertEquals(List.of("v4", "v5"), sink.values());
+        }
+    }
+
+    @Test
+    void TestCheckpoint(@TempDir Path dir) throws Exception {
+        final File file = dir.resolve("journal.jsonl").toFile();
+        final ListSink sink = new ListSink();
+        try (VoteJournal journal = new VoteJournal(file, sink, 1)) {
+            journal.force(journal.append(vote(1, 1, "v1")));
+            journal.flush();
+            journal.append(vote(2, 1, "v2"));
+            journal.append(vote(3, 1, "v3"));
+            journal.append(vote(2, 1, "v2b"));
+            journal.force(4);
+            // write only the first of the three, then the database goes down
+            sink.allowed = 1;
+            assertThrows(IOException.class, journal::flush);
+            assertEquals(2, journal.getPendingCount());
+        }
+        sink.batches.clear();
+        sink.allowed = Integer.MAX_VALUE;
+        try (VoteJournal journal = new VoteJournal(file, sink, 10)) {
+            assertEquals(2, journal.getPendingCount(), "after the checkpoint");
+            journal.flush();
+            assertEquals(List.of("v3", "v2b"), sink.values());
+        }
+    }
+
+    @Test
+    void TestTornLine(@TempDir Path dir) throws Exception {
+        final File file = dir.resolve("journal.jsonl").toFile();
+        final ListSink sink = new ListSink();
+        try (VoteJournal journal = new VoteJournal(file, sink, 1)) {
+            journal.force(journal.append(vote(1, 1, "v1")));
+        }
+        // the server stopped in the middle of appending another vote
+        Files.write(
+                file.toPath(),
+                "{\"seq\":2,\"loc".getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.APPEND);
+
+        try (VoteJournal journal = new VoteJournal(file, sink, 1)) {
+            assertEquals(1, journal.getPendingCount(), "torn line dropped");
+            journal.force(journal.append(vote(2, 1, "v2")));
+        }
+        try (VoteJournal journal = new VoteJournal(file, sink, 1)) {
+            assertEquals(2, journal.getPendingCount(), "vote after the torn line recovered");
+            journal.flush();
+            assertEquals(List.of("v1", "v2"), sink.values());
+        }
+    }
+
+    @Test
+    void TestNotForced(@TempDir Path dir) throws Exception {
+        final ListSink sink = new ListSink();
+        try (VoteJournal journal = new VoteJournal(dir.resolve("j").toFile(), sink, 10)) {
+            final long seq = journal.append(vote(1, 1, "v1"));
+            journal.flush();
+            assertEquals(List.of(), sink.values(), "not written before it is forced");
+            journal.force(seq);
+            journal.flush();
+            assertEquals(List.of("v1"), sink.values());
+        }
+    }
+
+    @Test
+    void TestForceFailed(@TempDir Path dir) throws Exception {
+        final File file = dir.resolve("journal.jsonl").toFile();
+        final ListSink sink = new ListSink();
+        final boolean[] fail = {false};
+        try (VoteJournal journal =
+                new VoteJournal(file, sink, 10) {
+                    @Override
+                    void forceFile(FileChannel c) throws IOException {
+                        if (fail[0]) {
+                            fail[0] = false; // only the vote's force fails
+                            throw new IOException("disk is full");
+                        }
+                        super.forceFile(c);
+                    }
+                }) {
+            journal.force(journal.append(vote(1, 1, "v1")));
+            final long seq = journal.append(vote(2, 1, "v2"));
+            fail[0] = true;
+            assertThrows(IOException.class, () -> journal.force(seq));
+            assertEquals(1, journal.getPendingCount(), "dropped");
+            journal.force(journal.append(vote(3, 1, "v3")));
+        }
+        // the server stopped before writing any of them to the database
+        try (VoteJournal journal = new VoteJournal(file, sink, 10)) {
+            assertEquals(2, journal.getPendingCount(), "the failed vote is not read back");
+            journal.flush();
+            assertEquals(List.of("v1", "v3"), sink.values());
+        }
+    }
+}
@@ -115,6 +115,32 @@ public abstract class CldrDataSupplier {
         return new XmlDataSource(type, ImmutableSet.copyOf(xmlFiles), draftStatus);
     }
 
+    /**
+     * Returns an unresolved CLDR data instance of a set of XML files which streams values straight
+     * from the XML parser each time it is visited, rather than reading all the files into memory
+     * once. Only values whose paths are matched by {@code filter}, or which lie below a path it
+     * matches, are visited; whole sub-hierarchies of the XML which cannot match are skipped during
+     * parsing.
+     *
+     * <p>This keeps memory flat however much data is processed, at the cost of parsing again on
+     * every visit. Visiting in {@link CldrData.PathOrder#DTD DTD} order must still sort the matched
+     * values, and {@link CldrData#get(CldrPath)} has to read the files, so this is best suited to a
+     * single pass over the data.
+     *
+     * @param type the expected CLDR type of the data in the XML file.
+     * @param draftStatus the desired status for filtering paths/values.
+     * @param xmlFiles the CLDR XML files.
+     * @param filter the matcher for the paths (or path prefixes) of values to visit.
+     * @return a data instance for the matched paths/values in the specified XML file.
+     */
+    public static CldrData forCldrFiles(
+            CldrDataType type,
+            CldrDraftStatus draftStatus,
+            Set<Path> xmlFiles,
+            PathMatcher filter) {
+        return XmlDataSource.streaming(type, ImmutableSet.copyOf(xmlFiles), draftStatus, filter);
+    }
+
     private static Multimap<CldrDataType, Path> createCldrDirectoryMap(
             Path cldrRootDir, Set<String> rootDirs) {
 
@@ -182,6 +208,27 @@ public abstract class CldrDataSupplier {
      */
     public abstract CldrData getDataForType(CldrDataType type);
 
+    /**
+     * Returns a data supplier for non-locale specific CLDR data of the given type, restricted to
+     * values whose paths are matched by {@code filter}, or which lie below a path it matches.
+     * Implementations which read XML may stream the values on each visit, skipping data which
+     * cannot match (see {@link #forCldrFiles(CldrDataType, CldrDraftStatus, Set, PathMatcher)}).
+     *
+     * @param type the required non-{@link CldrDataType#LDML LDML} data type.
+     * @param filter the matcher for the paths (or path prefixes) of values to visit.
+     * @return the specified non-locale based CLDR data.
+     * @throws IllegalArgumentException if {@link CldrDataType#LDML} is given.
+     */
+    public CldrData getDataForType(CldrDataType type, PathMatcher filter) {
+        checkNotNull(filter);
+        return new FilteredData(getDataForType(type)) {
+            @Override
+            protected CldrValue filter(CldrValue value) {
+                return filter.matchesPathOrPrefix(value.getPath()) ? value : null;
+            }
+        };
+    }
+
     private static final class FileBasedDataSupplier extends CldrDataSupplier {
         private final ImmutableSetMultimap<CldrDataType, Path> directoryMap;
         private final CldrDraftStatus draftStatus;
@@ -241,6 +288,15 @@ public abstract class CldrDataSupplier {
             return NO_DATA;
         }
 
+        @Override
+        public CldrData getDataForType(CldrDataType type, PathMatcher filter) {
+            ImmutableSet<Path> xmlFiles = listXmlFilesForType(type);
+            if (!xmlFiles.isEmpty()) {
+                return XmlDataSource.streaming(type, xmlFiles, draftStatus, filter);
+            }
+            return NO_DATA;
+        }
+
         private Stream<Path> getDirectoriesForType(CldrDataType type) {
             return directoryMap.get(type).stream().filter(Files::exists);
         }
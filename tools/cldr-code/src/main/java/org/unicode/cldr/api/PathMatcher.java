@@ -77,16 +77,24 @@ public final class PathMatcher {
         checkArgument(m.lookingAt(), "invalid path pattern: %s", pattern);
         // This throws IllegalArgumentException if the type isn't valid.
         CldrDataType.forXmlName(m.group(1));
-        return new PathMatcher(null, parse(pattern.substring(2)));
+        List<String> elementNames = new ArrayList<>();
+        List<Predicate<CldrPath>> elementMatchers = parse(pattern.substring(2), elementNames);
+        return new PathMatcher(null, elementMatchers, elementNames);
     }
 
     private final Optional<PathMatcher> parent;
     private final ImmutableList<Predicate<CldrPath>> elementMatchers;
+    // Element names for each matcher (or WILDCARD), used to prune before a path is created.
+    private final ImmutableList<String> elementNames;
     private final int totalElementCount;
 
-    private PathMatcher(PathMatcher parent, List<Predicate<CldrPath>> elementMatchers) {
+    private PathMatcher(
+            PathMatcher parent,
+            List<Predicate<CldrPath>> elementMatchers,
+            List<String> elementNames) {
         this.parent = Optional.ofNullable(parent);
         this.elementMatchers = ImmutableList.copyOf(elementMatchers);
+        this.elementNames = ImmutableList.copyOf(elementNames);
         this.totalElementCount =
                 elementMatchers.size() + (parent != null ? parent.totalElementCount : 0);
     }
@@ -104,7 +112,9 @@ public final class PathMatcher {
      * Then {@code RULE} would match paths like {@code "//ldml/collations/collation/cr"}.
      */
     public PathMatcher withSuffix(String pattern) {
-        return new PathMatcher(this, parse(pattern));
+        List<String> elementNames = new ArrayList<>();
+        List<Predicate<CldrPath>> elementMatchers = parse(pattern, elementNames);
+        return new PathMatcher(this, elementMatchers, elementNames);
     }
 
     /**
@@ -156,6 +166,31 @@ public final class PathMatcher {
                 && matchRegion(path, totalElementCount - elementMatchers.size());
     }
 
+    /**
+     * Returns whether a path with the given element name at the given index (where the root element
+     * is at index 0) could match this matcher, or have a prefix which matches it. Only the element
+     * name is considered, so this can be used to skip sub-hierarchies of data before any {@link
+     * CldrPath} is created for them. A {@code true} result does not imply a match, since attributes
+     * are not tested.
+     */
+    boolean mayMatchElement(int index, String elementName) {
+        if (index >= totalElementCount) {
+            return true;
+        }
+        int offset = totalElementCount - elementNames.size();
+        if (index < offset) {
+            return parent.get().mayMatchElement(index, elementName);
+        }
+        String expected = elementNames.get(index - offset);
+        // DO NOT change this to use expected.equals(WILDCARD).
+        return expected == WILDCARD || expected.equals(elementName);
+    }
+
+    /** Returns whether this matcher matches the given path, or a proper prefix of it. */
+    boolean matchesPathOrPrefix(CldrPath path) {
+        return path.getLength() == totalElementCount ? matches(path) : matchesPrefixOf(path);
+    }
+
     private boolean matchRegion(CldrPath path, int offset) {
         // offset is the path element corresponding the the "top most" element matcher, it
         // must be in the range 0 ... (path.length() - elementMatchers.size()).
@@ -190,17 +225,18 @@ public final class PathMatcher {
 
     // element := foo, foo[@bar="baz"], foo[@bar=*]
     // pathspec := element{/element}*
-    private static List<Predicate<CldrPath>> parse(String pattern) {
+    private static List<Predicate<CldrPath>> parse(String pattern, List<String> names) {
         List<Predicate<CldrPath>> specs = new ArrayList<>();
         int pos = 0;
         do {
-            pos = parse(pattern, pos, specs);
+            pos = parse(pattern, pos, specs, names);
         } while (pos >= 0);
         return specs;
     }
 
     // Return next start index or -1.
-    private static int parse(String pattern, int pos, List<Predicate<CldrPath>> specs) {
+    private static int parse(
+            String pattern, int pos, List<Predicate<CldrPath>> specs, List<String> names) {
         Matcher m = ELEMENT_START_REGEX.matcher(pattern).region(pos, pattern.length());
         checkArgument(m.lookingAt(), "invalid path pattern (index=%s): %s", pos, pattern);
         String name = m.group(1);
@@ -225,6 +261,7 @@ public final class PathMatcher {
                         ? new WildcardElementMatcher(attributes)::match
                         : new ElementMatcher(name, attributes)::match;
         specs.add(matcher);
+        names.add(name.equals(WILDCARD) ? WILDCARD : name);
         if (pos == pattern.length()) {
             return -1;
         }
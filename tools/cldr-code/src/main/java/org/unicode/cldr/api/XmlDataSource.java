@@ -19,7 +19,9 @@ import java.io.IOException;
 import java.io.Reader;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -49,6 +51,8 @@ final class XmlDataSource implements CldrData {
     private final ImmutableSet<Path> xmlFiles;
     private final CldrDraftStatus minimalDraftStatus;
     private final Function<Path, Reader> openFn;
+    // Non-null for a streaming source, which re-reads the files on each visit, keeping nothing.
+    /* @Nullable */ private final PathMatcher streamingFilter;
 
     // Memoized data map to avoid loading/parsing files more than once.
     private volatile ImmutableMap<CldrPath, CldrValue> pathValueMap = null;
@@ -74,7 +78,7 @@ final class XmlDataSource implements CldrData {
     // CLDRFile code has a "top-most one wins" strategy, which can be affected in this code by
     // simply setting draft status the first time it's present on an element.
     XmlDataSource(CldrDataType dtdType, Set<Path> xmlFiles, CldrDraftStatus draftStatus) {
-        this(dtdType, xmlFiles, draftStatus, XmlDataSource::openFile);
+        this(dtdType, xmlFiles, draftStatus, XmlDataSource::openFile, null);
     }
 
     // @VisibleForTesting
@@ -83,10 +87,49 @@ final class XmlDataSource implements CldrData {
             Set<Path> xmlFiles,
             CldrDraftStatus draftStatus,
             Function<Path, Reader> openFn) {
+        this(dtdType, xmlFiles, draftStatus, openFn, null);
+    }
+
+    /**
+     * Returns a source which parses the XML files every time it is visited and calls the visitor
+     * directly from the SAX handler, so nothing is retained between visits. Only values whose paths
+     * match the given matcher, or have a prefix which matches it, are visited. Elements which
+     * cannot lead to a match are skipped by name, without creating a {@link CldrPath} for them or
+     * anything below them.
+     *
+     * <p>Values are visited in file order, which is nested grouping order. Visiting in {@link
+     * PathOrder#DTD DTD} order has to sort, so only the matched values are held for the duration of
+     * that visit.
+     */
+    static XmlDataSource streaming(
+            CldrDataType dtdType,
+            Set<Path> xmlFiles,
+            CldrDraftStatus draftStatus,
+            PathMatcher filter) {
+        return streaming(dtdType, xmlFiles, draftStatus, XmlDataSource::openFile, filter);
+    }
+
+    // @VisibleForTesting
+    static XmlDataSource streaming(
+            CldrDataType dtdType,
+            Set<Path> xmlFiles,
+            CldrDraftStatus draftStatus,
+            Function<Path, Reader> openFn,
+            PathMatcher filter) {
+        return new XmlDataSource(dtdType, xmlFiles, draftStatus, openFn, checkNotNull(filter));
+    }
+
+    private XmlDataSource(
+            CldrDataType dtdType,
+            Set<Path> xmlFiles,
+            CldrDraftStatus draftStatus,
+            Function<Path, Reader> openFn,
+            PathMatcher streamingFilter) {
         this.xmlFiles = ImmutableSet.copyOf(xmlFiles);
         this.dtdType = dtdType;
         this.minimalDraftStatus = checkNotNull(draftStatus);
         this.openFn = checkNotNull(openFn);
+        this.streamingFilter = streamingFilter;
     }
 
     private Map<CldrPath, CldrValue> getPathValueMap(PathOrder order) {
@@ -96,7 +139,7 @@ final class XmlDataSource implements CldrData {
         ImmutableMap<CldrPath, CldrValue> localMapRef = pathValueMap;
         if (localMapRef == null) {
             Map<CldrPath, CldrValue> map = mustSort ? new TreeMap<>() : new LinkedHashMap<>();
-            read(value -> map.put(value.getPath(), value), dtdType, true);
+            read(value -> map.put(value.getPath(), value), dtdType, true, null);
             // Avoid work with the lock held...
             localMapRef = ImmutableMap.copyOf(map);
             // There's a race condition here whereby two threads can decide to create the map
@@ -126,12 +169,37 @@ final class XmlDataSource implements CldrData {
 
     @Override
     public void accept(PathOrder order, ValueVisitor visitor) {
-        getPathValueMap(order).values().forEach(visitor::visit);
+        if (streamingFilter == null) {
+            getPathValueMap(order).values().forEach(visitor::visit);
+        } else if (order == PathOrder.DTD) {
+            Map<CldrPath, CldrValue> map = new TreeMap<>();
+            read(value -> map.put(value.getPath(), value), dtdType, true, streamingFilter);
+            map.values().forEach(visitor::visit);
+        } else {
+            read(visitor, dtdType, true, streamingFilter);
+        }
     }
 
     @Override
     public CldrValue get(CldrPath path) {
-        return getPathValueMap(PathOrder.ARBITRARY).get(path);
+        if (streamingFilter == null) {
+            return getPathValueMap(PathOrder.ARBITRARY).get(path);
+        }
+        // Slow, since it means reading everything again, but it keeps memory flat.
+        if (!streamingFilter.matchesPathOrPrefix(path)) {
+            return null;
+        }
+        CldrValue[] found = new CldrValue[1];
+        read(
+                value -> {
+                    if (value.getPath().equals(path)) {
+                        found[0] = value;
+                    }
+                },
+                dtdType,
+                true,
+                streamingFilter);
+        return found[0];
     }
 
     // Helper used to open files but which allows alternate implementation for in-memory testing.
@@ -143,10 +211,14 @@ final class XmlDataSource implements CldrData {
         }
     }
 
-    private void read(ValueVisitor visitor, CldrDataType dtdType, boolean validating) {
+    private void read(
+            ValueVisitor visitor,
+            CldrDataType dtdType,
+            boolean validating,
+            /* @Nullable */ PathMatcher filter) {
         XMLReader xmlReader = createXmlReader(validating);
         xmlReader.setErrorHandler(ERROR_HANDLER);
-        xmlReader.setContentHandler(new PathValueHandler(visitor, dtdType));
+        xmlReader.setContentHandler(new PathValueHandler(visitor, dtdType, filter));
         for (Path p : xmlFiles) {
             try (Reader r = openFn.apply(p)) {
                 InputSource src = new InputSource(r);
@@ -207,6 +279,7 @@ final class XmlDataSource implements CldrData {
     private final class PathValueHandler extends DefaultHandler {
         private final ValueVisitor visitor;
         private final CldrDataType dataType;
+        /* @Nullable */ private final PathMatcher filter;
         private final Multiset<String> orderedElementIndices = HashMultiset.create();
 
         private final Map<AttributeKey, String> valueAttributes = new LinkedHashMap<>();
@@ -214,16 +287,22 @@ final class XmlDataSource implements CldrData {
         // You can get multiple calls to "characters()" for a single element.
         private StringBuilder elementText = new StringBuilder();
         private boolean wasLeafElement = true;
+        // The names of the elements skipped by the filter, innermost last, while inside one.
+        private final Deque<String> skippedElements = new ArrayDeque<>();
 
-        private PathValueHandler(ValueVisitor visitor, CldrDataType dataType) {
+        private PathValueHandler(
+                ValueVisitor visitor, CldrDataType dataType, /* @Nullable */ PathMatcher filter) {
             this.visitor = visitor;
             this.dataType = dataType;
+            this.filter = filter;
         }
 
         @Override
         public void startElement(
                 String uri, String localName, String qName, Attributes attributes) {
-            if (path == null && !qName.equals(dataType.getLdmlName())) {
+            if (path == null
+                    && skippedElements.isEmpty()
+                    && !qName.equals(dataType.getLdmlName())) {
                 throw new IncompatibleDtdException();
             }
             int sortIndex = -1;
@@ -232,6 +311,14 @@ final class XmlDataSource implements CldrData {
                 sortIndex = orderedElementIndices.size();
                 orderedElementIndices.add(qName);
             }
+            // Counted above even when skipped, so that sort indices don't depend on the filter.
+            if (!skippedElements.isEmpty()
+                    || (filter != null
+                            && !filter.mayMatchElement(
+                                    path != null ? path.getLength() : 0, qName))) {
+                skippedElements.addLast(qName);
+                return;
+            }
             path = extendPath(path, qName, attributes, sortIndex, dataType, valueAttributes::put);
             elementText.setLength(0);
             wasLeafElement = true;
@@ -240,14 +327,34 @@ final class XmlDataSource implements CldrData {
         // Note: This is not invoked for self-closing elements (e.g. "<foo/>").
         @Override
         public void characters(char[] ch, int start, int length) {
-            elementText.append(ch, start, length);
+            if (skippedElements.isEmpty()) {
+                elementText.append(ch, start, length);
+            }
         }
 
         @Override
         public void endElement(String uri, String localName, String qName) {
+            if (!skippedElements.isEmpty()) {
+                // Reset the sort indices just as below, with the skipped elements on the path.
+                orderedElementIndices
+                        .elementSet()
+                        .removeIf(
+                                s ->
+                                        !skippedElements.contains(s)
+                                                && (path == null || !path.containsElement(s)));
+                skippedElements.removeLast();
+                if (skippedElements.isEmpty()) {
+                    // As if the skipped element had been visited and left.
+                    elementText.setLength(0);
+                    wasLeafElement = false;
+                }
+                return;
+            }
             // False if we have, since starting this element, entered and exited a child element.
             if (wasLeafElement) {
-                if (hasAllowedDraftStatus(path) && CldrPaths.shouldEmit(path)) {
+                if (hasAllowedDraftStatus(path)
+                        && CldrPaths.shouldEmit(path)
+                        && (filter == null || filter.matchesPathOrPrefix(path))) {
                     // IMPORTANT: The CldrFile class doesn't just trim whitespace at the start and
                     // end of values, it also removes any blank lines (unconditionally) on the
                     // apparent assumption that it is never important. However it doesn't remove
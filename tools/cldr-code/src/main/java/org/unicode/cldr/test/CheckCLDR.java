@@ -788,6 +788,23 @@ public abstract class CheckCLDR implements CheckAccessor {
         return true;
     }
 
+    /**
+     * Run the setup that is otherwise deferred until the first path is accepted. An error in the
+     * setup is left to be reported when a path is checked.
+     *
+     * @return whether the check is set up
+     */
+    boolean initialize() {
+        if (!initted) {
+            try {
+                accept(new ArrayList<>());
+            } catch (RuntimeException e) {
+                // still not initted, so the setup is tried again in check()
+            }
+        }
+        return initted;
+    }
+
     /** has accept() been called since setCldrFileToCheck() was called? */
     boolean initted = false;
 
@@ -1409,6 +1426,12 @@ public abstract class CheckCLDR implements CheckAccessor {
         private List<CheckCLDR> checkList = new ArrayList<>();
         private List<CheckCLDR> filteredCheckList = new ArrayList<>();
 
+        /** Where the timings are recorded; null unless timing is on. */
+        private CheckStatistics statistics;
+
+        /** The timing for each item in filteredCheckList; null unless timing is on. */
+        private CheckStatistics.Timing[] timings;
+
         public CompoundCheckCLDR add(CheckCLDR item) {
             checkList.add(item);
             if (filter == null) {
@@ -1419,9 +1442,40 @@ public abstract class CheckCLDR implements CheckAccessor {
                     filteredCheckList.add(item);
                 }
             }
+            if (statistics != null) {
+                setStatistics(statistics);
+            }
+            return this;
+        }
+
+        /**
+         * Record the time spent in each check to the given statistics, which may be shared with
+         * other sets of checks; or turn off timing, if null. The CPU time of the current thread (or
+         * the elapsed time, if the JVM can't measure that) is recorded for each check.
+         */
+        public CompoundCheckCLDR setStatistics(CheckStatistics statistics) {
+            this.statistics = statistics;
+            if (statistics == null) {
+                timings = null;
+            } else {
+                timings = new CheckStatistics.Timing[filteredCheckList.size()];
+                for (int i = 0; i < timings.length; ++i) {
+                    timings[i] = statistics.getTiming(filteredCheckList.get(i));
+                }
+            }
             return this;
         }
 
+        /** Get where the timings are recorded, or null if timing is off. */
+        public CheckStatistics getStatistics() {
+            return statistics;
+        }
+
+        /** The checks that are run, after filtering by name. */
+        List<CheckCLDR> getFilteredCheckList() {
+            return filteredCheckList;
+        }
+
         @Override
         public CheckCLDR handleCheck(
                 String path,
@@ -1440,14 +1494,17 @@ public abstract class CheckCLDR implements CheckAccessor {
             if (CldrUtility.INHERITANCE_MARKER.equals(value)) {
                 value = getCldrFileToCheck().getBaileyValue(path, null, null);
             }
-            for (Iterator<CheckCLDR> it = filteredCheckList.iterator(); it.hasNext(); ) {
-                CheckCLDR item = it.next();
+            for (int i = 0; i < filteredCheckList.size(); ++i) {
+                CheckCLDR item = filteredCheckList.get(i);
                 // skip proposed items in final testing.
                 if (Phase.FINAL_TESTING == item.getPhase()) {
                     if (path.contains("proposed") && path.contains("[@alt=")) {
                         continue;
                     }
                 }
+                final CheckStatistics.Timing timing = timings == null ? null : timings[i];
+                final long start = timing == null ? 0 : CheckStatistics.cpuNanos();
+                final long startBytes = timing == null ? 0 : CheckStatistics.allocatedBytes();
                 try {
                     if (!item.isSkipTest()) {
                         item.handleCheck(path, fullPath, value, options, result);
@@ -1455,6 +1512,13 @@ public abstract class CheckCLDR implements CheckAccessor {
                 } catch (Exception e) {
                     addError(result, item, e);
                     return this;
+                } finally {
+                    if (timing != null) {
+                        long bytes = startBytes < 0 ? -1 : CheckStatistics.allocatedBytes();
+                        timing.record(
+                                CheckStatistics.cpuNanos() - start,
+                                bytes < 0 ? -1 : bytes - startBytes);
+                    }
                 }
             }
             return this;
@@ -1569,6 +1633,9 @@ public abstract class CheckCLDR implements CheckAccessor {
                     item.handleSetCldrFileToCheck(getCldrFileToCheck(), (Options) null, null);
                 }
             }
+            if (statistics != null) {
+                setStatistics(statistics);
+            }
             return this;
         }
 
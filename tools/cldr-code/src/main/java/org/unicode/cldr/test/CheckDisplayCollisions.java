@@ -319,6 +319,18 @@ public class CheckDisplayCollisions extends FactoryCheckCLDR {
         super(factory);
     }
 
+    /**
+     * Get the group of paths whose values this check compares with each other, for {@link
+     * TestCache}: a change to the value of one of them can add or remove a collision for any other.
+     *
+     * @param path the path
+     * @return the name of the group, or null if the check ignores the path
+     */
+    static String getCollisionKey(String path) {
+        Type type = Type.getType(path);
+        return type == null || type == Type.UNITS_IGNORE ? null : type.name();
+    }
+
     @Override
     @SuppressWarnings("unused")
     public CheckCLDR handleCheck(
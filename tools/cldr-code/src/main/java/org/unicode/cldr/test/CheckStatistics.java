@@ -0,0 +1,239 @@
+package org.unicode.cldr.test;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+/**
+ * Counts, times, and allocations for each check run by a {@link CheckCLDR.CompoundCheckCLDR}, by
+ * the simple name of the check's class. One object can be shared by any number of sets of checks on
+ * any number of threads; see {@link CheckCLDR.CompoundCheckCLDR#setStatistics}.
+ *
+ * <p>The time is the CPU time of the thread (or the elapsed time, if the JVM can't measure that),
+ * so that time spent waiting for other threads doesn't count against a check. The allocations are
+ * only counted if the JVM can measure them for a thread; otherwise they are -1.
+ *
+ * <p>The percentiles come from a histogram with four buckets for each power of two, so they are
+ * within about 20% of the real value.
+ */
+public class CheckStatistics {
+    private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+
+    private static final com.sun.management.ThreadMXBean ALLOCATION_MX_BEAN =
+            THREAD_MX_BEAN instanceof com.sun.management.ThreadMXBean
+                            && ((com.sun.management.ThreadMXBean) THREAD_MX_BEAN)
+                                    .isThreadAllocatedMemorySupported()
+                    ? (com.sun.management.ThreadMXBean) THREAD_MX_BEAN
+                    : null;
+
+    /** The statistics for the checks run by the Survey Tool; see {@link TestCache}. */
+    private static final CheckStatistics GLOBAL = new CheckStatistics();
+
+    public static CheckStatistics getGlobal() {
+        return GLOBAL;
+    }
+
+    /** The CPU time of the current thread, or the elapsed time if that isn't available. */
+    static long cpuNanos() {
+        return THREAD_MX_BEAN.isCurrentThreadCpuTimeSupported()
+                ? THREAD_MX_BEAN.getCurrentThreadCpuTime()
+                : System.nanoTime();
+    }
+
+    /** The bytes allocated by the current thread so far, or -1 if that isn't available. */
+    static long allocatedBytes() {
+        return ALLOCATION_MX_BEAN == null || !ALLOCATION_MX_BEAN.isThreadAllocatedMemoryEnabled()
+                ? -1
+                : ALLOCATION_MX_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /** The statistics for one check. */
+    public static class Timing {
+        /** Values below this have their own bucket */
+        private static final int LINEAR = 8;
+
+        private static final int BUCKETS = LINEAR + (63 - 3) * 4;
+
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Long::max, 0);
+        private final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+        private volatile boolean bytesMeasured = true;
+
+        void record(long elapsedNanos, long allocated) {
+            if (elapsedNanos < 0) {
+                elapsedNanos = 0; // clocks that aren't monotonic
+            }
+            calls.increment();
+            nanos.add(elapsedNanos);
+            maxNanos.accumulate(elapsedNanos);
+            histogram.incrementAndGet(bucket(elapsedNanos));
+            if (allocated < 0) {
+                bytesMeasured = false;
+            } else {
+                bytes.add(allocated);
+            }
+        }
+
+        private static int bucket(long value) {
+            if (value < LINEAR) {
+                return (int) value;
+            }
+            int exponent = 63 - Long.numberOfLeadingZeros(value); // at least 3
+            int fraction = (int) (value >>> (exponent - 2)) & 3;
+            return LINEAR + (exponent - 3) * 4 + fraction;
+        }
+
+        /** The largest value that goes in the bucket. */
+        private static long bucketLimit(int bucket) {
+            if (bucket < LINEAR) {
+                return bucket;
+            }
+            int exponent = (bucket - LINEAR) / 4 + 3;
+            int fraction = (bucket - LINEAR) % 4;
+            return ((4L + fraction + 1) << (exponent - 2)) - 1;
+        }
+
+        /** The number of times the check was called. */
+        public long getCalls() {
+            return calls.sum();
+        }
+
+        /** The total time spent in the check, in nanoseconds. */
+        public long getNanos() {
+            return nanos.sum();
+        }
+
+        /** The longest time spent in one call of the check, in nanoseconds. */
+        public long getMaxNanos() {
+            return maxNanos.get();
+        }
+
+        /** The total bytes allocated by the check, or -1 if they couldn't be measured. */
+        public long getAllocatedBytes() {
+            return bytesMeasured ? bytes.sum() : -1;
+        }
+
+        /**
+         * Get the time that the given fraction of the calls took no longer than, approximately.
+         *
+         * @param percentile from 0 to 100
+         * @return the time in nanoseconds, or 0 if there have been no calls
+         */
+        public long getPercentileNanos(double percentile) {
+            if (percentile < 0 || percentile > 100) {
+                throw new IllegalArgumentException("Percentile out of range: " + percentile);
+            }
+            long[] counts = new long[BUCKETS];
+            long total = 0;
+            for (int i = 0; i < BUCKETS; ++i) {
+                total += counts[i] = histogram.get(i);
+            }
+            if (total == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(total * percentile / 100));
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; ++i) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(bucketLimit(i), getMaxNanos());
+                }
+            }
+            return getMaxNanos();
+        }
+
+        JsonObject toJsonObject() {
+            JsonObject result = new JsonObject();
+            result.addProperty("calls", getCalls());
+            result.addProperty("nanos", getNanos());
+            result.addProperty("p50Nanos", getPercentileNanos(50));
+            result.addProperty("p90Nanos", getPercentileNanos(90));
+            result.addProperty("p99Nanos", getPercentileNanos(99));
+            result.addProperty("maxNanos", getMaxNanos());
+            result.addProperty("allocatedBytes", getAllocatedBytes());
+            return result;
+        }
+
+        @Override
+        public String toString() {
+            return toJsonObject().toString();
+        }
+    }
+
+    private final Map<String, Timing> timings = new ConcurrentHashMap<>();
+
+    /** Called for each new check; guarded by itself */
+    private final List<BiConsumer<String, Timing>> listeners = new ArrayList<>();
+
+    /** Get the statistics for a check, by the simple name of its class. */
+    public Timing getTiming(String checkName) {
+        Timing timing = timings.get(checkName);
+        if (timing == null) {
+            synchronized (listeners) {
+                timing = timings.get(checkName);
+                if (timing == null) {
+                    timing = new Timing();
+                    timings.put(checkName, timing);
+                    for (BiConsumer<String, Timing> listener : listeners) {
+                        listener.accept(checkName, timing);
+                    }
+                }
+            }
+        }
+        return timing;
+    }
+
+    /**
+     * Call the given function with the name and statistics of each check timed so far, and of each
+     * check timed for the first time later on; for example, to publish them as metrics.
+     */
+    public void forEachTiming(BiConsumer<String, Timing> listener) {
+        synchronized (listeners) {
+            listeners.add(listener);
+            timings.forEach(listener);
+        }
+    }
+
+    Timing getTiming(CheckCLDR check) {
+        return getTiming(check.getClass().getSimpleName());
+    }
+
+    /** Get the statistics for each check that has been timed, sorted by name. */
+    public Map<String, Timing> getTimings() {
+        return new TreeMap<>(timings);
+    }
+
+    /** Get the total time spent in each check, by name. */
+    public Map<String, Long> getNanos() {
+        Map<String, Long> result = new TreeMap<>();
+        timings.forEach((name, timing) -> result.put(name, timing.getNanos()));
+        return result;
+    }
+
+    /**
+     * Get the statistics as JSON, with an object for each check giving its calls, the total,
+     * percentile, and maximum nanoseconds, and the bytes allocated.
+     */
+    public String toJson() {
+        JsonObject result = new JsonObject();
+        getTimings().forEach((name, timing) -> result.add(name, timing.toJsonObject()));
+        return new GsonBuilder().setPrettyPrinting().create().toJson(result);
+    }
+
+    @Override
+    public String toString() {
+        return toJson();
+    }
+}
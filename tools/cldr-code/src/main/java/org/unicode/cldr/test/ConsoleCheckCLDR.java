@@ -5,6 +5,7 @@ import com.ibm.icu.impl.Row;
 import com.ibm.icu.lang.UCharacter;
 import com.ibm.icu.text.Collator;
 import com.ibm.icu.text.UnicodeSet;
+import com.ibm.icu.util.ICUUncheckedIOException;
 import com.ibm.icu.util.ULocale;
 import java.io.File;
 import java.io.IOException;
@@ -35,7 +36,6 @@ import org.unicode.cldr.test.CheckCLDR.FormatDemo;
 import org.unicode.cldr.test.CheckCLDR.Options;
 import org.unicode.cldr.test.CheckCLDR.Phase;
 import org.unicode.cldr.test.CheckCLDR.SimpleDemo;
-import org.unicode.cldr.test.TestCache.TestResultBundle;
 import org.unicode.cldr.tool.Option;
 import org.unicode.cldr.tool.Option.Params;
 import org.unicode.cldr.tool.ShowData;
@@ -70,6 +70,7 @@ import org.unicode.cldr.util.VoteResolver;
 import org.unicode.cldr.util.VoteResolver.CandidateInfo;
 import org.unicode.cldr.util.VoteResolver.UnknownVoterException;
 import org.unicode.cldr.util.VoterInfoList;
+import org.unicode.cldr.util.XMLNormalizingLoader;
 import org.unicode.cldr.util.XMLSource;
 import org.unicode.cldr.util.XMLSource.SourceLocation;
 import org.unicode.cldr.util.XPathParts;
@@ -118,7 +119,8 @@ public class ConsoleCheckCLDR {
             ID_VIEW = 18,
             SUBTYPE_FILTER = 19,
             BAILEY = 21,
-            SINGLE_THREAD = 24;
+            SINGLE_THREAD = 24,
+            CHECK_TIMES = 25;
 
     static final String SOURCE_DIRS =
             CLDRPaths.MAIN_DIRECTORY
@@ -219,7 +221,13 @@ public class ConsoleCheckCLDR {
                 new Params()
                         .setHelp(
                                 "include to show missing and provisional paths, at the specified level")),
-        singleThread(new Params().setHelp("Run in single-thread mode.").setFlag('1'));
+        singleThread(new Params().setHelp("Run in single-thread mode.").setFlag('1')),
+        checkTimes(
+                new Params()
+                        .setHelp(
+                                "Show the CPU time spent in each check, slowest first; if a file is given, also write the statistics to it as JSON")
+                        .setMatch(".*")
+                        .setFlag('T'));
 
         // BOILERPLATE TO COPY
         final Option option;
@@ -269,9 +277,53 @@ public class ConsoleCheckCLDR {
         UOption.create("bailey", 'b', UOption.NO_ARG),
         UOption.create("exemplarError", 'E', UOption.NO_ARG),
         UOption.create("missingPaths", 'm', UOption.NO_ARG),
-        UOption.create("singleThread", '1', UOption.NO_ARG)
+        UOption.create("singleThread", '1', UOption.NO_ARG),
+        UOption.create("checkTimes", 'T', UOption.OPTIONAL_ARG)
     };
 
+    /**
+     * Show the statistics for each check, slowest first, and write them to a JSON file if one is
+     * given.
+     */
+    private static void showCheckStatistics(CheckStatistics statistics, String jsonFile) {
+        System.out.println();
+        System.out.println("# Check\tCalls\tCPU seconds\tp50 us\tp99 us\tMax us\tAllocated MB");
+        statistics.getTimings().entrySet().stream()
+                .sorted(
+                        Comparator.comparing(
+                                        (Map.Entry<String, CheckStatistics.Timing> e) ->
+                                                e.getValue().getNanos())
+                                .reversed())
+                .forEach(
+                        e -> {
+                            CheckStatistics.Timing timing = e.getValue();
+                            long bytes = timing.getAllocatedBytes();
+                            System.out.println(
+                                    "# "
+                                            + e.getKey()
+                                            + "\t"
+                                            + timing.getCalls()
+                                            + "\t"
+                                            + timing.getNanos() / 1_000_000_000.0
+                                            + "\t"
+                                            + timing.getPercentileNanos(50) / 1000
+                                            + "\t"
+                                            + timing.getPercentileNanos(99) / 1000
+                                            + "\t"
+                                            + timing.getMaxNanos() / 1000
+                                            + "\t"
+                                            + (bytes < 0 ? "n/a" : bytes / (1024 * 1024)));
+                        });
+        if (jsonFile != null) {
+            try (PrintWriter out = FileUtilities.openUTF8Writer(new File(jsonFile))) {
+                out.println(statistics.toJson());
+            } catch (IOException e) {
+                throw new ICUUncheckedIOException(e);
+            }
+            System.out.println("# Wrote check statistics to " + jsonFile);
+        }
+    }
+
     private static final Comparator<CLDRLocale> baseFirstCollator =
             new Comparator<>() {
                 @Override
@@ -295,6 +347,25 @@ public class ConsoleCheckCLDR {
         present
     }
 
+    /**
+     * Whether to leave a path out of the checks: when not checking everything (for a sublocale,
+     * without bailey), paths whose values are inherited or aliased; and proposed paths.
+     */
+    private static boolean skipPath(
+            CLDRFile file, String path, String localeID, boolean checkAll, Status otherPath) {
+        if (!checkAll) {
+            final String sourceLocaleID = file.getSourceLocaleID(path, otherPath);
+            if (!localeID.equals(sourceLocaleID)) {
+                return true;
+            }
+            // also skip aliases
+            if (!path.equals(otherPath.pathWhereFound)) {
+                return true;
+            }
+        }
+        return path.contains("@alt") && path.contains("proposed");
+    }
+
     private static EnumSet<Subtype> calculateSubtypeFilter(final String subtypeFilterString) {
         EnumSet<Subtype> subtypeFilter = null;
         if (subtypeFilterString != null) {
@@ -457,6 +528,10 @@ public class ConsoleCheckCLDR {
 
         idView = options[ID_VIEW].doesOccur;
 
+        final boolean singleThread = options[SINGLE_THREAD].doesOccur;
+        final CheckStatistics checkStatistics =
+                options[CHECK_TIMES].doesOccur ? new CheckStatistics() : null;
+
         if (options[VOTE_RESOLVE].doesOccur) {
             resolveVotesDirectory =
                     CldrUtility.checkValidFile(
@@ -481,9 +556,6 @@ public class ConsoleCheckCLDR {
         Factory cldrFactory =
                 SimpleFactory.make(sourceDirectories, factoryFilter)
                         .setSupplementalDirectory(new File(CLDRPaths.SUPPLEMENTAL_DIRECTORY));
-        final TestCache testCache = cldrFactory.getTestCache();
-        testCache.setNameMatcher(checkFilter);
-
         {
             // we create an extraneous CompoundCheckCLDR here just to check the filters
             CompoundCheckCLDR checkCldr = CheckCLDR.getCheckAll(cldrFactory, checkFilter);
@@ -624,7 +696,16 @@ public class ConsoleCheckCLDR {
                         return;
                     }
 
-                    TestResultBundle bundle = testCache.getBundle(new CheckCLDR.Options(options));
+                    final ParallelCheckCLDR checker =
+                            new ParallelCheckCLDR(
+                                            cldrFactory,
+                                            checkFilter,
+                                            file,
+                                            new CheckCLDR.Options(options))
+                                    .setStatistics(checkStatistics);
+                    if (singleThread) {
+                        checker.setChunkSize(Integer.MAX_VALUE);
+                    }
 
                     // generate HTML if asked for
                     if (ErrorFile.generated_html_directory != null) {
@@ -657,7 +738,7 @@ public class ConsoleCheckCLDR {
                     subtotalCount.clear();
 
                     final Set<CheckStatus> possibleProblems = new TreeSet<>();
-                    possibleProblems.addAll(bundle.getPossibleProblems());
+                    possibleProblems.addAll(checker.getPossibleProblems());
 
                     paths.clear();
 
@@ -694,6 +775,34 @@ public class ConsoleCheckCLDR {
                     int rawProvisionalCount = 0;
                     CLDRFile unresolved = file.getUnresolved();
 
+                    // run the checks on all of the paths first, on several threads;
+                    // the loop below goes through the results in order
+                    List<String> pathsToCheck = new ArrayList<>();
+                    List<String> valuesToCheck = new ArrayList<>();
+                    for (PathHeader pathHeader : paths) {
+                        String path = pathHeader.getOriginalPath();
+                        if ((!showAll && !file.isWinningPath(path))
+                                || skipPath(
+                                        file,
+                                        path,
+                                        localeID,
+                                        isLanguageLocale || baileyTest,
+                                        otherPath)) {
+                            continue;
+                        }
+                        pathsToCheck.add(path);
+                        valuesToCheck.add(
+                                baileyTest
+                                        ? CldrUtility.INHERITANCE_MARKER
+                                        : file.getStringValue(path));
+                    }
+                    List<List<CheckStatus>> checkResults =
+                            checker.check(pathsToCheck, valuesToCheck);
+                    Map<String, List<CheckStatus>> pathToCheckResults = new HashMap<>();
+                    for (int i = 0; i < pathsToCheck.size(); ++i) {
+                        pathToCheckResults.put(pathsToCheck.get(i), checkResults.get(i));
+                    }
+
                     for (PathHeader pathHeader : paths) {
                         pathCount++;
                         String path = pathHeader.getOriginalPath();
@@ -710,17 +819,8 @@ public class ConsoleCheckCLDR {
                             rawMissingCount++;
                         }
 
-                        if (!isLanguageLocale && !baileyTest) {
-                            final String sourceLocaleID = file.getSourceLocaleID(path, otherPath);
-                            if (!localeID.equals(sourceLocaleID)) {
-                                continue;
-                            }
-                            // also skip aliases
-                            if (!path.equals(otherPath.pathWhereFound)) {
-                                continue;
-                            }
-                        }
-                        if (path.contains("@alt") && path.contains("proposed")) {
+                        if (skipPath(
+                                file, path, localeID, isLanguageLocale || baileyTest, otherPath)) {
                             continue;
                         }
                         String value = file.getStringValue(path);
@@ -769,9 +869,9 @@ public class ConsoleCheckCLDR {
                         for (int jj = 0; jj < limit; ++jj) {
                             final List<CheckStatus> result = new ArrayList<>();
                             if (jj == 0) {
-                                bundle.check(path, result, value);
+                                result.addAll(pathToCheckResults.get(path));
                             } else {
-                                bundle.getExamples(path, value, result);
+                                checker.getExamples(path, value, result);
                             }
 
                             boolean showedOne = false;
@@ -1003,8 +1103,13 @@ public class ConsoleCheckCLDR {
             System.out.println("# Total " + type + ":\t" + totalCount.getCount(type));
         }
 
+        if (checkStatistics != null) {
+            showCheckStatistics(checkStatistics, options[CHECK_TIMES].value);
+        }
+
         System.out.println();
         System.out.println("# Total elapsed time: " + totalTimer);
+        System.out.println("# XMLSource cache: " + XMLNormalizingLoader.getCacheStats());
         if (fatalErrors.size() != 0) {
             System.out.println("# FATAL ERRORS:");
         }
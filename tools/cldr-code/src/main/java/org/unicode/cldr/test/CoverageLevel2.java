@@ -2,10 +2,15 @@ package org.unicode.cldr.test;
 
 import static java.util.Collections.disjoint;
 
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableMap;
 import com.ibm.icu.util.Output;
 import com.ibm.icu.util.VersionInfo;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -15,6 +20,7 @@ import java.util.SortedSet;
 import java.util.TreeMap;
 import java.util.TreeSet;
 import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import org.unicode.cldr.tool.ToolConfig;
 import org.unicode.cldr.util.Builder;
 import org.unicode.cldr.util.CLDRConfig;
@@ -24,6 +30,7 @@ import org.unicode.cldr.util.CLDRPaths;
 import org.unicode.cldr.util.CldrUtility.VariableReplacer;
 import org.unicode.cldr.util.Level;
 import org.unicode.cldr.util.PathHeader;
+import org.unicode.cldr.util.PathStarrer;
 import org.unicode.cldr.util.PatternCache;
 import org.unicode.cldr.util.RegexLookup;
 import org.unicode.cldr.util.RegexLookup.Finder;
@@ -44,6 +51,13 @@ public class CoverageLevel2 {
 
     private RegexLookup<Level> lookup = null;
 
+    /** The lookup compiled for lock-free use; shared by all instances using the same lookup. */
+    private CompiledLookup compiled = null;
+
+    /** Compiled lookups, by the identity of the lookup they were compiled from. */
+    private static final LoadingCache<RegexLookup<Level>, CompiledLookup> COMPILED =
+            CacheBuilder.newBuilder().weakKeys().build(CacheLoader.from(CompiledLookup::new));
+
     enum SetMatchType {
         Target_Language,
         Target_Scripts,
@@ -57,6 +71,8 @@ public class CoverageLevel2 {
     private static class LocaleSpecificInfo {
         CoverageVariableInfo cvi;
         String targetLanguage;
+        // for the compiled lookup, by rule: 0 not yet known, else whether the rule applies
+        byte[] ruleApplies;
     }
 
     final LocaleSpecificInfo myInfo = new LocaleSpecificInfo();
@@ -88,60 +104,71 @@ public class CoverageLevel2 {
         @Override
         public boolean find(String item, Object context, Info info) {
             LocaleSpecificInfo localeSpecificInfo = (LocaleSpecificInfo) context;
+            if (!appliesTo(localeSpecificInfo)) {
+                return false;
+            }
+            boolean result = super.find(item, context, info); // also sets matcher in RegexFinder
+            if (!result) {
+                return false;
+            }
+            return additionalMatch == null || matchesGroup(info.value[1], localeSpecificInfo);
+        }
+
+        /** The compiled pattern, which unlike the finder's Matcher can be shared by threads. */
+        Pattern getPattern() {
+            return pattern;
+        }
+
+        /** Whether the rule applies to the locale at all, from its language, script or region. */
+        boolean appliesTo(LocaleSpecificInfo localeSpecificInfo) {
             // Modified the logic to handle the case where we want specific languages and specific
             // territories.
             // Any match in language script or territory will succeed when multiple items are
             // present.
-            boolean lstOK = false;
             if (ci.inLanguage == null && ci.inScriptSet == null && ci.inTerritorySet == null) {
-                lstOK = true;
+                return true;
             } else if (ci.inLanguage != null
                     && ci.inLanguage.matcher(localeSpecificInfo.targetLanguage).matches()) {
-                lstOK = true;
+                return true;
             } else if (ci.inScriptSet != null
                     && !disjoint(ci.inScriptSet, localeSpecificInfo.cvi.targetScripts)) {
-                lstOK = true;
+                return true;
             } else if (ci.inTerritorySet != null
                     && !disjoint(ci.inTerritorySet, localeSpecificInfo.cvi.targetTerritories)) {
-                lstOK = true;
+                return true;
             }
+            return false;
+        }
 
-            if (!lstOK) {
-                return false;
+        /** Whether the value matched by the variable, if any, is in the locale's set for it. */
+        boolean matchesGroup(String groupMatch, LocaleSpecificInfo localeSpecificInfo) {
+            if (additionalMatch == null) {
+                return true;
             }
-            boolean result = super.find(item, context, info); // also sets matcher in RegexFinder
-            if (!result) {
-                return false;
+            // we match on a group, so get the right one
+            switch (additionalMatch) {
+                case Target_Language:
+                    return localeSpecificInfo.targetLanguage.equals(groupMatch);
+                case Target_Scripts:
+                    return localeSpecificInfo.cvi.targetScripts.contains(groupMatch);
+                case Target_Territories:
+                    return localeSpecificInfo.cvi.targetTerritories.contains(groupMatch);
+                case Target_TimeZones:
+                    return localeSpecificInfo.cvi.targetTimeZones.contains(groupMatch);
+                case Target_Currencies:
+                    return localeSpecificInfo.cvi.targetCurrencies.contains(groupMatch);
+                // For Target_Plurals, we have to account for the fact that the @count= part
+                // might not be in the
+                // xpath, so we shouldn't reject the match because of that. ( i.e. The regex
+                // is usually
+                // ([@count='${Target-Plurals}'])?
+                case Target_Plurals:
+                    return (groupMatch == null
+                            || groupMatch.length() == 0
+                            || localeSpecificInfo.cvi.targetPlurals.contains(groupMatch));
+                case Calendar_List:
+                    return localeSpecificInfo.cvi.calendars.contains(groupMatch);
             }
-            if (additionalMatch != null) {
-                String groupMatch = info.value[1];
-                //                    String groupMatch = matcher.group(1);
-                // we match on a group, so get the right one
-                switch (additionalMatch) {
-                    case Target_Language:
-                        return localeSpecificInfo.targetLanguage.equals(groupMatch);
-                    case Target_Scripts:
-                        return localeSpecificInfo.cvi.targetScripts.contains(groupMatch);
-                    case Target_Territories:
-                        return localeSpecificInfo.cvi.targetTerritories.contains(groupMatch);
-                    case Target_TimeZones:
-                        return localeSpecificInfo.cvi.targetTimeZones.contains(groupMatch);
-                    case Target_Currencies:
-                        return localeSpecificInfo.cvi.targetCurrencies.contains(groupMatch);
-                    // For Target_Plurals, we have to account for the fact that the @count= part
-                    // might not be in the
-                    // xpath, so we shouldn't reject the match because of that. ( i.e. The regex
-                    // is usually
-                    // ([@count='${Target-Plurals}'])?
-                    case Target_Plurals:
-                        return (groupMatch == null
-                                || groupMatch.length() == 0
-                                || localeSpecificInfo.cvi.targetPlurals.contains(groupMatch));
-                    case Calendar_List:
-                        return localeSpecificInfo.cvi.calendars.contains(groupMatch);
-                }
-            }
-
             return true;
         }
 
@@ -155,6 +182,7 @@ public class CoverageLevel2 {
         myInfo.targetLanguage = CLDRLocale.getInstance(locale).getLanguage();
         myInfo.cvi = sdi.getCoverageVariableInfo(myInfo.targetLanguage);
         lookup = sdi.getCoverageLookup();
+        compiled = COMPILED.getUnchecked(lookup);
     }
 
     private CoverageLevel2(SupplementalDataInfo sdi, String locale, String ruleFile) {
@@ -162,6 +190,7 @@ public class CoverageLevel2 {
         myInfo.cvi = sdi.getCoverageVariableInfo(myInfo.targetLanguage);
         RawCoverageFile rcf = new RawCoverageFile();
         lookup = rcf.load(ruleFile);
+        compiled = COMPILED.getUnchecked(lookup);
     }
 
     /**
@@ -192,11 +221,9 @@ public class CoverageLevel2 {
         if (path == null) {
             return Level.UNDETERMINED;
         }
-        synchronized (
-                lookup) { // synchronize on the class, since the Matchers are changed during the
-            // matching process
-            Level result;
-            if (DEBUG_LOOKUP) { // for testing
+        Level result;
+        if (DEBUG_LOOKUP) { // for testing
+            synchronized (lookup) {
                 Output<String[]> checkItems = new Output<>();
                 Output<Finder> matcherFound = new Output<>();
                 List<String> failures = new ArrayList<>();
@@ -204,13 +231,130 @@ public class CoverageLevel2 {
                 for (String s : failures) {
                     System.out.println(s);
                 }
-            } else {
-                result = lookup.get(path, myInfo, null);
             }
+        } else {
+            result = compiled.get(path, myInfo);
+        }
+        return result == null ? Level.COMPREHENSIVE : result;
+    }
+
+    /**
+     * Get the level as the RegexLookup finds it, taking a lock since its Matchers are changed
+     * during the matching process. Only for comparison with {@link #getLevel(String)}.
+     */
+    public Level getLevelFromRegexLookup(String path) {
+        if (path == null) {
+            return Level.UNDETERMINED;
+        }
+        synchronized (lookup) {
+            Level result = lookup.get(path, myInfo, null);
             return result == null ? Level.COMPREHENSIVE : result;
         }
     }
 
+    /**
+     * The coverage rules of a RegexLookup, compiled into an immutable form that needs no locking.
+     * As in the lookup, rules are grouped by the path with attribute values replaced by stars, so a
+     * path is only tested against the rules that could match it, in the order they were added. Each
+     * test uses a Matcher of its own, and the first rule that matches gives the level.
+     */
+    private static final class CompiledLookup {
+        private static final class Rule {
+            final int index;
+            final MyRegexFinder finder;
+            final Pattern pattern;
+            final Level level;
+
+            Rule(int index, MyRegexFinder finder, Level level) {
+                this.index = index;
+                this.finder = finder;
+                this.pattern = finder.getPattern();
+                this.level = level;
+            }
+        }
+
+        private static final byte APPLIES = 1;
+        private static final byte DOES_NOT_APPLY = 2;
+
+        private final Map<String, Rule[]> rulesByStarredPath;
+        private final int ruleCount;
+
+        CompiledLookup(RegexLookup<Level> lookup) {
+            Map<String, List<Rule>> rules = new HashMap<>();
+            int count = 0;
+            for (Entry<Finder, Level> entry : lookup) {
+                if (!(entry.getKey() instanceof MyRegexFinder)) {
+                    throw new IllegalArgumentException(
+                            "Coverage lookups must only contain coverage rules: " + entry.getKey());
+                }
+                rules.computeIfAbsent(
+                                RegexLookup.getStarPatternKey(entry.getKey()),
+                                k -> new ArrayList<>())
+                        .add(new Rule(count++, (MyRegexFinder) entry.getKey(), entry.getValue()));
+            }
+            ruleCount = count;
+            ImmutableMap.Builder<String, Rule[]> builder = ImmutableMap.builder();
+            for (Entry<String, List<Rule>> entry : rules.entrySet()) {
+                builder.put(entry.getKey(), entry.getValue().toArray(new Rule[0]));
+            }
+            rulesByStarredPath = builder.build();
+        }
+
+        Level get(String path, LocaleSpecificInfo localeSpecificInfo) {
+            Rule[] rules = rulesByStarredPath.get(starPath(path));
+            if (rules == null) {
+                return null;
+            }
+            // Whether a rule applies only depends on the locale, so remember it. Racing threads
+            // can only store the same values.
+            byte[] applies = localeSpecificInfo.ruleApplies;
+            if (applies == null || applies.length != ruleCount) {
+                localeSpecificInfo.ruleApplies = applies = new byte[ruleCount];
+            }
+            for (Rule rule : rules) {
+                byte state = applies[rule.index];
+                if (state == 0) {
+                    state = rule.finder.appliesTo(localeSpecificInfo) ? APPLIES : DOES_NOT_APPLY;
+                    applies[rule.index] = state;
+                }
+                if (state != APPLIES) {
+                    continue;
+                }
+                Matcher matcher = rule.pattern.matcher(path);
+                if (matcher.find()
+                        && rule.finder.matchesGroup(
+                                matcher.groupCount() > 0 ? matcher.group(1) : null,
+                                localeSpecificInfo)) {
+                    return rule.level;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * The same as {@link RegexLookup#starPatternTransform}, without regexes for plain paths.
+         */
+        private static String starPath(String path) {
+            if (path.indexOf('\\') >= 0 || path.startsWith("^")) {
+                return RegexLookup.starPatternTransform(path);
+            }
+            StringBuilder result = null;
+            int last = 0;
+            for (int start = path.indexOf("=\""); start >= 0; start = path.indexOf("=\"", last)) {
+                int end = path.indexOf('"', start + 2);
+                if (end < 0) {
+                    break;
+                }
+                if (result == null) {
+                    result = new StringBuilder(path.length());
+                }
+                result.append(path, last, start + 2).append(PathStarrer.SIMPLE_STAR_PATTERN);
+                last = end;
+            }
+            return result == null ? path : result.append(path, last, path.length()).toString();
+        }
+    }
+
     public int getIntLevel(String path) {
         return getLevel(path).getLevel();
     }
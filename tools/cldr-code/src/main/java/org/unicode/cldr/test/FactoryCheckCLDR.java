@@ -46,7 +46,13 @@ abstract class FactoryCheckCLDR extends CheckCLDR {
 
     public CLDRFile getResolvedCldrFileToCheck() {
         if (resolvedCldrFileToCheck == null) {
-            resolvedCldrFileToCheck = factory.make(getCldrFileToCheck().getLocaleID(), true);
+            CLDRFile cldrFileToCheck = getCldrFileToCheck();
+            // A resolved file to check already is the one wanted; reading it lets callers see
+            // which paths a check depends on (see TestCache)
+            resolvedCldrFileToCheck =
+                    cldrFileToCheck.isResolved()
+                            ? cldrFileToCheck
+                            : factory.make(cldrFileToCheck.getLocaleID(), true);
         }
         return resolvedCldrFileToCheck;
     }
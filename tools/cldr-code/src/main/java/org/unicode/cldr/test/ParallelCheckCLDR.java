@@ -0,0 +1,196 @@
+package org.unicode.cldr.test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import org.unicode.cldr.test.CheckCLDR.CheckStatus;
+import org.unicode.cldr.test.CheckCLDR.CompoundCheckCLDR;
+import org.unicode.cldr.test.CheckCLDR.Options;
+import org.unicode.cldr.util.CLDRFile;
+import org.unicode.cldr.util.Factory;
+
+/**
+ * Runs all of the checks on the paths of one locale, using several threads. The paths are split
+ * into chunks on a ForkJoinPool, so that idle threads steal work from busy ones.
+ *
+ * <p>Checks keep per-locale state, so they can't be shared between threads. Each thread that works
+ * on the paths gets its own set of checks from {@link CheckCLDR#getCheckAll}, set up for the same
+ * file and options. The results come back in the order of the paths, and the results for each path
+ * are in the order of the checks, so they are the same however the work was split.
+ *
+ * <p>Example:
+ *
+ * <pre>
+ * ParallelCheckCLDR checker =
+ *         new ParallelCheckCLDR(factory, ".*", file, options).setStatistics(new CheckStatistics());
+ * List&lt;List&lt;CheckStatus&gt;&gt; results = checker.check(paths, values);
+ * String json = checker.getStatistics().toJson();
+ * </pre>
+ */
+public class ParallelCheckCLDR {
+    /** Chunks with no more than this many paths are checked without splitting further */
+    public static final int DEFAULT_CHUNK_SIZE = 64;
+
+    private final Factory factory;
+    private final String nameMatcher;
+    private final CLDRFile file;
+    private final Options options;
+    private final List<CheckStatus> possibleProblems = new ArrayList<>();
+
+    /** The checks for each thread that has worked on this locale */
+    private final Map<Thread, CompoundCheckCLDR> checksByThread = new ConcurrentHashMap<>();
+
+    private ForkJoinPool pool = ForkJoinPool.commonPool();
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+    private CheckStatistics statistics;
+
+    /**
+     * Set up the checks for a file. The checks for the calling thread are set up right away, and
+     * report the problems for the locale as a whole; see {@link #getPossibleProblems()}.
+     *
+     * @param factory the factory passed to {@link CheckCLDR#getCheckAll}
+     * @param nameMatcher the regex for the names of the checks to run
+     * @param file the resolved file to check
+     * @param options the options for the checks
+     */
+    public ParallelCheckCLDR(Factory factory, String nameMatcher, CLDRFile file, Options options) {
+        this.factory = factory;
+        this.nameMatcher = nameMatcher;
+        this.file = file;
+        this.options = options;
+        CompoundCheckCLDR checks = CheckCLDR.getCheckAll(factory, nameMatcher);
+        checks.setCldrFileToCheck(file, options, possibleProblems);
+        checksByThread.put(Thread.currentThread(), checks);
+    }
+
+    /** Use a different pool than the common one. */
+    public ParallelCheckCLDR setPool(ForkJoinPool pool) {
+        this.pool = pool;
+        return this;
+    }
+
+    /**
+     * Change the size of the smallest chunk of paths; see {@link #DEFAULT_CHUNK_SIZE}. If there are
+     * no more paths than this, they are all checked on the calling thread.
+     */
+    public ParallelCheckCLDR setChunkSize(int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+        }
+        this.chunkSize = chunkSize;
+        return this;
+    }
+
+    /**
+     * Record the time spent in each check on every thread to the given statistics, which may be
+     * shared with other checkers; or turn off timing, if null.
+     */
+    public ParallelCheckCLDR setStatistics(CheckStatistics statistics) {
+        this.statistics = statistics;
+        for (CompoundCheckCLDR checks : checksByThread.values()) {
+            checks.setStatistics(statistics);
+        }
+        return this;
+    }
+
+    /** Get where the timings are recorded, or null if timing is off. */
+    public CheckStatistics getStatistics() {
+        return statistics;
+    }
+
+    /** The problems with the locale as a whole, found when the checks were set up. */
+    public List<CheckStatus> getPossibleProblems() {
+        return possibleProblems;
+    }
+
+    /**
+     * Check the given paths.
+     *
+     * @param paths the paths to check
+     * @param values the value to check for each path
+     * @return the results for each path, in the same order as the paths
+     */
+    public List<List<CheckStatus>> check(List<String> paths, List<String> values) {
+        if (paths.size() != values.size()) {
+            throw new IllegalArgumentException(
+                    "Got " + paths.size() + " paths but " + values.size() + " values");
+        }
+        @SuppressWarnings("unchecked")
+        List<CheckStatus>[] results = new List[paths.size()];
+        CheckTask task = new CheckTask(paths, values, results, 0, paths.size());
+        if (paths.size() <= chunkSize) {
+            task.compute(); // all on this thread
+        } else {
+            pool.invoke(task);
+        }
+        return Arrays.asList(results);
+    }
+
+    /** Get the examples for a path, on the calling thread. */
+    public void getExamples(String path, String value, List<CheckStatus> result) {
+        getChecks().getExamples(path, file.getFullXPath(path), value, options, result);
+    }
+
+    /** The number of threads that have had checks set up for them. */
+    public int getThreadCount() {
+        return checksByThread.size();
+    }
+
+    private CompoundCheckCLDR getChecks() {
+        // only this thread adds its own entry, and setting up is slow, so don't computeIfAbsent
+        Thread thread = Thread.currentThread();
+        CompoundCheckCLDR checks = checksByThread.get(thread);
+        if (checks == null) {
+            checks = CheckCLDR.getCheckAll(factory, nameMatcher);
+            checks.setCldrFileToCheck(file, options, new ArrayList<>());
+            checks.setStatistics(statistics);
+            checksByThread.put(thread, checks);
+        }
+        return checks;
+    }
+
+    private class CheckTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final List<String> paths;
+        private final List<String> values;
+        private final List<CheckStatus>[] results;
+        private final int start;
+        private final int end;
+
+        CheckTask(
+                List<String> paths,
+                List<String> values,
+                List<CheckStatus>[] results,
+                int start,
+                int end) {
+            this.paths = paths;
+            this.values = values;
+            this.results = results;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start <= chunkSize) {
+                CompoundCheckCLDR checks = getChecks();
+                for (int i = start; i < end; ++i) {
+                    String path = paths.get(i);
+                    List<CheckStatus> result = new ArrayList<>();
+                    checks.check(path, file.getFullXPath(path), values.get(i), options, result);
+                    results[i] = result;
+                }
+            } else {
+                int middle = (start + end) >>> 1;
+                invokeAll(
+                        new CheckTask(paths, values, results, start, middle),
+                        new CheckTask(paths, values, results, middle, end));
+            }
+        }
+    }
+}
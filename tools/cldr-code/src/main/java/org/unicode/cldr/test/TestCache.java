@@ -4,21 +4,31 @@ import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.SetMultimap;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map.Entry;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.unicode.cldr.test.CheckCLDR.CheckStatus;
+import org.unicode.cldr.test.CheckCLDR.CompoundCheckCLDR;
 import org.unicode.cldr.test.CheckCLDR.Options;
 import org.unicode.cldr.util.CLDRConfig;
 import org.unicode.cldr.util.CLDRFile;
 import org.unicode.cldr.util.CLDRLocale;
 import org.unicode.cldr.util.CLDRLocale.SublocaleProvider;
 import org.unicode.cldr.util.Factory;
+import org.unicode.cldr.util.LogicalGrouping;
 import org.unicode.cldr.util.Pair;
+import org.unicode.cldr.util.PathStarrer;
+import org.unicode.cldr.util.RecordingCLDRFile;
 import org.unicode.cldr.util.XMLSource;
 
 /**
@@ -32,21 +42,136 @@ public class TestCache implements XMLSource.Listener {
     private static final Logger logger = Logger.getLogger(TestCache.class.getSimpleName());
 
     public class TestResultBundle {
-        private final CheckCLDR cc = CheckCLDR.getCheckAll(getFactory(), nameMatcher);
+        private final CompoundCheckCLDR cc = CheckCLDR.getCheckAll(getFactory(), nameMatcher);
         final CLDRFile file;
         private final CheckCLDR.Options options;
-        private final ConcurrentHashMap<Pair<String, String>, List<CheckStatus>> pathCache;
+        private final ConcurrentHashMap<Pair<String, String>, CachedResult> pathCache;
         protected final List<CheckStatus> possibleProblems = new ArrayList<>();
 
+        /** The same data as file, noting the paths that the checks read; guarded by cc */
+        private final RecordingCLDRFile recordingFile;
+
+        /**
+         * The checks that read each path while they were being set up, and may keep state computed
+         * from its value; guarded by cc
+         */
+        private final SetMultimap<String, CheckCLDR> checksBySetupPath = HashMultimap.create();
+
+        /**
+         * The checks whose setup failed, to be tried again before the next path is checked, so
+         * that the paths read by a later setup are recorded too; guarded by cc
+         */
+        private final Set<CheckCLDR> notSetUp = new HashSet<>();
+
+        /** Whether CheckDisplayCollisions is among the checks; see {@link #invalidate} */
+        private final boolean checksCollisions;
+
         protected TestResultBundle(CheckCLDR.Options cldrOptions) {
             options = cldrOptions;
             pathCache = new ConcurrentHashMap<>();
             file = getFactory().make(options.getLocale().getBaseName(), true);
+            recordingFile = new RecordingCLDRFile(file.getResolvingDataSource());
+            if (CHECK_STATISTICS) {
+                cc.setStatistics(CheckStatistics.getGlobal());
+            }
             synchronized (cc) {
-                cc.setCldrFileToCheck(file, options, possibleProblems);
+                recordingFile.enableRecording();
+                cc.setCldrFileToCheck(recordingFile, options, possibleProblems);
+                // set up now rather than on the first path, so the paths read are recorded
+                for (CheckCLDR check : cc.getFilteredCheckList()) {
+                    setUp(check);
+                }
+                checksCollisions =
+                        cc.getFilteredCheckList().stream()
+                                .anyMatch(c -> c instanceof CheckDisplayCollisions);
             }
         }
 
+        /**
+         * Run the setup of a check, noting the paths it reads, even if it fails part way. Must hold
+         * cc.
+         */
+        private void setUp(CheckCLDR check) {
+            recordingFile.clearRecordedPaths();
+            if (check.initialize()) {
+                notSetUp.remove(check);
+            } else {
+                notSetUp.add(check);
+            }
+            for (String path : recordingFile.getRecordedPaths()) {
+                checksBySetupPath.put(path, check);
+            }
+        }
+
+        /** Try again to set up the checks whose setup failed. Must hold cc. */
+        private void setUpFailed() {
+            if (!notSetUp.isEmpty()) {
+                for (CheckCLDR check : List.copyOf(notSetUp)) {
+                    setUp(check);
+                }
+            }
+        }
+
+        /**
+         * Bring the cached results up to date with a change to the winning value of the given path.
+         *
+         * <p>If any check read the path while being set up, those checks are set up again, and all
+         * the results are dropped, since any of them may come from the old setup. Otherwise, the
+         * results dropped are those for the path itself, for the other paths in its logical group,
+         * for the paths whose examples depend on it according to {@link ExampleDependencies}, for
+         * the paths whose checks read its value, and for the paths that CheckDisplayCollisions
+         * compares with it.
+         */
+        void invalidate(String xpath) {
+            final boolean setUpAgain;
+            synchronized (cc) {
+                Set<CheckCLDR> stale = Set.copyOf(checksBySetupPath.get(xpath));
+                setUpAgain = !stale.isEmpty();
+                if (setUpAgain) {
+                    checksBySetupPath.values().removeIf(stale::contains);
+                    for (CheckCLDR check : stale) {
+                        check.setCldrFileToCheck(recordingFile, options, new ArrayList<>());
+                        setUp(check);
+                    }
+                    invalidationStats.checksSetUpAgain.add(stale.size());
+                }
+            }
+            // not holding cc, since computeIfAbsent in check() takes cc while locking the map
+            if (setUpAgain) {
+                invalidationStats.resultsDropped.add(pathCache.size());
+                pathCache.clear();
+                return;
+            }
+            Set<String> paths = new HashSet<>();
+            paths.add(xpath);
+            Set<String> group = LogicalGrouping.getPaths(file, xpath);
+            if (group != null) {
+                paths.addAll(group);
+            }
+            Set<String> starredDependents =
+                    ExampleDependencies.dependencies.get(PathStarrer.get(xpath));
+            String collisionKey =
+                    checksCollisions ? CheckDisplayCollisions.getCollisionKey(xpath) : null;
+            int removed = 0;
+            for (Iterator<Entry<Pair<String, String>, CachedResult>> it =
+                            pathCache.entrySet().iterator();
+                    it.hasNext(); ) {
+                Entry<Pair<String, String>, CachedResult> entry = it.next();
+                String path = entry.getKey().getFirst();
+                if (paths.contains(path)
+                        || entry.getValue().pathsRead.contains(xpath)
+                        || (collisionKey != null
+                                && collisionKey.equals(entry.getValue().collisionKey))
+                        || (!starredDependents.isEmpty()
+                                && starredDependents.contains(PathStarrer.get(path)))) {
+                    it.remove();
+                    ++removed;
+                }
+            }
+            invalidationStats.resultsDropped.add(removed);
+            invalidationStats.resultsKept.add(pathCache.size());
+        }
+
         /**
          * Check the given value for the given path, using this TestResultBundle for options,
          * pathCache and cc (CheckCLDR).
@@ -65,23 +190,31 @@ public class TestCache implements XMLSource.Listener {
              */
             result.clear();
             Pair<String, String> key = new Pair<>(path, value);
-            List<CheckStatus> cachedResult =
+            CachedResult cachedResult =
                     pathCache.computeIfAbsent(
                             key,
                             (Pair<String, String> k) -> {
                                 List<CheckStatus> l = new ArrayList<CheckStatus>();
                                 synchronized (cc) {
+                                    setUpFailed();
+                                    recordingFile.clearRecordedPaths();
                                     cc.check(
                                             k.getFirst(),
                                             file.getFullXPath(k.getFirst()),
                                             k.getSecond(),
                                             options,
                                             l);
+                                    return new CachedResult(
+                                            l,
+                                            Set.copyOf(recordingFile.getRecordedPaths()),
+                                            checksCollisions
+                                                    ? CheckDisplayCollisions.getCollisionKey(
+                                                            k.getFirst())
+                                                    : null);
                                 }
-                                return l;
                             });
             if (cachedResult != null) {
-                result.addAll(cachedResult);
+                result.addAll(cachedResult.statuses);
             }
         }
 
@@ -94,10 +227,40 @@ public class TestCache implements XMLSource.Listener {
         public List<CheckStatus> getPossibleProblems() {
             return possibleProblems;
         }
+
+        /** The paths read while setting up the checks; see {@link #invalidate}. */
+        Set<String> getSetupPaths() {
+            synchronized (cc) {
+                return Set.copyOf(checksBySetupPath.keySet());
+            }
+        }
+    }
+
+    /**
+     * The results of checking one path and value, the paths that the checks read, and the group of
+     * paths that CheckDisplayCollisions compares the path with
+     */
+    private static class CachedResult {
+        final List<CheckStatus> statuses;
+        final Set<String> pathsRead;
+        final String collisionKey;
+
+        CachedResult(List<CheckStatus> statuses, Set<String> pathsRead, String collisionKey) {
+            this.statuses = statuses;
+            this.pathsRead = pathsRead;
+            this.collisionKey = collisionKey;
+        }
     }
 
     private static final boolean DEBUG = false;
 
+    /**
+     * Whether to time the checks run for the Survey Tool, in {@link CheckStatistics#getGlobal()};
+     * on unless CLDR_CHECK_STATISTICS is false.
+     */
+    private static final boolean CHECK_STATISTICS =
+            CLDRConfig.getInstance().getProperty("CLDR_CHECK_STATISTICS", true);
+
     /*
      * TODO: document whether CLDR_TESTCACHE_SIZE is set on production server, and if so to what, and why;
      * evaluate why the fallback 12 for CLDR_TESTCACHE_SIZE is appropriate or too small. Consider not
@@ -120,6 +283,59 @@ public class TestCache implements XMLSource.Listener {
 
     private String nameMatcher = ".*";
 
+    /**
+     * Counts of how much of the cached test results survive edits, to show how much checking is
+     * saved by only dropping the results that an edit can affect.
+     */
+    public static class InvalidationStats {
+        /** Edits to a locale that had cached results */
+        final LongAdder edits = new LongAdder();
+
+        /** Checks set up again, for having read the edited path when they were set up */
+        final LongAdder checksSetUpAgain = new LongAdder();
+
+        /** Cached results dropped, to be checked again */
+        final LongAdder resultsDropped = new LongAdder();
+
+        /** Cached results kept */
+        final LongAdder resultsKept = new LongAdder();
+
+        public long getEdits() {
+            return edits.sum();
+        }
+
+        public long getChecksSetUpAgain() {
+            return checksSetUpAgain.sum();
+        }
+
+        public long getResultsDropped() {
+            return resultsDropped.sum();
+        }
+
+        public long getResultsKept() {
+            return resultsKept.sum();
+        }
+
+        @Override
+        public String toString() {
+            return "edits: "
+                    + getEdits()
+                    + ", checks set up again: "
+                    + getChecksSetUpAgain()
+                    + ", results dropped: "
+                    + getResultsDropped()
+                    + ", results kept: "
+                    + getResultsKept();
+        }
+    }
+
+    private final InvalidationStats invalidationStats = new InvalidationStats();
+
+    /** Get the counts of what edits have done to the cached test results. */
+    public InvalidationStats getInvalidationStats() {
+        return invalidationStats;
+    }
+
     /** Get the bundle for this test */
     public TestResultBundle getBundle(final CheckCLDR.Options options) {
         TestResultBundle b;
@@ -165,6 +381,8 @@ public class TestCache implements XMLSource.Listener {
                         + factory.getClass().getSimpleName()
                         + " Size: "
                         + testResultCache.size()
+                        + " "
+                        + invalidationStats
                         + " (");
         int good = 0;
         int total = 0;
@@ -223,30 +441,20 @@ public class TestCache implements XMLSource.Listener {
     }
 
     /**
-     * Update the cache of TestResultBundle objects, per valueChanged
+     * Update the cache of TestResultBundle objects, per valueChanged. Each bundle for the locale
+     * only drops the results that the change may affect; see {@link TestResultBundle#invalidate}.
      *
      * @param xpath the xpath whose value has changed
      * @param locale the CLDRLocale
      *     <p>Called by valueChangedInvalidateRecursively
      */
-    private void updateTestResultCache(
-            @SuppressWarnings("unused") String xpath, CLDRLocale locale) {
-        if (!testResultCache.asMap().isEmpty()) {
-            // Filter the testResultCache to only remove the items where the locale matches
-            List<Options> toRemove = new ArrayList<>();
-            for (Options k : testResultCache.asMap().keySet()) {
-                if (k.getLocale().equals(locale)) {
-                    toRemove.add(k);
-                }
-            }
-            if (!DEBUG) {
-                // no logging is done, simply invalidate all items
-                testResultCache.invalidateAll(toRemove);
-            } else {
-                // avoid concurrent remove
-                for (CheckCLDR.Options k : toRemove) {
-                    testResultCache.invalidate(k);
-                    System.err.println("BundDel " + k);
+    private void updateTestResultCache(String xpath, CLDRLocale locale) {
+        for (Entry<Options, TestResultBundle> entry : testResultCache.asMap().entrySet()) {
+            if (entry.getKey().getLocale().equals(locale)) {
+                invalidationStats.edits.increment();
+                entry.getValue().invalidate(xpath);
+                if (DEBUG) {
+                    System.err.println("BundInv " + entry.getKey() + " @ " + xpath);
                 }
             }
         }
@@ -0,0 +1,102 @@
+package org.unicode.cldr.tool;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+import org.unicode.cldr.tool.Option.Options;
+import org.unicode.cldr.tool.Option.Params;
+import org.unicode.cldr.util.CLDRConfig;
+import org.unicode.cldr.util.CLDRFile;
+import org.unicode.cldr.util.CLDRPaths;
+import org.unicode.cldr.util.CLDRTool;
+import org.unicode.cldr.util.CoverageTable;
+import org.unicode.cldr.util.Factory;
+import org.unicode.cldr.util.SupplementalDataInfo;
+import org.unicode.cldr.util.Timer;
+
+@CLDRTool(
+        alias = "generate-coverage-table",
+        description =
+                "Precompute the coverage levels of all paths, for use with -DCLDR_SNAPSHOT_DIR")
+public class GenerateCoverageTable {
+    enum MyOptions {
+        destinationDirectory(
+                new Params()
+                        .setHelp("snapshot directory, to be passed as -DCLDR_SNAPSHOT_DIR")
+                        .setDefault(CLDRPaths.GEN_DIRECTORY + "snapshots")
+                        .setMatch(".*")),
+        localeMatch(new Params().setHelp("regex to match the locales, eg: ^fr").setMatch(".*")),
+        ;
+
+        // BOILERPLATE TO COPY
+        final Option option;
+
+        private MyOptions(Params params) {
+            option = new Option(this, params);
+        }
+
+        private static Options myOptions = new Options();
+
+        static {
+            for (MyOptions option : MyOptions.values()) {
+                myOptions.add(option, option.option);
+            }
+        }
+
+        private static void parse(String[] args) {
+            myOptions.parse(MyOptions.values()[0], args, true);
+        }
+    }
+
+    public static void main(String[] args) {
+        MyOptions.parse(args);
+        final File destination = new File(MyOptions.destinationDirectory.option.getValue());
+        final String localeMatch = MyOptions.localeMatch.option.getValue();
+        final Pattern filter = localeMatch == null ? null : Pattern.compile(localeMatch);
+
+        CLDRConfig config = CLDRConfig.getInstance();
+        Factory factory = config.getCldrFactory();
+        List<String> locales = new ArrayList<>();
+        for (String localeId : factory.getAvailable()) {
+            if (filter == null || filter.matcher(localeId).find()) {
+                locales.add(localeId);
+            }
+        }
+
+        // the resolved paths include the extra paths, which vary by locale (eg plural counts)
+        Timer timer = new Timer();
+        Set<String> paths = new HashSet<>();
+        for (String localeId : locales) {
+            CLDRFile file = factory.make(localeId, true);
+            file.fullIterable().forEach(paths::add);
+        }
+        System.out.println(
+                "Collected "
+                        + paths.size()
+                        + " paths from "
+                        + locales.size()
+                        + " locales "
+                        + timer);
+
+        timer.start();
+        SupplementalDataInfo sdi = config.getSupplementalDataInfo();
+        CoverageTable table = CoverageTable.build(sdi, paths, locales);
+        File written = table.save(destination);
+        System.out.println(
+                "Wrote "
+                        + written
+                        + ": "
+                        + table.size()
+                        + " paths, "
+                        + table.getLanguages().size()
+                        + " languages, "
+                        + table.getOverrideCount()
+                        + " overrides, "
+                        + written.length()
+                        + " bytes "
+                        + timer);
+    }
+}
@@ -0,0 +1,137 @@
+package org.unicode.cldr.tool;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.unicode.cldr.tool.Option.Options;
+import org.unicode.cldr.tool.Option.Params;
+import org.unicode.cldr.util.CLDRFile.DraftStatus;
+import org.unicode.cldr.util.CLDRPaths;
+import org.unicode.cldr.util.CLDRTool;
+import org.unicode.cldr.util.DtdType;
+import org.unicode.cldr.util.Timer;
+import org.unicode.cldr.util.XMLSourceSnapshot;
+
+@CLDRTool(
+        alias = "generate-snapshots",
+        description =
+                "Build binary XMLSource snapshots for a CLDR tree, for use with -DCLDR_SNAPSHOT_DIR")
+public class GenerateXMLSourceSnapshots {
+    enum MyOptions {
+        sourceDirectories(
+                new Params()
+                        .setHelp("comma-separated list of common-style directories to snapshot")
+                        .setDefault(CLDRPaths.COMMON_DIRECTORY + "," + CLDRPaths.SEED_DIRECTORY1)
+                        .setMatch(".*")),
+        destinationDirectory(
+                new Params()
+                        .setHelp("snapshot directory, to be passed as -DCLDR_SNAPSHOT_DIR")
+                        .setDefault(CLDRPaths.GEN_DIRECTORY + "snapshots")
+                        .setMatch(".*")),
+        minimalDraftStatus(
+                new Params()
+                        .setHelp("minimal draft status the snapshots are built for")
+                        .setDefault(DraftStatus.unconfirmed.name())
+                        .setMatch("unconfirmed|provisional|contributed|approved")),
+        fileMatch(new Params().setHelp("regex to match dir/locale, eg: ^main/en$").setMatch(".*")),
+        verbose(new Params().setHelp("list each snapshot written")),
+        ;
+
+        // BOILERPLATE TO COPY
+        final Option option;
+
+        private MyOptions(Params params) {
+            option = new Option(this, params);
+        }
+
+        private static Options myOptions = new Options();
+
+        static {
+            for (MyOptions option : MyOptions.values()) {
+                myOptions.add(option, option.option);
+            }
+        }
+
+        private static void parse(String[] args) {
+            myOptions.parse(MyOptions.values()[0], args, true);
+        }
+    }
+
+    /** The directory types whose files are loaded through XMLNormalizingLoader */
+    private static final DtdType[] SNAPSHOT_TYPES = {
+        DtdType.ldml, DtdType.supplementalData, DtdType.ldmlBCP47
+    };
+
+    public static void main(String[] args) {
+        MyOptions.parse(args);
+        final File destination = new File(MyOptions.destinationDirectory.option.getValue());
+        final DraftStatus draftStatus =
+                DraftStatus.valueOf(MyOptions.minimalDraftStatus.option.getValue());
+        final String fileMatch = MyOptions.fileMatch.option.getValue();
+        final Pattern filter = fileMatch == null ? null : Pattern.compile(fileMatch);
+        final boolean verbose = MyOptions.verbose.option.doesOccur();
+
+        List<File> xmlFiles = new ArrayList<>();
+        for (String root : MyOptions.sourceDirectories.option.getValue().split(",")) {
+            for (DtdType type : SNAPSHOT_TYPES) {
+                for (String dir : type.directories) {
+                    File[] files = new File(root, dir).listFiles();
+                    if (files == null) {
+                        continue; // not every tree has every directory
+                    }
+                    Matcher matcher = filter == null ? null : filter.matcher("");
+                    for (File file : files) {
+                        String name = file.getName();
+                        if (!name.endsWith(".xml")) {
+                            continue;
+                        }
+                        String localeId = name.substring(0, name.length() - 4);
+                        if (matcher != null && !matcher.reset(dir + "/" + localeId).find()) {
+                            continue;
+                        }
+                        xmlFiles.add(file);
+                    }
+                }
+            }
+        }
+
+        System.out.println(
+                "Writing "
+                        + xmlFiles.size()
+                        + " snapshots ("
+                        + draftStatus
+                        + ") to "
+                        + destination);
+        final Timer timer = new Timer();
+        final AtomicInteger errors = new AtomicInteger();
+        xmlFiles.parallelStream()
+                .forEach(
+                        file -> {
+                            String name = file.getName();
+                            String localeId = name.substring(0, name.length() - 4);
+                            try {
+                                File written =
+                                        XMLSourceSnapshot.build(
+                                                destination, file, localeId, draftStatus);
+                                if (verbose) {
+                                    System.out.println("# Wrote: " + written);
+                                }
+                            } catch (RuntimeException e) {
+                                errors.incrementAndGet();
+                                System.err.println("Error: " + file + ": " + e);
+                            }
+                        });
+        System.out.println(
+                "Done in "
+                        + timer
+                        + ": "
+                        + (xmlFiles.size() - errors.get())
+                        + " snapshots written");
+        if (errors.get() != 0) {
+            throw new RuntimeException("Total errors: " + errors.get());
+        }
+    }
+}
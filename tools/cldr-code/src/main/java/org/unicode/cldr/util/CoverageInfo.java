@@ -66,8 +66,22 @@ public class CoverageInfo {
 
     private final SupplementalDataInfo supplementalDataInfo;
 
+    /** Precomputed levels, or null if there is no table */
+    private final CoverageTable table;
+
     public CoverageInfo(SupplementalDataInfo coverageInfoGettable) {
+        this(coverageInfoGettable, CoverageTable.getDefault(coverageInfoGettable));
+    }
+
+    /**
+     * Use the given precomputed table for the paths and languages it has, and the coverage rules
+     * for the rest.
+     *
+     * @param table a table built from the same supplemental data, or null
+     */
+    public CoverageInfo(SupplementalDataInfo coverageInfoGettable, CoverageTable table) {
         this.supplementalDataInfo = coverageInfoGettable;
+        this.table = table;
     }
 
     /**
@@ -79,6 +93,12 @@ public class CoverageInfo {
      * @return
      */
     public Level getCoverageLevel(String xpath, String loc) {
+        if (table != null) {
+            Level level = table.get(xpath, loc);
+            if (level != null) {
+                return level;
+            }
+        }
         Level result = null;
         final XPathWithLocation xpLoc = new XPathWithLocation(xpath, loc);
         try {
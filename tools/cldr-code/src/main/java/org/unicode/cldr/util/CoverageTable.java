@@ -0,0 +1,459 @@
+package org.unicode.cldr.util;
+
+import com.ibm.icu.util.ICUUncheckedIOException;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.unicode.cldr.test.CoverageLevel2;
+
+/**
+ * A precomputed table of coverage levels, so that {@link CoverageInfo} can look up the level of a
+ * (path, locale) pair without running the coverage rules. The rules only depend on the language of
+ * a locale, so the table holds one level per path (the one most languages get), and for each
+ * language only the paths where its level differs.
+ *
+ * <p>A table is built once per CLDR data version with {@link
+ * org.unicode.cldr.tool.GenerateCoverageTable}, and is picked up from the directory given by {@link
+ * XMLSourceSnapshot#SNAPSHOT_DIR_PROPERTY}. It records {@link CLDRFile#GEN_VERSION} and the SHA-1
+ * hash of the supplemental data it was built from, and is only used while both still match. Paths
+ * and languages that are not in the table are left to the caller.
+ *
+ * <p>Layout (gzipped, all integers big-endian):
+ *
+ * <pre>
+ * header:    MAGIC, FORMAT_VERSION, data version (modified UTF-8), hash length + hash bytes
+ * paths:     count, then for each path in sorted order the length of the prefix it shares with
+ *            the previous path (short) and the rest (modified UTF-8)
+ * levels:    for each path, the ordinal of its usual Level (byte)
+ * languages: count, then for each language its code, a count of overrides,
+ *            and (path index, Level ordinal byte) for each
+ * </pre>
+ */
+public class CoverageTable {
+    /** "CLDC" */
+    static final int MAGIC = 0x434C4443;
+
+    /** Bump whenever the layout changes, so that old tables are ignored. */
+    static final int FORMAT_VERSION = 1;
+
+    public static final String FILE_NAME = "coverage.cldrcov";
+
+    private static final Level[] LEVELS = Level.values();
+
+    /** Set in {@link #levelById} for paths that some language overrides. */
+    private static final int HAS_OVERRIDES = 0x80;
+
+    /** Tables by supplemental directory; empty if there is no usable table. */
+    private static final Map<String, Optional<CoverageTable>> DEFAULT_TABLES =
+            new ConcurrentHashMap<>();
+
+    private final String dataVersion;
+    private final byte[] sourceHash;
+    private final String[] paths;
+    private final byte[] levels;
+    private final Map<String, Overrides> overridesByLanguage;
+
+    /** The same overrides, keyed by PathDictionary id rather than path index. */
+    private final Map<String, Overrides> byId = new TreeMap<>();
+
+    /**
+     * By PathDictionary id, 1 + the Level ordinal for paths in the table, or 0; with {@link
+     * #HAS_OVERRIDES} where needed.
+     */
+    private final byte[] levelById;
+
+    /** Cache of locale ID to the overrides for its language, or NO_LANGUAGE. */
+    private final Map<String, Overrides> overridesByLocale = new ConcurrentHashMap<>();
+
+    private static final Overrides NO_LANGUAGE = new Overrides(new int[0], new byte[0]);
+
+    /**
+     * The overrides for one language, by path index (when serialized) or by id (when looking up).
+     */
+    private static final class Overrides {
+        final int[] keys;
+        final byte[] levels;
+
+        Overrides(int[] keys, byte[] levels) {
+            this.keys = keys;
+            this.levels = levels;
+        }
+
+        /** Returns the Level ordinal, or -1 */
+        int get(int key) {
+            int index = Arrays.binarySearch(keys, key);
+            return index < 0 ? -1 : levels[index];
+        }
+    }
+
+    private CoverageTable(
+            String dataVersion,
+            byte[] sourceHash,
+            String[] paths,
+            byte[] levels,
+            Map<String, Overrides> overridesByLanguage) {
+        this.dataVersion = dataVersion;
+        this.sourceHash = sourceHash;
+        this.paths = paths;
+        this.levels = levels;
+        this.overridesByLanguage = overridesByLanguage;
+
+        int[] ids = new int[paths.length];
+        int maxId = -1;
+        for (int i = 0; i < paths.length; ++i) {
+            ids[i] = PathDictionary.getId(paths[i]);
+            maxId = Math.max(maxId, ids[i]);
+        }
+        levelById = new byte[maxId + 1];
+        for (int i = 0; i < paths.length; ++i) {
+            levelById[ids[i]] = (byte) (levels[i] + 1);
+        }
+        for (Overrides overrides : overridesByLanguage.values()) {
+            for (int pathIndex : overrides.keys) {
+                levelById[ids[pathIndex]] |= HAS_OVERRIDES;
+            }
+        }
+        for (Map.Entry<String, Overrides> entry : overridesByLanguage.entrySet()) {
+            Overrides overrides = entry.getValue();
+            long[] pairs = new long[overrides.keys.length];
+            for (int i = 0; i < pairs.length; ++i) {
+                pairs[i] = ((long) ids[overrides.keys[i]] << 8) | overrides.levels[i];
+            }
+            Arrays.sort(pairs);
+            int[] keys = new int[pairs.length];
+            byte[] values = new byte[pairs.length];
+            for (int i = 0; i < pairs.length; ++i) {
+                keys[i] = (int) (pairs[i] >>> 8);
+                values[i] = (byte) pairs[i];
+            }
+            byId.put(entry.getKey(), new Overrides(keys, values));
+        }
+    }
+
+    /**
+     * Get the coverage level of a path in a locale.
+     *
+     * @return the level, or null if the path or the language of the locale is not in the table
+     */
+    public Level get(String path, String localeId) {
+        int id = PathDictionary.peekId(path);
+        if (id < 0 || id >= levelById.length) {
+            return null;
+        }
+        int entry = levelById[id] & 0xFF;
+        if (entry == 0) {
+            return null;
+        }
+        Overrides overrides = overridesByLocale.get(localeId);
+        if (overrides == null) {
+            Overrides found = byId.get(CLDRLocale.getInstance(localeId).getLanguage());
+            overrides = found == null ? NO_LANGUAGE : found;
+            overridesByLocale.put(localeId, overrides);
+        }
+        if (overrides == NO_LANGUAGE) {
+            return null;
+        }
+        if ((entry & HAS_OVERRIDES) != 0) {
+            int override = overrides.get(id);
+            if (override >= 0) {
+                return LEVELS[override];
+            }
+        }
+        return LEVELS[(entry & ~HAS_OVERRIDES) - 1];
+    }
+
+    /** The number of paths in the table. */
+    public int size() {
+        return paths.length;
+    }
+
+    /** The languages in the table. */
+    public Collection<String> getLanguages() {
+        return overridesByLanguage.keySet();
+    }
+
+    /** The total number of per-language overrides. */
+    public int getOverrideCount() {
+        int result = 0;
+        for (Overrides overrides : overridesByLanguage.values()) {
+            result += overrides.keys.length;
+        }
+        return result;
+    }
+
+    /** The CLDR data version the table was built for. */
+    public String getDataVersion() {
+        return dataVersion;
+    }
+
+    /** Whether the table was built for this data version and this supplemental data. */
+    public boolean isFreshFor(SupplementalDataInfo sdi) {
+        return CLDRFile.GEN_VERSION.equals(dataVersion)
+                && Arrays.equals(sourceHash, hashSupplementalData(sdi));
+    }
+
+    /**
+     * Compute the coverage levels of the given paths, for the languages of the given locales.
+     *
+     * @param sdi the supplemental data with the coverage rules
+     * @param paths the (distinguishing) paths to record
+     * @param localeIds the locales whose languages to record
+     */
+    public static CoverageTable build(
+            SupplementalDataInfo sdi, Collection<String> paths, Collection<String> localeIds) {
+        byte[] hash = hashSupplementalData(sdi);
+        String[] sortedPaths = new TreeSet<>(paths).toArray(new String[0]);
+        TreeSet<String> languageSet = new TreeSet<>();
+        for (String localeId : localeIds) {
+            languageSet.add(CLDRLocale.getInstance(localeId).getLanguage());
+        }
+        List<String> languages = new ArrayList<>(languageSet);
+        List<CoverageLevel2> coverages = new ArrayList<>();
+        for (String language : languages) {
+            coverages.add(CoverageLevel2.getInstance(sdi, language));
+        }
+
+        // for each path, the usual level, and the level of every language if any differ
+        byte[] levels = new byte[sortedPaths.length];
+        byte[][] differing = new byte[sortedPaths.length][];
+        IntStream.range(0, sortedPaths.length)
+                .parallel()
+                .forEach(
+                        i -> {
+                            byte[] byLanguage = new byte[coverages.size()];
+                            int[] counts = new int[LEVELS.length];
+                            for (int j = 0; j < byLanguage.length; ++j) {
+                                byLanguage[j] =
+                                        (byte) coverages.get(j).getLevel(sortedPaths[i]).ordinal();
+                                ++counts[byLanguage[j]];
+                            }
+                            int usual = 0;
+                            for (int level = 1; level < counts.length; ++level) {
+                                if (counts[level] > counts[usual]) {
+                                    usual = level;
+                                }
+                            }
+                            levels[i] = (byte) usual;
+                            if (counts[usual] != byLanguage.length) {
+                                differing[i] = byLanguage;
+                            }
+                        });
+
+        Map<String, Overrides> overridesByLanguage = new TreeMap<>();
+        for (int j = 0; j < languages.size(); ++j) {
+            List<Integer> keys = new ArrayList<>();
+            for (int i = 0; i < sortedPaths.length; ++i) {
+                if (differing[i] != null && differing[i][j] != levels[i]) {
+                    keys.add(i);
+                }
+            }
+            int[] keyArray = new int[keys.size()];
+            byte[] levelArray = new byte[keys.size()];
+            for (int k = 0; k < keyArray.length; ++k) {
+                keyArray[k] = keys.get(k);
+                levelArray[k] = differing[keyArray[k]][j];
+            }
+            overridesByLanguage.put(languages.get(j), new Overrides(keyArray, levelArray));
+        }
+        return new CoverageTable(
+                CLDRFile.GEN_VERSION, hash, sortedPaths, levels, overridesByLanguage);
+    }
+
+    /** Serialize the table in the layout described above. */
+    public void write(OutputStream os) throws IOException {
+        GZIPOutputStream zipped = new GZIPOutputStream(os);
+        DataOutputStream out = new DataOutputStream(zipped);
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeUTF(dataVersion);
+        out.writeInt(sourceHash.length);
+        out.write(sourceHash);
+        out.writeInt(paths.length);
+        String previous = "";
+        for (String path : paths) {
+            int shared = 0;
+            int max = Math.min(previous.length(), path.length());
+            while (shared < max && previous.charAt(shared) == path.charAt(shared)) {
+                ++shared;
+            }
+            out.writeShort(shared);
+            out.writeUTF(path.substring(shared));
+            previous = path;
+        }
+        out.write(levels);
+        out.writeInt(overridesByLanguage.size());
+        for (Map.Entry<String, Overrides> entry : overridesByLanguage.entrySet()) {
+            Overrides overrides = entry.getValue();
+            out.writeUTF(entry.getKey());
+            out.writeInt(overrides.keys.length);
+            for (int i = 0; i < overrides.keys.length; ++i) {
+                out.writeInt(overrides.keys[i]);
+                out.writeByte(overrides.levels[i]);
+            }
+        }
+        out.flush();
+        zipped.finish();
+    }
+
+    /**
+     * Read a table written by {@link #write}.
+     *
+     * @throws IllegalArgumentException if the input is not a table of the current format
+     */
+    public static CoverageTable read(InputStream is) throws IOException {
+        DataInputStream in = new DataInputStream(new GZIPInputStream(is));
+        if (in.readInt() != MAGIC) {
+            throw new IllegalArgumentException("Not a CLDR coverage table");
+        }
+        int version = in.readInt();
+        if (version != FORMAT_VERSION) {
+            throw new IllegalArgumentException(
+                    "Coverage table format " + version + ", expected " + FORMAT_VERSION);
+        }
+        String dataVersion = in.readUTF();
+        byte[] hash = new byte[in.readInt()];
+        in.readFully(hash);
+        String[] paths = new String[in.readInt()];
+        String previous = "";
+        for (int i = 0; i < paths.length; ++i) {
+            int shared = in.readShort();
+            paths[i] = previous.substring(0, shared) + in.readUTF();
+            previous = paths[i];
+        }
+        byte[] levels = new byte[paths.length];
+        in.readFully(levels);
+        Map<String, Overrides> overridesByLanguage = new TreeMap<>();
+        for (int languageCount = in.readInt(); languageCount > 0; --languageCount) {
+            String language = in.readUTF();
+            int[] keys = new int[in.readInt()];
+            byte[] overrideLevels = new byte[keys.length];
+            for (int i = 0; i < keys.length; ++i) {
+                keys[i] = in.readInt();
+                overrideLevels[i] = in.readByte();
+            }
+            overridesByLanguage.put(language, new Overrides(keys, overrideLevels));
+        }
+        for (byte level : levels) {
+            if (level < 0 || level >= LEVELS.length) {
+                throw new IllegalArgumentException("Bad level in coverage table: " + level);
+            }
+        }
+        return new CoverageTable(dataVersion, hash, paths, levels, overridesByLanguage);
+    }
+
+    /** Read a table from a file. */
+    public static CoverageTable read(File file) {
+        try (InputStream in = Files.newInputStream(file.toPath())) {
+            return read(in);
+        } catch (IOException e) {
+            throw new ICUUncheckedIOException("Cannot read the coverage table " + file, e);
+        }
+    }
+
+    /**
+     * Write the table to the file for the given directory (see {@link #getFile}).
+     *
+     * @return the file written
+     */
+    public File save(File directory) {
+        File file = getFile(directory);
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new ICUUncheckedIOException("Cannot create the directory " + directory);
+        }
+        // write to a temporary file and rename, so that readers never see a partial table
+        File tempFile = new File(directory, FILE_NAME + ".tmp");
+        try (OutputStream out = Files.newOutputStream(tempFile.toPath())) {
+            write(out);
+        } catch (IOException e) {
+            throw new ICUUncheckedIOException("Cannot write the coverage table " + tempFile, e);
+        }
+        try {
+            Files.move(
+                    tempFile.toPath(),
+                    file.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new ICUUncheckedIOException("Cannot write the coverage table " + file, e);
+        }
+        return file;
+    }
+
+    /** Where the table lives within a snapshot directory. */
+    public static File getFile(File directory) {
+        return new File(directory, FILE_NAME);
+    }
+
+    /**
+     * Get the table in the directory configured with {@link
+     * XMLSourceSnapshot#SNAPSHOT_DIR_PROPERTY}, if it is there and fresh for the given supplemental
+     * data. The result is remembered for each supplemental directory.
+     *
+     * @return the table, or null
+     */
+    public static CoverageTable getDefault(SupplementalDataInfo sdi) {
+        File directory = XMLSourceSnapshot.getDefaultSnapshotDirectory();
+        if (directory == null || sdi.getDirectory() == null) {
+            return null;
+        }
+        return DEFAULT_TABLES
+                .computeIfAbsent(
+                        sdi.getDirectory().getPath(),
+                        dir -> Optional.ofNullable(readIfFresh(directory, sdi)))
+                .orElse(null);
+    }
+
+    /** Return the table in the directory, or null if it is missing, unreadable, or stale. */
+    static CoverageTable readIfFresh(File directory, SupplementalDataInfo sdi) {
+        File file = getFile(directory);
+        if (!file.canRead()) {
+            return null;
+        }
+        try {
+            CoverageTable table = read(file);
+            return table.isFreshFor(sdi) ? table : null;
+        } catch (IllegalArgumentException | ICUUncheckedIOException e) {
+            System.err.println("Ignoring bad coverage table " + file + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /** SHA-1 over the hashes of the XML files in the supplemental directory, in name order. */
+    static byte[] hashSupplementalData(SupplementalDataInfo sdi) {
+        File[] files = sdi.getDirectory().listFiles((dir, name) -> name.endsWith(".xml"));
+        if (files == null) {
+            throw new ICUUncheckedIOException("Cannot list " + sdi.getDirectory());
+        }
+        Arrays.sort(files);
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            for (File file : files) {
+                digest.update(file.getName().getBytes(StandardCharsets.UTF_8));
+                digest.update(XMLSourceSnapshot.hashFile(file));
+            }
+            return digest.digest();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+}
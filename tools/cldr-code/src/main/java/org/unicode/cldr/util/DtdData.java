@@ -1010,12 +1010,107 @@ public class DtdData extends XMLFileReader.SimpleHandler {
         return dtdComparator;
     }
 
+    /** Two per thread, since the comparator compares two paths at once. */
+    private static final ThreadLocal<XPathCursor[]> CURSORS =
+            ThreadLocal.withInitial(() -> new XPathCursor[] {new XPathCursor(), new XPathCursor()});
+
     public class DtdComparator implements Comparator<String> {
         @Override
         public int compare(String path1, String path2) {
-            XPathParts a = XPathParts.getFrozenInstance(path1);
-            XPathParts b = XPathParts.getFrozenInstance(path2);
-            return xpathComparator(a, b);
+            XPathCursor[] cursors = CURSORS.get();
+            return xpathComparator(cursors[0].reset(path1), cursors[1].reset(path2));
+        }
+
+        /**
+         * The same as {@link #xpathComparator(XPathParts, XPathParts)}, but comparing the paths in
+         * place, so that only the values that decide the result are copied out of the paths.
+         */
+        public int xpathComparator(XPathCursor a, XPathCursor b) {
+            if (!a.elementEquals(0, ROOT.name) || !b.elementEquals(0, ROOT.name)) {
+                return xpathComparator(
+                        XPathParts.getFrozenInstance(a.toString()),
+                        XPathParts.getFrozenInstance(b.toString()));
+            }
+            int min = Math.min(a.size(), b.size());
+            Element parent = ROOT;
+            Element elementA;
+            for (int i = 1; i < min; ++i, parent = elementA) {
+                // add extra test for "fake" elements, used in diffing. they always start with _
+                if (a.elementStartsWith(i, "_")) {
+                    return b.elementStartsWith(i, "_") ? a.compareElement(i, b, i) : -1;
+                } else if (b.elementStartsWith(i, "_")) {
+                    return 1;
+                }
+                elementA = childElement(parent, a, i);
+                if (!a.elementEquals(i, b, i)) {
+                    Element elementB = childElement(parent, b, i);
+                    int aa = parent.children.get(elementA);
+                    int bb = parent.children.get(elementB);
+                    return aa - bb;
+                }
+                int countA = a.getAttributeCount(i);
+                int countB = b.getAttributeCount(i);
+                if (countA == 0 && countB == 0) {
+                    continue;
+                }
+                // Handle the special added elements
+                int aq = a.findAttribute(i, "_q");
+                if (aq >= 0) {
+                    int bq = b.findAttribute(i, "_q");
+                    if (bq < 0 || !a.attributeValueEquals(i, aq, b, i, bq)) {
+                        int aValue = Integer.parseInt(a.getAttributeValueAt(i, aq));
+                        int bValue = Integer.parseInt(b.getAttributeValue(i, "_q"));
+                        return aValue - bValue;
+                    }
+                    --countA;
+                    --countB;
+                }
+
+                attributes:
+                for (Attribute main : elementA.attributes.keySet()) {
+                    int indexA = a.findAttribute(i, main.name);
+                    int indexB = b.findAttribute(i, main.name);
+                    if (indexA < 0) {
+                        if (indexB >= 0) {
+                            return -1;
+                        }
+                    } else if (indexB < 0) {
+                        return 1;
+                    } else if (a.attributeValueEquals(i, indexA, b, i, indexB)) {
+                        --countA;
+                        --countB;
+                        if (countA == 0 && countB == 0) {
+                            break attributes;
+                        }
+                    } else {
+                        String valueA = a.getAttributeValueAt(i, indexA);
+                        String valueB = b.getAttributeValueAt(i, indexB);
+                        if (main.attributeValueComparator != null) {
+                            return main.attributeValueComparator.compare(valueA, valueB);
+                        } else if (main.values.size() != 0) {
+                            int aa = main.values.get(valueA);
+                            int bb = main.values.get(valueB);
+                            return aa - bb;
+                        } else {
+                            return valueA.compareTo(valueB);
+                        }
+                    }
+                }
+                if (countA != 0 || countB != 0) {
+                    throw new IllegalArgumentException();
+                }
+            }
+            return a.size() - b.size();
+        }
+
+        /** Find the element of a path among the children of its parent, without a substring. */
+        private Element childElement(Element parent, XPathCursor cursor, int i) {
+            for (Element child : parent.children.keySet()) {
+                if (cursor.elementEquals(i, child.name)) {
+                    return child;
+                }
+            }
+            return nameToElement.get(cursor.getElement(i));
         }
 
         public int xpathComparator(XPathParts a, XPathParts b) {
@@ -1,13 +1,26 @@
 package org.unicode.cldr.util;
 
 import com.google.common.base.Suppliers;
+import com.ibm.icu.util.ICUException;
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
 import java.util.function.Supplier;
 import org.unicode.cldr.test.TestCache;
 import org.unicode.cldr.util.CLDRFile.DraftStatus;
@@ -161,6 +174,128 @@ public abstract class Factory implements SublocaleProvider {
         return make(currentLocaleID, true, madeWithMinimalDraftStatus);
     }
 
+    /**
+     * Property for the number of threads used by {@link #makeAll(Collection, boolean)}. 0 (the
+     * default) means one per processor.
+     */
+    public static final String MAKE_ALL_THREADS_PROPERTY = "CLDR_FACTORY_THREADS";
+
+    /**
+     * Make the CLDRFiles for many locales at once, in parallel, using {@link
+     * #MAKE_ALL_THREADS_PROPERTY} threads.
+     *
+     * @return the files, by locale ID, in the order of localeIDs
+     */
+    public Map<String, CLDRFile> makeAll(Collection<String> localeIDs, boolean resolved) {
+        return makeAll(localeIDs, resolved, null);
+    }
+
+    /**
+     * Make the CLDRFiles for many locales at once, in parallel, using {@link
+     * #MAKE_ALL_THREADS_PROPERTY} threads.
+     *
+     * @param nanosByLocale if not null, filled in with the time spent making each locale; see
+     *     {@link #makeAll(Collection, boolean, ExecutorService, Map)}
+     * @return the files, by locale ID, in the order of localeIDs
+     */
+    public Map<String, CLDRFile> makeAll(
+            Collection<String> localeIDs, boolean resolved, Map<String, Long> nanosByLocale) {
+        int threads = CLDRConfig.getInstance().getProperty(MAKE_ALL_THREADS_PROPERTY, 0);
+        if (threads < 1) {
+            threads = Runtime.getRuntime().availableProcessors();
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            return makeAll(localeIDs, resolved, executor, nanosByLocale);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Make the CLDRFiles for many locales at once, running the work on the given executor.
+     *
+     * <p>For resolved files, the unresolved files of every locale in the parent chains (such as
+     * root, en_001, es_419) are made first, each once, and the resolved files are then assembled
+     * from them. (This relies on the factory caching unresolved files, as SimpleFactory does.)
+     *
+     * @param nanosByLocale if not null, filled in with the time in nanoseconds spent making each
+     *     locale. For resolved files, every locale in the parent chains gets an entry with the time
+     *     to load its unresolved file, and the requested locales also include the time to assemble
+     *     the resolved file.
+     * @return the files, by locale ID, in the order of localeIDs
+     * @throws ICUException if any file cannot be made
+     */
+    public Map<String, CLDRFile> makeAll(
+            Collection<String> localeIDs,
+            boolean resolved,
+            ExecutorService executor,
+            Map<String, Long> nanosByLocale) {
+        Map<String, Long> nanos = new ConcurrentHashMap<>();
+        if (resolved) {
+            Set<String> chains = new LinkedHashSet<>();
+            for (String localeID : localeIDs) {
+                for (String cur = localeID; cur != null; cur = getParent(cur)) {
+                    chains.add(cur);
+                }
+            }
+            runAll(chains, localeID -> make(localeID, false), executor, nanos);
+        }
+        Map<String, CLDRFile> made =
+                runAll(localeIDs, localeID -> make(localeID, resolved), executor, nanos);
+        if (nanosByLocale != null) {
+            nanosByLocale.putAll(nanos);
+        }
+        Map<String, CLDRFile> result = new LinkedHashMap<>();
+        for (String localeID : localeIDs) {
+            result.put(localeID, made.get(localeID));
+        }
+        return result;
+    }
+
+    private static Map<String, CLDRFile> runAll(
+            Collection<String> localeIDs,
+            Function<String, CLDRFile> maker,
+            ExecutorService executor,
+            Map<String, Long> nanos) {
+        Map<String, Future<CLDRFile>> futures = new LinkedHashMap<>();
+        for (String localeID : localeIDs) {
+            futures.computeIfAbsent(
+                    localeID,
+                    id ->
+                            executor.submit(
+                                    () -> {
+                                        long start = System.nanoTime();
+                                        CLDRFile file = maker.apply(id);
+                                        nanos.merge(id, System.nanoTime() - start, Long::sum);
+                                        return file;
+                                    }));
+        }
+        Map<String, CLDRFile> result = new HashMap<>();
+        for (Entry<String, Future<CLDRFile>> entry : futures.entrySet()) {
+            try {
+                result.put(entry.getKey(), entry.getValue().get());
+            } catch (ExecutionException e) {
+                futures.values().forEach(future -> future.cancel(true));
+                throw new ICUException(
+                        "Couldn't make CLDR file for " + entry.getKey(), e.getCause());
+            } catch (InterruptedException e) {
+                futures.values().forEach(future -> future.cancel(true));
+                Thread.currentThread().interrupt();
+                throw new ICUException("Interrupted making CLDR files", e);
+            }
+        }
+        return result;
+    }
+
+    private String getParent(String localeID) {
+        return LocaleIDParser.getParent(
+                localeID,
+                ignoreExplicitParentLocale
+                        ? ParentLocaleComponent.collations
+                        : ParentLocaleComponent.main);
+    }
+
     public static XMLSource makeResolvingSource(List<XMLSource> sources) {
         return new ResolvingSource(sources);
     }
@@ -203,12 +338,7 @@ public abstract class Factory implements SublocaleProvider {
             XMLSource source = file.dataSource;
             registerXmlSource(source);
             sourceList.add(source);
-            curLocale =
-                    LocaleIDParser.getParent(
-                            curLocale,
-                            ignoreExplicitParentLocale
-                                    ? ParentLocaleComponent.collations
-                                    : ParentLocaleComponent.main);
+            curLocale = getParent(curLocale);
         }
         return new ResolvingSource(sourceList);
     }
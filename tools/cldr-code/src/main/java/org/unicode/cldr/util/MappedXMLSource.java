@@ -0,0 +1,208 @@
+package org.unicode.cldr.util;
+
+import com.ibm.icu.impl.Relation;
+import com.ibm.icu.util.VersionInfo;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import org.unicode.cldr.util.XPathParts.Comments;
+
+/**
+ * A frozen, unresolved XMLSource that reads its paths and values on demand from an {@link
+ * XMLSourceSnapshot}, normally one mapped from disk with {@link XMLSourceSnapshot#map}. Unlike
+ * {@link SimpleXMLSource}, nothing but the path tokens is decoded onto the heap up front: lookups
+ * binary-search the sorted entries of the snapshot, and only the value asked for is decoded.
+ *
+ * <p>Comments, source locations and the value-to-path index are only needed by a few tools, so they
+ * are decoded the first time they are asked for, and kept from then on.
+ *
+ * <p>The source cannot be modified; use {@link #cloneAsThawed()} to get a modifiable {@link
+ * SimpleXMLSource} with the same contents.
+ */
+public class MappedXMLSource extends XMLSource {
+    private final XMLSourceSnapshot snapshot;
+    private volatile Comments comments;
+    private volatile Map<String, SourceLocation> sourceLocations;
+    private Relation<String, String> valueToPath; // guarded by this
+
+    public MappedXMLSource(XMLSourceSnapshot snapshot) {
+        this.snapshot = snapshot;
+        setLocaleID(snapshot.getLocaleID());
+        setNonInheriting(snapshot.isNonInheriting());
+        setXMLNormalizingDtdType(snapshot.getDtdType());
+        locked = true;
+    }
+
+    @Override
+    public String getValueAtDPath(String path) {
+        int entry = snapshot.findEntry(path);
+        return entry < 0 ? null : snapshot.getString(snapshot.getValueIndex(entry));
+    }
+
+    @Override
+    public boolean hasValueAtDPath(String path) {
+        return snapshot.findEntry(path) >= 0;
+    }
+
+    @Override
+    public String getFullPathAtDPath(String path) {
+        int entry = snapshot.findEntry(path);
+        if (entry < 0) {
+            return null;
+        }
+        int fullPathIndex = snapshot.getFullPathIndex(entry);
+        return fullPathIndex == XMLSourceSnapshot.NONE ? path : snapshot.getPath(fullPathIndex);
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+        return new EntryIterator(0, null);
+    }
+
+    /** The entries are sorted, so only the paths with the prefix need to be decoded. */
+    @Override
+    public Iterator<String> iterator(String prefix) {
+        if (prefix == null || prefix.isEmpty()) {
+            return iterator();
+        }
+        int entry = snapshot.findEntry(prefix);
+        return new EntryIterator(entry < 0 ? -entry - 1 : entry, prefix);
+    }
+
+    private class EntryIterator implements Iterator<String> {
+        private int entry;
+        private final String prefix;
+        private String next;
+
+        EntryIterator(int entry, String prefix) {
+            this.entry = entry;
+            this.prefix = prefix;
+            advance();
+        }
+
+        private void advance() {
+            next =
+                    entry < snapshot.size()
+                            ? snapshot.getPath(snapshot.getPathIndex(entry++))
+                            : null;
+            if (next != null && prefix != null && !next.startsWith(prefix)) {
+                next = null;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public String next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            String result = next;
+            advance();
+            return result;
+        }
+    }
+
+    @Override
+    public Comments getXpathComments() {
+        Comments result = comments;
+        if (result == null) {
+            result = new Comments();
+            snapshot.readComments(result);
+            comments = result;
+        }
+        return result;
+    }
+
+    @Override
+    public void setXpathComments(Comments comments) {
+        throw new UnsupportedOperationException("Attempt to modify locked object");
+    }
+
+    @Override
+    public SourceLocation getSourceLocation(String fullXPath) {
+        Map<String, SourceLocation> result = sourceLocations;
+        if (result == null) {
+            result = Collections.unmodifiableMap(snapshot.readSourceLocations());
+            sourceLocations = result;
+        }
+        return result.get(fullXPath);
+    }
+
+    @Override
+    public XMLSource addSourceLocation(String currentFullXPath, SourceLocation location) {
+        throw new UnsupportedOperationException("Attempt to modify locked object");
+    }
+
+    @Override
+    public void putFullPathAtDPath(String distinguishingXPath, String fullxpath) {
+        throw new UnsupportedOperationException("Attempt to modify locked object");
+    }
+
+    @Override
+    public void putValueAtDPath(String distinguishingXPath, String value) {
+        throw new UnsupportedOperationException("Attempt to modify locked object");
+    }
+
+    @Override
+    public void removeValueAtDPath(String distinguishingXPath) {
+        throw new UnsupportedOperationException("Attempt to modify locked object");
+    }
+
+    @Override
+    public synchronized void getPathsWithValue(
+            String valueToMatch, String pathPrefix, Set<String> result) {
+        if (valueToPath == null) {
+            valueToPath = Relation.of(new HashMap<String, Set<String>>(), HashSet.class);
+            for (int i = 0; i < snapshot.size(); ++i) {
+                String value = snapshot.getString(snapshot.getValueIndex(i));
+                if (value == null || CldrUtility.INHERITANCE_MARKER.equals(value)) {
+                    continue;
+                }
+                valueToPath.put(
+                        SimpleXMLSource.normalize(value),
+                        snapshot.getPath(snapshot.getPathIndex(i)));
+            }
+        }
+        Set<String> paths = valueToPath.getAll(SimpleXMLSource.normalize(valueToMatch));
+        if (paths == null) {
+            return;
+        }
+        for (String path : paths) {
+            if (pathPrefix == null || path.startsWith(pathPrefix)) {
+                result.add(path);
+            }
+        }
+    }
+
+    @Override
+    public VersionInfo getDtdVersionInfo() {
+        return snapshot.getDtdVersionInfo();
+    }
+
+    @Override
+    public XMLSource freeze() {
+        return this;
+    }
+
+    /**
+     * Rough estimate of the heap retained, in bytes. Comments and source locations, which are read
+     * on demand, are not counted.
+     */
+    long estimateWeight() {
+        return 128 + snapshot.estimateHeapWeight();
+    }
+
+    /** Returns a modifiable SimpleXMLSource with the same contents. */
+    @Override
+    public XMLSource cloneAsThawed() {
+        return snapshot.toSimpleXMLSource();
+    }
+}
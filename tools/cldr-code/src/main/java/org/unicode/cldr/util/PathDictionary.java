@@ -0,0 +1,75 @@
+package org.unicode.cldr.util;
+
+import java.util.Map;
+
+/**
+ * A global, thread-safe dictionary assigning each path a dense int id, in order of first use. Ids
+ * are only meaningful within one process: they are never persisted, and a path may get a different
+ * id in another run.
+ *
+ * <p>Code that repeatedly looks up the same paths can look up the id once, and then use a {@link
+ * PathIdMap} (or an array) instead of hashing and comparing the long path strings on every call.
+ * {@link #getPath(int)} also returns one canonical String instance per path.
+ *
+ * <p>Looking up an existing path takes no locks; only adding a new path is synchronized. Entries
+ * are never removed, so this should only be used for paths from CLDR data (and similar bounded
+ * sets), not for arbitrary user input. Code handling a request should use {@link #peekId}, or
+ * check a path against the locale's paths, before passing it to anything that adds it here (such
+ * as {@link PathHeader.Factory#fromPath} or {@link StringId#getId}).
+ */
+public final class PathDictionary {
+    /** The id returned by {@link #peekId} for unknown paths. */
+    public static final int NO_ID = -1;
+
+    private static final Map<String, Integer> PATH_TO_ID = CldrUtility.newConcurrentHashMap();
+    private static final PathIdMap<String> ID_TO_PATH = new PathIdMap<>();
+    private static int nextId = 0; // guarded by PathDictionary.class
+
+    private PathDictionary() {}
+
+    /**
+     * Get the id for a path, adding the path if it is new.
+     *
+     * @return a non-negative id
+     */
+    public static int getId(String path) {
+        Integer id = PATH_TO_ID.get(path);
+        return id != null ? id : add(path);
+    }
+
+    /**
+     * Get the id for a path without adding it.
+     *
+     * @return the id, or {@link #NO_ID} if the path has never been added
+     */
+    public static int peekId(String path) {
+        Integer id = PATH_TO_ID.get(path);
+        return id != null ? id : NO_ID;
+    }
+
+    /**
+     * Get the path for an id.
+     *
+     * @return the canonical instance of the path, or null if the id is not assigned
+     */
+    public static String getPath(int id) {
+        return ID_TO_PATH.get(id);
+    }
+
+    /** The number of paths in the dictionary; ids are 0 to size()-1. */
+    public static int size() {
+        return ID_TO_PATH.size();
+    }
+
+    private static synchronized int add(String path) {
+        Integer id = PATH_TO_ID.get(path); // double check
+        if (id != null) {
+            return id;
+        }
+        id = nextId++;
+        // the path must be readable by id before the id can be found by path
+        ID_TO_PATH.put(id, path);
+        PATH_TO_ID.put(path, id);
+        return id;
+    }
+}
@@ -3,6 +3,8 @@ package org.unicode.cldr.util;
 import static java.util.Map.entry;
 
 import com.google.common.base.Splitter;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
 import com.ibm.icu.impl.Relation;
 import com.ibm.icu.impl.Row;
 import com.ibm.icu.impl.UnicodeMap;
@@ -14,8 +16,8 @@ import com.ibm.icu.util.ICUException;
 import com.ibm.icu.util.Output;
 import com.ibm.icu.util.ULocale;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
-import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -27,6 +29,8 @@ import java.util.Map.Entry;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.logging.Logger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -34,6 +38,7 @@ import org.unicode.cldr.draft.ScriptMetadata;
 import org.unicode.cldr.draft.ScriptMetadata.Info;
 import org.unicode.cldr.tool.LikelySubtags;
 import org.unicode.cldr.util.RegexLookup.Finder;
+import org.unicode.cldr.util.RegexLookup.LookupType;
 import org.unicode.cldr.util.SupplementalDataInfo.PluralInfo.Count;
 import org.unicode.cldr.util.With.SimpleIterator;
 import org.unicode.cldr.util.personname.PersonNameFormatter;
@@ -51,6 +56,12 @@ public class PathHeader implements Comparable<PathHeader> {
 
     static final boolean SKIP_ORIGINAL_PATH = true;
 
+    /**
+     * Bump whenever the code here changes the PathHeader made for a path, eg its order or suborder,
+     * so that any {@link PathHeaderTable} made before is ignored.
+     */
+    static final int LOGIC_VERSION = 1;
+
     private static final Logger logger = Logger.getLogger(PathHeader.class.getName());
 
     static final Splitter HYPHEN_SPLITTER = Splitter.on('-');
@@ -142,7 +153,7 @@ public class PathHeader implements Comparable<PathHeader> {
     private static final Relation<SectionId, PageId> SectionIdToPageIds =
             Relation.of(new TreeMap<>(), TreeSet.class);
 
-    private static class SubstringOrder implements Comparable<SubstringOrder> {
+    static class SubstringOrder implements Comparable<SubstringOrder> {
         final String mainOrder;
         final int order;
 
@@ -154,6 +165,12 @@ public class PathHeader implements Comparable<PathHeader> {
             mainOrder = source.substring(0, pos);
         }
 
+        /** For restoring one from a {@link PathHeaderTable} */
+        SubstringOrder(String mainOrder, int order) {
+            this.mainOrder = mainOrder;
+            this.order = order;
+        }
+
         @Override
         public String toString() {
             return "{" + mainOrder + ", " + order + "}";
@@ -441,7 +458,7 @@ public class PathHeader implements Comparable<PathHeader> {
     private final SubstringOrder codeSuborder;
 
     static final Pattern SEMI = PatternCache.get("\\s*;\\s*");
-    static final Matcher ALT_MATCHER = PatternCache.get("\\[@alt=\"([^\"]*+)\"]").matcher("");
+    static final Pattern ALT_PATTERN = PatternCache.get("\\[@alt=\"([^\"]*+)\"]");
 
     static final SupplementalDataInfo supplementalDataInfo = SupplementalDataInfo.getInstance();
     static final Map<String, String> metazoneToContinent =
@@ -481,7 +498,7 @@ public class PathHeader implements Comparable<PathHeader> {
         }
     }
 
-    private PathHeader(
+    PathHeader(
             SectionId sectionId,
             PageId pageId,
             String header,
@@ -575,6 +592,19 @@ public class PathHeader implements Comparable<PathHeader> {
         return status;
     }
 
+    // for PathHeaderTable
+    int getHeaderOrder() {
+        return headerOrder;
+    }
+
+    long getCodeOrder() {
+        return codeOrder;
+    }
+
+    SubstringOrder getCodeSuborder() {
+        return codeSuborder;
+    }
+
     @Override
     public String toString() {
         return sectionId
@@ -666,29 +696,42 @@ public class PathHeader implements Comparable<PathHeader> {
     }
 
     public static class Factory implements Transform<String, PathHeader> {
+        // lock-free for lookups
         static final RegexLookup<RawData> lookup =
-                RegexLookup.of(new PathHeaderTransform())
+                new RegexLookup<RawData>(LookupType.PREFIX_INDEXED_LOOKUP)
+                        .setValueTransform(new PathHeaderTransform())
                         .setPatternTransform(RegexLookup.RegexFinderTransformPath)
                         .loadFromFile(PathHeader.class, "data/PathHeader.txt");
-        // synchronized with lookup
-        static final Output<String[]> args = new Output<>();
-        // synchronized with lookup
-        static final Counter<RawData> counter = new Counter<>();
-        // synchronized with lookup
-        static final Map<RawData, String> samples = new HashMap<>();
-        // synchronized with lookup
-        static long order;
-        static SubstringOrder suborder;
-
-        static final Map<String, PathHeader> cache = new HashMap<>();
-        // synchronized with cache
-        static final Map<SectionId, Map<PageId, SectionPage>> sectionToPageToSectionPage =
-                new EnumMap<>(SectionId.class);
-        static final Relation<SectionPage, String> sectionPageToPaths =
-                Relation.of(new TreeMap<>(), HashSet.class);
+        static final Map<RawData, LongAdder> counter = new ConcurrentHashMap<>();
+        static final Map<RawData, String> samples = new ConcurrentHashMap<>();
+
+        /**
+         * What the functions in PathHeader.txt work with while a PathHeader is made: the arguments
+         * of the match, and the order they set. One per thread, so that PathHeaders for different
+         * paths can be made at the same time.
+         */
+        private static final class MakeState {
+            String[] args;
+            long order;
+            SubstringOrder suborder;
+        }
+
+        private static final ThreadLocal<MakeState> STATE = ThreadLocal.withInitial(MakeState::new);
+
+        // keyed by PathDictionary id; lock-free for reads
+        static final PathIdMap<PathHeader> cache = new PathIdMap<>();
+        static final Map<SectionPage, Set<String>> sectionPageToPaths = new ConcurrentHashMap<>();
+
+        /**
+         * PathHeaders made ahead of time, if there is a fresh table; see {@link PathHeaderTable}
+         */
+        private static final Supplier<PathHeaderTable> table =
+                Suppliers.memoize(
+                        () -> PathHeaderTable.getDefault(supplementalDataInfo));
+
         private static CLDRFile englishFile;
         private static NameGetter englishNameGetter;
-        private final Set<String> matchersFound = new HashSet<>();
+        private final Set<String> matchersFound = ConcurrentHashMap.newKeySet();
 
         /**
          * Create a factory for creating PathHeaders.
@@ -713,11 +756,16 @@ public class PathHeader implements Comparable<PathHeader> {
             }
         }
 
+        /** The English file that the factories get names from, for {@link PathHeaderTable} */
+        static CLDRFile getEnglishFile() {
+            synchronized (Factory.class) {
+                return englishFile;
+            }
+        }
+
         /** Use only when trying to find unmatched patterns */
         public void clearCache() {
-            synchronized (cache) {
-                cache.clear();
-            }
+            cache.clear();
         }
 
         /** Return the PathHeader for a given path. Thread-safe. */
@@ -740,88 +788,92 @@ public class PathHeader implements Comparable<PathHeader> {
             if (path == null) {
                 throw new NullPointerException("Path cannot be null");
             }
-            synchronized (cache) {
-                PathHeader old = cache.get(path);
-                if (old != null) {
-                    return old;
-                }
+            final int pathId = PathDictionary.getId(path);
+            PathHeader cached = cache.get(pathId);
+            if (cached != null) {
+                return cached;
             }
-            synchronized (lookup) {
-                String cleanPath = path;
-                // special handling for alt
-                String alt = null;
-                int altPos = cleanPath.indexOf("[@alt=");
-                if (altPos >= 0 && !cleanPath.endsWith("/symbol[@alt=\"narrow\"]")) {
-                    if (ALT_MATCHER.reset(cleanPath).find()) {
-                        alt = ALT_MATCHER.group(1);
-                        cleanPath =
-                                cleanPath.substring(0, ALT_MATCHER.start())
-                                        + cleanPath.substring(ALT_MATCHER.end());
-                        int pos = alt.indexOf("proposed");
-                        if (pos >= 0 && !path.startsWith("//ldml/collations")) {
-                            alt = pos == 0 ? null : alt.substring(0, pos - 1);
-                            // drop "proposed",
-                            // change "xxx-proposed" to xxx.
-                        }
-                    } else {
-                        throw new IllegalArgumentException();
-                    }
-                }
-                Output<Finder> matcherFound = new Output<>();
-                RawData data = lookup.get(cleanPath, null, args, matcherFound, failures);
-                if (data == null) {
-                    return null;
-                }
-                matchersFound.add(matcherFound.value.toString());
-                counter.add(data, 1);
-                if (!samples.containsKey(data)) {
-                    samples.put(data, cleanPath);
+            PathHeaderTable precomputed = table.get();
+            if (precomputed != null) {
+                PathHeader stored = precomputed.get(pathId, path);
+                if (stored != null) {
+                    return addToCache(pathId, path, stored);
                 }
-                try {
-                    PathHeader result = makePathHeader(data, path, alt);
-                    synchronized (cache) {
-                        PathHeader old = cache.get(path);
-                        if (old == null) {
-                            cache.put(path, result);
-                        } else {
-                            result = old;
-                        }
-                        Map<PageId, SectionPage> pageToPathHeaders =
-                                sectionToPageToSectionPage.get(result.sectionId);
-                        if (pageToPathHeaders == null) {
-                            sectionToPageToSectionPage.put(
-                                    result.sectionId,
-                                    pageToPathHeaders = new EnumMap<>(PageId.class));
-                        }
-                        SectionPage sectionPage = pageToPathHeaders.get(result.pageId);
-                        if (sectionPage == null) {
-                            sectionPage = new SectionPage(result.sectionId, result.pageId);
-                            pageToPathHeaders.put(result.pageId, sectionPage);
-                        }
-                        sectionPageToPaths.put(sectionPage, path);
+            }
+            String cleanPath = path;
+            // special handling for alt
+            String alt = null;
+            int altPos = cleanPath.indexOf("[@alt=");
+            if (altPos >= 0 && !cleanPath.endsWith("/symbol[@alt=\"narrow\"]")) {
+                Matcher altMatcher = ALT_PATTERN.matcher(cleanPath);
+                if (altMatcher.find()) {
+                    alt = altMatcher.group(1);
+                    cleanPath =
+                            cleanPath.substring(0, altMatcher.start())
+                                    + cleanPath.substring(altMatcher.end());
+                    int pos = alt.indexOf("proposed");
+                    if (pos >= 0 && !path.startsWith("//ldml/collations")) {
+                        alt = pos == 0 ? null : alt.substring(0, pos - 1);
+                        // drop "proposed",
+                        // change "xxx-proposed" to xxx.
                     }
-                    return result;
-                } catch (Exception e) {
-                    throw new IllegalArgumentException(
-                            "Possible mismatch in Page/Section enum, or too few capturing groups in regex for "
-                                    + path
-                                    + " : "
-                                    + e.getMessage(),
-                            e);
+                } else {
+                    throw new IllegalArgumentException();
                 }
             }
+            Output<String[]> args = new Output<>();
+            Output<Finder> matcherFound = new Output<>();
+            RawData data = lookup.get(cleanPath, null, args, matcherFound, failures);
+            if (data == null) {
+                return null;
+            }
+            matchersFound.add(matcherFound.value.toString());
+            counter.computeIfAbsent(data, k -> new LongAdder()).increment();
+            samples.putIfAbsent(data, cleanPath);
+            try {
+                return addToCache(pathId, path, makePathHeader(data, path, alt, args.value));
+            } catch (Exception e) {
+                throw new IllegalArgumentException(
+                        "Possible mismatch in Page/Section enum, or too few capturing groups in regex for "
+                                + path
+                                + " : "
+                                + e.getMessage(),
+                        e);
+            }
         }
 
-        private PathHeader makePathHeader(RawData data, String path, String alt) {
-            // Caution: each call to PathHeader.Factory.fix changes the value of
-            // PathHeader.Factory.order
+        private static PathHeader addToCache(int pathId, String path, PathHeader result) {
+            PathHeader old = cache.putIfAbsent(pathId, result);
+            if (old != null) {
+                return old; // made by another thread in the meantime
+            }
+            sectionPageToPaths
+                    .computeIfAbsent(
+                            new SectionPage(result.sectionId, result.pageId),
+                            k -> ConcurrentHashMap.newKeySet())
+                    .add(path);
+            return result;
+        }
+
+        /**
+         * Make PathHeaders for all of the paths up front, on several threads, so that later calls
+         * to {@link #fromPath} for them are lookups.
+         */
+        public void prebuild(Collection<String> paths) {
+            paths.parallelStream().forEach(this::fromPath);
+        }
+
+        private PathHeader makePathHeader(RawData data, String path, String alt, String[] args) {
+            // Caution: each call to PathHeader.Factory.fix changes the order in the MakeState
+            MakeState state = STATE.get();
+            state.args = args;
             SectionId newSectionId = SectionId.forString(fix(data.section, 0));
             PageId newPageId = PageId.forString(fix(data.page, 0));
             String newHeader = fix(data.header, data.headerOrder);
-            int newHeaderOrder = (int) order;
+            int newHeaderOrder = (int) state.order;
             String codeDashAlt = data.code + (alt == null ? "" : ("-" + alt));
             String newCode = fix(codeDashAlt, data.codeOrder);
-            long newCodeOrder = order;
+            long newCodeOrder = state.order;
             return new PathHeader(
                     newSectionId,
                     newPageId,
@@ -829,7 +881,7 @@ public class PathHeader implements Comparable<PathHeader> {
                     newHeaderOrder,
                     newCode,
                     newCodeOrder,
-                    suborder,
+                    state.suborder,
                     data.status,
                     path);
         }
@@ -860,12 +912,10 @@ public class PathHeader implements Comparable<PathHeader> {
 
             @Override
             public boolean equals(Object obj) {
-                PathHeader other;
-                try {
-                    other = (PathHeader) obj;
-                } catch (Exception e) {
+                if (!(obj instanceof SectionPage)) {
                     return false;
                 }
+                SectionPage other = (SectionPage) obj;
                 return sectionId == other.sectionId && pageId == other.pageId;
             }
 
@@ -895,21 +945,8 @@ public class PathHeader implements Comparable<PathHeader> {
          * Thread-safe.
          */
         public static Set<String> getCachedPaths(SectionId sectionId, PageId page) {
-            Set<String> target = new HashSet<>();
-            synchronized (cache) {
-                Map<PageId, SectionPage> pageToSectionPage =
-                        sectionToPageToSectionPage.get(sectionId);
-                if (pageToSectionPage == null) {
-                    return target;
-                }
-                SectionPage sectionPage = pageToSectionPage.get(page);
-                if (sectionPage == null) {
-                    return target;
-                }
-                Set<String> set = sectionPageToPaths.getAll(sectionPage);
-                target.addAll(set);
-            }
-            return target;
+            Set<String> set = sectionPageToPaths.get(new SectionPage(sectionId, page));
+            return set == null ? new HashSet<>() : new HashSet<>(set);
         }
 
         /**
@@ -1080,16 +1117,16 @@ public class PathHeader implements Comparable<PathHeader> {
          */
         @Deprecated
         public Counter<CounterData> getInternalCounter() {
-            synchronized (lookup) {
-                Counter<CounterData> result = new Counter<>();
-                for (Map.Entry<Finder, RawData> foo : lookup) {
-                    Finder finder = foo.getKey();
-                    RawData data = foo.getValue();
-                    long count = counter.get(data);
-                    result.add(new CounterData(finder.toString(), data, samples.get(data)), count);
-                }
-                return result;
+            Counter<CounterData> result = new Counter<>();
+            for (Map.Entry<Finder, RawData> foo : lookup) {
+                Finder finder = foo.getKey();
+                RawData data = foo.getValue();
+                LongAdder count = counter.get(data);
+                result.add(
+                        new CounterData(finder.toString(), data, samples.get(data)),
+                        count == null ? 0 : count.sum());
             }
+            return result;
         }
 
         static Map<String, Transform<String, String>> functionMap = new HashMap<>();
@@ -1130,7 +1167,7 @@ public class PathHeader implements Comparable<PathHeader> {
                         @Override
                         public String transform(String source) {
                             int m = Integer.parseInt(source);
-                            order = m;
+                            STATE.get().order = m;
                             return months[m - 1];
                         }
                     });
@@ -1139,7 +1176,7 @@ public class PathHeader implements Comparable<PathHeader> {
                     new Transform<>() {
                         @Override
                         public String transform(String source) {
-                            suborder = new SubstringOrder(source);
+                            STATE.get().suborder = new SubstringOrder(source);
                             return source;
                         }
                     });
@@ -1150,7 +1187,7 @@ public class PathHeader implements Comparable<PathHeader> {
                         public String transform(String source) {
                             int pos = source.indexOf('-');
                             source = pos + source.substring(pos);
-                            suborder = new SubstringOrder(source); // make 10000-...
+                            STATE.get().suborder = new SubstringOrder(source); // make 10000-...
                             // into 5-
                             return source;
                         }
@@ -1160,12 +1197,12 @@ public class PathHeader implements Comparable<PathHeader> {
                     new Transform<>() {
                         @Override
                         public String transform(String source) {
-                            order = 901;
+                            STATE.get().order = 901;
                             if (source.endsWith("narrow")) {
-                                order = 902;
+                                STATE.get().order = 902;
                             }
                             if (source.endsWith("variant")) {
-                                order = 903;
+                                STATE.get().order = 903;
                             }
                             return source;
                         }
@@ -1221,7 +1258,7 @@ public class PathHeader implements Comparable<PathHeader> {
                                     rest = (countNumber << 16) | (caseNumber << 8) | genderNumber;
                                     break;
                             }
-                            order = (type << 28) | (lengthNumber << 24) | rest;
+                            STATE.get().order = (type << 28) | (lengthNumber << 24) | rest;
                             return source;
                         }
                     });
@@ -1231,7 +1268,7 @@ public class PathHeader implements Comparable<PathHeader> {
                     new Transform<>() {
                         @Override
                         public String transform(String source) {
-                            order = GrammarInfo.PluralValues.valueOf(source).ordinal();
+                            STATE.get().order = GrammarInfo.PluralValues.valueOf(source).ordinal();
                             return source;
                         }
                     });
@@ -1241,7 +1278,7 @@ public class PathHeader implements Comparable<PathHeader> {
                     new Transform<>() {
                         @Override
                         public String transform(String source) {
-                            order = GrammarInfo.CaseValues.valueOf(source).ordinal();
+                            STATE.get().order = GrammarInfo.CaseValues.valueOf(source).ordinal();
                             return source;
                         }
                     });
@@ -1251,7 +1288,7 @@ public class PathHeader implements Comparable<PathHeader> {
                     new Transform<>() {
                         @Override
                         public String transform(String source) {
-                            order = GrammarInfo.GenderValues.valueOf(source).ordinal();
+                            STATE.get().order = GrammarInfo.GenderValues.valueOf(source).ordinal();
                             return source;
                         }
                     });
@@ -1262,7 +1299,7 @@ public class PathHeader implements Comparable<PathHeader> {
                         @Override
                         public String transform(String source) {
                             int m = days.indexOf(source);
-                            order = m;
+                            STATE.get().order = m;
                             return source;
                         }
                     });
@@ -1272,11 +1309,11 @@ public class PathHeader implements Comparable<PathHeader> {
                         @Override
                         public String transform(String source) {
                             try {
-                                order = dayPeriods.getNumericOrder(source);
+                                STATE.get().order = dayPeriods.getNumericOrder(source);
                             } catch (Exception e) {
                                 // if an old item is tried, like "evening", this will fail.
                                 // so that old data still works, hack this.
-                                order = Math.abs(source.hashCode() << 16);
+                                STATE.get().order = Math.abs(source.hashCode() << 16);
                             }
                             return source;
                         }
@@ -1306,7 +1343,7 @@ public class PathHeader implements Comparable<PathHeader> {
                         @Override
                         public String transform(String source) {
                             String[] fields = source.split(":", 3);
-                            order = 0;
+                            STATE.get().order = 0;
                             final List<String> widthValues =
                                     Arrays.asList("wide", "abbreviated", "short", "narrow");
                             final List<String> calendarFieldValues =
@@ -1344,32 +1381,33 @@ public class PathHeader implements Comparable<PathHeader> {
                                             .freeze();
 
                             if (calendarFieldValues.contains(fields[0])) {
-                                order = calendarFieldValues.indexOf(fields[0]) * 100;
+                                STATE.get().order = calendarFieldValues.indexOf(fields[0]) * 100;
                             } else {
-                                order = calendarFieldValues.size() * 100;
+                                STATE.get().order = calendarFieldValues.size() * 100;
                             }
 
                             if (fields[0].equals("Formats")) {
                                 if (calendarFormatTypes.contains(fields[1])) {
-                                    order += calendarFormatTypes.indexOf(fields[1]) * 10;
+                                    STATE.get().order +=
+                                            calendarFormatTypes.indexOf(fields[1]) * 10;
                                 } else {
-                                    order += calendarFormatTypes.size() * 10;
+                                    STATE.get().order += calendarFormatTypes.size() * 10;
                                 }
                                 if (calendarFormatSubtypes.contains(fields[2])) {
-                                    order += calendarFormatSubtypes.indexOf(fields[2]);
+                                    STATE.get().order += calendarFormatSubtypes.indexOf(fields[2]);
                                 } else {
-                                    order += calendarFormatSubtypes.size();
+                                    STATE.get().order += calendarFormatSubtypes.size();
                                 }
                             } else {
                                 if (widthValues.contains(fields[1])) {
-                                    order += widthValues.indexOf(fields[1]) * 10;
+                                    STATE.get().order += widthValues.indexOf(fields[1]) * 10;
                                 } else {
-                                    order += widthValues.size() * 10;
+                                    STATE.get().order += widthValues.size() * 10;
                                 }
                                 if (calendarContextTypes.contains(fields[2])) {
-                                    order += calendarContextTypes.indexOf(fields[2]);
+                                    STATE.get().order += calendarContextTypes.indexOf(fields[2]);
                                 } else {
-                                    order += calendarContextTypes.size();
+                                    STATE.get().order += calendarContextTypes.size();
                                 }
                             }
 
@@ -1404,7 +1442,7 @@ public class PathHeader implements Comparable<PathHeader> {
                             if (info == null) {
                                 info = ScriptMetadata.getInfo("Zzzz");
                             }
-                            order = 100 - info.idUsage.ordinal();
+                            STATE.get().order = 100 - info.idUsage.ordinal();
                             return info.idUsage.name;
                         }
                     });
@@ -1506,7 +1544,7 @@ public class PathHeader implements Comparable<PathHeader> {
                                 public String transform(String source) {
                                     String territory = getSubdivisionsTerritory(source, null);
                                     String container = Containment.getContainer(territory);
-                                    order = Containment.getOrder(territory);
+                                    STATE.get().order = Containment.getOrder(territory);
                                     return englishNameGetter.getNameFromTypeEnumCode(
                                             NameType.TERRITORY, container);
                                 }
@@ -1645,9 +1683,9 @@ public class PathHeader implements Comparable<PathHeader> {
                                             "daylight-long",
                                             "daylight-short");
                             if (codeValues.contains(source)) {
-                                order = codeValues.indexOf(source);
+                                STATE.get().order = codeValues.indexOf(source);
                             } else {
-                                order = codeValues.size();
+                                STATE.get().order = codeValues.size();
                             }
                             return source;
                         }
@@ -1689,9 +1727,9 @@ public class PathHeader implements Comparable<PathHeader> {
                                             "fallbackFormat");
 
                             if (fieldOrder.contains(source)) {
-                                order = fieldOrder.indexOf(source);
+                                STATE.get().order = fieldOrder.indexOf(source);
                             } else {
-                                order = fieldOrder.size();
+                                STATE.get().order = fieldOrder.size();
                             }
 
                             String result = fieldNames.get(source);
@@ -1704,7 +1742,7 @@ public class PathHeader implements Comparable<PathHeader> {
                         @Override
                         public String transform(String source) {
                             int m = unitOrder.indexOf(source);
-                            order = m;
+                            STATE.get().order = m;
                             return source.substring(source.indexOf('-') + 1);
                         }
                     });
@@ -1716,7 +1754,7 @@ public class PathHeader implements Comparable<PathHeader> {
                         @Override
                         public String transform(String source) {
                             Integer pos = Integer.parseInt(source) + 5;
-                            suborder = new SubstringOrder(pos.toString());
+                            STATE.get().suborder = new SubstringOrder(pos.toString());
                             return source;
                         }
                     });
@@ -1729,7 +1767,7 @@ public class PathHeader implements Comparable<PathHeader> {
                         public String transform(String source) {
                             if (PathHeader.UNIFORM_CONTINENTS) {
                                 String container = getMetazonePageTerritory(source);
-                                order = Containment.getOrder(container);
+                                STATE.get().order = Containment.getOrder(container);
                                 return englishNameGetter.getNameFromTypeEnumCode(
                                         NameType.TERRITORY, container);
                             } else {
@@ -1840,7 +1878,7 @@ public class PathHeader implements Comparable<PathHeader> {
                             }
 
                             if (territory.equals("ZZ")) {
-                                order = 999;
+                                STATE.get().order = 999;
                                 return englishNameGetter.getNameFromTypeEnumCode(
                                                 NameType.TERRITORY, territory)
                                         + ": "
@@ -1869,7 +1907,7 @@ public class PathHeader implements Comparable<PathHeader> {
                             }
 
                             if (territory.equals("ZZ")) {
-                                order = 999;
+                                STATE.get().order = 999;
                                 subContinent =
                                         englishNameGetter.getNameFromTypeEnumCode(
                                                 NameType.TERRITORY, territory);
@@ -1931,7 +1969,7 @@ public class PathHeader implements Comparable<PathHeader> {
 
                         @Override
                         public String transform(String source) {
-                            order = getIndex(source, datefield);
+                            STATE.get().order = getIndex(source, datefield);
                             return source;
                         }
                     });
@@ -1976,7 +2014,7 @@ public class PathHeader implements Comparable<PathHeader> {
 
                         @Override
                         public String transform(String source) {
-                            order = getIndex(source, relativeDateField) + 100;
+                            STATE.get().order = getIndex(source, relativeDateField) + 100;
                             return "Relative " + longNames[getIndex(source, relativeDateField)];
                         }
                     });
@@ -2003,10 +2041,10 @@ public class PathHeader implements Comparable<PathHeader> {
                         @Override
                         public String transform(String source) {
                             String[] parts = source.split("-");
-                            order = getIndex(parts[0], symbols);
+                            STATE.get().order = getIndex(parts[0], symbols);
                             // e.g. "currencies-one"
                             if (parts.length > 1) {
-                                suborder = new SubstringOrder(parts[1]);
+                                STATE.get().suborder = new SubstringOrder(parts[1]);
                             }
                             return source;
                         }
@@ -2025,9 +2063,9 @@ public class PathHeader implements Comparable<PathHeader> {
                                             "standard-scientific");
 
                             if (fieldOrder.contains(source)) {
-                                order = fieldOrder.indexOf(source);
+                                STATE.get().order = fieldOrder.indexOf(source);
                             } else {
-                                order = fieldOrder.size();
+                                STATE.get().order = fieldOrder.size();
                             }
 
                             return source;
@@ -2042,7 +2080,7 @@ public class PathHeader implements Comparable<PathHeader> {
                             // Put localeKeyTypePattern behind localePattern and
                             // localeSeparator.
                             if (source.equals("localeKeyTypePattern")) {
-                                order = 10;
+                                STATE.get().order = 10;
                             }
                             return source;
                         }
@@ -2054,7 +2092,7 @@ public class PathHeader implements Comparable<PathHeader> {
 
                         @Override
                         public String transform(String source) {
-                            order = getIndex(source, listParts);
+                            STATE.get().order = getIndex(source, listParts);
                             return source;
                         }
                     });
@@ -2068,22 +2106,22 @@ public class PathHeader implements Comparable<PathHeader> {
                             final List<String> itemValues =
                                     PersonNameFormatter.SampleType.ALL_STRINGS;
                             if (source.equals("NameOrder")) {
-                                order = 0;
+                                STATE.get().order = 0;
                                 return "NameOrder for Locales";
                             }
                             if (source.equals("Parameters")) {
-                                order = 4;
+                                STATE.get().order = 4;
                                 return "Default Parameters";
                             }
 
                             if (source.equals("AuxiliaryItems")) {
-                                order = 10;
+                                STATE.get().order = 10;
                                 return source;
                             }
                             String itemPrefix = "SampleName:";
                             if (source.startsWith(itemPrefix)) {
                                 String itemValue = source.substring(itemPrefix.length());
-                                order = 20 + itemValues.indexOf(itemValue);
+                                STATE.get().order = 20 + itemValues.indexOf(itemValue);
                                 return "SampleName Fields for Item: " + itemValue;
                             }
                             String pnPrefix = "PersonName:";
@@ -2093,21 +2131,21 @@ public class PathHeader implements Comparable<PathHeader> {
 
                                 String nameOrder = parts.get(0);
                                 if (nameOrder.contentEquals("sorting")) {
-                                    order = 40;
+                                    STATE.get().order = 40;
                                     return "PersonName Sorting Patterns (Usage: referring)";
                                 }
-                                order = 30;
+                                STATE.get().order = 30;
                                 if (nameOrder.contentEquals("surnameFirst")) {
-                                    order += 1;
+                                    STATE.get().order += 1;
                                 }
                                 String nameUsage = parts.get(1);
                                 if (nameUsage.contentEquals("monogram")) {
-                                    order += 20;
+                                    STATE.get().order += 20;
                                     return "PersonName Monogram Patterns for Order: " + nameOrder;
                                 }
                                 return "PersonName Main Patterns for Order: " + nameOrder;
                             }
-                            order = 60;
+                            STATE.get().order = 60;
                             return source;
                         }
                     });
@@ -2131,12 +2169,12 @@ public class PathHeader implements Comparable<PathHeader> {
                             // order & length values handled in &personNameSection
 
                             List<String> parts = HYPHEN_SPLITTER.splitToList(source);
-                            order = 0;
+                            STATE.get().order = 0;
                             String attributes = "";
                             boolean skipReferring = false;
                             for (String part : parts) {
                                 if (attrValues.contains(part)) {
-                                    order += (1 << attrValues.indexOf(part));
+                                    STATE.get().order += (1 << attrValues.indexOf(part));
                                     // anything else like alt="variant" is at order 0
                                     if (!skipReferring || !part.contentEquals("referring")) {
                                         // Add this part to display attribute string
@@ -2175,10 +2213,10 @@ public class PathHeader implements Comparable<PathHeader> {
                                             "suffix"); // values for nameField type
 
                             List<String> parts = HYPHEN_SPLITTER.splitToList(source);
-                            order = 0;
+                            STATE.get().order = 0;
                             for (String part : parts) {
                                 if (attrValues.contains(part)) {
-                                    order += (1 << attrValues.indexOf(part));
+                                    STATE.get().order += (1 << attrValues.indexOf(part));
                                 } // anything else like alt="variant" is at order 0
                             }
                             return source;
@@ -2190,7 +2228,7 @@ public class PathHeader implements Comparable<PathHeader> {
                     new Transform<>() {
                         @Override
                         public String transform(String source) {
-                            order = 0;
+                            STATE.get().order = 0;
                             return source;
                         }
                     });
@@ -2222,7 +2260,7 @@ public class PathHeader implements Comparable<PathHeader> {
                         @Override
                         public String transform(String source) {
                             String minorCat = Emoji.getMinorCategory(source);
-                            order = Emoji.getEmojiMinorOrder(minorCat);
+                            STATE.get().order = Emoji.getEmojiMinorOrder(minorCat);
                             return minorCat;
                         }
                     });
@@ -2237,7 +2275,7 @@ public class PathHeader implements Comparable<PathHeader> {
                         public String transform(String source) {
                             int dashPos = source.indexOf(' ');
                             String emoji = source.substring(0, dashPos);
-                            order =
+                            STATE.get().order =
                                     (Emoji.getEmojiToOrder(emoji) << 1)
                                             + (source.endsWith("name") ? 0 : 1);
                             return source;
@@ -2268,19 +2306,10 @@ public class PathHeader implements Comparable<PathHeader> {
         }
 
         static class HyphenSplitter {
-            String main;
-            String extras;
-
+            /** The part before the first hyphen. Keeps no state, so it can be shared. */
             String split(String source) {
                 int hyphenPos = source.indexOf('-');
-                if (hyphenPos < 0) {
-                    main = source;
-                    extras = "";
-                } else {
-                    main = source.substring(0, hyphenPos);
-                    extras = source.substring(hyphenPos);
-                }
-                return main;
+                return hyphenPos < 0 ? source : source.substring(0, hyphenPos);
             }
         }
 
@@ -2292,14 +2321,15 @@ public class PathHeader implements Comparable<PathHeader> {
          * @return
          */
         private static String fix(String input, int orderIn) {
-            input = RegexLookup.replace(input, args.value);
-            order = orderIn;
-            suborder = null;
+            MakeState state = STATE.get();
+            input = RegexLookup.replace(input, state.args);
+            state.order = orderIn;
+            state.suborder = null;
             int pos = 0;
             while (true) {
                 int functionStart = input.indexOf('&', pos);
                 if (functionStart < 0) {
-                    return adjustPageForPath(input, args.value[0] /* path */).toString();
+                    return adjustPageForPath(input, state.args[0] /* path */).toString();
                 }
                 int functionEnd = input.indexOf('(', functionStart);
                 int argEnd =
@@ -2335,8 +2365,12 @@ public class PathHeader implements Comparable<PathHeader> {
             return input;
         }
 
+        /** These functions only look at one or two items of a path, so don't need XPathParts */
+        private static final ThreadLocal<XPathCursor> CURSOR =
+                ThreadLocal.withInitial(XPathCursor::new);
+
         private static PageId getFieldsPageId(String path) {
-            XPathParts parts = XPathParts.getFrozenInstance(path);
+            XPathCursor parts = CURSOR.get().reset(path);
             return (parts.containsElement("relative")
                             || parts.containsElement("relativeTime")
                             || parts.containsElement("relativePeriod"))
@@ -2393,8 +2427,7 @@ public class PathHeader implements Comparable<PathHeader> {
             // Extract the unit from the path. For example, if path is
             // //ldml/units/unitLength[@type="narrow"]/unit[@type="volume-cubic-kilometer"]/displayName
             // then extract "volume-cubic-kilometer" which is the long unit id
-            final String longUnitId =
-                    XPathParts.getFrozenInstance(path).findAttributeValue("unit", "type");
+            final String longUnitId = CURSOR.get().reset(path).findAttributeValue("unit", "type");
             if (longUnitId == null) {
                 throw new InternalCldrException("Missing unit in path " + path);
             }
@@ -2608,7 +2641,7 @@ public class PathHeader implements Comparable<PathHeader> {
         }
     }
 
-    private static UnicodeMap<PageId> nonEmojiMap = null;
+    private static volatile UnicodeMap<PageId> nonEmojiMap = null;
 
     /**
      * Return the PageId for the given character
@@ -0,0 +1,506 @@
+package org.unicode.cldr.util;
+
+import com.ibm.icu.util.ICUUncheckedIOException;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.unicode.cldr.util.PathHeader.PageId;
+import org.unicode.cldr.util.PathHeader.SectionId;
+import org.unicode.cldr.util.PathHeader.SubstringOrder;
+import org.unicode.cldr.util.PathHeader.SurveyToolStatus;
+
+/**
+ * A precomputed table of the {@link PathHeader}s of all known paths, so that {@link
+ * PathHeader.Factory} doesn't have to run the rules in PathHeader.txt for them. The factory looks
+ * up a path here before applying the rules, and only paths that are not in the table (such as new
+ * alt values) are made from the rules. The counts and samples that the factory keeps for its rules
+ * (eg {@link PathHeader.Factory#getUnmatchedRegexes()}) only cover those paths.
+ *
+ * <p>A table is built once per CLDR data version with {@link
+ * org.unicode.cldr.tool.GeneratePathHeaderTable}, and is picked up from the directory given by
+ * {@link XMLSourceSnapshot#SNAPSHOT_DIR_PROPERTY}. It records {@link CLDRFile#GEN_VERSION}, {@link
+ * PathHeader#LOGIC_VERSION}, and the SHA-1 hash of PathHeader.txt and the supplemental data it was
+ * built from, and is only used while all of these still match.
+ *
+ * <p>It also records a hash of the English data (with what it inherits from root), whose names go
+ * into many codes, headers and orders. Hashing that means resolving all of English, too slow to do
+ * on every start, so it is only checked by {@link #isFreshFor(SupplementalDataInfo, CLDRFile)} when
+ * testing; a table must be built again after English changes.
+ *
+ * <p>Layout (gzipped, all integers big-endian):
+ *
+ * <pre>
+ * header:  MAGIC, FORMAT_VERSION, PathHeader.LOGIC_VERSION, data version (modified UTF-8),
+ *          hash length + hash bytes, English hash length + hash bytes
+ * strings: count, then each string (modified UTF-8): the section, page, and status names, the
+ *          headers, the codes, and the main parts of the code suborders
+ * paths:   count, then for each path in sorted order the length of the prefix it shares with
+ *          the previous path (short) and the rest (modified UTF-8)
+ * headers: for each path, the string indexes of its section, page, header, code and status
+ *          (int), its header order (int), code order (long), and the string index of the main
+ *          part of its code suborder (int, -1 if none) and the rest of that suborder (int)
+ * </pre>
+ */
+public class PathHeaderTable {
+    /** "CLDP" */
+    static final int MAGIC = 0x434C4450;
+
+    /** Bump whenever the layout changes, so that old tables are ignored. */
+    static final int FORMAT_VERSION = 2;
+
+    public static final String FILE_NAME = "pathheaders.cldrphx";
+
+    private final int logicVersion;
+    private final String dataVersion;
+    private final byte[] sourceHash;
+    private final byte[] englishHash;
+    private final String[] paths;
+    private final SectionId[] sections;
+    private final PageId[] pages;
+    private final String[] headers;
+    private final int[] headerOrders;
+    private final String[] codes;
+    private final long[] codeOrders;
+    private final SubstringOrder[] codeSuborders;
+    private final SurveyToolStatus[] statuses;
+
+    /** By PathDictionary id, 1 + the index of the path, or 0 */
+    private final int[] indexById;
+
+    private PathHeaderTable(
+            int logicVersion,
+            String dataVersion,
+            byte[] sourceHash,
+            byte[] englishHash,
+            String[] paths,
+            SectionId[] sections,
+            PageId[] pages,
+            String[] headers,
+            int[] headerOrders,
+            String[] codes,
+            long[] codeOrders,
+            SubstringOrder[] codeSuborders,
+            SurveyToolStatus[] statuses) {
+        this.logicVersion = logicVersion;
+        this.dataVersion = dataVersion;
+        this.sourceHash = sourceHash;
+        this.englishHash = englishHash;
+        this.paths = paths;
+        this.sections = sections;
+        this.pages = pages;
+        this.headers = headers;
+        this.headerOrders = headerOrders;
+        this.codes = codes;
+        this.codeOrders = codeOrders;
+        this.codeSuborders = codeSuborders;
+        this.statuses = statuses;
+
+        int[] ids = new int[paths.length];
+        int maxId = -1;
+        for (int i = 0; i < paths.length; ++i) {
+            ids[i] = PathDictionary.getId(paths[i]);
+            maxId = Math.max(maxId, ids[i]);
+        }
+        indexById = new int[maxId + 1];
+        for (int i = 0; i < paths.length; ++i) {
+            indexById[ids[i]] = i + 1;
+        }
+    }
+
+    /**
+     * Get the PathHeader of a path.
+     *
+     * @return a new PathHeader, or null if the path is not in the table
+     */
+    public PathHeader get(String path) {
+        return get(PathDictionary.peekId(path), path);
+    }
+
+    /**
+     * Get the PathHeader of a path, when its PathDictionary id is already known.
+     *
+     * @return a new PathHeader, or null if the path is not in the table
+     */
+    PathHeader get(int pathId, String path) {
+        if (pathId < 0 || pathId >= indexById.length) {
+            return null;
+        }
+        int i = indexById[pathId] - 1;
+        if (i < 0) {
+            return null;
+        }
+        return new PathHeader(
+                sections[i],
+                pages[i],
+                headers[i],
+                headerOrders[i],
+                codes[i],
+                codeOrders[i],
+                codeSuborders[i],
+                statuses[i],
+                path);
+    }
+
+    /** The number of paths in the table. */
+    public int size() {
+        return paths.length;
+    }
+
+    /** The CLDR data version the table was built for. */
+    public String getDataVersion() {
+        return dataVersion;
+    }
+
+    /**
+     * Whether the table was built for this data version, PathHeader code, PathHeader.txt, and
+     * supplemental data. The English data is not checked.
+     */
+    public boolean isFreshFor(SupplementalDataInfo sdi) {
+        return logicVersion == PathHeader.LOGIC_VERSION
+                && CLDRFile.GEN_VERSION.equals(dataVersion)
+                && Arrays.equals(sourceHash, hashSources(sdi));
+    }
+
+    /**
+     * Whether the table was built for this data version, PathHeader code, PathHeader.txt,
+     * supplemental data, and English data. Slow: for building and testing.
+     *
+     * @param englishFile the resolved English file that the PathHeader.Factory uses
+     */
+    public boolean isFreshFor(SupplementalDataInfo sdi, CLDRFile englishFile) {
+        return isFreshFor(sdi) && Arrays.equals(englishHash, hashEnglish(englishFile));
+    }
+
+    /**
+     * Make the PathHeaders of the given paths. Paths that the factory has no PathHeader for are
+     * left out.
+     *
+     * @param factory the factory to make the PathHeaders with
+     * @param sdi the supplemental data that the factory uses
+     * @param paths the (distinguishing) paths to record
+     */
+    public static PathHeaderTable build(
+            PathHeader.Factory factory, SupplementalDataInfo sdi, Collection<String> paths) {
+        byte[] hash = hashSources(sdi);
+        byte[] englishHash = hashEnglish(PathHeader.Factory.getEnglishFile());
+        factory.prebuild(paths);
+        TreeMap<String, PathHeader> sorted = new TreeMap<>();
+        for (String path : paths) {
+            PathHeader pathHeader = factory.fromPath(path);
+            if (pathHeader != null) {
+                sorted.put(path, pathHeader);
+            }
+        }
+        int size = sorted.size();
+        String[] sortedPaths = new String[size];
+        SectionId[] sections = new SectionId[size];
+        PageId[] pages = new PageId[size];
+        String[] headers = new String[size];
+        int[] headerOrders = new int[size];
+        String[] codes = new String[size];
+        long[] codeOrders = new long[size];
+        SubstringOrder[] codeSuborders = new SubstringOrder[size];
+        SurveyToolStatus[] statuses = new SurveyToolStatus[size];
+        int i = 0;
+        for (Map.Entry<String, PathHeader> entry : sorted.entrySet()) {
+            PathHeader pathHeader = entry.getValue();
+            sortedPaths[i] = entry.getKey();
+            sections[i] = pathHeader.getSectionId();
+            pages[i] = pathHeader.getPageId();
+            headers[i] = pathHeader.getHeader();
+            headerOrders[i] = pathHeader.getHeaderOrder();
+            codes[i] = pathHeader.getCode();
+            codeOrders[i] = pathHeader.getCodeOrder();
+            codeSuborders[i] = pathHeader.getCodeSuborder();
+            statuses[i] = pathHeader.getSurveyToolStatus();
+            ++i;
+        }
+        return new PathHeaderTable(
+                PathHeader.LOGIC_VERSION,
+                CLDRFile.GEN_VERSION,
+                hash,
+                englishHash,
+                sortedPaths,
+                sections,
+                pages,
+                headers,
+                headerOrders,
+                codes,
+                codeOrders,
+                codeSuborders,
+                statuses);
+    }
+
+    /** Serialize the table in the layout described above. */
+    public void write(OutputStream os) throws IOException {
+        // headers and codes repeat a lot, so they are written once each
+        TreeSet<String> stringSet = new TreeSet<>();
+        for (int i = 0; i < paths.length; ++i) {
+            stringSet.add(sections[i].name());
+            stringSet.add(pages[i].name());
+            stringSet.add(headers[i]);
+            stringSet.add(codes[i]);
+            stringSet.add(statuses[i].name());
+            if (codeSuborders[i] != null) {
+                stringSet.add(codeSuborders[i].mainOrder);
+            }
+        }
+        Map<String, Integer> stringIndex = new HashMap<>();
+        for (String string : stringSet) {
+            stringIndex.put(string, stringIndex.size());
+        }
+
+        GZIPOutputStream zipped = new GZIPOutputStream(os);
+        DataOutputStream out = new DataOutputStream(zipped);
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeInt(logicVersion);
+        out.writeUTF(dataVersion);
+        out.writeInt(sourceHash.length);
+        out.write(sourceHash);
+        out.writeInt(englishHash.length);
+        out.write(englishHash);
+        out.writeInt(stringSet.size());
+        for (String string : stringSet) {
+            out.writeUTF(string);
+        }
+        out.writeInt(paths.length);
+        String previous = "";
+        for (String path : paths) {
+            int shared = 0;
+            int max = Math.min(previous.length(), path.length());
+            while (shared < max && previous.charAt(shared) == path.charAt(shared)) {
+                ++shared;
+            }
+            out.writeShort(shared);
+            out.writeUTF(path.substring(shared));
+            previous = path;
+        }
+        for (int i = 0; i < paths.length; ++i) {
+            out.writeInt(stringIndex.get(sections[i].name()));
+            out.writeInt(stringIndex.get(pages[i].name()));
+            out.writeInt(stringIndex.get(headers[i]));
+            out.writeInt(stringIndex.get(codes[i]));
+            out.writeInt(stringIndex.get(statuses[i].name()));
+            out.writeInt(headerOrders[i]);
+            out.writeLong(codeOrders[i]);
+            SubstringOrder suborder = codeSuborders[i];
+            out.writeInt(suborder == null ? -1 : stringIndex.get(suborder.mainOrder));
+            out.writeInt(suborder == null ? 0 : suborder.order);
+        }
+        out.flush();
+        zipped.finish();
+    }
+
+    /**
+     * Read a table written by {@link #write}.
+     *
+     * @throws IllegalArgumentException if the input is not a table of the current format, or names
+     *     a section, page, or status that no longer exists
+     */
+    public static PathHeaderTable read(InputStream is) throws IOException {
+        DataInputStream in = new DataInputStream(new GZIPInputStream(is));
+        if (in.readInt() != MAGIC) {
+            throw new IllegalArgumentException("Not a CLDR PathHeader table");
+        }
+        int version = in.readInt();
+        if (version != FORMAT_VERSION) {
+            throw new IllegalArgumentException(
+                    "PathHeader table format " + version + ", expected " + FORMAT_VERSION);
+        }
+        int logicVersion = in.readInt();
+        String dataVersion = in.readUTF();
+        byte[] hash = new byte[in.readInt()];
+        in.readFully(hash);
+        byte[] englishHash = new byte[in.readInt()];
+        in.readFully(englishHash);
+        String[] strings = new String[in.readInt()];
+        for (int i = 0; i < strings.length; ++i) {
+            strings[i] = in.readUTF();
+        }
+        String[] paths = new String[in.readInt()];
+        String previous = "";
+        for (int i = 0; i < paths.length; ++i) {
+            int shared = in.readShort();
+            paths[i] = previous.substring(0, shared) + in.readUTF();
+            previous = paths[i];
+        }
+        int size = paths.length;
+        SectionId[] sections = new SectionId[size];
+        PageId[] pages = new PageId[size];
+        String[] headers = new String[size];
+        int[] headerOrders = new int[size];
+        String[] codes = new String[size];
+        long[] codeOrders = new long[size];
+        SubstringOrder[] codeSuborders = new SubstringOrder[size];
+        SurveyToolStatus[] statuses = new SurveyToolStatus[size];
+        // the enums are looked up once per name; valueOf throws if one has been renamed
+        Map<String, SectionId> sectionCache = new HashMap<>();
+        Map<String, PageId> pageCache = new HashMap<>();
+        Map<String, SurveyToolStatus> statusCache = new HashMap<>();
+        try {
+            for (int i = 0; i < size; ++i) {
+                sections[i] =
+                        sectionCache.computeIfAbsent(strings[in.readInt()], SectionId::valueOf);
+                pages[i] = pageCache.computeIfAbsent(strings[in.readInt()], PageId::valueOf);
+                headers[i] = strings[in.readInt()];
+                codes[i] = strings[in.readInt()];
+                statuses[i] =
+                        statusCache.computeIfAbsent(
+                                strings[in.readInt()], SurveyToolStatus::valueOf);
+                headerOrders[i] = in.readInt();
+                codeOrders[i] = in.readLong();
+                int mainOrder = in.readInt();
+                int order = in.readInt();
+                if (mainOrder >= 0) {
+                    codeSuborders[i] = new SubstringOrder(strings[mainOrder], order);
+                }
+            }
+        } catch (ArrayIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Bad string index in PathHeader table", e);
+        }
+        return new PathHeaderTable(
+                logicVersion,
+                dataVersion,
+                hash,
+                englishHash,
+                paths,
+                sections,
+                pages,
+                headers,
+                headerOrders,
+                codes,
+                codeOrders,
+                codeSuborders,
+                statuses);
+    }
+
+    /** Read a table from a file. */
+    public static PathHeaderTable read(File file) {
+        try (InputStream in = Files.newInputStream(file.toPath())) {
+            return read(in);
+        } catch (IOException e) {
+            throw new ICUUncheckedIOException("Cannot read the PathHeader table " + file, e);
+        }
+    }
+
+    /**
+     * Write the table to the file for the given directory (see {@link #getFile}).
+     *
+     * @return the file written
+     */
+    public File save(File directory) {
+        File file = getFile(directory);
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new ICUUncheckedIOException("Cannot create the directory " + directory);
+        }
+        // write to a temporary file and rename, so that readers never see a partial table
+        File tempFile = new File(directory, FILE_NAME + ".tmp");
+        try (OutputStream out = Files.newOutputStream(tempFile.toPath())) {
+            write(out);
+        } catch (IOException e) {
+            throw new ICUUncheckedIOException("Cannot write the PathHeader table " + tempFile, e);
+        }
+        try {
+            Files.move(
+                    tempFile.toPath(),
+                    file.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new ICUUncheckedIOException("Cannot write the PathHeader table " + file, e);
+        }
+        return file;
+    }
+
+    /** Where the table lives within a snapshot directory. */
+    public static File getFile(File directory) {
+        return new File(directory, FILE_NAME);
+    }
+
+    /**
+     * Get the table in the directory configured with {@link
+     * XMLSourceSnapshot#SNAPSHOT_DIR_PROPERTY}, if it is there and fresh for the given supplemental
+     * data (see {@link #isFreshFor(SupplementalDataInfo)}).
+     *
+     * @return the table, or null
+     */
+    public static PathHeaderTable getDefault(SupplementalDataInfo sdi) {
+        File directory = XMLSourceSnapshot.getDefaultSnapshotDirectory();
+        if (directory == null || sdi.getDirectory() == null) {
+            return null;
+        }
+        return readIfFresh(directory, sdi);
+    }
+
+    /** Return the table in the directory, or null if it is missing, unreadable, or stale. */
+    static PathHeaderTable readIfFresh(File directory, SupplementalDataInfo sdi) {
+        File file = getFile(directory);
+        if (!file.canRead()) {
+            return null;
+        }
+        try {
+            PathHeaderTable table = read(file);
+            if (!table.isFreshFor(sdi)) {
+                System.err.println("Ignoring stale PathHeader table " + file);
+                return null;
+            }
+            return table;
+        } catch (IllegalArgumentException | ICUUncheckedIOException e) {
+            System.err.println("Ignoring bad PathHeader table " + file + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /** SHA-1 over PathHeader.txt and the hash of the supplemental data. */
+    static byte[] hashSources(SupplementalDataInfo sdi) {
+        try (InputStream rules = PathHeader.class.getResourceAsStream("data/PathHeader.txt")) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            digest.update(rules.readAllBytes());
+            digest.update(CoverageTable.hashSupplementalData(sdi));
+            return digest.digest();
+        } catch (IOException e) {
+            throw new ICUUncheckedIOException("Cannot read PathHeader.txt", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    /** SHA-1 over the paths and values of the English file. */
+    static byte[] hashEnglish(CLDRFile englishFile) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            // sorted, since the order of a resolved file's paths is not fixed
+            TreeSet<String> englishPaths = new TreeSet<>();
+            englishFile.forEach(englishPaths::add);
+            for (String path : englishPaths) {
+                digest.update(path.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+                String value = englishFile.getStringValue(path);
+                if (value != null) {
+                    digest.update(value.getBytes(StandardCharsets.UTF_8));
+                }
+                digest.update((byte) 0);
+            }
+            return digest.digest();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+}
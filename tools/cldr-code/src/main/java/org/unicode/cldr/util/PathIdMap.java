@@ -0,0 +1,197 @@
+package org.unicode.cldr.util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.IntFunction;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * A thread-safe map from {@link PathDictionary} ids to values, stored as a chunked array indexed by
+ * id. Lookups take no locks and do no hashing or string comparison; only the allocation of a new
+ * chunk is synchronized. Values cannot be null.
+ *
+ * @param <V> the value type
+ */
+public class PathIdMap<V> {
+    private static final int CHUNK_BITS = 12;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private volatile AtomicReferenceArray<V>[] chunks = newChunks(16);
+    private final AtomicInteger size = new AtomicInteger();
+
+    @SuppressWarnings("unchecked")
+    private static <V> AtomicReferenceArray<V>[] newChunks(int length) {
+        return new AtomicReferenceArray[length];
+    }
+
+    /**
+     * Get the value for an id, or null if there is none (including for {@link
+     * PathDictionary#NO_ID}).
+     */
+    public V get(int id) {
+        if (id < 0) {
+            return null;
+        }
+        AtomicReferenceArray<V>[] current = chunks;
+        int chunkIndex = id >>> CHUNK_BITS;
+        if (chunkIndex >= current.length) {
+            return null;
+        }
+        AtomicReferenceArray<V> chunk = current[chunkIndex];
+        return chunk == null ? null : chunk.get(id & CHUNK_MASK);
+    }
+
+    /** Get the value for a path, or null if there is none. Does not add the path. */
+    public V get(String path) {
+        return get(PathDictionary.peekId(path));
+    }
+
+    /**
+     * Set the value for an id.
+     *
+     * @return the previous value, or null
+     */
+    public V put(int id, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Null value for id " + id);
+        }
+        V old = chunkFor(id).getAndSet(id & CHUNK_MASK, value);
+        if (old == null) {
+            size.incrementAndGet();
+        }
+        return old;
+    }
+
+    /**
+     * Set the value for an id unless it already has one.
+     *
+     * @return the existing value, or null if the value was set
+     */
+    public V putIfAbsent(int id, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Null value for id " + id);
+        }
+        AtomicReferenceArray<V> chunk = chunkFor(id);
+        int index = id & CHUNK_MASK;
+        while (true) {
+            V old = chunk.get(index);
+            if (old != null) {
+                return old;
+            }
+            if (chunk.compareAndSet(index, null, value)) {
+                size.incrementAndGet();
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Get the value for an id, computing and storing it if there is none. The function may be
+     * called more than once for the same id by racing threads, but only one result is kept.
+     */
+    public V computeIfAbsent(int id, IntFunction<V> function) {
+        V result = get(id);
+        if (result == null) {
+            result = function.apply(id);
+            if (result == null) {
+                return null;
+            }
+            V old = putIfAbsent(id, result);
+            if (old != null) {
+                result = old;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Remove the value for an id.
+     *
+     * @return the previous value, or null
+     */
+    public V remove(int id) {
+        if (get(id) == null) {
+            return null;
+        }
+        V old = chunkFor(id).getAndSet(id & CHUNK_MASK, null);
+        if (old != null) {
+            size.decrementAndGet();
+        }
+        return old;
+    }
+
+    /**
+     * Remove the value for an id, only if it is the given one (compared by identity).
+     *
+     * @return true if the value was removed
+     */
+    public boolean remove(int id, V value) {
+        if (get(id) != value || value == null) {
+            return false;
+        }
+        if (chunkFor(id).compareAndSet(id & CHUNK_MASK, value, null)) {
+            size.decrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Call the action for each id with a value, in id order. Values added or removed concurrently
+     * may or may not be seen.
+     */
+    public void forEach(ObjIntConsumer<V> action) {
+        AtomicReferenceArray<V>[] current = chunks;
+        for (int chunkIndex = 0; chunkIndex < current.length; ++chunkIndex) {
+            AtomicReferenceArray<V> chunk = current[chunkIndex];
+            if (chunk == null) {
+                continue;
+            }
+            for (int i = 0; i < CHUNK_SIZE; ++i) {
+                V value = chunk.get(i);
+                if (value != null) {
+                    action.accept(value, (chunkIndex << CHUNK_BITS) | i);
+                }
+            }
+        }
+    }
+
+    /** Remove all values. Not atomic with respect to concurrent puts. */
+    public synchronized void clear() {
+        chunks = newChunks(16);
+        size.set(0);
+    }
+
+    /** The number of ids with values. */
+    public int size() {
+        return size.get();
+    }
+
+    private AtomicReferenceArray<V> chunkFor(int id) {
+        if (id < 0) {
+            throw new IllegalArgumentException("Bad path id: " + id);
+        }
+        int chunkIndex = id >>> CHUNK_BITS;
+        AtomicReferenceArray<V>[] current = chunks;
+        if (chunkIndex < current.length && current[chunkIndex] != null) {
+            return current[chunkIndex];
+        }
+        synchronized (this) {
+            current = chunks;
+            if (chunkIndex >= current.length) {
+                AtomicReferenceArray<V>[] grown =
+                        newChunks(Math.max(current.length * 2, chunkIndex + 1));
+                System.arraycopy(current, 0, grown, 0, current.length);
+                current = grown;
+            } else if (current[chunkIndex] != null) {
+                return current[chunkIndex];
+            } else {
+                current = current.clone();
+            }
+            current[chunkIndex] = new AtomicReferenceArray<>(CHUNK_SIZE);
+            chunks = current; // publish a new array, so readers never see a half-built chunk
+            return current[chunkIndex];
+        }
+    }
+}
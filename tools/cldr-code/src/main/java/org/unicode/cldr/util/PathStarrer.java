@@ -29,17 +29,37 @@ public class PathStarrer {
      * @return the starred path
      */
     public static String get(String path) {
-        return STAR_CACHE.computeIfAbsent(
-                path,
-                x -> {
-                    XPathParts parts = XPathParts.getFrozenInstance(x).cloneAsThawed();
-                    for (int i = 0; i < parts.size(); ++i) {
-                        for (String key : parts.getAttributeKeys(i)) {
-                            parts.setAttribute(i, key, STAR_PATTERN);
-                        }
-                    }
-                    return parts.toString();
-                });
+        return STAR_CACHE.computeIfAbsent(path, PathStarrer::star);
+    }
+
+    private static final ThreadLocal<XPathCursor> CURSOR =
+            ThreadLocal.withInitial(XPathCursor::new);
+
+    private static String star(String path) {
+        XPathCursor cursor = CURSOR.get().reset(path);
+        if (!cursor.hasCanonicalAttributeOrder()) {
+            XPathParts parts = XPathParts.getFrozenInstance(path).cloneAsThawed();
+            for (int i = 0; i < parts.size(); ++i) {
+                for (String key : parts.getAttributeKeys(i)) {
+                    parts.setAttribute(i, key, STAR_PATTERN);
+                }
+            }
+            return parts.toString();
+        }
+        // the same as XPathParts.toString(), without parsing into XPathParts
+        StringBuilder result = new StringBuilder(path.length() + 16);
+        result.append('/');
+        for (int i = 0; i < cursor.size(); ++i) {
+            result.append('/').append(cursor.getElement(i));
+            for (int j = 0; j < cursor.getAttributeCount(i); ++j) {
+                result.append("[@")
+                        .append(cursor.getAttributeNameAt(i, j))
+                        .append("=\"")
+                        .append(STAR_PATTERN)
+                        .append("\"]");
+            }
+        }
+        return result.toString();
     }
 
     /**
@@ -5,6 +5,7 @@ import com.ibm.icu.impl.Utility;
 import com.ibm.icu.text.Transform;
 import com.ibm.icu.util.Output;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
@@ -26,7 +27,8 @@ import org.unicode.cldr.util.RegexLookup.Finder.Info;
 
 /**
  * Lookup items according to a set of regex patterns. Returns the value according to the first
- * pattern that matches. Not thread-safe.
+ * pattern that matches. Not thread-safe, except that a built {@link
+ * LookupType#PREFIX_INDEXED_LOOKUP} can be read from several threads.
  *
  * @param <T> the type of the value to be returned by the method get()
  */
@@ -43,6 +45,7 @@ public class RegexLookup<T> implements Iterable<Map.Entry<Finder, T>> {
     public enum LookupType {
         STAR_PATTERN_LOOKUP,
         OPTIMIZED_DIRECTORY_PATTERN_LOOKUP,
+        PREFIX_INDEXED_LOOKUP,
         STANDARD
     }
 
@@ -68,6 +71,14 @@ public class RegexLookup<T> implements Iterable<Map.Entry<Finder, T>> {
      * However regex's no longer need to follow any specific format (Slower but more versatile).
      */
 
+    /*
+     * PREFIX_INDEXED_LOOKUP
+     *
+     * Returns the same results as STANDARD, for any patterns, but only tries the patterns whose literal
+     * prefix (after a leading ^) matches the start of the source, plus those without one. Lookups take
+     * no locks for plain RegexFinders, so a built lookup can be shared between threads.
+     */
+
     public RegexLookup(LookupType type) {
         _lookupType = type;
         switch (type) {
@@ -79,6 +90,9 @@ public class RegexLookup<T> implements Iterable<Map.Entry<Finder, T>> {
                 //   RTEntries = new RegexTree<T>();
                 storage = new RegexTree<>();
                 break;
+            case PREFIX_INDEXED_LOOKUP:
+                storage = new PrefixIndex<>();
+                break;
             default:
                 MEntries = new LinkedHashMap<>();
                 break;
@@ -641,12 +655,7 @@ public class RegexLookup<T> implements Iterable<Map.Entry<Finder, T>> {
         @Override
         public void put(Finder pattern, T value) {
             // System.out.println("pattern.toString() is => "+pattern.toString());
-            String starPattern =
-                    starPatternTransform(
-                            pattern.toString()
-                                    .replaceAll(
-                                            "\\(\\[\\^\"\\]\\*\\)",
-                                            PathStarrer.SIMPLE_STAR_PATTERN));
+            String starPattern = getStarPatternKey(pattern);
             // System.out.println("Putting => "+starPattern);
             List<SPNode> candidates = _spmap.get(starPattern);
             if (candidates == null) {
@@ -766,27 +775,296 @@ public class RegexLookup<T> implements Iterable<Map.Entry<Finder, T>> {
                 return this._finder.toString();
             }
         }
+    }
 
-        // Used for coverage lookups - strips off the leading ^ and trailing $ from regexp pattern.
-        private String starPatternTransform(String path) {
-            final Pattern ATTRIBUTE_PATTERN_OLD = PatternCache.get("=\"([^\"]*)\"");
-            Matcher starAttributeMatcher = ATTRIBUTE_PATTERN_OLD.matcher(path);
-            StringBuilder starredPathOld = new StringBuilder();
-            int lastEnd = 0;
-            while (starAttributeMatcher.find()) {
-                int start = starAttributeMatcher.start(1);
-                int end = starAttributeMatcher.end(1);
-                starredPathOld.append(path, lastEnd, start);
-                starredPathOld.append(PathStarrer.SIMPLE_STAR_PATTERN);
-                lastEnd = end;
+    /**
+     * Patterns indexed in a trie by the literal text that they must match at the start of the
+     * source. A lookup walks the trie along the source, and only tries the patterns whose prefix it
+     * passes through, together with the patterns without a usable prefix (which sit at the root),
+     * in the order they were added. So the first match is the same as a STANDARD lookup's.
+     *
+     * <p>Plain RegexFinders are matched with a Matcher of their own, so lookups take no locks;
+     * other Finders are called as usual. Once built, the index is only read.
+     */
+    private static class PrefixIndex<T> implements StorageInterfaceBase<T> {
+        private static final int[] NO_RANKS = new int[0];
+
+        private final PrefixNode root = new PrefixNode();
+        private final List<NodeBase<T>> nodes = new ArrayList<>(); // by rank
+        private final Map<Finder, T> values = new HashMap<>();
+
+        /** A trie node, with the ranks of the patterns whose prefix ends here. */
+        private static final class PrefixNode {
+            char[] keys = new char[0];
+            PrefixNode[] children = new PrefixNode[0];
+            int[] ranks = NO_RANKS;
+
+            PrefixNode getChild(char c) {
+                int index = Arrays.binarySearch(keys, c);
+                return index < 0 ? null : children[index];
+            }
+
+            PrefixNode addChild(char c) {
+                int index = Arrays.binarySearch(keys, c);
+                if (index >= 0) {
+                    return children[index];
+                }
+                index = -index - 1;
+                char[] newKeys = new char[keys.length + 1];
+                PrefixNode[] newChildren = new PrefixNode[keys.length + 1];
+                System.arraycopy(keys, 0, newKeys, 0, index);
+                System.arraycopy(children, 0, newChildren, 0, index);
+                newKeys[index] = c;
+                newChildren[index] = new PrefixNode();
+                System.arraycopy(keys, index, newKeys, index + 1, keys.length - index);
+                System.arraycopy(children, index, newChildren, index + 1, keys.length - index);
+                keys = newKeys;
+                children = newChildren;
+                return newChildren[index];
             }
-            starredPathOld.append(path.substring(lastEnd));
-            String result = Utility.unescape(starredPathOld.toString());
-            if (result.startsWith("^") && result.endsWith("$")) {
-                result = result.substring(1, result.length() - 1);
+        }
+
+        @Override
+        public int size() {
+            return nodes.size();
+        }
+
+        @Override
+        public void put(Finder pattern, T value) {
+            PrefixNode node = root;
+            String prefix = getLiteralPrefix(pattern);
+            for (int i = 0; i < prefix.length(); ++i) {
+                node = node.addChild(prefix.charAt(i));
+            }
+            node.ranks = Arrays.copyOf(node.ranks, node.ranks.length + 1);
+            node.ranks[node.ranks.length - 1] = nodes.size();
+            nodes.add(new NodeBase<>(pattern, value));
+            values.put(pattern, value);
+        }
+
+        @Override
+        public T get(Finder finder) {
+            return values.get(finder);
+        }
+
+        /** The ranks of the patterns that could match the source, in order. */
+        private int[] getCandidates(String source) {
+            int[] result = root.ranks;
+            boolean merged = false;
+            PrefixNode node = root;
+            for (int i = 0; i < source.length(); ++i) {
+                node = node.getChild(source.charAt(i));
+                if (node == null) {
+                    break;
+                }
+                if (node.ranks.length != 0) {
+                    if (result.length == 0) {
+                        result = node.ranks;
+                    } else {
+                        int[] combined = Arrays.copyOf(result, result.length + node.ranks.length);
+                        System.arraycopy(node.ranks, 0, combined, result.length, node.ranks.length);
+                        result = combined;
+                        merged = true;
+                    }
+                }
+            }
+            if (merged) {
+                Arrays.sort(result);
             }
             return result;
         }
+
+        @Override
+        public List<T> getAll(
+                String pattern,
+                Object context,
+                List<Finder> matcherList,
+                Output<String[]> firstInfo) {
+            List<T> retList = new ArrayList<>();
+            for (int rank : getCandidates(pattern)) {
+                NodeBase<T> node = nodes.get(rank);
+                Info info = new Info();
+                if (find(node._finder, pattern, context, info)) {
+                    if (retList.isEmpty() && firstInfo != null) {
+                        firstInfo.value = info.value;
+                    }
+                    retList.add(node._val);
+                    if (matcherList != null) {
+                        matcherList.add(node._finder);
+                    }
+                }
+            }
+            return retList;
+        }
+
+        @Override
+        public T get(
+                String pattern,
+                Object context,
+                Output<String[]> arguments,
+                Output<Finder> matcherFound) {
+            for (int rank : getCandidates(pattern)) {
+                NodeBase<T> node = nodes.get(rank);
+                Info info = arguments == null ? null : new Info();
+                if (find(node._finder, pattern, context, info)) {
+                    if (arguments != null) {
+                        arguments.value = info.value;
+                    }
+                    if (matcherFound != null) {
+                        matcherFound.value = node._finder;
+                    }
+                    return node._val;
+                }
+            }
+            if (matcherFound != null) {
+                matcherFound.value = null;
+            }
+            return null;
+        }
+
+        /** Like finder.find, but without the lock for plain RegexFinders. */
+        private static boolean find(Finder finder, String source, Object context, Info info) {
+            if (finder.getClass() != RegexFinder.class) {
+                return finder.find(source, context, info);
+            }
+            Matcher matcher = ((RegexFinder) finder).pattern.matcher(source);
+            if (!matcher.find()) {
+                return false;
+            }
+            if (info != null) {
+                String[] value = new String[matcher.groupCount() + 1];
+                for (int i = 0; i < value.length; ++i) {
+                    value[i] = matcher.group(i);
+                }
+                info.value = value;
+            }
+            return true;
+        }
+
+        @Override
+        public Set<Entry<Finder, T>> entrySet() {
+            LinkedHashMap<Finder, T> ret = new LinkedHashMap<>();
+            for (NodeBase<T> node : nodes) {
+                ret.put(node._finder, node._val);
+            }
+            return ret.entrySet();
+        }
+    }
+
+    /**
+     * The literal text that a pattern must match at the start of the source, used by a
+     * PREFIX_INDEXED_LOOKUP. Only RegexFinders anchored with ^ have one, and only if the pattern
+     * has no alternation outside of a group; otherwise the result is empty. The text stops before
+     * the first construct that is not a literal character, or a character that a quantifier applies
+     * to.
+     */
+    static String getLiteralPrefix(Finder finder) {
+        if (!(finder instanceof RegexFinder)) {
+            return "";
+        }
+        Pattern pattern = ((RegexFinder) finder).pattern;
+        if ((pattern.flags() & ~Pattern.COMMENTS) != 0) {
+            return "";
+        }
+        final boolean comments = (pattern.flags() & Pattern.COMMENTS) != 0;
+        String source = pattern.pattern();
+        if (!source.startsWith("^") || hasTopLevelAlternation(source)) {
+            return "";
+        }
+        StringBuilder result = new StringBuilder();
+        int i = skipIgnorable(source, 1, comments);
+        while (i < source.length()) {
+            char c = source.charAt(i);
+            int next;
+            if (c == '\\') {
+                if (i + 1 >= source.length() || Character.isLetterOrDigit(source.charAt(i + 1))) {
+                    break; // \d, \Q, \1 and the like
+                }
+                c = source.charAt(i + 1);
+                next = i + 2;
+            } else if (".[](){}*+?^$|".indexOf(c) >= 0 || (comments && c == '#')) {
+                break;
+            } else {
+                next = i + 1;
+            }
+            next = skipIgnorable(source, next, comments);
+            if (next < source.length() && "?*+{".indexOf(source.charAt(next)) >= 0) {
+                break; // the character is optional or repeated
+            }
+            result.append(c);
+            i = next;
+        }
+        return result.toString();
+    }
+
+    /** Skip the whitespace that a pattern compiled with COMMENTS ignores. */
+    private static int skipIgnorable(String source, int i, boolean comments) {
+        if (comments) {
+            while (i < source.length() && Character.isWhitespace(source.charAt(i))) {
+                ++i;
+            }
+        }
+        return i;
+    }
+
+    /** Whether a pattern has a | outside of any group or character class. */
+    private static boolean hasTopLevelAlternation(String source) {
+        int depth = 0;
+        int classDepth = 0;
+        for (int i = 0; i < source.length(); ++i) {
+            char c = source.charAt(i);
+            if (c == '\\') {
+                ++i;
+            } else if (c == '[') {
+                ++classDepth;
+            } else if (c == ']' && classDepth > 0) {
+                --classDepth;
+            } else if (classDepth > 0) {
+                continue;
+            } else if (c == '(') {
+                ++depth;
+            } else if (c == ')') {
+                --depth;
+            } else if (c == '|' && depth == 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The key under which a STAR_PATTERN_LOOKUP stores a pattern: the pattern with attribute values
+     * (including the <code>([^"]*)</code> capturing groups) replaced by stars.
+     */
+    public static String getStarPatternKey(Finder pattern) {
+        return starPatternTransform(
+                pattern.toString()
+                        .replaceAll("\\(\\[\\^\"\\]\\*\\)", PathStarrer.SIMPLE_STAR_PATTERN));
+    }
+
+    /**
+     * Used for coverage lookups - replaces attribute values by stars, and strips off the leading ^
+     * and trailing $ from regexp pattern. For a path, the result is the key that the patterns which
+     * could match it are stored under in a STAR_PATTERN_LOOKUP.
+     */
+    public static String starPatternTransform(String path) {
+        final Pattern ATTRIBUTE_PATTERN_OLD = PatternCache.get("=\"([^\"]*)\"");
+        Matcher starAttributeMatcher = ATTRIBUTE_PATTERN_OLD.matcher(path);
+        StringBuilder starredPathOld = new StringBuilder();
+        int lastEnd = 0;
+        while (starAttributeMatcher.find()) {
+            int start = starAttributeMatcher.start(1);
+            int end = starAttributeMatcher.end(1);
+            starredPathOld.append(path, lastEnd, start);
+            starredPathOld.append(PathStarrer.SIMPLE_STAR_PATTERN);
+            lastEnd = end;
+        }
+        starredPathOld.append(path.substring(lastEnd));
+        String result = Utility.unescape(starredPathOld.toString());
+        if (result.startsWith("^") && result.endsWith("$")) {
+            result = result.substring(1, result.length() - 1);
+        }
+        return result;
     }
 
     /**
@@ -925,7 +1203,8 @@ public class RegexLookup<T> implements Iterable<Map.Entry<Finder, T>> {
                     }
                 }
             }
-        } else if (_lookupType == RegexLookup.LookupType.OPTIMIZED_DIRECTORY_PATTERN_LOOKUP) {
+        } else if (_lookupType == RegexLookup.LookupType.OPTIMIZED_DIRECTORY_PATTERN_LOOKUP
+                || _lookupType == RegexLookup.LookupType.PREFIX_INDEXED_LOOKUP) {
             //      T ret = RTEntries.get(source, context, arguments, matcherFound);
             T ret = storage.get(source, context, arguments, matcherFound);
             if (ret != null) {
@@ -1023,7 +1302,8 @@ public class RegexLookup<T> implements Iterable<Map.Entry<Finder, T>> {
                 }
             }
             return null;
-        } else if (_lookupType == RegexLookup.LookupType.OPTIMIZED_DIRECTORY_PATTERN_LOOKUP) {
+        } else if (_lookupType == RegexLookup.LookupType.OPTIMIZED_DIRECTORY_PATTERN_LOOKUP
+                || _lookupType == RegexLookup.LookupType.PREFIX_INDEXED_LOOKUP) {
             Output<String[]> info = new Output<>();
             //            List<T> matches = RTEntries.getAll(source, context, matcherList,info);
             List<T> matches = storage.getAll(source, context, matcherList, info);
@@ -1090,7 +1370,8 @@ public class RegexLookup<T> implements Iterable<Map.Entry<Finder, T>> {
                 //            entrySet = SPEntries.entrySet();
                 entrySet = storage.entrySet();
                 break;
-            case OPTIMIZED_DIRECTORY_PATTERN_LOOKUP:
+            case OPTIMIZED_DIRECTORY_PATTERN_LOOKUP: // fall through
+            case PREFIX_INDEXED_LOOKUP:
                 //            entrySet = RTEntries.entrySet();
                 entrySet = storage.entrySet();
                 break;
@@ -1273,7 +1554,8 @@ public class RegexLookup<T> implements Iterable<Map.Entry<Finder, T>> {
         T old;
         switch (_lookupType) {
             case STAR_PATTERN_LOOKUP: // fallthrough
-            case OPTIMIZED_DIRECTORY_PATTERN_LOOKUP:
+            case OPTIMIZED_DIRECTORY_PATTERN_LOOKUP: // fallthrough
+            case PREFIX_INDEXED_LOOKUP:
                 old = storage.get(pattern);
                 //            old = SPEntries.get(pattern);
                 break;
@@ -1289,7 +1571,8 @@ public class RegexLookup<T> implements Iterable<Map.Entry<Finder, T>> {
         if (old == null) {
             switch (_lookupType) {
                 case STAR_PATTERN_LOOKUP: // fallthrough
-                case OPTIMIZED_DIRECTORY_PATTERN_LOOKUP:
+                case OPTIMIZED_DIRECTORY_PATTERN_LOOKUP: // fallthrough
+                case PREFIX_INDEXED_LOOKUP:
                     storage.put(pattern, target);
                     //                SPEntries.put(pattern, target);
                     break;
@@ -1319,7 +1602,8 @@ public class RegexLookup<T> implements Iterable<Map.Entry<Finder, T>> {
     public Iterator<Map.Entry<Finder, T>> iterator() {
         switch (_lookupType) {
             case STAR_PATTERN_LOOKUP: // fall through
-            case OPTIMIZED_DIRECTORY_PATTERN_LOOKUP:
+            case OPTIMIZED_DIRECTORY_PATTERN_LOOKUP: // fall through
+            case PREFIX_INDEXED_LOOKUP:
                 //            return
                 // Collections.unmodifiableCollection(SPEntries.entrySet()).iterator();
                 return Collections.unmodifiableCollection(storage.entrySet()).iterator();
@@ -1365,7 +1649,8 @@ public class RegexLookup<T> implements Iterable<Map.Entry<Finder, T>> {
     public int size() {
         switch (_lookupType) {
             case STAR_PATTERN_LOOKUP: // fall through
-            case OPTIMIZED_DIRECTORY_PATTERN_LOOKUP:
+            case OPTIMIZED_DIRECTORY_PATTERN_LOOKUP: // fall through
+            case PREFIX_INDEXED_LOOKUP:
                 //            return SPEntries.size();
                 return storage.size();
             //        case OPTIMIZED_DIRECTORY_PATTERN_LOOKUP:
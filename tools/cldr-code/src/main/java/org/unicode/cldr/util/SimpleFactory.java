@@ -1,5 +1,6 @@
 package org.unicode.cldr.util;
 
+import com.google.common.base.Throwables;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
@@ -7,32 +8,25 @@ import com.google.common.cache.LoadingCache;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableList.Builder;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import com.ibm.icu.util.ICUException;
 import com.ibm.icu.util.ICUUncheckedIOException;
 import java.io.File;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
 import java.util.regex.Matcher;
 import org.unicode.cldr.util.CLDRFile.DraftStatus;
 import org.unicode.cldr.util.XMLSource.ResolvingSource;
 
 public class SimpleFactory extends Factory {
 
-    /**
-     * Variable to control the behaviour of the class. TRUE - use a (non-static) array of Maps,
-     * indexed by locale String (old behaviour) FALSE - use a single static map, indexed with a more
-     * elaborate key.
-     */
-    private static final boolean USE_OLD_HANDLEMAKE_CODE = false;
-
     /** Variable that customizes the caching of the results of SimpleFactory.make */
     private static final boolean CACHE_SIMPLE_FACTORIES = false;
 
@@ -312,19 +306,7 @@ public class SimpleFactory extends Factory {
     private final File sourceDirectories[];
     private Set<String> localeList = new TreeSet<>();
     private Cache<CLDRCacheKey, CLDRFile> combinedCache = null;
-    // private   Map<CLDRCacheKey,CLDRFile> combinedCache=  null;
-    //     Collections.synchronizedMap(new LruMap<CLDRCacheKey, CLDRFile>(CACHE_LIMIT));
-
-    private Map<String, CLDRFile>[] mainCache = null; /* new Map[DraftStatus.values().length]; */
-    private Map<String, CLDRFile>[] resolvedCache = null; /*new Map[DraftStatus.values().length]; */
-    //    {
-    //        for (int i = 0; i < mainCache.length; ++i) {
-    //            mainCache[i] = Collections.synchronizedMap(new LruMap<String,
-    // CLDRFile>(CACHE_LIMIT));
-    //            resolvedCache[i] = Collections.synchronizedMap(new LruMap<String,
-    // CLDRFile>(CACHE_LIMIT));
-    //        }
-    //    }
+
     private DraftStatus minimalDraftStatus = DraftStatus.unconfirmed;
 
     /* Use WeakValues - automagically remove a value once it is no longer useed elsewhere */
@@ -476,25 +458,11 @@ public class SimpleFactory extends Factory {
         return result.toArray(new File[result.size()]);
     }
 
-    @SuppressWarnings("unchecked")
     private SimpleFactory(
             File sourceDirectories[], String matchString, DraftStatus minimalDraftStatus) {
-        // initialize class based
-        if (USE_OLD_HANDLEMAKE_CODE) {
-            mainCache = new Map[DraftStatus.values().length];
-            resolvedCache = new Map[DraftStatus.values().length];
-            for (int i = 0; i < mainCache.length; ++i) {
-                mainCache[i] =
-                        Collections.synchronizedMap(new LruMap<String, CLDRFile>(CACHE_LIMIT));
-                resolvedCache[i] =
-                        Collections.synchronizedMap(new LruMap<String, CLDRFile>(CACHE_LIMIT));
-            }
-        } else {
-            // combinedCache=  Collections.synchronizedMap(new LruMap<CLDRCacheKey,
-            // CLDRFile>(CACHE_LIMIT));
+        if (USE_COMBINEDCACHE) {
             combinedCache = CacheBuilder.newBuilder().maximumSize(CACHE_LIMIT).build();
         }
-        //
         this.sourceDirectories = sourceDirectories;
         this.minimalDraftStatus = minimalDraftStatus;
         Matcher m = PatternCache.get(matchString).matcher("");
@@ -549,8 +517,6 @@ public class SimpleFactory extends Factory {
     @SuppressWarnings("unchecked")
     public CLDRFile handleMake(
             String localeName, boolean resolved, DraftStatus minimalDraftStatus) {
-        @SuppressWarnings("rawtypes")
-        final Map mapToSynchronizeOn;
         final List<File> parentDirs = getSourceDirectoriesForLocale(localeName);
         /*
          *  Parameter check: parentDir being null means the source directory could not be found - throw exception here
@@ -562,99 +528,49 @@ public class SimpleFactory extends Factory {
         }
 
         // disabling SimpleFactory.combinedCache and only use XMLNormalizingLoader.cache to avoid
-        // double-caching
+        // double-caching; that cache is weighed by memory and records statistics.
         if (!USE_COMBINEDCACHE) {
-            CLDRFile result = null; // result of the lookup / generation
-            if (resolved) {
-                ResolvingSource makeResolvingSource;
-                try {
-                    makeResolvingSource = makeResolvingSource(localeName, minimalDraftStatus);
-                } catch (Exception e) {
-                    throw new ICUException("Couldn't make resolved CLDR file for " + localeName, e);
-                }
-                result = new CLDRFile(makeResolvingSource);
-            } else {
-                if (parentDirs != null) {
-                    result = new CLDRFile(localeName, parentDirs, minimalDraftStatus);
-                    result.freeze();
-                }
-            }
-            return result;
+            return makeUncached(localeName, resolved, minimalDraftStatus, parentDirs);
+        }
+        CLDRCacheKey cacheKey =
+                new CLDRCacheKey(localeName, resolved, minimalDraftStatus, parentDirs);
+        try {
+            // loads each key once, without blocking lookups of other keys
+            return combinedCache.get(
+                    cacheKey,
+                    () -> makeUncached(localeName, resolved, minimalDraftStatus, parentDirs));
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            Throwables.throwIfUnchecked(e.getCause());
+            throw new ICUException(e.getCause());
         }
+    }
 
-        final Object cacheKey;
-        CLDRFile result; // result of the lookup / generation
-        if (USE_OLD_HANDLEMAKE_CODE) {
-            final Map<String, CLDRFile> cache =
-                    resolved
-                            ? resolvedCache[minimalDraftStatus.ordinal()]
-                            : mainCache[minimalDraftStatus.ordinal()];
-            mapToSynchronizeOn = cache;
-            cacheKey = localeName;
-            result = cache.get(localeName);
-        } else {
-            // Use double-check idiom
-            cacheKey = new CLDRCacheKey(localeName, resolved, minimalDraftStatus, parentDirs);
-            //        result = cache.get(localeName);
-            //  result=combinedCache.asMap().get(cacheKey);
-            result = combinedCache.getIfPresent(cacheKey);
-            mapToSynchronizeOn = combinedCache.asMap();
-        }
-        if (result != null) {
-            if (DEBUG_SIMPLEFACTORY) {
-                System.out.println("HandleMake:Returning cached result for locale " + localeName);
-            }
-            return result;
-        }
-        //        synchronized (cache) {
-        synchronized (mapToSynchronizeOn) {
-            // Check cache twice to ensure that CLDRFile is only loaded once
-            // even with multiple threads.
-            //            result = cache.get(localeName);
-            //     result=combinedCache.get(cacheKey);
-            Object returned = mapToSynchronizeOn.get(cacheKey);
-            if (returned instanceof CLDRFile) {
-                result = (CLDRFile) returned;
-            }
-            if (result != null) {
-                if (DEBUG_SIMPLEFACTORY) {
-                    System.out.println(
-                            "HandleMake:Returning cached result for locale " + localeName);
-                }
-                return result;
-            }
-            if (resolved) {
-                ResolvingSource makeResolvingSource;
-                try {
-                    makeResolvingSource = makeResolvingSource(localeName, minimalDraftStatus);
-                } catch (Exception e) {
-                    throw new ICUException("Couldn't make resolved CLDR file for " + localeName, e);
-                }
-                result = new CLDRFile(makeResolvingSource);
-            } else {
-                if (parentDirs != null) {
-                    if (DEBUG_SIMPLEFACTORY) {
-                        StringBuilder sb = new StringBuilder();
-                        sb.append("HandleMake: Calling makeFile with locale: ");
-                        sb.append(localeName);
-                        sb.append(", parentDir: ");
-                        sb.append(parentDirs);
-                        sb.append(", DraftStatus: ");
-                        sb.append(minimalDraftStatus);
-                        System.out.println(sb.toString());
-                    }
-                    // result = makeFile(localeName, parentDirs, minimalDraftStatus);
-                    result = new CLDRFile(localeName, parentDirs, minimalDraftStatus);
-                    result.freeze();
-                }
-            }
-            if (result != null) {
-                mapToSynchronizeOn.put(cacheKey, result);
-                //                combinedCache.put(cacheKey, result);
-                //                cache.put(localeName, result);
-            }
-            return result;
-        }
+    private CLDRFile makeUncached(
+            String localeName,
+            boolean resolved,
+            DraftStatus minimalDraftStatus,
+            List<File> parentDirs) {
+        if (resolved) {
+            ResolvingSource makeResolvingSource;
+            try {
+                makeResolvingSource = makeResolvingSource(localeName, minimalDraftStatus);
+            } catch (Exception e) {
+                throw new ICUException("Couldn't make resolved CLDR file for " + localeName, e);
+            }
+            return new CLDRFile(makeResolvingSource);
+        }
+        if (DEBUG_SIMPLEFACTORY) {
+            System.out.println(
+                    "HandleMake: Calling makeFile with locale: "
+                            + localeName
+                            + ", parentDir: "
+                            + parentDirs
+                            + ", DraftStatus: "
+                            + minimalDraftStatus);
+        }
+        CLDRFile result = new CLDRFile(localeName, parentDirs, minimalDraftStatus);
+        result.freeze();
+        return result;
     }
 
     /**
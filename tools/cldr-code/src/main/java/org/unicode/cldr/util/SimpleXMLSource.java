@@ -253,4 +253,9 @@ public class SimpleXMLSource extends XMLSource {
     public SourceLocation getSourceLocation(String fullXPath) {
         return locationHash.get(fullXPath);
     }
+
+    /** All source locations, keyed by full path, for serialization. */
+    Map<String, SourceLocation> getSourceLocations() {
+        return Collections.unmodifiableMap(locationHash);
+    }
 }
@@ -2,8 +2,8 @@ package org.unicode.cldr.util;
 
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 /**
  * Produce an ID for a string based on a long hash. When used properly, the odds of collision are so
@@ -11,21 +11,24 @@ import java.util.concurrent.ConcurrentHashMap;
  * algorithm uses SHA-1 over the UTF-8 bytes in the string. Also provides lookup for long previously
  * generated for string.
  *
+ * <p>Lookups of strings that already have an ID take no locks. Each thread hashes with its own
+ * digest, and only recording a new ID is synchronized.
+ *
  * @author markdavis
  */
 public final class StringId {
-    private static final Map<String, Long> STRING_TO_ID = new ConcurrentHashMap<>();
-    private static final Map<Long, String> ID_TO_STRING = new ConcurrentHashMap<>();
-    private static final MessageDigest digest;
-    private static final int RETRY_LIMIT = 9;
-
-    static {
-        try {
-            digest = MessageDigest.getInstance("SHA-1");
-        } catch (Exception e) {
-            throw new IllegalArgumentException(e); // darn'd checked exceptions
-        }
-    }
+    private static final ThreadLocal<MessageDigest> DIGEST =
+            ThreadLocal.withInitial(
+                    () -> {
+                        try {
+                            return MessageDigest.getInstance("SHA-1");
+                        } catch (NoSuchAlgorithmException e) {
+                            throw new IllegalArgumentException(e); // darn'd checked exceptions
+                        }
+                    });
+
+    /** The strings themselves are kept in the PathDictionary; this only maps to and from IDs. */
+    private static final IdTable TABLE = new IdTable();
 
     /**
      * Get the ID for a string.
@@ -35,32 +38,34 @@ public final class StringId {
      */
     public static long getId(CharSequence charSequence) {
         String string = charSequence.toString();
-        Long resultLong = STRING_TO_ID.get(string);
-        if (resultLong != null) {
-            return resultLong;
+        return getId(TABLE, PathDictionary.getId(string), string);
+    }
+
+    /** Get the ID for a string with the given dictionary id, recording it in the table if new. */
+    static long getId(IdTable table, int pathId, String string) {
+        long result = table.getId(pathId);
+        if (result < 0) {
+            result = hash(string);
+            table.put(pathId, result);
         }
-        int retryCount = RETRY_LIMIT;
-        while (true) {
-            try {
-                synchronized (digest) {
-                    byte[] hash = digest.digest(string.getBytes(StandardCharsets.UTF_8));
-                    long result = 0;
-                    for (int i = 0; i < 8; ++i) {
-                        result <<= 8;
-                        result ^= hash[i];
-                    }
-                    // mash the top bit to make things easier
-                    result &= 0x7FFFFFFFFFFFFFFFL;
-                    STRING_TO_ID.put(string, result);
-                    ID_TO_STRING.put(result, string);
-                    return result;
-                }
-            } catch (RuntimeException e) {
-                if (--retryCount < 0) {
-                    throw e;
-                }
-            }
+        return result;
+    }
+
+    /** The SHA-1 based ID, without recording it. */
+    static long hash(String string) {
+        byte[] hash = DIGEST.get().digest(string.getBytes(StandardCharsets.UTF_8));
+        long result = 0;
+        for (int i = 0; i < 8; ++i) {
+            result <<= 8;
+            result ^= hash[i];
         }
+        // mash the top bit to make things easier
+        return result & 0x7FFFFFFFFFFFFFFFL;
+    }
+
+    /** The number of strings with recorded IDs. */
+    public static int size() {
+        return TABLE.size();
     }
 
     /**
@@ -90,6 +95,119 @@ public final class StringId {
      * @return String previously used to generate the longValue with getId.
      */
     public static String getStringFromId(long longValue) {
-        return ID_TO_STRING.get(longValue);
+        int pathId = TABLE.getPathId(longValue);
+        return pathId < 0 ? null : PathDictionary.getPath(pathId);
+    }
+
+    /**
+     * Bidirectional map between PathDictionary ids and string IDs, in primitive arrays. IDs are
+     * stored complemented (~id, which is negative for every valid ID), so that 0 means empty.
+     * Readers take no locks; writers are synchronized, and publish each entry with a volatile write
+     * after everything it refers to.
+     */
+    static final class IdTable {
+        private static final int CHUNK_BITS = 12;
+        private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+
+        /** string ID by path id, in chunks */
+        private volatile AtomicLongArray[] idByPathId = new AtomicLongArray[16];
+
+        /** open-addressed hash from string ID to path id */
+        private volatile Reverse reverse = new Reverse(1 << 12);
+
+        private int size = 0; // guarded by this
+
+        private static final class Reverse {
+            final AtomicLongArray keys;
+            final int[] pathIds;
+            final int mask;
+
+            Reverse(int capacity) {
+                keys = new AtomicLongArray(capacity);
+                pathIds = new int[capacity];
+                mask = capacity - 1;
+            }
+
+            int slot(long id) {
+                long h = id * 0x9E3779B97F4A7C15L;
+                return (int) (h ^ (h >>> 32)) & mask;
+            }
+
+            int get(long id) {
+                long key = ~id;
+                for (int i = slot(id); ; i = (i + 1) & mask) {
+                    long found = keys.get(i);
+                    if (found == key) {
+                        return pathIds[i];
+                    } else if (found == 0) {
+                        return -1;
+                    }
+                }
+            }
+
+            void put(long id, int pathId) {
+                long key = ~id;
+                for (int i = slot(id); ; i = (i + 1) & mask) {
+                    long found = keys.get(i);
+                    if (found == 0) {
+                        pathIds[i] = pathId;
+                        keys.set(i, key); // publish
+                        return;
+                    } else if (found == key) {
+                        return; // a collision in the hash, keep the first string
+                    }
+                }
+            }
+        }
+
+        long getId(int pathId) {
+            AtomicLongArray[] chunks = idByPathId;
+            int chunkIndex = pathId >>> CHUNK_BITS;
+            if (chunkIndex >= chunks.length || chunks[chunkIndex] == null) {
+                return -1;
+            }
+            return ~chunks[chunkIndex].get(pathId & (CHUNK_SIZE - 1));
+        }
+
+        int getPathId(long id) {
+            return id < 0 ? -1 : reverse.get(id);
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        synchronized void put(int pathId, long id) {
+            if (getId(pathId) >= 0) {
+                return; // added by another thread
+            }
+            Reverse current = reverse;
+            if ((size + 1) * 4L > (current.mask + 1) * 3L) {
+                Reverse grown = new Reverse((current.mask + 1) * 2);
+                for (int i = 0; i <= current.mask; ++i) {
+                    long key = current.keys.get(i);
+                    if (key != 0) {
+                        grown.put(~key, current.pathIds[i]);
+                    }
+                }
+                reverse = current = grown;
+            }
+            current.put(id, pathId);
+
+            AtomicLongArray[] chunks = idByPathId;
+            int chunkIndex = pathId >>> CHUNK_BITS;
+            if (chunkIndex >= chunks.length || chunks[chunkIndex] == null) {
+                AtomicLongArray[] copy =
+                        new AtomicLongArray
+                                [chunkIndex < chunks.length
+                                        ? chunks.length
+                                        : Math.max(chunks.length * 2, chunkIndex + 1)];
+                System.arraycopy(chunks, 0, copy, 0, chunks.length);
+                copy[chunkIndex] = new AtomicLongArray(CHUNK_SIZE);
+                idByPathId = chunks = copy;
+            }
+            chunks[chunkIndex].set(pathId & (CHUNK_SIZE - 1), ~id);
+            ++size;
+        }
     }
 }
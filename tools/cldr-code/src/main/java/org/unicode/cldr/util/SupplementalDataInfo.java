@@ -2858,7 +2858,11 @@ public class SupplementalDataInfo {
      * @return
      */
     public Level getCoverageLevel(String xpath, String loc) {
-        Level result = null;
+        CoverageTable table = coverageTable.get();
+        Level result = table == null ? null : table.get(xpath, loc);
+        if (result != null) {
+            return result;
+        }
         result = coverageCache.get(xpath, loc);
         if (result == null) {
             CoverageLevel2 cov = localeToCoverageLevelInfo.get(loc);
@@ -3655,6 +3659,8 @@ public class SupplementalDataInfo {
             new EnumMap<>(DayPeriodInfo.Type.class);
     private Map<String, CoverageLevel2> localeToCoverageLevelInfo = new ConcurrentHashMap<>();
     private CoverageCache coverageCache = new CoverageCache();
+    private final Supplier<CoverageTable> coverageTable =
+            Suppliers.memoize(() -> CoverageTable.getDefault(this));
     private transient String lastPluralLocales = "";
     private transient PluralType lastPluralWasOrdinal = null;
     private transient Map<Count, String> lastPluralMap = new EnumMap<>(Count.class);
@@ -89,6 +89,18 @@ public class VettingParameters {
         return locale;
     }
 
+    public Organization getOrganization() {
+        return organization;
+    }
+
+    public Level getCoverageLevel() {
+        return coverageLevel;
+    }
+
+    public EnumSet<NotificationCategory> getChoices() {
+        return choices;
+    }
+
     public boolean isOnlyForSinglePath() {
         return specificSinglePath != null;
     }
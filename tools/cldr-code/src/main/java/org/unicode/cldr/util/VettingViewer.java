@@ -15,6 +15,7 @@ import java.util.Collections;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -23,9 +24,12 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.TreeSet;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
 import org.unicode.cldr.test.CheckCLDR;
 import org.unicode.cldr.test.CheckCLDR.CheckStatus;
 import org.unicode.cldr.test.CheckCLDR.CheckStatus.Subtype;
@@ -329,6 +333,150 @@ public class VettingViewer<T> {
         return dd;
     }
 
+    /**
+     * Make a Dashboard that is kept up to date one path at a time, rather than gone through again
+     * for each request. Use {@link DashboardAggregate#pathChanged} or {@link XMLSource#addListener}
+     * to tell it about changes.
+     *
+     * @param args the parameters, which must not be for a single path
+     * @return the DashboardAggregate, which does no work until it is first used
+     */
+    public DashboardAggregate newDashboardAggregate(VettingParameters args) {
+        if (args.isOnlyForSinglePath()) {
+            throw new IllegalArgumentException("A DashboardAggregate is for all paths");
+        }
+        return new DashboardAggregate(args);
+    }
+
+    /**
+     * The Dashboard of a locale for one user, kept up to date as paths change.
+     *
+     * <p>The first request goes through all of the paths, as {@link #generateDashboard} does, and
+     * keeps what was found for each one. After that, a changed path (with the other paths of its
+     * logical group) is handled again when the Dashboard is next requested, and the counts and
+     * notifications are adjusted by the difference. A change that affects the notifications of
+     * unrelated paths, such as a new display name collision, is only picked up by {@link
+     * #recompute}, which should be called now and then as a consistency check.
+     */
+    public class DashboardAggregate implements XMLSource.Listener {
+        private final VettingParameters args;
+
+        /** The paths changed since they were last handled */
+        private final Set<String> changed = ConcurrentHashMap.newKeySet();
+
+        // guarded by this
+        private FileInfo fileInfo = null;
+        private int pathsUpdated = 0;
+
+        private DashboardAggregate(VettingParameters args) {
+            this.args = args;
+        }
+
+        public CLDRLocale getLocale() {
+            return args.getLocale();
+        }
+
+        /** The resolved file of the locale, as it was when this was made */
+        public CLDRFile getSourceFile() {
+            return args.getSourceFile();
+        }
+
+        /** Note that the path changed; it will be handled again when next needed */
+        public void pathChanged(String path) {
+            changed.add(path);
+        }
+
+        @Override
+        public void valueChanged(String xpath, XMLSource source) {
+            pathChanged(xpath);
+        }
+
+        /**
+         * Go through all of the paths again, and replace what was kept
+         *
+         * @return false if the counts differ from those kept before, which is worth logging; true
+         *     if they agree, or if nothing was kept before
+         */
+        public synchronized boolean recompute() {
+            if (fileInfo != null) {
+                update(); // so that what was kept is as up to date as it can be
+            }
+            changed.clear(); // changes from now on are handled afterwards
+            FileInfo newInfo =
+                    new FileInfo(
+                            args.locale.getBaseName(),
+                            args.coverageLevel,
+                            args.choices,
+                            (T) args.organization);
+            newInfo.setFiles(args.sourceFile, args.baselineFile);
+            newInfo.setSorted(
+                    Relation.of(
+                            new TreeMap<R2<SectionId, PageId>, Set<WritingInfo>>(), TreeSet.class));
+            newInfo.setVoterProgressAndId(new VoterProgress(), args.userId);
+            newInfo.pathResults = new HashMap<>();
+            newInfo.getFileInfo();
+            final boolean agrees = (fileInfo == null) || sameCounts(fileInfo, newInfo);
+            fileInfo = newInfo;
+            pathsUpdated = 0;
+            return agrees;
+        }
+
+        private boolean sameCounts(FileInfo a, FileInfo b) {
+            for (NotificationCategory category : NotificationCategory.values()) {
+                if (a.vc.problemCounter.get(category) != b.vc.problemCounter.get(category)) {
+                    return false;
+                }
+            }
+            return a.voterProgress.getVotablePathCount() == b.voterProgress.getVotablePathCount()
+                    && a.voterProgress.getVotedPathCount() == b.voterProgress.getVotedPathCount()
+                    && a.sorted.size() == b.sorted.size();
+        }
+
+        /** Handle the changed paths again */
+        private void update() {
+            Set<String> paths = new HashSet<>();
+            for (Iterator<String> it = changed.iterator(); it.hasNext(); ) {
+                String path = it.next();
+                it.remove();
+                paths.add(path);
+                paths.addAll(LogicalGrouping.getPaths(args.sourceFile, path));
+            }
+            for (String path : paths) {
+                fileInfo.forget(fileInfo.pathResults.remove(path));
+                fileInfo.handleOnePath(path);
+            }
+            pathsUpdated += paths.size();
+        }
+
+        /**
+         * Get the Dashboard as it is now; the first call goes through all of the paths
+         *
+         * @return a copy, which doesn't change afterwards
+         */
+        public synchronized DashboardData getDashboardData() {
+            if (fileInfo == null) {
+                recompute();
+            } else {
+                update();
+            }
+            DashboardData dd = new DashboardData();
+            dd.sorted.putAll(fileInfo.sorted);
+            dd.voterProgress = new VoterProgress(fileInfo.voterProgress);
+            dd.localeCompletionData = new LocaleCompletionData(fileInfo.vc.problemCounter);
+            return dd;
+        }
+
+        /** The number of paths with the given notification, as of the last request */
+        public synchronized long getCount(NotificationCategory category) {
+            return (fileInfo == null) ? 0 : fileInfo.vc.problemCounter.get(category);
+        }
+
+        /** The number of paths handled again since all of them were last gone through */
+        public synchronized int getPathsUpdated() {
+            return pathsUpdated;
+        }
+    }
+
     public LocaleCompletionData generateLocaleCompletion(VettingParameters args) {
         if (!args.sourceFile.isResolved()) {
             throw new IllegalArgumentException("File must be resolved for locale completion");
@@ -344,7 +492,24 @@ public class VettingViewer<T> {
         return new LocaleCompletionData(fileInfo.vc.problemCounter);
     }
 
-    private class VettingCounters {
+    private static R2<SectionId, PageId> getGroup(PathHeader ph) {
+        return Row.of(ph.getSectionId(), ph.getPageId());
+    }
+
+    /** What {@link FileInfo#handleOnePath} recorded for one path, so that it can be taken back */
+    private class PathResult {
+        private final EnumSet<NotificationCategory> counted =
+                EnumSet.noneOf(NotificationCategory.class);
+        private WritingInfo info = null;
+        private boolean votable = false;
+        private VoteType voteType = null;
+
+        private boolean isEmpty() {
+            return counted.isEmpty() && info == null && !votable;
+        }
+    }
+
+    private static class VettingCounters {
         private final Counter<NotificationCategory> problemCounter = new Counter<>();
         private final Counter<Subtype> errorSubtypeCounter = new Counter<>();
         private final Counter<Subtype> warningSubtypeCounter = new Counter<>();
@@ -456,7 +621,56 @@ public class VettingViewer<T> {
             }
         }
 
+        /** If not null, what handleOnePath records for each path is kept here */
+        private Map<String, PathResult> pathResults = null;
+
+        /** What is being recorded for the current path, if pathResults is not null */
+        private PathResult pathResult = null;
+
         private void handleOnePath(String path) {
+            if (pathResults == null) {
+                recordOnePath(path);
+                return;
+            }
+            pathResult = new PathResult();
+            try {
+                recordOnePath(path);
+                pathResult.counted.addAll(problems);
+                pathResult.counted.remove(NotificationCategory.other); // not counted
+                if (!pathResult.isEmpty()) {
+                    pathResults.put(path, pathResult);
+                }
+            } finally {
+                pathResult = null;
+            }
+        }
+
+        /**
+         * Take back what was recorded for a path, before handling it again
+         *
+         * @param result what was recorded, or null if nothing was
+         */
+        private void forget(PathResult result) {
+            if (result == null) {
+                return;
+            }
+            if (result.info != null && sorted != null) {
+                sorted.remove(getGroup(result.info.codeOutput), result.info);
+            }
+            for (NotificationCategory category : result.counted) {
+                vc.problemCounter.add(category, -1);
+            }
+            if (result.votable) {
+                voterProgress.decrementVotablePathCount();
+            }
+            if (result.voteType != null) {
+                voterProgress.decrementVotedPathCount(result.voteType);
+            }
+        }
+
+        private void recordOnePath(String path) {
+            // cleared first, since handleOnePath counts whatever is left here for the path
+            problems.clear();
             PathHeader ph = pathTransform.fromPath(path);
             if (ph == null || ph.shouldHide()) {
                 return;
@@ -474,7 +688,6 @@ public class VettingViewer<T> {
             boolean pathLevelIsTooHigh = pathLevel.compareTo(usersLevel) > 0;
             boolean onlyRecordErrors = pathLevelIsTooHigh;
 
-            problems.clear();
             htmlMessage.setLength(0);
 
             final String oldValue =
@@ -522,8 +735,11 @@ public class VettingViewer<T> {
             }
             if (!problems.isEmpty() && sorted != null) {
                 reasonsToPaths.clear();
-                R2<SectionId, PageId> group = Row.of(ph.getSectionId(), ph.getPageId());
-                sorted.put(group, new WritingInfo(ph, problems, htmlMessage, firstSubtype()));
+                WritingInfo info = new WritingInfo(ph, problems, htmlMessage, firstSubtype());
+                sorted.put(getGroup(ph), info);
+                if (pathResult != null) {
+                    pathResult.info = info;
+                }
             }
         }
 
@@ -581,9 +797,15 @@ public class VettingViewer<T> {
                 return;
             }
             voterProgress.incrementVotablePathCount();
+            if (pathResult != null) {
+                pathResult.votable = true;
+            }
             if (userVoteStatus.userDidVote(voterId, cldrLocale, path)) {
                 VoteType voteType = userVoteStatus.getUserVoteType(voterId, cldrLocale, path);
                 voterProgress.incrementVotedPathCount(voteType);
+                if (pathResult != null) {
+                    pathResult.voteType = voteType;
+                }
             } else if (choices.contains(NotificationCategory.abstained)) {
                 problems.add(NotificationCategory.abstained);
                 vc.problemCounter.increment(NotificationCategory.abstained);
@@ -763,6 +985,115 @@ public class VettingViewer<T> {
         return list;
     }
 
+    /**
+     * The counts of the Priority Items Summary for each locale, kept from one summary to the next
+     * so that only the locales that changed in between are gone through again.
+     *
+     * <p>The counts of a locale are dropped when a value changes in it or in a locale it inherits
+     * from, through {@link XMLSource.Listener}, or when {@link #localeChanged} is called for it
+     * (for example, for a vote that didn't change the winning value). They are also dropped when
+     * they get older than the maximum age, to pick up any other changes, such as to the data that
+     * the checks are set up with.
+     */
+    public static class SummaryCounts implements XMLSource.Listener {
+        private static final class Counts {
+            private final String localeId;
+            private final VettingCounters vc;
+            private final long time = System.currentTimeMillis();
+
+            private Counts(String localeId, VettingCounters vc) {
+                this.localeId = localeId;
+                this.vc = vc;
+            }
+        }
+
+        private final long maxAgeMillis;
+        private final Map<String, Counts> counts = new ConcurrentHashMap<>();
+
+        /** The sources listened to; weak, like the listeners of the sources */
+        private final Set<XMLSource> sources =
+                Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+
+        /** Incremented for every change, so that counts computed during a change aren't kept */
+        private final AtomicLong changeCount = new AtomicLong();
+
+        /**
+         * @param maxAgeMillis how long to keep the counts of a locale that hasn't changed
+         */
+        public SummaryCounts(long maxAgeMillis) {
+            this.maxAgeMillis = maxAgeMillis;
+        }
+
+        private static String getKey(
+                String localeId, Level level, Set<NotificationCategory> choices, Object org) {
+            return localeId + " " + level + " " + org + " " + choices;
+        }
+
+        private VettingCounters get(String key) {
+            Counts c = counts.get(key);
+            if (c == null) {
+                return null;
+            } else if (System.currentTimeMillis() - c.time > maxAgeMillis) {
+                counts.remove(key, c);
+                return null;
+            }
+            return c.vc;
+        }
+
+        /**
+         * Listen to the locale and the locales it inherits from, before computing its counts
+         *
+         * @return the change count, for {@link #put}
+         */
+        private long listen(String localeId, Factory factory) {
+            final long result = changeCount.get();
+            for (CLDRLocale loc = CLDRLocale.getInstance(localeId);
+                    loc != null;
+                    loc = loc.getParent()) {
+                XMLSource source =
+                        factory.make(loc.getBaseName(), true)
+                                .getResolvingDataSource()
+                                .getUnresolving();
+                if (sources.add(source)) {
+                    source.addListener(this);
+                }
+            }
+            return result;
+        }
+
+        private void put(String key, String localeId, VettingCounters vc, long startCount) {
+            if (changeCount.get() == startCount) {
+                counts.put(key, new Counts(localeId, vc));
+            }
+        }
+
+        /** Drop the counts of the locale and of the locales that inherit from it */
+        public void localeChanged(CLDRLocale locale) {
+            changeCount.incrementAndGet();
+            counts.values().removeIf(c -> CLDRLocale.getInstance(c.localeId).childOf(locale));
+        }
+
+        @Override
+        public void valueChanged(String xpath, XMLSource source) {
+            localeChanged(CLDRLocale.getInstance(source.getLocaleID()));
+        }
+
+        /** The number of locales (by level, organization and categories) with counts */
+        public int size() {
+            return counts.size();
+        }
+    }
+
+    private SummaryCounts summaryCounts = null;
+
+    /**
+     * Keep the counts of each locale in the given object, and reuse those of locales that haven't
+     * changed since they were kept, for the Priority Items Summary
+     */
+    public void setSummaryCounts(SummaryCounts summaryCounts) {
+        this.summaryCounts = summaryCounts;
+    }
+
     public void generatePriorityItemsSummary(
             Appendable output, EnumSet<NotificationCategory> choices, T organization)
             throws ExecutionException {
@@ -798,8 +1129,8 @@ public class VettingViewer<T> {
         private final EnumSet<NotificationCategory> choices;
         private final EnumSet<NotificationCategory> ourChoicesThatRequireOldFile;
         private final T organization;
-        private final VettingViewer<T>.VettingCounters totals;
-        private final Map<String, VettingViewer<T>.FileInfo> localeNameToFileInfo;
+        private final VettingCounters totals;
+        private final Map<String, VettingCounters> localeNameToCounters;
         private final String header;
         private final int configChunkSize; // Number of locales to process at once, minimum 1
 
@@ -808,7 +1139,7 @@ public class VettingViewer<T> {
                 EnumSet<NotificationCategory> choices,
                 T organization,
                 VettingCounters totals,
-                Map<String, FileInfo> localeNameToFileInfo,
+                Map<String, VettingCounters> localeNameToCounters,
                 String header) {
             for (Entry<String, String> e : entrySet) {
                 localeNames.add(e.getKey());
@@ -837,7 +1168,7 @@ public class VettingViewer<T> {
 
             this.organization = organization;
             this.totals = totals;
-            this.localeNameToFileInfo = localeNameToFileInfo;
+            this.localeNameToCounters = localeNameToCounters;
             this.header = header;
 
             if (DEBUG_THREADS) {
@@ -984,17 +1315,6 @@ public class VettingViewer<T> {
             if (output == null) {
                 throw new NullPointerException("output " + n + " null");
             }
-            // Initialize
-            CLDRFile sourceFile = cldrFactory.make(localeID, true);
-            CLDRFile baselineFile = null;
-            if (!context.ourChoicesThatRequireOldFile.isEmpty()) {
-                try {
-                    Factory baselineFactory =
-                            CLDRConfig.getInstance().getCommonAndSeedAndMainAndAnnotationsFactory();
-                    baselineFile = baselineFactory.make(localeID, true);
-                } catch (Exception e) {
-                }
-            }
             Level level = Level.MODERN;
             if (context.organization != null) {
                 StandardCodes sc = StandardCodes.make();
@@ -1004,21 +1324,44 @@ public class VettingViewer<T> {
                     level = sc.getLocaleCoverageLevel(context.organization.toString(), localeID);
                 }
             }
-            FileInfo fileInfo = new FileInfo(localeID, level, choices, context.organization);
-            fileInfo.setFiles(sourceFile, baselineFile);
-            fileInfo.getFileInfo();
+            final String countsKey =
+                    SummaryCounts.getKey(localeID, level, choices, context.organization);
+            VettingCounters vc = (summaryCounts == null) ? null : summaryCounts.get(countsKey);
+            if (vc == null) {
+                final long changeCount =
+                        (summaryCounts == null) ? 0 : summaryCounts.listen(localeID, cldrFactory);
+                // Initialize
+                CLDRFile sourceFile = cldrFactory.make(localeID, true);
+                CLDRFile baselineFile = null;
+                if (!context.ourChoicesThatRequireOldFile.isEmpty()) {
+                    try {
+                        Factory baselineFactory =
+                                CLDRConfig.getInstance()
+                                        .getCommonAndSeedAndMainAndAnnotationsFactory();
+                        baselineFile = baselineFactory.make(localeID, true);
+                    } catch (Exception e) {
+                    }
+                }
+                FileInfo fileInfo = new FileInfo(localeID, level, choices, context.organization);
+                fileInfo.setFiles(sourceFile, baselineFile);
+                fileInfo.getFileInfo();
+                vc = fileInfo.vc;
+                if (summaryCounts != null) {
+                    summaryCounts.put(countsKey, localeID, vc, changeCount);
+                }
+            }
 
-            if (context.localeNameToFileInfo != null) {
-                context.localeNameToFileInfo.put(name, fileInfo);
+            if (context.localeNameToCounters != null) {
+                context.localeNameToCounters.put(name, vc);
             }
 
-            context.totals.addAll(fileInfo.vc);
+            context.totals.addAll(vc);
             if (DEBUG_THREADS) {
                 System.out.println(
                         "writeAction.compute(" + n + ") - got fileinfo " + name + ": " + localeID);
             }
             try {
-                writeSummaryRow(output, choices, fileInfo.vc.problemCounter, name, localeID, level);
+                writeSummaryRow(output, choices, vc.problemCounter, name, localeID, level);
                 if (DEBUG_THREADS) {
                     System.out.println(
                             "writeAction.compute(" + n + ") - wrote " + name + ": " + localeID);
@@ -1059,8 +1402,7 @@ public class VettingViewer<T> {
         output.append("<h2>Level: ").append(desiredLevel.toString()).append("</h2>");
         output.append("<table class='tvs-table'>\n");
 
-        // Caution: localeNameToFileInfo, if not null, may lead to running out of memory
-        Map<String, FileInfo> localeNameToFileInfo = SHOW_SUBTYPES ? new TreeMap<>() : null;
+        Map<String, VettingCounters> localeNameToCounters = SHOW_SUBTYPES ? new TreeMap<>() : null;
 
         VettingCounters totals = new VettingCounters();
 
@@ -1069,7 +1411,7 @@ public class VettingViewer<T> {
         WriteContext context =
                 this
                 .new WriteContext(
-                        entrySet, choices, organization, totals, localeNameToFileInfo, header);
+                        entrySet, choices, organization, totals, localeNameToCounters, header);
 
         WriteAction writeAction = this.new WriteAction(context);
         if (USE_FORKJOIN) {
@@ -1086,8 +1428,8 @@ public class VettingViewer<T> {
         writeSummaryRow(output, choices, totals.problemCounter, "Total", null, desiredLevel);
         output.append("</table>");
         if (SHOW_SUBTYPES) {
-            showSubtypes(output, sortedNames, localeNameToFileInfo, totals, true);
-            showSubtypes(output, sortedNames, localeNameToFileInfo, totals, false);
+            showSubtypes(output, sortedNames, localeNameToCounters, totals, true);
+            showSubtypes(output, sortedNames, localeNameToCounters, totals, false);
         }
     }
 
@@ -1134,7 +1476,7 @@ public class VettingViewer<T> {
     private void showSubtypes(
             Appendable output,
             Map<String, String> sortedNames,
-            Map<String, FileInfo> localeNameToFileInfo,
+            Map<String, VettingCounters> localeNameToCounters,
             VettingCounters totals,
             boolean errors)
             throws IOException {
@@ -1151,11 +1493,11 @@ public class VettingViewer<T> {
         writeDetailHeader(sortedBySize, output);
 
         // items
-        for (Entry<String, FileInfo> entry : localeNameToFileInfo.entrySet()) {
+        for (Entry<String, VettingCounters> entry : localeNameToCounters.entrySet()) {
             Counter<Subtype> counter =
                     errors
-                            ? entry.getValue().vc.errorSubtypeCounter
-                            : entry.getValue().vc.warningSubtypeCounter;
+                            ? entry.getValue().errorSubtypeCounter
+                            : entry.getValue().warningSubtypeCounter;
             if (counter.getTotal() == 0) {
                 continue;
             }
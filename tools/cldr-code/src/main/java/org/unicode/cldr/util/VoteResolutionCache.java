@@ -0,0 +1,129 @@
+package org.unicode.cldr.util;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import org.unicode.cldr.util.VoteResolver.Status;
+
+/**
+ * Remembers the outcomes of vote resolution by {@link VoteResolver#getFingerprint fingerprint}, so
+ * that the many paths with the same shape of ballot (the same organizations and levels voting, for
+ * values that compare the same way with the baseline and Bailey values) are only resolved once.
+ *
+ * <p>Only the winning value and status come from here; a resolver is still needed for anything
+ * else, such as the transcript.
+ */
+public class VoteResolutionCache<T> {
+    /** The winning value and status of a resolution */
+    public static final class Outcome<T> {
+        private final T value;
+        private final Status status;
+
+        Outcome(T value, Status status) {
+            this.value = value;
+            this.status = status;
+        }
+
+        /**
+         * @see VoteResolver#getWinningValue()
+         */
+        public T getValue() {
+            return value;
+        }
+
+        /**
+         * @see VoteResolver#getWinningStatus()
+         */
+        public Status getStatus() {
+            return status;
+        }
+
+        @Override
+        public String toString() {
+            return "{" + value + ", " + status + "}";
+        }
+    }
+
+    /** The index of the winning value among the resolver's values, or -1 for null */
+    private static final class Cached {
+        final int winner;
+        final Status status;
+
+        Cached(int winner, Status status) {
+            this.winner = winner;
+            this.status = status;
+        }
+    }
+
+    private final Cache<String, Cached> outcomes;
+
+    /** Resolutions that could not be cached, such as for annotation keywords */
+    private final LongAdder uncacheable = new LongAdder();
+
+    /**
+     * @param maximumSize the most fingerprints to remember
+     */
+    public VoteResolutionCache(long maximumSize) {
+        outcomes = CacheBuilder.newBuilder().maximumSize(maximumSize).recordStats().build();
+    }
+
+    /**
+     * Get the winning value and status of the resolver, from the cache if a resolver with the same
+     * fingerprint has been seen
+     *
+     * @param resolver the resolver, with all its votes added
+     * @return the outcome
+     */
+    public Outcome<T> resolve(VoteResolver<T> resolver) {
+        final List<T> values = new ArrayList<>();
+        final String fingerprint = resolver.getFingerprint(values);
+        if (fingerprint == null) {
+            uncacheable.increment();
+            return new Outcome<>(resolver.getWinningValue(), resolver.getWinningStatus());
+        }
+        final Cached cached = outcomes.getIfPresent(fingerprint);
+        if (cached != null) {
+            return new Outcome<>(
+                    cached.winner < 0 ? null : values.get(cached.winner), cached.status);
+        }
+        final T value = resolver.getWinningValue();
+        final Status status = resolver.getWinningStatus();
+        final int winner = value == null ? -1 : values.indexOf(value);
+        if (value == null || winner >= 0) {
+            outcomes.put(fingerprint, new Cached(winner, status));
+        } else {
+            uncacheable.increment(); // not expected: the winner is always one of the values
+        }
+        return new Outcome<>(value, status);
+    }
+
+    /** Hits and misses, of the resolutions that could be cached */
+    public CacheStats getStats() {
+        return outcomes.stats();
+    }
+
+    /** The number of resolutions that could not be cached, such as for annotation keywords */
+    public long getUncacheableCount() {
+        return uncacheable.sum();
+    }
+
+    /** The number of fingerprints remembered */
+    public long size() {
+        return outcomes.size();
+    }
+
+    public void clear() {
+        outcomes.invalidateAll();
+    }
+
+    @Override
+    public String toString() {
+        final CacheStats stats = getStats();
+        return String.format(
+                "[VoteResolutionCache %d fingerprints, hit rate %.1f%% of %d, %d uncacheable]",
+                size(), 100 * stats.hitRate(), stats.requestCount(), getUncacheableCount());
+    }
+}
@@ -2326,6 +2326,136 @@ public class VoteResolver<T> {
         return valueIsLocked || (getRequiredVotes() == HIGH_BAR);
     }
 
+    /**
+     * Get a fingerprint of the inputs to vote resolution, such that two resolvers with the same
+     * fingerprint choose the winning value at the same index of their values, with the same status.
+     * The values themselves are left out, apart from how they sort and how they compare with the
+     * baseline and Bailey values, as are the times of the votes, apart from their order, so that
+     * paths with the same shape of ballot have the same fingerprint.
+     *
+     * <p>Only the winning value and status are covered, not the transcript or the other getters.
+     *
+     * @param values filled in with the values, in the order that the fingerprint refers to them
+     * @return the fingerprint, or null if the outcome depends on the values themselves, as it does
+     *     for annotation keywords
+     * @see VoteResolutionCache
+     */
+    @SuppressWarnings("unchecked")
+    public String getFingerprint(List<T> values) {
+        values.clear();
+        if (isUsingKeywordAnnotationVoting()) {
+            return null;
+        }
+        // every value that can win, in the order of the counters, which is natural ordering;
+        // there are only ever a few, so lists are quicker than sets here
+        long[] times = new long[8];
+        int timeCount = 0;
+        for (MaxCounter<T> counter : organizationToValueAndVote.orgToVotes.values()) {
+            if (counter.size() == 0) {
+                continue; // most organizations
+            }
+            for (T value : counter) {
+                if (!values.contains(value)) {
+                    values.add(value);
+                }
+                if (timeCount == times.length) {
+                    times = Arrays.copyOf(times, 2 * timeCount);
+                }
+                times[timeCount++] = counter.getTime(value);
+            }
+        }
+        for (T value : organizationToValueAndVote.allVotesIncludingIntraOrgDispute) {
+            if (!values.contains(value)) {
+                values.add(value);
+            }
+        }
+        for (Object value :
+                new Object[] {
+                    baselineValue,
+                    organizationToValueAndVote.baileyValue,
+                    CldrUtility.INHERITANCE_MARKER,
+                    NO_WINNING_VALUE,
+                    VOTE_FOR_MISSING
+                }) {
+            if (value != null && !values.contains(value)) {
+                values.add((T) value);
+            }
+        }
+        values.sort(null);
+        // the times matter only in their order, with 0 for no time
+        Arrays.sort(times, 0, timeCount);
+        final List<Long> timeRank = new ArrayList<>(timeCount + 1);
+        timeRank.add(0L);
+        for (int i = 0; i < timeCount; i++) {
+            if (times[i] != timeRank.get(timeRank.size() - 1)) {
+                timeRank.add(times[i]);
+            }
+        }
+
+        final StringBuilder sb = new StringBuilder();
+        sb.append(locale == null ? 0 : getRequiredVotes())
+                .append(' ')
+                .append(baselineStatus)
+                .append(this.values.isEmpty() ? " E" : "")
+                .append(" B")
+                .append(values.indexOf(baselineValue))
+                .append(" I")
+                .append(
+                        !organizationToValueAndVote.baileySet
+                                ? -2
+                                : values.indexOf(organizationToValueAndVote.baileyValue))
+                .append(" M")
+                .append(values.indexOf(CldrUtility.INHERITANCE_MARKER))
+                .append(' ')
+                .append(values.indexOf(NO_WINNING_VALUE))
+                .append(' ')
+                .append(values.indexOf(VOTE_FOR_MISSING));
+
+        // the collator breaks ties between voted values, and distinct values may collate the same
+        if (organizationToValueAndVote.allVotesIncludingIntraOrgDispute.size() > 1) {
+            final List<T> collated = new ArrayList<>();
+            for (T value : organizationToValueAndVote.allVotesIncludingIntraOrgDispute) {
+                collated.add(value);
+            }
+            collated.sort(objectCollator);
+            sb.append(" C");
+            T previous = null;
+            for (T value : collated) {
+                sb.append(
+                        previous != null && objectCollator.compare(previous, value) == 0
+                                ? '='
+                                : ',');
+                sb.append(values.indexOf(value));
+                previous = value;
+            }
+        }
+
+        for (Map.Entry<Organization, MaxCounter<T>> e :
+                organizationToValueAndVote.orgToVotes.entrySet()) {
+            final MaxCounter<T> counter = e.getValue();
+            if (counter.size() == 0) {
+                continue;
+            }
+            sb.append(' ').append(e.getKey().ordinal());
+            for (T value : counter) {
+                sb.append(',')
+                        .append(values.indexOf(value))
+                        .append(':')
+                        .append(counter.getCount(value))
+                        .append(':')
+                        .append(timeRank.indexOf(counter.getTime(value)))
+                        .append(':')
+                        .append(counter.getParticipation(value));
+            }
+        }
+        sb.append(" A");
+        for (T value : values) {
+            sb.append(',')
+                    .append(organizationToValueAndVote.allVotesIncludingIntraOrgDispute.get(value));
+        }
+        return sb.toString();
+    }
+
     /**
      * Calculate VoteResolver.Status
      *
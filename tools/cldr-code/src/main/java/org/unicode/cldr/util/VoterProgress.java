@@ -23,6 +23,17 @@ public class VoterProgress {
      */
     private Map<VoteType, Integer> votedTypeCount = null;
 
+    public VoterProgress() {}
+
+    /** Copy another VoterProgress */
+    public VoterProgress(VoterProgress other) {
+        votablePathCount = other.votablePathCount;
+        votedPathCount = other.votedPathCount;
+        if (other.votedTypeCount != null) {
+            votedTypeCount = new HashMap<>(other.votedTypeCount);
+        }
+    }
+
     /*
      * These "get" methods are called automatically by the API to produce json
      */
@@ -60,4 +71,18 @@ public class VoterProgress {
         }
         votedTypeCount.put(voteType, votedTypeCount.getOrDefault(voteType, 0) + 1);
     }
+
+    /** Take back an incrementVotablePathCount, when a path is counted again */
+    public void decrementVotablePathCount() {
+        votablePathCount--;
+    }
+
+    /** Take back an incrementVotedPathCount, when a path is counted again */
+    public void decrementVotedPathCount(VoteType voteType) {
+        if (votedTypeCount == null || votedTypeCount.getOrDefault(voteType, 0) == 0) {
+            throw new IllegalArgumentException("No vote of type " + voteType + " was counted");
+        }
+        votedPathCount--;
+        votedTypeCount.computeIfPresent(voteType, (t, count) -> count == 1 ? null : count - 1);
+    }
 }
@@ -1,9 +1,13 @@
 package org.unicode.cldr.util;
 
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
 import com.google.common.cache.LoadingCache;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.primitives.Ints;
 import com.ibm.icu.impl.Utility;
 import com.ibm.icu.text.UnicodeSet;
 import com.ibm.icu.util.ICUUncheckedIOException;
@@ -33,30 +37,114 @@ import org.xml.sax.SAXParseException;
 /** Loading Normalized XMLSource */
 public class XMLNormalizingLoader {
 
-    private static final int CACHE_LIMIT = 700;
-    private static LoadingCache<XMLSourceCacheKey, XMLSource> cache =
-            CacheBuilder.newBuilder()
-                    .maximumSize(CACHE_LIMIT)
-                    .softValues() // will garbage-collected in LRU manner in response to memory
-                    // demand
-                    .build(
-                            new CacheLoader<XMLSourceCacheKey, XMLSource>() {
-                                @Override
-                                public XMLSource load(XMLSourceCacheKey key) {
-                                    return makeXMLSource(key);
-                                }
-                            });
+    /**
+     * Property limiting the number of cached sources, eg -DXMLSOURCE_CACHE_SIZE=200. Only used if
+     * {@link #CACHE_WEIGHT_PROPERTY} is 0.
+     */
+    public static final String CACHE_SIZE_PROPERTY = "XMLSOURCE_CACHE_SIZE";
+
+    /**
+     * Property limiting the approximate memory, in bytes, of the cached sources, eg
+     * -DXMLSOURCE_CACHE_WEIGHT=500000000. The default is a quarter of the maximum heap; 0 limits by
+     * {@link #CACHE_SIZE_PROPERTY} instead.
+     */
+    public static final String CACHE_WEIGHT_PROPERTY = "XMLSOURCE_CACHE_WEIGHT";
+
+    private static final int DEFAULT_CACHE_SIZE = 700;
+
+    /** The cache, created on first use so that the limits can come from CLDRConfig. */
+    private static class CacheHolder {
+        static final LoadingCache<XMLSourceCacheKey, XMLSource> cache =
+                makeCache(
+                        Long.parseLong(
+                                CldrUtility.getProperty(
+                                        CACHE_SIZE_PROPERTY, Integer.toString(DEFAULT_CACHE_SIZE))),
+                        Long.parseLong(
+                                CldrUtility.getProperty(
+                                        CACHE_WEIGHT_PROPERTY,
+                                        Long.toString(Runtime.getRuntime().maxMemory() / 4))));
+    }
+
+    /** Make a cache of sources, limited by maxWeight if positive, otherwise by maxSize. */
+    static LoadingCache<XMLSourceCacheKey, XMLSource> makeCache(long maxSize, long maxWeight) {
+        // soft values will be garbage-collected in LRU manner in response to memory demand
+        CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder().recordStats().softValues();
+        if (maxWeight > 0) {
+            builder.maximumWeight(maxWeight)
+                    .weigher(
+                            (XMLSourceCacheKey key, XMLSource source) ->
+                                    Ints.saturatedCast(estimateWeight(source)));
+        } else {
+            builder.maximumSize(maxSize);
+        }
+        return builder.build(
+                new CacheLoader<XMLSourceCacheKey, XMLSource>() {
+                    @Override
+                    public XMLSource load(XMLSourceCacheKey key) {
+                        return makeXMLSource(key);
+                    }
+                });
+    }
+
+    /**
+     * Statistics for the cache of sources behind {@link #getFrozenInstance}: hits, loads, total
+     * load time and evictions since startup.
+     */
+    public static CacheStats getCacheStats() {
+        return CacheHolder.cache.stats();
+    }
+
+    /** The number of cached sources. */
+    public static long getCacheSize() {
+        return CacheHolder.cache.size();
+    }
+
+    /**
+     * Rough estimate of the heap retained by a source, in bytes: the strings and map entries for
+     * each path. Mapped sources keep their data off the heap, so only count what they decode up
+     * front.
+     */
+    static long estimateWeight(XMLSource source) {
+        if (source instanceof MappedXMLSource) {
+            return ((MappedXMLSource) source).estimateWeight();
+        }
+        long weight = 1024;
+        for (String path : source) {
+            // paths are almost all Latin-1, so a byte per char; values often are not
+            weight += 112 + path.length();
+            String value = source.getValueAtDPath(path);
+            if (value != null) {
+                weight += 48 + 2L * value.length();
+            }
+            String fullPath = source.getFullPathAtDPath(path);
+            if (fullPath != null && !fullPath.equals(path)) {
+                weight += 48 + fullPath.length();
+            }
+        }
+        return weight;
+    }
 
     private static final boolean LOG_PROGRESS = false;
     private static final boolean DEBUG = false;
 
+    /**
+     * Directory of pre-parsed snapshots (see {@link XMLSourceSnapshot}), or null to always parse
+     * XML. Looked up lazily to avoid initializing CLDRConfig with this class.
+     */
+    private static final Supplier<File> SNAPSHOT_DIR =
+            Suppliers.memoize(XMLSourceSnapshot::getDefaultSnapshotDirectory);
+
+    /** Whether snapshots are used as mapped, read-only sources rather than read onto the heap. */
+    private static final Supplier<Boolean> SNAPSHOT_MAPPED =
+            Suppliers.memoize(XMLSourceSnapshot::isMappedByDefault);
+
     enum SupplementalStatus {
         NEVER_SET,
         IS_SUMPPLEMENTAL,
         NOT_SUPPLEMENTAL
     }
 
-    private static class XMLSourceCacheKey {
+    static class XMLSourceCacheKey {
         private final String localeId;
         private final Set<File> dirs;
         private final DraftStatus minimalDraftStatus;
@@ -118,14 +206,25 @@ public class XMLNormalizingLoader {
     public static XMLSource getFrozenInstance(
             String localeId, List<File> dirs, DraftStatus minimalDraftStatus) {
         XMLSourceCacheKey key = new XMLSourceCacheKey(localeId, dirs, minimalDraftStatus);
-        return cache.getUnchecked(key);
+        return CacheHolder.cache.getUnchecked(key);
     }
 
     private static XMLSource makeXMLSource(XMLSourceCacheKey key) {
         XMLSource source = null;
         if (key.dirs.size() == 1) {
             File file = new File(key.dirs.iterator().next(), key.localeId + ".xml");
-            source = loadXMLFile(file, key.localeId, key.minimalDraftStatus);
+            File snapshotDir = SNAPSHOT_DIR.get();
+            if (snapshotDir != null) {
+                source =
+                        SNAPSHOT_MAPPED.get()
+                                ? XMLSourceSnapshot.mapIfFresh(
+                                        snapshotDir, file, key.localeId, key.minimalDraftStatus)
+                                : XMLSourceSnapshot.loadIfFresh(
+                                        snapshotDir, file, key.localeId, key.minimalDraftStatus);
+            }
+            if (source == null) {
+                source = loadXMLFile(file, key.localeId, key.minimalDraftStatus);
+            }
             source.freeze();
             return source;
         }
@@ -140,7 +239,7 @@ public class XMLNormalizingLoader {
             dirList.add(dir);
             XMLSourceCacheKey singleKey =
                     new XMLSourceCacheKey(key.localeId, dirList, key.minimalDraftStatus);
-            XMLSource singleSource = cache.getUnchecked(singleKey);
+            XMLSource singleSource = CacheHolder.cache.getUnchecked(singleKey);
             list.add(singleSource);
         }
 
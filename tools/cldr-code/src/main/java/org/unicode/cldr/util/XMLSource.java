@@ -27,7 +27,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
-import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import org.unicode.cldr.icu.dev.test.TestFmwk;
@@ -777,7 +778,8 @@ public abstract class XMLSource implements Freezable<XMLSource>, Iterable<String
             return source == null ? CodeFallback.getConstructedItems() : source;
         }
 
-        Map<String, String> getFullPathAtDPathCache = new HashMap<>();
+        /** The full paths made by getFullPath, by PathDictionary id; see getCachedFullStatus. */
+        private final transient PathIdMap<String> getFullPathAtDPathCache = new PathIdMap<>();
 
         @Override
         public String getFullPathAtDPath(String xpath) {
@@ -822,8 +824,12 @@ public abstract class XMLSource implements Freezable<XMLSource>, Iterable<String
                 String xpath, AliasLocation fullStatus, String fullPathWhereFound) {
             String result = null;
             xpath = xpath.intern();
+            int pathId = PathDictionary.NO_ID;
+            int changes = 0;
             if (this.cachingIsEnabled) {
-                result = getFullPathAtDPathCache.get(xpath);
+                pathId = PathDictionary.getId(xpath);
+                result = getFullPathAtDPathCache.get(pathId);
+                changes = changeCount.get();
             }
             if (result == null) {
                 // find the differences, and add them into xpath
@@ -853,7 +859,7 @@ public abstract class XMLSource implements Freezable<XMLSource>, Iterable<String
                 }
                 result = xpathParts.toString();
                 if (cachingIsEnabled) {
-                    getFullPathAtDPathCache.put(xpath, result);
+                    result = memoize(getFullPathAtDPathCache, pathId, result, changes);
                 }
             }
             return result;
@@ -911,19 +917,55 @@ public abstract class XMLSource implements Freezable<XMLSource>, Iterable<String
             if (!skipInheritanceMarker || !cachingIsEnabled || (list != null)) {
                 return getPathLocation(xpath, false /* skipFirst */, skipInheritanceMarker, list);
             }
-            synchronized (getSourceLocaleIDCache) {
-                AliasLocation fullStatus = getSourceLocaleIDCache.get(xpath);
-                if (fullStatus == null) {
-                    fullStatus =
-                            getPathLocation(
-                                    xpath,
-                                    false /* skipFirst */,
-                                    true /* skipInheritanceMarker */,
-                                    null);
-                    getSourceLocaleIDCache.put(xpath, fullStatus); // cache copy
-                }
-                return fullStatus;
+            int pathId = PathDictionary.getId(xpath);
+            AliasLocation fullStatus = getSourceLocaleIDCache.get(pathId);
+            if (fullStatus == null) {
+                int changes = changeCount.get();
+                fullStatus =
+                        getPathLocation(
+                                xpath,
+                                false /* skipFirst */,
+                                true /* skipInheritanceMarker */,
+                                null);
+                fullStatus = memoizeLocation(pathId, fullStatus, changes);
+            }
+            return fullStatus;
+        }
+
+        /**
+         * Store a value computed for a path, unless another thread got there first, in which case
+         * return its value instead. If the data changed while the value was being computed (that
+         * is, valueChanged was called since changes was read), the value may be stale, so it is
+         * returned but not kept.
+         */
+        private <V> V memoize(PathIdMap<V> cache, int pathId, V value, int changes) {
+            V old = cache.putIfAbsent(pathId, value);
+            if (old != null) {
+                return old;
+            }
+            if (changeCount.get() != changes) {
+                cache.remove(pathId, value);
+            }
+            return value;
+        }
+
+        /**
+         * Like memoize, for getSourceLocaleIDCache, also noting the path as a dependent of the
+         * path where it is found. The dependent is noted before the change count is checked, so
+         * that valueChanged either finds it or makes this drop the entry.
+         */
+        private AliasLocation memoizeLocation(int pathId, AliasLocation location, int changes) {
+            AliasLocation old = getSourceLocaleIDCache.putIfAbsent(pathId, location);
+            if (old != null) {
+                return old;
+            }
+            dependentsByPathWhereFound
+                    .computeIfAbsent(location.pathWhereFound, k -> ConcurrentHashMap.newKeySet())
+                    .add(pathId);
+            if (changeCount.get() != changes) {
+                getSourceLocaleIDCache.remove(pathId, location);
             }
+            return location;
         }
 
         @Override
@@ -940,8 +982,24 @@ public abstract class XMLSource implements Freezable<XMLSource>, Iterable<String
             return result;
         }
 
-        private final transient Map<String, AliasLocation> getSourceLocaleIDCache =
-                new WeakHashMap<>();
+        /**
+         * The inheritance index: where the value for each path is found (with
+         * skipInheritanceMarker), by PathDictionary id. Entries are computed on first use, and
+         * dropped by valueChanged when the data they depend on changes. Readers and writers take no
+         * locks.
+         */
+        private final transient PathIdMap<AliasLocation> getSourceLocaleIDCache = new PathIdMap<>();
+
+        /**
+         * The ids of the paths in getSourceLocaleIDCache, by the path where each is found, so that
+         * valueChanged only looks at the entries that a change can affect. An id may stay here after
+         * its entry is gone; valueChanged skips it.
+         */
+        private final transient Map<String, Set<Integer>> dependentsByPathWhereFound =
+                new ConcurrentHashMap<>();
+
+        /** Incremented by valueChanged, before it drops any entries; see memoize. */
+        private final AtomicInteger changeCount = new AtomicInteger();
 
         /**
          * Get the source locale ID for the given path, for this ResolvingSource.
@@ -1348,20 +1406,29 @@ public abstract class XMLSource implements Freezable<XMLSource>, Iterable<String
             if (!cachingIsEnabled) {
                 return;
             }
-            synchronized (getSourceLocaleIDCache) {
-                AliasLocation location = getSourceLocaleIDCache.remove(xpath);
-                if (location == null) {
-                    return;
-                }
-                // Paths aliasing to this path (directly or indirectly) may be affected,
-                // so clear them as well.
-                // There's probably a more elegant way to fix the paths than simply
-                // throwing everything out.
-                Set<String> dependentPaths = getDirectAliases(new String[] {xpath});
-                if (!dependentPaths.isEmpty()) {
-                    for (String path : dependentPaths) {
-                        getSourceLocaleIDCache.remove(path);
-                    }
+            changeCount.incrementAndGet();
+            int pathId = PathDictionary.peekId(xpath);
+            getFullPathAtDPathCache.remove(pathId);
+            AliasLocation location = getSourceLocaleIDCache.remove(pathId);
+            if (location == null) {
+                // nothing can depend on the path: its location is cached before any path that
+                // inherits from it through an alias, and dropped along with them
+                return;
+            }
+            // Paths that inherit from this one, through any number of aliases, alts or counts,
+            // had the same location, so drop those. This may also drop some paths that only
+            // happened to end up at the same place, which is harmless.
+            String pathWhereFound = location.pathWhereFound;
+            Set<Integer> dependents = dependentsByPathWhereFound.remove(pathWhereFound);
+            if (dependents == null) {
+                return;
+            }
+            for (int dependentId : dependents) {
+                AliasLocation dependent = getSourceLocaleIDCache.get(dependentId);
+                if (dependent != null
+                        && dependent.pathWhereFound.equals(pathWhereFound)
+                        && getSourceLocaleIDCache.remove(dependentId, dependent)) {
+                    getFullPathAtDPathCache.remove(dependentId);
                 }
             }
         }
@@ -0,0 +1,760 @@
+package org.unicode.cldr.util;
+
+import com.ibm.icu.util.ICUUncheckedIOException;
+import com.ibm.icu.util.VersionInfo;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeSet;
+import org.unicode.cldr.util.CLDRFile.DraftStatus;
+import org.unicode.cldr.util.XMLSource.SourceLocation;
+import org.unicode.cldr.util.XPathParts.Comments;
+import org.unicode.cldr.util.XPathParts.Comments.CommentType;
+
+/**
+ * A compact binary snapshot of a single unresolved XMLSource, as produced by {@link
+ * XMLNormalizingLoader} from one XML file. Loading a snapshot skips SAX parsing and path
+ * normalization entirely, which is what dominates cold-start time when hundreds of locales are
+ * loaded.
+ *
+ * <p>A snapshot records the SHA-1 hash of the XML file it was built from, and of the DTD it was
+ * normalized with, along with the {@link #LOADER_VERSION} of the code that built it; it is only
+ * used while all three still match, so an edited XML file or DTD, or a change to the loader,
+ * silently falls back to normal parsing. Snapshots
+ * are built for a whole tree with {@link org.unicode.cldr.tool.GenerateXMLSourceSnapshots}, and are
+ * picked up when the {@link #SNAPSHOT_DIR_PROPERTY} property points at the output directory.
+ *
+ * <p>Layout (all integers big-endian):
+ *
+ * <pre>
+ * header:   MAGIC, FORMAT_VERSION, LOADER_VERSION, localeId, draftStatus, dtdType, dtdVersion
+ *           (modified UTF-8), hash length + SHA-1 bytes of the XML file, hash length + SHA-1
+ *           bytes of the DTD, nonInheriting flag
+ * tokens:   string block of path segments, eg "/ldml", "/dates", "/calendar[@type=\"gregorian\"]"
+ * strings:  string block of values, comments and system ids
+ * paths:    count, count+1 offsets into the token list, token count, token indexes
+ *           (each path is the concatenation of its tokens)
+ * entries:  count, then (distinguishing path, full path or -1, value string) indexes,
+ *           sorted by distinguishing path
+ * comments: initial and final comment strings, then for each CommentType a count of
+ *           (path, comment string)
+ * locations: count, then (full path, system id string, line, column)
+ * </pre>
+ *
+ * A string block is a count, count+1 offsets into the blob, the blob length, and the UTF-8 blob.
+ * Every distinct token, path and string is stored exactly once.
+ */
+public class XMLSourceSnapshot {
+    /** "CLDS" */
+    static final int MAGIC = 0x434C4453;
+
+    /** Bump whenever the layout changes, so that old snapshots are ignored. */
+    static final int FORMAT_VERSION = 2;
+
+    /**
+     * Bump whenever the same XML file and DTD would load differently, eg after a change to {@link
+     * XMLNormalizingLoader} or to how paths are normalized, so that old snapshots are ignored.
+     */
+    static final int LOADER_VERSION = 1;
+
+    public static final String SUFFIX = ".cldrsnap";
+
+    /** Property naming the directory that holds snapshots, eg -DCLDR_SNAPSHOT_DIR=... */
+    public static final String SNAPSHOT_DIR_PROPERTY = "CLDR_SNAPSHOT_DIR";
+
+    /**
+     * Property choosing whether snapshots are mapped as {@link MappedXMLSource}s (the default) or
+     * copied onto the heap as SimpleXMLSources, eg -DCLDR_SNAPSHOT_MAPPED=false
+     */
+    public static final String MAPPED_PROPERTY = "CLDR_SNAPSHOT_MAPPED";
+
+    static final int NONE = -1;
+
+    private final ByteBuffer buffer;
+    private final String localeId;
+    private final DraftStatus draftStatus;
+    private final DtdType dtdType;
+    private final VersionInfo dtdVersionInfo;
+    private final int loaderVersion;
+    private final byte[] sourceHash;
+    private final byte[] dtdHash;
+    private final boolean nonInheriting;
+    private final StringBlock tokens;
+    private final StringBlock strings;
+    private final int pathCount;
+    private final int pathOffsetsStart;
+    private final int pathTokensStart;
+    private final int entryCount;
+    private final int entriesStart;
+    private final int commentsStart;
+
+    /** Decoded tokens: there are few of them, and they are needed for every path. */
+    private final String[] tokenCache;
+
+    /**
+     * Parse the header and section positions of a snapshot. The buffer is kept, and values are only
+     * decoded when asked for, so this works equally well over a heap or a mapped buffer.
+     *
+     * @throws IllegalArgumentException if the buffer is not a snapshot of the current format
+     */
+    XMLSourceSnapshot(ByteBuffer buffer) {
+        this.buffer = buffer;
+        try {
+            ByteBuffer in = buffer.duplicate();
+            if (in.getInt() != MAGIC) {
+                throw new IllegalArgumentException("Not a CLDR XMLSource snapshot");
+            }
+            int version = in.getInt();
+            if (version != FORMAT_VERSION) {
+                throw new IllegalArgumentException(
+                        "Snapshot format " + version + ", expected " + FORMAT_VERSION);
+            }
+            loaderVersion = in.getInt();
+            localeId = readUTF(in);
+            draftStatus = DraftStatus.valueOf(readUTF(in));
+            String dtdTypeString = readUTF(in);
+            dtdType = dtdTypeString.isEmpty() ? null : DtdType.valueOf(dtdTypeString);
+            String versionString = readUTF(in);
+            dtdVersionInfo =
+                    versionString.isEmpty() ? null : VersionInfo.getInstance(versionString);
+            sourceHash = new byte[in.getInt()];
+            in.get(sourceHash);
+            dtdHash = new byte[in.getInt()];
+            in.get(dtdHash);
+            nonInheriting = in.get() != 0;
+
+            tokens = new StringBlock(buffer, in);
+            strings = new StringBlock(buffer, in);
+
+            pathCount = in.getInt();
+            pathOffsetsStart = in.position();
+            in.position(pathOffsetsStart + (pathCount + 1) * Integer.BYTES);
+            int tokenListLength = in.getInt();
+            pathTokensStart = in.position();
+            in.position(pathTokensStart + tokenListLength * Integer.BYTES);
+
+            entryCount = in.getInt();
+            entriesStart = in.position();
+            commentsStart = entriesStart + entryCount * 3 * Integer.BYTES;
+            if (commentsStart > buffer.limit()) {
+                throw new IllegalArgumentException("Truncated snapshot");
+            }
+            tokenCache = new String[tokens.size()];
+            for (int i = 0; i < tokenCache.length; ++i) {
+                tokenCache[i] = tokens.get(i);
+            }
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Truncated snapshot", e);
+        }
+    }
+
+    public String getLocaleID() {
+        return localeId;
+    }
+
+    public DraftStatus getDraftStatus() {
+        return draftStatus;
+    }
+
+    public DtdType getDtdType() {
+        return dtdType;
+    }
+
+    public VersionInfo getDtdVersionInfo() {
+        return dtdVersionInfo;
+    }
+
+    public boolean isNonInheriting() {
+        return nonInheriting;
+    }
+
+    /** Number of distinguishing paths in the snapshot. */
+    public int size() {
+        return entryCount;
+    }
+
+    /**
+     * Rough estimate of the heap retained, in bytes: the decoded tokens, plus the buffer unless it
+     * is mapped or otherwise off the heap.
+     */
+    long estimateHeapWeight() {
+        long weight = 256 + (buffer.isDirect() ? 0 : buffer.capacity());
+        for (String token : tokenCache) {
+            weight += 48 + token.length();
+        }
+        return weight;
+    }
+
+    /**
+     * Whether the snapshot was built from exactly this XML file content, with the current DTD and
+     * loader.
+     */
+    public boolean isFreshFor(File xmlFile) {
+        return loaderVersion == LOADER_VERSION
+                && Arrays.equals(dtdHash, hashDtd(dtdType))
+                && Arrays.equals(sourceHash, hashFile(xmlFile));
+    }
+
+    /** Decode a value, comment or system id, or null for -1. */
+    String getString(int index) {
+        return index == NONE ? null : strings.get(index);
+    }
+
+    /** Reassemble a path from its tokens, or null for -1. */
+    String getPath(int index) {
+        if (index == NONE) {
+            return null;
+        }
+        int start = buffer.getInt(pathOffsetsStart + index * Integer.BYTES);
+        int end = buffer.getInt(pathOffsetsStart + (index + 1) * Integer.BYTES);
+        StringBuilder result = new StringBuilder();
+        for (int i = start; i < end; ++i) {
+            result.append(tokenCache[buffer.getInt(pathTokensStart + i * Integer.BYTES)]);
+        }
+        return result.toString();
+    }
+
+    /**
+     * Compare a stored path with a string, in String.compareTo order, without decoding the path.
+     */
+    int comparePath(int index, String key) {
+        int start = buffer.getInt(pathOffsetsStart + index * Integer.BYTES);
+        int end = buffer.getInt(pathOffsetsStart + (index + 1) * Integer.BYTES);
+        int keyPos = 0;
+        for (int i = start; i < end; ++i) {
+            String token = tokenCache[buffer.getInt(pathTokensStart + i * Integer.BYTES)];
+            for (int j = 0; j < token.length(); ++j, ++keyPos) {
+                if (keyPos == key.length()) {
+                    return 1;
+                }
+                int diff = token.charAt(j) - key.charAt(keyPos);
+                if (diff != 0) {
+                    return diff;
+                }
+            }
+        }
+        return keyPos - key.length();
+    }
+
+    /**
+     * Find the entry for a distinguishing path by binary search.
+     *
+     * @return the entry, or (-(insertion point) - 1) if there is none, as in Arrays.binarySearch
+     */
+    int findEntry(String path) {
+        int low = 0;
+        int high = entryCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int comparison = comparePath(getPathIndex(mid), path);
+            if (comparison < 0) {
+                low = mid + 1;
+            } else if (comparison > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    /** The path index of the distinguishing path of an entry; entries are sorted by it. */
+    int getPathIndex(int entry) {
+        return buffer.getInt(entriesStart + entry * 3 * Integer.BYTES);
+    }
+
+    /** The path index of the full path of an entry, or -1 if it is the same as the path. */
+    int getFullPathIndex(int entry) {
+        return buffer.getInt(entriesStart + (entry * 3 + 1) * Integer.BYTES);
+    }
+
+    /** The string index of the value of an entry. */
+    int getValueIndex(int entry) {
+        return buffer.getInt(entriesStart + (entry * 3 + 2) * Integer.BYTES);
+    }
+
+    /** Read the comment section into the given Comments. */
+    void readComments(Comments comments) {
+        ByteBuffer in = buffer.duplicate();
+        in.position(commentsStart);
+        comments.setInitialComment(getString(in.getInt()));
+        comments.setFinalComment(getString(in.getInt()));
+        for (CommentType type : CommentType.values()) {
+            for (int i = in.getInt(); i > 0; --i) {
+                String path = getPath(in.getInt());
+                comments.getCommentMap(type).put(path, getString(in.getInt()));
+            }
+        }
+    }
+
+    /** Read the source locations, keyed by full path. */
+    Map<String, SourceLocation> readSourceLocations() {
+        ByteBuffer in = buffer.duplicate();
+        in.position(commentsStart + 2 * Integer.BYTES);
+        for (int t = 0; t < CommentType.values().length; ++t) {
+            int count = in.getInt();
+            in.position(in.position() + count * 2 * Integer.BYTES);
+        }
+        Map<String, SourceLocation> result = new HashMap<>();
+        for (int i = in.getInt(); i > 0; --i) {
+            String fullPath = getPath(in.getInt());
+            String system = getString(in.getInt());
+            int line = in.getInt();
+            int column = in.getInt();
+            result.put(fullPath.intern(), new SourceLocation(system, line, column));
+        }
+        return result;
+    }
+
+    /**
+     * Create a frozen SimpleXMLSource with the contents of this snapshot, equivalent to the one
+     * that {@link XMLNormalizingLoader#loadXMLFile} would produce.
+     */
+    public XMLSource toXMLSource() {
+        return toSimpleXMLSource().freeze();
+    }
+
+    /** Create an unfrozen SimpleXMLSource with the contents of this snapshot. */
+    SimpleXMLSource toSimpleXMLSource() {
+        SimpleXMLSource source = new SimpleXMLSource(localeId);
+        source.setXMLNormalizingDtdType(dtdType);
+        source.setDtdVersionInfo(dtdVersionInfo);
+        source.setNonInheriting(nonInheriting);
+        for (int i = 0; i < entryCount; ++i) {
+            String path = getPath(getPathIndex(i));
+            source.putValueAtDPath(path, getString(getValueIndex(i)));
+            int fullPathIndex = getFullPathIndex(i);
+            if (fullPathIndex != NONE) {
+                source.putFullPathAtDPath(path, getPath(fullPathIndex));
+            }
+        }
+        readComments(source.getXpathComments());
+        for (Entry<String, SourceLocation> entry : readSourceLocations().entrySet()) {
+            source.addSourceLocation(entry.getKey(), entry.getValue());
+        }
+        return source;
+    }
+
+    /**
+     * Read a snapshot file fully into memory.
+     *
+     * @throws IllegalArgumentException if the file is not a valid snapshot
+     */
+    public static XMLSourceSnapshot read(File snapshotFile) {
+        try {
+            return new XMLSourceSnapshot(
+                    ByteBuffer.wrap(Files.readAllBytes(snapshotFile.toPath())));
+        } catch (IOException e) {
+            throw new ICUUncheckedIOException("Cannot read the snapshot " + snapshotFile, e);
+        }
+    }
+
+    /**
+     * Map a snapshot file into memory, read-only. Nothing is copied onto the heap beyond the
+     * header; the mapping stays valid after the file is closed, until the snapshot is collected.
+     *
+     * @throws IllegalArgumentException if the file is not a valid snapshot
+     */
+    public static XMLSourceSnapshot map(File snapshotFile) {
+        try (FileChannel channel = FileChannel.open(snapshotFile.toPath())) {
+            return new XMLSourceSnapshot(
+                    channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } catch (IOException e) {
+            throw new ICUUncheckedIOException("Cannot map the snapshot " + snapshotFile, e);
+        }
+    }
+
+    /**
+     * Load the XMLSource for the given XML file from its snapshot, if there is a valid snapshot
+     * built from the current content of the file with the same draft status.
+     *
+     * @return the frozen source, or null if the caller must parse the XML file instead.
+     */
+    public static XMLSource loadIfFresh(
+            File snapshotRoot, File xmlFile, String localeId, DraftStatus minimalDraftStatus) {
+        XMLSourceSnapshot snapshot =
+                readIfFresh(snapshotRoot, xmlFile, localeId, minimalDraftStatus, false);
+        return snapshot == null ? null : snapshot.toXMLSource();
+    }
+
+    /**
+     * Like {@link #loadIfFresh}, but return a {@link MappedXMLSource} that reads paths and values
+     * from the mapped snapshot on demand, rather than copying them onto the heap.
+     *
+     * @return the frozen source, or null if the caller must parse the XML file instead.
+     */
+    public static XMLSource mapIfFresh(
+            File snapshotRoot, File xmlFile, String localeId, DraftStatus minimalDraftStatus) {
+        XMLSourceSnapshot snapshot =
+                readIfFresh(snapshotRoot, xmlFile, localeId, minimalDraftStatus, true);
+        return snapshot == null ? null : new MappedXMLSource(snapshot);
+    }
+
+    /**
+     * Return the snapshot for the given XML file, or null if it is missing, unreadable, stale, or
+     * for another locale.
+     */
+    static XMLSourceSnapshot readIfFresh(
+            File snapshotRoot,
+            File xmlFile,
+            String localeId,
+            DraftStatus minimalDraftStatus,
+            boolean mapped) {
+        File snapshotFile = getSnapshotFile(snapshotRoot, xmlFile, minimalDraftStatus);
+        if (!snapshotFile.canRead() || !xmlFile.canRead()) {
+            return null;
+        }
+        try {
+            XMLSourceSnapshot snapshot = mapped ? map(snapshotFile) : read(snapshotFile);
+            if (!localeId.equals(snapshot.getLocaleID())) {
+                return null;
+            }
+            return snapshot.getDraftStatus() == minimalDraftStatus && snapshot.isFreshFor(xmlFile)
+                    ? snapshot
+                    : null;
+        } catch (IllegalArgumentException | ICUUncheckedIOException e) {
+            System.err.println("Ignoring bad snapshot " + snapshotFile + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Get the directory configured with {@link #SNAPSHOT_DIR_PROPERTY}.
+     *
+     * @return the directory, or null if snapshots are not in use
+     */
+    public static File getDefaultSnapshotDirectory() {
+        String dir = CldrUtility.getProperty(SNAPSHOT_DIR_PROPERTY, null);
+        return dir == null ? null : new File(dir);
+    }
+
+    /** Whether snapshots should be mapped rather than read, per {@link #MAPPED_PROPERTY}. */
+    public static boolean isMappedByDefault() {
+        return CldrUtility.getProperty(MAPPED_PROPERTY, true);
+    }
+
+    /**
+     * Where the snapshot for an XML file lives. Files within the CLDR base directory keep their
+     * relative location (eg common/main/fr.unconfirmed.cldrsnap); others are grouped under a
+     * directory named by a hash of their parent directory.
+     */
+    public static File getSnapshotFile(
+            File snapshotRoot, File xmlFile, DraftStatus minimalDraftStatus) {
+        String xmlPath = PathUtilities.getNormalizedPathString(xmlFile);
+        String parent = xmlPath.substring(0, xmlPath.length() - xmlFile.getName().length());
+        String relativeDir;
+        String base =
+                CLDRPaths.BASE_DIRECTORY == null
+                        ? null
+                        : PathUtilities.getNormalizedPathString(CLDRPaths.BASE_DIRECTORY)
+                                + File.separator;
+        if (base != null && parent.startsWith(base)) {
+            relativeDir = parent.substring(base.length());
+        } else {
+            relativeDir = "external" + File.separator + Integer.toHexString(parent.hashCode());
+        }
+        String name = xmlFile.getName();
+        if (name.endsWith(".xml")) {
+            name = name.substring(0, name.length() - 4);
+        }
+        return new File(
+                new File(snapshotRoot, relativeDir),
+                name + "." + minimalDraftStatus.name() + SUFFIX);
+    }
+
+    /** SHA-1 over the bytes of a file. */
+    static byte[] hashFile(File file) {
+        try (InputStream in = Files.newInputStream(file.toPath())) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            byte[] buffer = new byte[0x10000];
+            for (int count; (count = in.read(buffer)) > 0; ) {
+                digest.update(buffer, 0, count);
+            }
+            return digest.digest();
+        } catch (IOException e) {
+            throw new ICUUncheckedIOException("Cannot read the file " + file, e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    /**
+     * SHA-1 over the current DTD of a type, which the paths of its files are normalized with.
+     *
+     * @return the hash, or an empty array if there is no such DTD
+     */
+    static byte[] hashDtd(DtdType dtdType) {
+        if (dtdType == null || dtdType.dtdPath == null || CLDRPaths.BASE_DIRECTORY == null) {
+            return new byte[0];
+        }
+        File dtdFile = new File(CLDRPaths.BASE_DIRECTORY, dtdType.dtdPath);
+        return dtdFile.canRead() ? hashFile(dtdFile) : new byte[0];
+    }
+
+    /**
+     * Parse an XML file and write its snapshot under snapshotRoot.
+     *
+     * @return the snapshot file written
+     */
+    public static File build(
+            File snapshotRoot, File xmlFile, String localeId, DraftStatus minimalDraftStatus) {
+        // hash before parsing, so that a concurrent edit at worst produces a stale snapshot
+        byte[] hash = hashFile(xmlFile);
+        XMLSource source = XMLNormalizingLoader.loadXMLFile(xmlFile, localeId, minimalDraftStatus);
+        File snapshotFile = getSnapshotFile(snapshotRoot, xmlFile, minimalDraftStatus);
+        File dir = snapshotFile.getParentFile();
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new ICUUncheckedIOException("Cannot create the directory " + dir);
+        }
+        // write to a temporary file and rename, so that readers never see a partial snapshot
+        File tempFile = new File(dir, snapshotFile.getName() + ".tmp");
+        try (OutputStream out = Files.newOutputStream(tempFile.toPath())) {
+            write(
+                    (SimpleXMLSource) source,
+                    minimalDraftStatus,
+                    hash,
+                    hashDtd(source.getXMLNormalizingDtdType()),
+                    out);
+        } catch (IOException e) {
+            throw new ICUUncheckedIOException("Cannot write the snapshot " + tempFile, e);
+        }
+        try {
+            Files.move(
+                    tempFile.toPath(),
+                    snapshotFile.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new ICUUncheckedIOException("Cannot write the snapshot " + snapshotFile, e);
+        }
+        return snapshotFile;
+    }
+
+    /** Serialize a source in snapshot format. */
+    static void write(
+            SimpleXMLSource source,
+            DraftStatus minimalDraftStatus,
+            byte[] hash,
+            byte[] dtdHash,
+            OutputStream os)
+            throws IOException {
+        StringTable strings = new StringTable();
+        PathTable paths = new PathTable();
+        TreeSet<String> sortedPaths = new TreeSet<>();
+        source.forEach(sortedPaths::add);
+
+        int[] entries = new int[sortedPaths.size() * 3];
+        int entry = 0;
+        for (String path : sortedPaths) {
+            String fullPath = source.getFullPathAtDPath(path);
+            entries[entry++] = paths.add(path);
+            entries[entry++] = path.equals(fullPath) ? NONE : paths.add(fullPath);
+            entries[entry++] = strings.add(source.getValueAtDPath(path));
+        }
+
+        ByteArrayOutputStream commentBytes = new ByteArrayOutputStream();
+        DataOutputStream comments = new DataOutputStream(commentBytes);
+        Comments xpathComments = source.getXpathComments();
+        comments.writeInt(strings.add(xpathComments.getInitialComment()));
+        comments.writeInt(strings.add(xpathComments.getFinalComment()));
+        for (CommentType type : CommentType.values()) {
+            Map<String, String> map = xpathComments.getCommentMap(type);
+            comments.writeInt(map.size());
+            for (Entry<String, String> comment : map.entrySet()) {
+                comments.writeInt(paths.add(comment.getKey()));
+                comments.writeInt(strings.add(comment.getValue()));
+            }
+        }
+        Map<String, SourceLocation> locations = source.getSourceLocations();
+        comments.writeInt(locations.size());
+        for (Entry<String, SourceLocation> location : locations.entrySet()) {
+            comments.writeInt(paths.add(location.getKey()));
+            comments.writeInt(strings.add(location.getValue().getSystem()));
+            comments.writeInt(location.getValue().getLine());
+            comments.writeInt(location.getValue().getColumn());
+        }
+        comments.flush();
+
+        DataOutputStream out = new DataOutputStream(os);
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeInt(LOADER_VERSION);
+        out.writeUTF(source.getLocaleID());
+        out.writeUTF(minimalDraftStatus.name());
+        DtdType dtdType = source.getXMLNormalizingDtdType();
+        out.writeUTF(dtdType == null ? "" : dtdType.name());
+        VersionInfo versionInfo = source.getDtdVersionInfo();
+        out.writeUTF(versionInfo == null ? "" : versionInfo.getVersionString(2, 4));
+        out.writeInt(hash.length);
+        out.write(hash);
+        out.writeInt(dtdHash.length);
+        out.write(dtdHash);
+        out.writeByte(source.isNonInheriting() ? 1 : 0);
+        paths.tokens.write(out);
+        strings.write(out);
+        paths.write(out);
+        out.writeInt(sortedPaths.size());
+        for (int item : entries) {
+            out.writeInt(item);
+        }
+        commentBytes.writeTo(out);
+        out.flush();
+    }
+
+    /** Reads a string written by DataOutputStream.writeUTF */
+    private static String readUTF(ByteBuffer in) {
+        int length = in.getShort() & 0xFFFF;
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        // modified UTF-8 only differs for NUL and supplementary characters, neither used here
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /** Reader for a string block written by StringTable. */
+    private static class StringBlock {
+        private final ByteBuffer buffer;
+        private final int count;
+        private final int offsetsStart;
+        private final int blobStart;
+
+        /** Read the block at the position of in, leaving in positioned after it. */
+        StringBlock(ByteBuffer buffer, ByteBuffer in) {
+            this.buffer = buffer;
+            count = in.getInt();
+            offsetsStart = in.position();
+            in.position(offsetsStart + (count + 1) * Integer.BYTES);
+            int blobLength = in.getInt();
+            blobStart = in.position();
+            in.position(blobStart + blobLength);
+        }
+
+        int size() {
+            return count;
+        }
+
+        String get(int index) {
+            int start = buffer.getInt(offsetsStart + index * Integer.BYTES);
+            int end = buffer.getInt(offsetsStart + (index + 1) * Integer.BYTES);
+            byte[] bytes = new byte[end - start];
+            ByteBuffer in = buffer.duplicate();
+            in.position(blobStart + start);
+            in.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Interns paths to dense indexes. Paths are split before each top-level '/', so that the tokens
+     * shared by many paths (such as "/ldml" or "/calendar[@type="gregorian"]") are only stored
+     * once.
+     */
+    private static class PathTable {
+        private final StringTable tokens = new StringTable();
+        private final Map<String, Integer> indexes = new HashMap<>();
+        private final List<int[]> paths = new ArrayList<>();
+        private int tokenListLength = 0;
+
+        int add(String path) {
+            Integer index = indexes.get(path);
+            if (index == null) {
+                index = paths.size();
+                List<String> split = split(path);
+                int[] tokenIndexes = new int[split.size()];
+                for (int i = 0; i < tokenIndexes.length; ++i) {
+                    tokenIndexes[i] = tokens.add(split.get(i));
+                }
+                paths.add(tokenIndexes);
+                tokenListLength += tokenIndexes.length;
+                indexes.put(path, index);
+            }
+            return index;
+        }
+
+        /** Split before each '/' that is not inside an attribute. */
+        static List<String> split(String path) {
+            List<String> result = new ArrayList<>();
+            int start = 0;
+            boolean inQuote = false;
+            for (int i = 1; i < path.length(); ++i) {
+                char ch = path.charAt(i);
+                if (ch == '"') {
+                    inQuote = !inQuote;
+                } else if (ch == '/' && !inQuote) {
+                    result.add(path.substring(start, i));
+                    start = i;
+                }
+            }
+            result.add(path.substring(start));
+            return result;
+        }
+
+        void write(DataOutputStream out) throws IOException {
+            out.writeInt(paths.size());
+            int offset = 0;
+            out.writeInt(offset);
+            for (int[] path : paths) {
+                offset += path.length;
+                out.writeInt(offset);
+            }
+            out.writeInt(tokenListLength);
+            for (int[] path : paths) {
+                for (int token : path) {
+                    out.writeInt(token);
+                }
+            }
+        }
+    }
+
+    /** Interns strings to dense indexes, in order of first use. */
+    private static class StringTable {
+        private final Map<String, Integer> indexes = new HashMap<>();
+        private final List<byte[]> strings = new ArrayList<>();
+        private int length = 0;
+
+        int add(String string) {
+            if (string == null) {
+                return NONE;
+            }
+            Integer index = indexes.get(string);
+            if (index == null) {
+                index = strings.size();
+                byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+                strings.add(bytes);
+                length += bytes.length;
+                indexes.put(string, index);
+            }
+            return index;
+        }
+
+        void write(DataOutputStream out) throws IOException {
+            out.writeInt(strings.size());
+            int offset = 0;
+            out.writeInt(offset);
+            for (byte[] bytes : strings) {
+                offset += bytes.length;
+                out.writeInt(offset);
+            }
+            out.writeInt(length);
+            for (byte[] bytes : strings) {
+                out.write(bytes);
+            }
+        }
+    }
+}
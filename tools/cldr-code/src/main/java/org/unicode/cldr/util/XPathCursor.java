@@ -0,0 +1,479 @@
+package org.unicode.cldr.util;
+
+import java.io.File;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A reusable, read-only view of the elements and attributes of an xpath string, for code that only
+ * needs to ask a few questions about a path (is there a given element, what is the value of a given
+ * attribute) and would otherwise parse it into {@link XPathParts}.
+ *
+ * <p>{@link #reset(String)} scans the path once, with the same syntax and errors as {@link
+ * XPathParser}, recording the offsets of each element and attribute in arrays that are reused for
+ * the next path. The queries compare against the original string in place, so none of them
+ * allocate, except for the methods that return a String (or Map) taken from the path.
+ *
+ * <p>Unlike XPathParts, attributes are kept in the order they occur in the path, not in the
+ * canonical order; {@link #hasCanonicalAttributeOrder()} tells whether the two are the same. If an
+ * attribute occurs more than once on an element, the last value wins, as in XPathParts.
+ *
+ * <p>A cursor is not thread-safe. Since it is meant to be reused, callers would normally keep one
+ * per thread, for example:
+ *
+ * <pre>
+ * private static final ThreadLocal&lt;XPathCursor&gt; CURSOR = ThreadLocal.withInitial(XPathCursor::new);
+ * ...
+ * XPathCursor cursor = CURSOR.get().reset(path);
+ * </pre>
+ *
+ * Each caller should have its own ThreadLocal, so that a cursor is never reset by code called while
+ * it is still in use.
+ */
+public final class XPathCursor implements XPathValue {
+    // per element: name start, name limit, index of first attribute
+    private static final int ELEMENT_STRIDE = 3;
+    // per attribute: name start, name limit, value start, value limit
+    private static final int ATTRIBUTE_STRIDE = 4;
+
+    private String path;
+    private int size;
+    private int[] elements = new int[ELEMENT_STRIDE * 16];
+    private int attributeCount;
+    private int[] attributes = new int[ATTRIBUTE_STRIDE * 16];
+    private boolean hasDuplicateAttributes;
+
+    // the dtd of the last path, kept across resets since it rarely changes
+    private DtdType dtdType;
+    private Comparator<String> attributeComparator;
+
+    /**
+     * Scan a new path, replacing the current one.
+     *
+     * @param path a full path, starting with //
+     * @return this, for chaining
+     * @throws IllegalArgumentException if the path is malformed
+     */
+    public XPathCursor reset(String path) {
+        this.path = path;
+        size = 0;
+        attributeCount = 0;
+        hasDuplicateAttributes = false;
+        if (!path.startsWith("//")) {
+            parseError(path, 0);
+        }
+        // the same state machine as XPathParser.handleParse
+        int stringStart = 2;
+        int nameStart = -1;
+        int nameLimit = -1;
+        char state = 'p';
+        int len = path.length();
+        for (int i = 2; i < len; ++i) {
+            char cp = path.charAt(i);
+            if (cp != state && (state == '\"' || state == '\'')) {
+                continue; // stay in quotation
+            }
+            switch (cp) {
+                case '/':
+                    if (state != 'p' || stringStart >= i) {
+                        parseError(path, i);
+                    }
+                    if (stringStart > 0) {
+                        addElement(stringStart, i);
+                    }
+                    stringStart = i + 1;
+                    break;
+                case '[':
+                    if (state != 'p' || stringStart >= i) {
+                        parseError(path, i);
+                    }
+                    if (stringStart > 0) {
+                        addElement(stringStart, i);
+                    }
+                    state = cp;
+                    break;
+                case '@':
+                    if (state != '[') {
+                        parseError(path, i);
+                    }
+                    stringStart = i + 1;
+                    state = cp;
+                    break;
+                case '=':
+                    if (state != '@' || stringStart >= i) {
+                        parseError(path, i);
+                    }
+                    nameStart = stringStart;
+                    nameLimit = i;
+                    state = cp;
+                    break;
+                case '\"':
+                case '\'':
+                    if (state == cp) { // finished
+                        if (stringStart > i) {
+                            parseError(path, i);
+                        }
+                        addAttribute(nameStart, nameLimit, stringStart, i);
+                        state = 'e';
+                        break;
+                    }
+                    if (state != '=') {
+                        parseError(path, i);
+                    }
+                    stringStart = i + 1;
+                    state = cp;
+                    break;
+                case ']':
+                    if (state != 'e') {
+                        parseError(path, i);
+                    }
+                    state = 'p';
+                    stringStart = -1;
+                    break;
+            }
+        }
+        // check to make sure terminated
+        if (state != 'p' || stringStart >= len) {
+            parseError(path, len);
+        }
+        if (stringStart > 0) {
+            addElement(stringStart, len);
+        }
+        return this;
+    }
+
+    private void parseError(String s, int i) {
+        this.path = null;
+        size = 0;
+        attributeCount = 0;
+        throw new IllegalArgumentException("Malformed xPath '" + s + "' at " + i);
+    }
+
+    private void addElement(int start, int limit) {
+        int base = size * ELEMENT_STRIDE;
+        if (base + ELEMENT_STRIDE > elements.length) {
+            int[] grown = new int[elements.length * 2];
+            System.arraycopy(elements, 0, grown, 0, elements.length);
+            elements = grown;
+        }
+        elements[base] = start;
+        elements[base + 1] = limit;
+        elements[base + 2] = attributeCount;
+        ++size;
+    }
+
+    private void addAttribute(int nameStart, int nameLimit, int valueStart, int valueLimit) {
+        // an attribute is on the last element; a repeated attribute replaces the earlier value
+        for (int a = elements[(size - 1) * ELEMENT_STRIDE + 2]; a < attributeCount; ++a) {
+            int base = a * ATTRIBUTE_STRIDE;
+            if (regionEquals(attributes[base], attributes[base + 1], nameStart, nameLimit)) {
+                attributes[base + 2] = valueStart;
+                attributes[base + 3] = valueLimit;
+                hasDuplicateAttributes = true;
+                return;
+            }
+        }
+        int base = attributeCount * ATTRIBUTE_STRIDE;
+        if (base + ATTRIBUTE_STRIDE > attributes.length) {
+            int[] grown = new int[attributes.length * 2];
+            System.arraycopy(attributes, 0, grown, 0, attributes.length);
+            attributes = grown;
+        }
+        attributes[base] = nameStart;
+        attributes[base + 1] = nameLimit;
+        attributes[base + 2] = valueStart;
+        attributes[base + 3] = valueLimit;
+        ++attributeCount;
+    }
+
+    private boolean regionEquals(int start1, int limit1, int start2, int limit2) {
+        int length = limit1 - start1;
+        return length == limit2 - start2 && path.regionMatches(start1, path, start2, length);
+    }
+
+    private boolean regionEquals(int start, int limit, String s) {
+        int length = limit - start;
+        return length == s.length() && path.regionMatches(start, s, 0, length);
+    }
+
+    private int elementIndex(int elementIndex) {
+        int result = elementIndex >= 0 ? elementIndex : elementIndex + size;
+        if (result < 0 || result >= size) {
+            throw new IndexOutOfBoundsException("Element " + elementIndex + " of " + size);
+        }
+        return result;
+    }
+
+    private int firstAttribute(int elementIndex) {
+        return elements[elementIndex * ELEMENT_STRIDE + 2];
+    }
+
+    private int attributeLimit(int elementIndex) {
+        return elementIndex + 1 < size
+                ? elements[(elementIndex + 1) * ELEMENT_STRIDE + 2]
+                : attributeCount;
+    }
+
+    private int attribute(int elementIndex, int attributeIndex) {
+        int e = elementIndex(elementIndex);
+        int a = firstAttribute(e) + attributeIndex;
+        if (attributeIndex < 0 || a >= attributeLimit(e)) {
+            throw new IndexOutOfBoundsException(
+                    "Attribute " + attributeIndex + " of element " + elementIndex);
+        }
+        return a * ATTRIBUTE_STRIDE;
+    }
+
+    /** How many elements are in the path? */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /** Get the nth element. Negative values are from end. Allocates the returned string. */
+    @Override
+    public String getElement(int elementIndex) {
+        int base = elementIndex(elementIndex) * ELEMENT_STRIDE;
+        return path.substring(elements[base], elements[base + 1]);
+    }
+
+    /** Is the nth element (negative index is from end) the given one? */
+    public boolean elementEquals(int elementIndex, String element) {
+        int base = elementIndex(elementIndex) * ELEMENT_STRIDE;
+        return regionEquals(elements[base], elements[base + 1], element);
+    }
+
+    /** Does the nth element (negative index is from end) start with the given prefix? */
+    public boolean elementStartsWith(int elementIndex, String prefix) {
+        int base = elementIndex(elementIndex) * ELEMENT_STRIDE;
+        return elements[base + 1] - elements[base] >= prefix.length()
+                && path.startsWith(prefix, elements[base]);
+    }
+
+    /**
+     * Compare the names of two elements, possibly of different cursors, in the same way as {@link
+     * String#compareTo}.
+     */
+    public int compareElement(int elementIndex, XPathCursor other, int otherElementIndex) {
+        int base = elementIndex(elementIndex) * ELEMENT_STRIDE;
+        int otherBase = other.elementIndex(otherElementIndex) * ELEMENT_STRIDE;
+        return compareRegions(
+                path,
+                elements[base],
+                elements[base + 1],
+                other.path,
+                other.elements[otherBase],
+                other.elements[otherBase + 1]);
+    }
+
+    /** Are the names of two elements, possibly of different cursors, the same? */
+    public boolean elementEquals(int elementIndex, XPathCursor other, int otherElementIndex) {
+        return compareElement(elementIndex, other, otherElementIndex) == 0;
+    }
+
+    private static int compareRegions(
+            String s1, int start1, int limit1, String s2, int start2, int limit2) {
+        int length1 = limit1 - start1;
+        int length2 = limit2 - start2;
+        for (int i = 0, min = Math.min(length1, length2); i < min; ++i) {
+            int diff = s1.charAt(start1 + i) - s2.charAt(start2 + i);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return length1 - length2;
+    }
+
+    /**
+     * Search for an element within the path.
+     *
+     * @return element number if found, else -1 if not found
+     */
+    public int findElement(String element) {
+        for (int i = 0; i < size; ++i) {
+            int base = i * ELEMENT_STRIDE;
+            if (regionEquals(elements[base], elements[base + 1], element)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /** See if the path contains an element */
+    @Override
+    public boolean containsElement(String element) {
+        return findElement(element) >= 0;
+    }
+
+    /** The number of (distinct) attributes on the nth element (negative index is from end). */
+    public int getAttributeCount(int elementIndex) {
+        int e = elementIndex(elementIndex);
+        return attributeLimit(e) - firstAttribute(e);
+    }
+
+    /**
+     * Find an attribute of the nth element (negative index is from end).
+     *
+     * @return the index of the attribute within the element, for use with {@link
+     *     #getAttributeNameAt} and the like, or -1 if the element does not have the attribute
+     */
+    public int findAttribute(int elementIndex, String attribute) {
+        int e = elementIndex(elementIndex);
+        int first = firstAttribute(e);
+        for (int a = first, limit = attributeLimit(e); a < limit; ++a) {
+            int base = a * ATTRIBUTE_STRIDE;
+            if (regionEquals(attributes[base], attributes[base + 1], attribute)) {
+                return a - first;
+            }
+        }
+        return -1;
+    }
+
+    /** Get the name of the ith attribute of the nth element. Allocates the returned string. */
+    public String getAttributeNameAt(int elementIndex, int attributeIndex) {
+        int base = attribute(elementIndex, attributeIndex);
+        return path.substring(attributes[base], attributes[base + 1]);
+    }
+
+    /** Get the value of the ith attribute of the nth element. Allocates the returned string. */
+    public String getAttributeValueAt(int elementIndex, int attributeIndex) {
+        int base = attribute(elementIndex, attributeIndex);
+        return path.substring(attributes[base + 2], attributes[base + 3]);
+    }
+
+    /** The offset in the path of the start of the value of the ith attribute of the nth element. */
+    public int getAttributeValueStart(int elementIndex, int attributeIndex) {
+        return attributes[attribute(elementIndex, attributeIndex) + 2];
+    }
+
+    /** The offset in the path of the end of the value of the ith attribute of the nth element. */
+    public int getAttributeValueLimit(int elementIndex, int attributeIndex) {
+        return attributes[attribute(elementIndex, attributeIndex) + 3];
+    }
+
+    /**
+     * Get the attributeValue for the attribute at the nth element (negative index is from end).
+     * Returns null if there's nothing. Allocates the returned string.
+     */
+    @Override
+    public String getAttributeValue(int elementIndex, String attribute) {
+        int index = findAttribute(elementIndex, attribute);
+        return index < 0 ? null : getAttributeValueAt(elementIndex, index);
+    }
+
+    /** Does the attribute at the nth element (negative index is from end) have the given value? */
+    public boolean attributeValueEquals(int elementIndex, String attribute, String value) {
+        int index = findAttribute(elementIndex, attribute);
+        if (index < 0) {
+            return false;
+        }
+        int base = attribute(elementIndex, index);
+        return regionEquals(attributes[base + 2], attributes[base + 3], value);
+    }
+
+    /** Are the values of two attributes, possibly of different cursors, the same? */
+    public boolean attributeValueEquals(
+            int elementIndex,
+            int attributeIndex,
+            XPathCursor other,
+            int otherElementIndex,
+            int otherAttributeIndex) {
+        int base = attribute(elementIndex, attributeIndex);
+        int otherBase = other.attribute(otherElementIndex, otherAttributeIndex);
+        int length = attributes[base + 3] - attributes[base + 2];
+        return length == other.attributes[otherBase + 3] - other.attributes[otherBase + 2]
+                && path.regionMatches(
+                        attributes[base + 2], other.path, other.attributes[otherBase + 2], length);
+    }
+
+    /** Find the value of an attribute of the first element with the given name, or null. */
+    public String findAttributeValue(String element, String attribute) {
+        int elementIndex = findElement(element);
+        return elementIndex < 0 ? null : getAttributeValue(elementIndex, attribute);
+    }
+
+    /** Does the path contain the attribute at all? */
+    @Override
+    public boolean containsAttribute(String attribute) {
+        for (int a = 0; a < attributeCount; ++a) {
+            int base = a * ATTRIBUTE_STRIDE;
+            if (regionEquals(attributes[base], attributes[base + 1], attribute)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Get the attributes for the nth element (negative index is from end), in the order they occur
+     * in the path. Allocates a new map on each call; prefer the other methods.
+     */
+    @Override
+    public Map<String, String> getAttributes(int elementIndex) {
+        Map<String, String> result = new LinkedHashMap<>();
+        for (int i = 0, count = getAttributeCount(elementIndex); i < count; ++i) {
+            result.put(getAttributeNameAt(elementIndex, i), getAttributeValueAt(elementIndex, i));
+        }
+        return result;
+    }
+
+    /**
+     * Are the attributes of each element in the order that XPathParts would write them, with no
+     * attribute repeated? If so, {@link XPathParts#toString()} would keep the attributes in the
+     * order of this path. Only elements with more than one attribute allocate (their names).
+     */
+    public boolean hasCanonicalAttributeOrder() {
+        if (hasDuplicateAttributes) {
+            return false;
+        }
+        Comparator<String> comparator = null;
+        for (int e = 0; e < size; ++e) {
+            int first = firstAttribute(e);
+            int limit = attributeLimit(e);
+            if (limit - first < 2) {
+                continue;
+            }
+            if (comparator == null) {
+                comparator = getAttributeComparator();
+            }
+            String previous = getAttributeNameAt(e, 0);
+            for (int i = 1; i < limit - first; ++i) {
+                String name = getAttributeNameAt(e, i);
+                // a comparator that returns 0 for different names would drop one of them
+                if ((comparator == null
+                                ? previous.compareTo(name)
+                                : comparator.compare(previous, name))
+                        >= 0) {
+                    return false;
+                }
+                previous = name;
+            }
+        }
+        return true;
+    }
+
+    /** The comparator that XPathParts would use for the attributes of this path. */
+    private Comparator<String> getAttributeComparator() {
+        if (dtdType == null || !elementEquals(0, dtdType.name())) {
+            // as in XPathParts.addElement
+            DtdData dtdData;
+            try {
+                dtdType = DtdType.fromElement(getElement(0));
+                File dir = CLDRConfig.getInstance().getCldrBaseDirectory();
+                dtdData = DtdData.getInstance(dtdType, dir);
+            } catch (Exception e) {
+                dtdType = null;
+                dtdData = null;
+            }
+            attributeComparator = XPathParts.getAttributeComparator(dtdData);
+        }
+        return attributeComparator;
+    }
+
+    /** return the original string */
+    @Override
+    public String toString() {
+        return path;
+    }
+}
@@ -6,6 +6,9 @@
  */
 package org.unicode.cldr.util;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
@@ -25,7 +28,6 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.TreeMap;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Parser for XPath
@@ -50,7 +52,45 @@ public final class XPathParts extends XPathParser
 
     private DtdData dtdData = null;
 
-    private static final Map<String, XPathParts> cache = new ConcurrentHashMap<>();
+    /**
+     * Property limiting the number of cached frozen instances, eg -DXPATHPARTS_CACHE_SIZE=100000
+     */
+    public static final String CACHE_SIZE_PROPERTY = "XPATHPARTS_CACHE_SIZE";
+
+    /**
+     * Property limiting the approximate memory, in bytes, of the cached frozen instances. When set,
+     * it is used instead of {@link #CACHE_SIZE_PROPERTY}.
+     */
+    public static final String CACHE_WEIGHT_PROPERTY = "XPATHPARTS_CACHE_WEIGHT";
+
+    /** Comfortably more than the distinct full paths in all of CLDR. */
+    private static final long DEFAULT_CACHE_SIZE = 500_000;
+
+    /**
+     * The cache of frozen instances, created on first use so that the limits can come from
+     * CLDRConfig.
+     */
+    private static class CacheHolder {
+        static final Cache<String, XPathParts> cache =
+                makeCache(
+                        Long.parseLong(
+                                CldrUtility.getProperty(
+                                        CACHE_SIZE_PROPERTY, Long.toString(DEFAULT_CACHE_SIZE))),
+                        Long.parseLong(CldrUtility.getProperty(CACHE_WEIGHT_PROPERTY, "0")));
+    }
+
+    /**
+     * Make a cache for frozen instances, limited by maxWeight if positive, otherwise by maxSize.
+     */
+    static Cache<String, XPathParts> makeCache(long maxSize, long maxWeight) {
+        CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder().recordStats();
+        if (maxWeight > 0) {
+            return builder.maximumWeight(maxWeight)
+                    .weigher((String path, XPathParts parts) -> parts.estimateWeight())
+                    .build();
+        }
+        return builder.maximumSize(maxSize).build();
+    }
 
     /**
      * Construct a new empty XPathParts object.
@@ -207,6 +247,11 @@ public final class XPathParts extends XPathParser
             return this;
         }
 
+        /** The live map from path to comment for one style, for serialization. */
+        Map<String, String> getCommentMap(CommentType style) {
+            return comments.get(style);
+        }
+
         public String removeComment(CommentType style, String xPath) {
             String result = comments.get(style).get(xPath);
             if (result != null) comments.get(style).remove(xPath);
@@ -928,6 +973,11 @@ public final class XPathParts extends XPathParser
      *     <p>Called by the Element constructor, and by putAttribute
      */
     private MapComparator<String> getAttributeComparator() {
+        return getAttributeComparator(dtdData);
+    }
+
+    /** The attribute comparator for paths of the given DTD, also used by XPathCursor. */
+    static MapComparator<String> getAttributeComparator(DtdData dtdData) {
         return dtdData == null
                 ? null
                 : dtdData.dtdType == DtdType.ldml
@@ -1203,17 +1253,57 @@ public final class XPathParts extends XPathParser
         return xppClone;
     }
 
+    /**
+     * Get a frozen instance for the path. Instances are cached, within the limits set by {@link
+     * #CACHE_SIZE_PROPERTY} or {@link #CACHE_WEIGHT_PROPERTY}; so the same instance is usually, but
+     * not always, returned for the same path.
+     */
     public static XPathParts getFrozenInstance(String path) {
-        XPathParts result = cache.get(path);
+        return getFrozenInstance(CacheHolder.cache, path);
+    }
+
+    static XPathParts getFrozenInstance(Cache<String, XPathParts> cache, String path) {
+        XPathParts result = cache.getIfPresent(path);
         if (result == null) {
             // CLDR-17504: This can recursively create new paths during creation so MUST NOT
-            // happen inside the lambda of computeIfAbsent(), but freezing the path is safe.
-            XPathParts unfrozen = new XPathParts().addInternal(path, true);
-            result = cache.computeIfAbsent(path, (String p) -> unfrozen.freeze());
+            // happen inside a cache loader, but freezing the path is safe.
+            XPathParts frozen = new XPathParts().addInternal(path, true).freeze();
+            result = cache.asMap().putIfAbsent(path, frozen);
+            if (result == null) {
+                result = frozen;
+            }
         }
         return result;
     }
 
+    /** Statistics of the frozen instance cache: hits, misses and evictions since startup. */
+    public static CacheStats getCacheStats() {
+        return CacheHolder.cache.stats();
+    }
+
+    /** The number of frozen instances currently cached. */
+    public static long getCacheSize() {
+        return CacheHolder.cache.size();
+    }
+
+    /**
+     * A rough estimate of the memory used by this instance and its cache entry, in bytes: the path
+     * string (kept both as key and in toString) plus the elements and their attribute maps.
+     */
+    int estimateWeight() {
+        int weight = 64;
+        for (Element element : elements) {
+            weight += 48 + 2 * element.element.length();
+            if (element.attributes != null) {
+                for (Entry<String, String> attribute : element.attributes.entrySet()) {
+                    weight +=
+                            64 + 2 * (attribute.getKey().length() + attribute.getValue().length());
+                }
+            }
+        }
+        return weight * 2;
+    }
+
     public DtdData getDtdData() {
         return dtdData;
     }
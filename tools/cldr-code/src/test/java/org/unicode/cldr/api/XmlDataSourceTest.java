@@ -123,6 +123,131 @@ public class XmlDataSourceTest extends TestFmwk {
         assertEquals("paths order", dtdOrderedPaths, ImmutableList.copyOf(out.keySet()));
     }
 
+    public void TestStreaming() {
+        ListMultimap<Path, String> files = LinkedListMultimap.create();
+        addFile(
+                files,
+                "foo.xml",
+                "<?xml version=\"1.0\" encoding=\"UTF-8\" ?>",
+                "<!DOCTYPE supplementalData SYSTEM \"../../common/dtd/ldmlSupplemental.dtd\">",
+                "<supplementalData>",
+                "  <version number=\"42\"/>",
+                "  <currencyData>",
+                "    <region iso3166=\"AC\">",
+                "      <currency iso4217=\"SHP\" from=\"1976-01-01\"/>",
+                "    </region>",
+                "  </currencyData>",
+                "  <characters>",
+                "    <character-fallback>",
+                "      <character value=\"a\">",
+                "        <substitute>first</substitute>",
+                "        <substitute>second</substitute>",
+                "      </character>",
+                "      <character value=\"b\">",
+                "        <substitute>third</substitute>",
+                "      </character>",
+                "    </character-fallback>",
+                "  </characters>",
+                "  <metadata>",
+                "    <serialElements>ordered elements</serialElements>",
+                "  </metadata>",
+                "</supplementalData>");
+        XmlDataSource buffered =
+                new XmlDataSource(SUPPLEMENTAL, files.keySet(), UNCONFIRMED, openFileFn(files));
+
+        PathMatcher characters = PathMatcher.of("//supplementalData/characters/character-fallback");
+        PathMatcher character = characters.withSuffix("character[@value=\"b\"]");
+        PathMatcher currency = PathMatcher.of("//supplementalData/currencyData/region/currency");
+        for (PathMatcher filter : Arrays.asList(characters, character, currency)) {
+            XmlDataSource streaming =
+                    XmlDataSource.streaming(
+                            SUPPLEMENTAL, files.keySet(), UNCONFIRMED, openFileFn(files), filter);
+            for (CldrData.PathOrder order : CldrData.PathOrder.values()) {
+                Map<CldrPath, CldrValue> expected = new LinkedHashMap<>();
+                buffered.accept(
+                        order,
+                        v -> {
+                            if (filter.matchesPrefixOf(v.getPath())) {
+                                expected.put(v.getPath(), v);
+                            }
+                        });
+                Map<CldrPath, CldrValue> actual = new LinkedHashMap<>();
+                streaming.accept(order, v -> actual.put(v.getPath(), v));
+                assertFalse("some values for " + filter, expected.isEmpty());
+                assertEquals("values for " + filter + " in " + order, expected, actual);
+                // Sort indices must not depend on what was skipped.
+                assertEquals(
+                        "order for " + filter,
+                        ImmutableList.copyOf(expected.keySet()),
+                        ImmutableList.copyOf(actual.keySet()));
+                for (CldrValue value : expected.values()) {
+                    assertEquals("get " + value, value, streaming.get(value.getPath()));
+                }
+            }
+        }
+        XmlDataSource nothing =
+                XmlDataSource.streaming(
+                        SUPPLEMENTAL,
+                        files.keySet(),
+                        UNCONFIRMED,
+                        openFileFn(files),
+                        PathMatcher.of("//supplementalData/weekData"));
+        nothing.accept(ARBITRARY, v -> fail("unexpected value " + v));
+    }
+
+    public void TestStreamingSortIndices() {
+        ListMultimap<Path, String> files = LinkedListMultimap.create();
+        addFile(
+                files,
+                "foo.xml",
+                "<?xml version=\"1.0\" encoding=\"UTF-8\" ?>",
+                "<!DOCTYPE supplementalData SYSTEM \"../../common/dtd/ldmlSupplemental.dtd\">",
+                "<supplementalData>",
+                "  <version number=\"42\"/>",
+                "  <transforms>",
+                "    <transform source=\"a\" target=\"b\" direction=\"forward\">",
+                "      <comment>first</comment>",
+                "      <tRule>a > b ;</tRule>",
+                "      <comment>second</comment>",
+                "      <tRule>c > d ;</tRule>",
+                "    </transform>",
+                "  </transforms>",
+                "  <currencyData>",
+                "    <region iso3166=\"AC\">",
+                "      <currency iso4217=\"SHP\" from=\"1976-01-01\"/>",
+                "      <currency iso4217=\"GBP\" from=\"1950-01-01\" to=\"1976-01-01\"/>",
+                "    </region>",
+                "    <region iso3166=\"AD\">",
+                "      <currency iso4217=\"EUR\" from=\"1999-01-01\"/>",
+                "    </region>",
+                "  </currencyData>",
+                "</supplementalData>");
+        XmlDataSource buffered =
+                new XmlDataSource(SUPPLEMENTAL, files.keySet(), UNCONFIRMED, openFileFn(files));
+
+        // Each of these skips elements that are ordered, or that hold ordered elements, between
+        // the ones that it keeps.
+        PathMatcher rules = PathMatcher.of("//supplementalData/transforms/transform/tRule");
+        PathMatcher region =
+                PathMatcher.of("//supplementalData/currencyData/region[@iso3166=\"AD\"]");
+        for (PathMatcher filter : Arrays.asList(rules, region)) {
+            ImmutableList.Builder<CldrPath> expected = ImmutableList.builder();
+            buffered.accept(
+                    ARBITRARY,
+                    v -> {
+                        if (filter.matchesPrefixOf(v.getPath())) {
+                            expected.add(v.getPath());
+                        }
+                    });
+            ImmutableList.Builder<CldrPath> actual = ImmutableList.builder();
+            XmlDataSource.streaming(
+                            SUPPLEMENTAL, files.keySet(), UNCONFIRMED, openFileFn(files), filter)
+                    .accept(ARBITRARY, v -> actual.add(v.getPath()));
+            assertFalse("some paths for " + filter, expected.build().isEmpty());
+            assertEquals("paths for " + filter, expected.build(), actual.build());
+        }
+    }
+
     public void TestBadElementNesting() {
         ListMultimap<Path, String> files = LinkedListMultimap.create();
         String fakeXmlName = "bad.xml";
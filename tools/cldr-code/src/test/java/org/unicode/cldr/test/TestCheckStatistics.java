@@ -0,0 +1,87 @@
+package org.unicode.cldr.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.unicode.cldr.test.CheckCLDR.CheckStatus;
+import org.unicode.cldr.test.CheckCLDR.CompoundCheckCLDR;
+import org.unicode.cldr.test.CheckCLDR.Options;
+import org.unicode.cldr.test.CheckCLDR.Phase;
+import org.unicode.cldr.util.CLDRConfig;
+import org.unicode.cldr.util.CLDRFile;
+import org.unicode.cldr.util.CLDRLocale;
+import org.unicode.cldr.util.Factory;
+
+/**
+ * @see {@link CheckStatistics}
+ */
+public class TestCheckStatistics {
+    @Test
+    public void testPercentiles() {
+        CheckStatistics.Timing timing = new CheckStatistics().getTiming("CheckSomething");
+        assertEquals(0, timing.getPercentileNanos(50));
+        for (int i = 1; i <= 1000; ++i) {
+            timing.record(i * 1000L, 10);
+        }
+        assertEquals(1000, timing.getCalls());
+        assertEquals(500_500_000L, timing.getNanos());
+        assertEquals(1_000_000, timing.getMaxNanos());
+        assertEquals(10_000, timing.getAllocatedBytes());
+        assertNear(500_000, timing.getPercentileNanos(50));
+        assertNear(990_000, timing.getPercentileNanos(99));
+        assertEquals(1_000_000, timing.getPercentileNanos(100));
+        assertThrows(IllegalArgumentException.class, () -> timing.getPercentileNanos(101));
+
+        timing.record(5, -1);
+        assertEquals(-1, timing.getAllocatedBytes(), "not measured for every call");
+        assertEquals(5, timing.getPercentileNanos(0));
+    }
+
+    private static void assertNear(long expected, long actual) {
+        assertTrue(
+                actual >= expected && actual <= expected * 1.25,
+                () -> actual + " should be within 25% above " + expected);
+    }
+
+    @Test
+    public void testJsonAndListener() {
+        CheckStatistics statistics = new CheckStatistics();
+        statistics.getTiming("CheckA").record(100, 0);
+        List<String> seen = new ArrayList<>();
+        statistics.forEachTiming((name, timing) -> seen.add(name));
+        statistics.getTiming("CheckB").record(200, 0);
+        statistics.getTiming("CheckA").record(300, 0);
+        assertEquals(List.of("CheckA", "CheckB"), seen);
+
+        JsonObject json = JsonParser.parseString(statistics.toJson()).getAsJsonObject();
+        assertEquals(2, json.getAsJsonObject("CheckA").get("calls").getAsLong());
+        assertEquals(400, json.getAsJsonObject("CheckA").get("nanos").getAsLong());
+        assertEquals(200, json.getAsJsonObject("CheckB").get("maxNanos").getAsLong());
+    }
+
+    @Test
+    public void testSharedBetweenChecks() {
+        CheckCLDR.setDisplayInformation(CLDRConfig.getInstance().getEnglish());
+        Factory factory = CLDRConfig.getInstance().getCldrFactory();
+        CLDRFile file = factory.make("fr", true);
+        Options options = new Options(CLDRLocale.getInstance("fr"), Phase.SUBMISSION, "modern", "");
+        String path = "//ldml/localeDisplayNames/territories/territory[@type=\"CA\"]";
+        CheckStatistics statistics = new CheckStatistics();
+        for (int i = 0; i < 2; ++i) {
+            CompoundCheckCLDR checks = CheckCLDR.getCheckAll(factory, ".*");
+            checks.setStatistics(statistics);
+            checks.setCldrFileToCheck(file, options, new ArrayList<>());
+            List<CheckStatus> result = new ArrayList<>();
+            checks.check(path, file.getFullXPath(path), file.getStringValue(path), options, result);
+        }
+        CheckStatistics.Timing timing = statistics.getTimings().get("CheckDisplayCollisions");
+        assertEquals(2, timing.getCalls());
+        assertTrue(timing.getNanos() > 0);
+    }
+}
@@ -0,0 +1,104 @@
+package org.unicode.cldr.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.unicode.cldr.test.CheckCLDR.CheckStatus;
+import org.unicode.cldr.test.CheckCLDR.CompoundCheckCLDR;
+import org.unicode.cldr.test.CheckCLDR.Options;
+import org.unicode.cldr.test.CheckCLDR.Phase;
+import org.unicode.cldr.util.CLDRConfig;
+import org.unicode.cldr.util.CLDRFile;
+import org.unicode.cldr.util.CLDRLocale;
+import org.unicode.cldr.util.Factory;
+
+/**
+ * @see {@link ParallelCheckCLDR}
+ */
+public class TestParallelCheckCLDR {
+    @BeforeAll
+    static void setDisplayInformation() {
+        CheckCLDR.setDisplayInformation(CLDRConfig.getInstance().getEnglish());
+    }
+
+    private static List<String> describe(List<CheckStatus> statuses) {
+        List<String> result = new ArrayList<>();
+        for (CheckStatus status : statuses) {
+            result.add(
+                    status.getCause().getClass().getSimpleName()
+                            + " "
+                            + status.getSubtype()
+                            + " "
+                            + status);
+        }
+        return result;
+    }
+
+    @Test
+    public void testSameAsSequential() {
+        Factory factory = CLDRConfig.getInstance().getCldrFactory();
+        CLDRFile file = factory.make("fr_CA", true);
+        Options options =
+                new Options(CLDRLocale.getInstance("fr_CA"), Phase.SUBMISSION, "modern", "");
+        List<String> paths = new ArrayList<>();
+        List<String> values = new ArrayList<>();
+        for (String path : file) {
+            paths.add(path);
+            values.add(file.getStringValue(path));
+        }
+
+        CompoundCheckCLDR sequential = CheckCLDR.getCheckAll(factory, ".*");
+        List<CheckStatus> possibleProblems = new ArrayList<>();
+        sequential.setCldrFileToCheck(file, options, possibleProblems);
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            ParallelCheckCLDR parallel =
+                    new ParallelCheckCLDR(factory, ".*", file, options)
+                            .setPool(pool)
+                            .setChunkSize(16)
+                            .setStatistics(new CheckStatistics());
+            assertEquals(describe(possibleProblems), describe(parallel.getPossibleProblems()));
+            List<List<CheckStatus>> results = parallel.check(paths, values);
+            assertEquals(paths.size(), results.size());
+            for (int i = 0; i < paths.size(); ++i) {
+                String path = paths.get(i);
+                List<CheckStatus> expected = new ArrayList<>();
+                sequential.check(path, file.getFullXPath(path), values.get(i), options, expected);
+                assertEquals(describe(expected), describe(results.get(i)), path);
+            }
+            assertTrue(parallel.getThreadCount() > 1, "work was spread over threads");
+
+            Map<String, Long> nanos = parallel.getStatistics().getNanos();
+            assertFalse(nanos.isEmpty());
+            assertTrue(nanos.containsKey("CheckForExemplars"), nanos.keySet().toString());
+            assertTrue(nanos.values().stream().mapToLong(Long::longValue).sum() > 0);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testOnCallingThread() {
+        Factory factory = CLDRConfig.getInstance().getCldrFactory();
+        CLDRFile file = factory.make("fr_CA", true);
+        Options options =
+                new Options(CLDRLocale.getInstance("fr_CA"), Phase.SUBMISSION, "modern", "");
+        ParallelCheckCLDR checker =
+                new ParallelCheckCLDR(factory, ".*", file, options).setChunkSize(Integer.MAX_VALUE);
+        String path = "//ldml/localeDisplayNames/territories/territory[@type=\"CA\"]";
+        List<List<CheckStatus>> results =
+                checker.check(List.of(path), List.of(file.getStringValue(path)));
+        assertEquals(1, results.size());
+        assertEquals(1, checker.getThreadCount());
+        assertNull(checker.getStatistics(), "timing is off");
+    }
+}
@@ -0,0 +1,95 @@
+package org.unicode.cldr.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.unicode.cldr.test.CheckCLDR.CheckStatus;
+import org.unicode.cldr.test.CheckCLDR.Options;
+import org.unicode.cldr.test.CheckCLDR.Phase;
+import org.unicode.cldr.test.TestCache.InvalidationStats;
+import org.unicode.cldr.test.TestCache.TestResultBundle;
+import org.unicode.cldr.util.CLDRConfig;
+import org.unicode.cldr.util.CLDRFile;
+import org.unicode.cldr.util.CLDRLocale;
+import org.unicode.cldr.util.Factory;
+
+/**
+ * @see {@link TestCache}
+ */
+public class TestTestCacheInvalidation {
+    private static final String CA =
+            "//ldml/localeDisplayNames/territories/territory[@type=\"CA\"]";
+    private static final String FR =
+            "//ldml/localeDisplayNames/territories/territory[@type=\"FR\"]";
+    private static final String DE =
+            "//ldml/localeDisplayNames/languages/language[@type=\"de\"]";
+
+    @BeforeAll
+    static void setDisplayInformation() {
+        CheckCLDR.setDisplayInformation(CLDRConfig.getInstance().getEnglish());
+    }
+
+    @Test
+    public void testOnlyAffectedResultsDropped() {
+        Factory factory = CLDRConfig.getInstance().getCldrFactory();
+        CLDRFile file = factory.make("fr", true);
+        TestCache testCache = new TestCache(factory);
+        Options options = new Options(CLDRLocale.getInstance("fr"), Phase.SUBMISSION, "modern", "");
+        TestResultBundle bundle = testCache.getBundle(options);
+        List<CheckStatus> result = new ArrayList<>();
+        bundle.check(CA, result, file.getStringValue(CA));
+        bundle.check(DE, result, file.getStringValue(DE));
+
+        // an edit to a territory name leaves the result for a language name
+        testCache.valueChanged(CA, file.getResolvingDataSource());
+        InvalidationStats stats = testCache.getInvalidationStats();
+        assertEquals(1, stats.getEdits());
+        assertEquals(1, stats.getResultsDropped());
+        assertEquals(1, stats.getResultsKept());
+        assertTrue(testCache.getBundle(options) == bundle, "bundle kept");
+        assertTrue(testCache.toString().contains("results kept: 1"), testCache.toString());
+    }
+
+    @Test
+    public void testSetupPathSetsUpAgain() {
+        Factory factory = CLDRConfig.getInstance().getCldrFactory();
+        CLDRFile file = factory.make("fr", true);
+        TestCache testCache = new TestCache(factory);
+        Options options = new Options(CLDRLocale.getInstance("fr"), Phase.SUBMISSION, "modern", "");
+        TestResultBundle bundle = testCache.getBundle(options);
+        String decimal = "//ldml/numbers/symbols[@numberSystem=\"latn\"]/decimal";
+        assertTrue(bundle.getSetupPaths().contains(decimal), "read when setting up");
+        List<CheckStatus> result = new ArrayList<>();
+        bundle.check(CA, result, file.getStringValue(CA));
+
+        testCache.valueChanged(decimal, file.getResolvingDataSource());
+        InvalidationStats stats = testCache.getInvalidationStats();
+        assertTrue(stats.getChecksSetUpAgain() > 0, stats.toString());
+        assertEquals(1, stats.getResultsDropped(), "results of the old setup dropped");
+        assertEquals(0, stats.getResultsKept());
+        assertTrue(bundle.getSetupPaths().contains(decimal), "recorded again");
+        assertTrue(testCache.getBundle(options) == bundle, "bundle kept");
+    }
+
+    @Test
+    public void testCollisionsDropped() {
+        Factory factory = CLDRConfig.getInstance().getCldrFactory();
+        CLDRFile file = factory.make("fr", true);
+        TestCache testCache = new TestCache(factory);
+        Options options = new Options(CLDRLocale.getInstance("fr"), Phase.SUBMISSION, "modern", "");
+        TestResultBundle bundle = testCache.getBundle(options);
+        List<CheckStatus> result = new ArrayList<>();
+        bundle.check(CA, result, file.getStringValue(CA));
+        bundle.check(FR, result, file.getStringValue(FR));
+
+        // an edit to one territory name can add or remove a collision with the other
+        testCache.valueChanged(CA, file.getResolvingDataSource());
+        InvalidationStats stats = testCache.getInvalidationStats();
+        assertEquals(2, stats.getResultsDropped());
+        assertEquals(0, stats.getResultsKept());
+    }
+}
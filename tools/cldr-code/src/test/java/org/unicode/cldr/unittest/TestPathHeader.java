@@ -1279,6 +1279,32 @@ public class TestPathHeader extends TestFmwkPlus {
         assertTrue("Check pd for stand-alone", !p1.contains("in the morning"));
     }
 
+    /** PathHeaders made on several threads at once are the same as those made one by one. */
+    public void TestConcurrentFromPath() {
+        List<String> paths = new ArrayList<>();
+        english.fullIterable().forEach(paths::add);
+        pathHeaderFactory.clearCache();
+        Map<String, PathHeader> expected = new HashMap<>();
+        for (String path : paths) {
+            expected.put(path, pathHeaderFactory.fromPath(path));
+        }
+        pathHeaderFactory.clearCache();
+        pathHeaderFactory.prebuild(paths);
+        for (String path : paths) {
+            PathHeader pathHeader = pathHeaderFactory.fromPath(path);
+            PathHeader expectedHeader = expected.get(path);
+            if (!assertEquals(path, expectedHeader, pathHeader)
+                    || !assertEquals(path, 0, expectedHeader.compareTo(pathHeader))) {
+                break;
+            }
+            assertTrue(
+                    path,
+                    PathHeader.Factory.getCachedPaths(
+                                    pathHeader.getSectionId(), pathHeader.getPageId())
+                            .contains(path));
+        }
+    }
+
     public void TestCompletenessNonLdmlDtd() {
         PathChecker pathChecker = new PathChecker();
         Set<String> directories = new LinkedHashSet<>();
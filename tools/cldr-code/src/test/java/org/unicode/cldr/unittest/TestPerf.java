@@ -1,18 +1,47 @@
 package org.unicode.cldr.unittest;
 
 import com.ibm.icu.util.Output;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.Random;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.function.BiFunction;
+import org.unicode.cldr.test.CoverageLevel2;
 import org.unicode.cldr.util.CLDRConfig;
 import org.unicode.cldr.util.CLDRFile;
+import org.unicode.cldr.util.CLDRLocale;
+import org.unicode.cldr.util.CldrUtility;
 import org.unicode.cldr.util.DtdData;
 import org.unicode.cldr.util.DtdData.AttributeValueComparator;
 import org.unicode.cldr.util.DtdType;
+import org.unicode.cldr.util.Factory;
+import org.unicode.cldr.util.Level;
+import org.unicode.cldr.util.PathHeader;
+import org.unicode.cldr.util.RegexLookup;
+import org.unicode.cldr.util.RegexLookup.LookupType;
+import org.unicode.cldr.util.SupplementalDataInfo;
 import org.unicode.cldr.util.Timer;
+import org.unicode.cldr.util.VoteResolutionCache;
+import org.unicode.cldr.util.VoteResolver;
+import org.unicode.cldr.util.VoteResolver.Status;
+import org.unicode.cldr.util.VoterInfoList;
+import org.unicode.cldr.util.XPathCursor;
 import org.unicode.cldr.util.XPathParts;
 
 public class TestPerf extends TestFmwkPlus {
@@ -192,5 +221,479 @@ public class TestPerf extends TestFmwkPlus {
         return timer.getSeconds() / iterations;
     }
 
+    /**
+     * Compare the time and allocation of the questions that PathHeader and the like ask about a
+     * path, answered by parsing into XPathParts and by an XPathCursor.
+     */
+    public void TestXPathCursorPerf() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)
+                || !((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported()) {
+            logln("Skipping: allocation measurement not supported");
+            return;
+        }
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) bean;
+        long threadId = Thread.currentThread().getId();
+        XPathCursor cursor = new XPathCursor();
+        long[] partsCost = new long[2];
+        long[] cursorCost = new long[2];
+        for (int round = 0; round <= ITERATIONS; ++round) { // round 0 is warmup
+            long check = 0;
+            Timer timer = new Timer();
+            long bytes = threadBean.getThreadAllocatedBytes(threadId);
+            for (String path : sortedArray) {
+                XPathParts parts = new XPathParts().addRelative(path);
+                check += parts.containsElement("relative") ? 1 : 0;
+                check += parts.getAttributeCount(-1);
+                check += parts.findAttributeValue("unit", "type") != null ? 1 : 0;
+            }
+            long partsBytes = threadBean.getThreadAllocatedBytes(threadId) - bytes;
+            long partsNanos = timer.stop();
+
+            timer.start();
+            bytes = threadBean.getThreadAllocatedBytes(threadId);
+            for (String path : sortedArray) {
+                cursor.reset(path);
+                check -= cursor.containsElement("relative") ? 1 : 0;
+                check -= cursor.getAttributeCount(-1);
+                int unit = cursor.findElement("unit");
+                check -= unit >= 0 && cursor.findAttribute(unit, "type") >= 0 ? 1 : 0;
+            }
+            long cursorBytes = threadBean.getThreadAllocatedBytes(threadId) - bytes;
+            long cursorNanos = timer.stop();
+            assertEquals("same answers", 0, check);
+            if (round > 0) {
+                partsCost[0] += partsNanos;
+                partsCost[1] += partsBytes;
+                cursorCost[0] += cursorNanos;
+                cursorCost[1] += cursorBytes;
+            }
+        }
+        logln(
+                sortedArray.length
+                        + " paths x "
+                        + ITERATIONS
+                        + ": XPathParts "
+                        + partsCost[0] / 1_000_000
+                        + "ms, "
+                        + partsCost[1] / ITERATIONS / sortedArray.length
+                        + " bytes/path; XPathCursor "
+                        + cursorCost[0] / 1_000_000
+                        + "ms, "
+                        + cursorCost[1] / ITERATIONS / sortedArray.length
+                        + " bytes/path");
+        assertRelation("XPathCursor time", true, cursorCost[0], LEQ, partsCost[0]);
+        // nothing is allocated once the cursor's arrays have grown
+        assertRelation("XPathCursor bytes", true, cursorCost[1], LEQ, partsCost[1] / 100);
+    }
+
+    /**
+     * Coverage levels for the paths of every locale, from the compiled lookup and from the
+     * RegexLookup (with its lock), on one thread and then on several at once.
+     */
+    public void TestCoverageLevelPerf() throws InterruptedException {
+        SupplementalDataInfo sdi = CLDRConfig.getInstance().getSupplementalDataInfo();
+        Factory factory = CLDRConfig.getInstance().getCldrFactory();
+        List<CoverageLevel2> coverages = new ArrayList<>();
+        List<String[]> pathsByLocale = new ArrayList<>();
+        int pathCount = 0;
+        for (String localeID : factory.getAvailable()) {
+            List<String> paths = new ArrayList<>();
+            factory.make(localeID, false).forEach(paths::add);
+            coverages.add(CoverageLevel2.getInstance(sdi, localeID));
+            pathsByLocale.add(paths.toArray(new String[0]));
+            pathCount += paths.size();
+        }
+        for (int i = 0; i < coverages.size(); ++i) {
+            CoverageLevel2 coverage = coverages.get(i);
+            for (String path : pathsByLocale.get(i)) {
+                assertEquals(path, coverage.getLevelFromRegexLookup(path), coverage.getLevel(path));
+            }
+        }
+        int threads = 4;
+        double[] lookupSeconds = new double[2];
+        double[] compiledSeconds = new double[2];
+        for (int round = 0; round <= 2; ++round) { // round 0 is warmup
+            double lookupOne =
+                    timeThreads(
+                            1,
+                            () ->
+                                    levelAll(
+                                            coverages,
+                                            pathsByLocale,
+                                            CoverageLevel2::getLevelFromRegexLookup));
+            double compiledOne =
+                    timeThreads(
+                            1, () -> levelAll(coverages, pathsByLocale, CoverageLevel2::getLevel));
+            double lookupMany =
+                    timeThreads(
+                            threads,
+                            () ->
+                                    levelAll(
+                                            coverages,
+                                            pathsByLocale,
+                                            CoverageLevel2::getLevelFromRegexLookup));
+            double compiledMany =
+                    timeThreads(
+                            threads,
+                            () -> levelAll(coverages, pathsByLocale, CoverageLevel2::getLevel));
+            if (round > 0) {
+                lookupSeconds[0] += lookupOne;
+                compiledSeconds[0] += compiledOne;
+                lookupSeconds[1] += lookupMany;
+                compiledSeconds[1] += compiledMany;
+            }
+        }
+        logln(
+                "Coverage levels for "
+                        + coverages.size()
+                        + " locales, "
+                        + pathCount
+                        + " paths: RegexLookup "
+                        + lookupSeconds[0] / 2
+                        + "s, compiled "
+                        + compiledSeconds[0] / 2
+                        + "s; on "
+                        + threads
+                        + " threads: RegexLookup "
+                        + lookupSeconds[1] / 2
+                        + "s, compiled "
+                        + compiledSeconds[1] / 2
+                        + "s");
+        assertRelation("compiled coverage time", true, compiledSeconds[0], LEQ, lookupSeconds[0]);
+        assertRelation(
+                "compiled coverage time, threaded",
+                true,
+                compiledSeconds[1],
+                LEQ,
+                lookupSeconds[1]);
+    }
+
+    /**
+     * PathHeader.txt lookups of the paths of a few locales, with each LookupType. The
+     * prefix-indexed lookup is also timed on several threads at once, since it takes no lock.
+     */
+    public void TestRegexLookupPerf() throws InterruptedException {
+        Factory factory = CLDRConfig.getInstance().getCldrFactory();
+        Set<String> pathSet = new HashSet<>();
+        for (String localeID : List.of("en", "fr", "ja", "ar")) {
+            factory.make(localeID, true).fullIterable().forEach(pathSet::add);
+        }
+        String[] paths = pathSet.toArray(new String[0]);
+        Map<LookupType, RegexLookup<String>> lookups = new EnumMap<>(LookupType.class);
+        for (LookupType type :
+                List.of(
+                        LookupType.STANDARD,
+                        LookupType.OPTIMIZED_DIRECTORY_PATTERN_LOOKUP,
+                        LookupType.PREFIX_INDEXED_LOOKUP)) {
+            lookups.put(
+                    type,
+                    new RegexLookup<String>(type)
+                            .setPatternTransform(RegexLookup.RegexFinderTransformPath)
+                            .setValueTransform(source -> source)
+                            .loadFromFile(PathHeader.class, "data/PathHeader.txt"));
+        }
+        Map<LookupType, Double> seconds = new EnumMap<>(LookupType.class);
+        int threads = 4;
+        double threadedSeconds = 0;
+        for (int round = 0; round <= 2; ++round) { // round 0 is warmup
+            for (Entry<LookupType, RegexLookup<String>> entry : lookups.entrySet()) {
+                double time = timeThreads(1, () -> lookupAll(entry.getValue(), paths));
+                if (round > 0) {
+                    seconds.merge(entry.getKey(), time / 2, Double::sum);
+                }
+            }
+            RegexLookup<String> indexed = lookups.get(LookupType.PREFIX_INDEXED_LOOKUP);
+            double time = timeThreads(threads, () -> lookupAll(indexed, paths));
+            if (round > 0) {
+                threadedSeconds += time / 2;
+            }
+        }
+        logln(
+                "PathHeader lookups of "
+                        + paths.length
+                        + " paths: "
+                        + seconds
+                        + "; PREFIX_INDEXED_LOOKUP on "
+                        + threads
+                        + " threads: "
+                        + threadedSeconds
+                        + "s");
+        double indexedSeconds = seconds.get(LookupType.PREFIX_INDEXED_LOOKUP);
+        assertRelation(
+                "prefix-indexed vs standard",
+                true,
+                indexedSeconds,
+                LEQ,
+                seconds.get(LookupType.STANDARD));
+        assertRelation(
+                "prefix-indexed vs optimized",
+                true,
+                indexedSeconds,
+                LEQ,
+                seconds.get(LookupType.OPTIMIZED_DIRECTORY_PATTERN_LOOKUP));
+    }
+
+    /**
+     * PathHeader.Factory.fromPath for the resolved English paths, on one thread and on several at
+     * once: first making each PathHeader (after clearing the cache), then finding it cached.
+     */
+    public void TestPathHeaderPerf() throws InterruptedException {
+        List<String> paths = new ArrayList<>();
+        CLDRConfig.getInstance().getEnglish().fullIterable().forEach(paths::add);
+        PathHeader.Factory phf = PathHeader.getFactory();
+        int threads = 4;
+        double[] makeSeconds = new double[2];
+        double[] cachedSeconds = new double[2];
+        for (int round = 0; round <= 2; ++round) { // round 0 is warmup
+            for (int i = 0; i < 2; ++i) {
+                int count = i == 0 ? 1 : threads;
+                phf.clearCache();
+                double make = timeThreads(count, () -> paths.forEach(phf::fromPath));
+                double cached = timeThreads(count, () -> paths.forEach(phf::fromPath));
+                if (round > 0) {
+                    makeSeconds[i] += make / 2;
+                    cachedSeconds[i] += cached / 2;
+                }
+            }
+        }
+        logln(
+                "PathHeaders for "
+                        + paths.size()
+                        + " paths: made "
+                        + makeSeconds[0]
+                        + "s, cached "
+                        + cachedSeconds[0]
+                        + "s; on "
+                        + threads
+                        + " threads: made "
+                        + makeSeconds[1]
+                        + "s, cached "
+                        + cachedSeconds[1]
+                        + "s");
+        // no lock, so several threads together take no longer than doing their work in turn
+        assertRelation(
+                "threaded PathHeader time",
+                true,
+                makeSeconds[1] + cachedSeconds[1],
+                LEQ,
+                (makeSeconds[0] + cachedSeconds[0]) * threads * 1.5);
+    }
+
+    private static void lookupAll(RegexLookup<String> lookup, String[] paths) {
+        Output<String[]> args = new Output<>();
+        for (String path : paths) {
+            lookup.get(path, null, args);
+        }
+    }
+
+    private static void levelAll(
+            List<CoverageLevel2> coverages,
+            List<String[]> pathsByLocale,
+            BiFunction<CoverageLevel2, String, Level> getLevel) {
+        for (int i = 0; i < coverages.size(); ++i) {
+            CoverageLevel2 coverage = coverages.get(i);
+            for (String path : pathsByLocale.get(i)) {
+                getLevel.apply(coverage, path);
+            }
+        }
+    }
+
+    private static double timeThreads(int count, Runnable runnable) throws InterruptedException {
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < count; ++i) {
+            threads.add(new Thread(runnable));
+        }
+        Timer timer = new Timer();
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        timer.stop();
+        return timer.getSeconds();
+    }
+
+    /**
+     * Vote resolution for each voted path, as for a locale load or the VXML queue: building and
+     * resolving a VoteResolver every time, against going through a VoteResolutionCache.
+     *
+     * <p>Replays a vote table dump if VOTE_DUMP names one: tab-separated locale, xpath, submitter,
+     * value and last_mod (in milliseconds), with the voters in the users.xml file named by
+     * VOTE_USERS. Otherwise the ballots are made up from the test voters voting on fr and de.
+     *
+     * <p>The times are only logged, since they depend on the machine. Only the outcomes are
+     * checked.
+     */
+    public void TestVoteResolutionPerf() throws IOException {
+        CLDRConfig config = CLDRConfig.getInstance();
+        String dump = config.getProperty("VOTE_DUMP", null);
+        VoterInfoList voters =
+                dump == null
+                        ? TestHelper.getTestVoterInfoList()
+                        : new VoterInfoList()
+                                .setVoterToInfo(config.getProperty("VOTE_USERS", "users.xml"));
+        List<Ballot> ballots = dump == null ? makeBallots() : readBallots(dump);
+
+        double[] plainSeconds = new double[2];
+        double[] cachedSeconds = new double[2];
+        VoteResolutionCache<String> cache = null;
+        for (int round = 0; round <= 2; ++round) { // round 0 is warmup
+            // the first pass is a locale load, with a fresh cache; the second is the VXML queue
+            cache = new VoteResolutionCache<>(50_000);
+            for (int pass = 0; pass < 2; ++pass) {
+                Timer timer = new Timer();
+                for (Ballot ballot : ballots) {
+                    VoteResolver<String> r = ballot.makeResolver(voters);
+                    r.getWinningValue();
+                    r.getWinningStatus();
+                }
+                timer.stop();
+                double plain = timer.getSeconds();
+                timer = new Timer();
+                for (Ballot ballot : ballots) {
+                    cache.resolve(ballot.makeResolver(voters));
+                }
+                timer.stop();
+                if (round > 0) {
+                    plainSeconds[pass] += plain / 2;
+                    cachedSeconds[pass] += timer.getSeconds() / 2;
+                }
+            }
+        }
+        logln(
+                "Resolving "
+                        + ballots.size()
+                        + " ballots"
+                        + (dump == null ? " (made up)" : " from " + dump)
+                        + ": locale load "
+                        + plainSeconds[0]
+                        + "s, cached "
+                        + cachedSeconds[0]
+                        + "s; VXML "
+                        + plainSeconds[1]
+                        + "s, cached "
+                        + cachedSeconds[1]
+                        + "s; "
+                        + cache);
+
+        // the cache must never change an outcome
+        VoteResolutionCache<String> check = new VoteResolutionCache<>(50_000);
+        int differences = 0;
+        for (Ballot ballot : ballots) {
+            VoteResolver<String> expected = ballot.makeResolver(voters);
+            VoteResolutionCache.Outcome<String> actual = check.resolve(ballot.makeResolver(voters));
+            if (!Objects.equals(expected.getWinningValue(), actual.getValue())
+                    || expected.getWinningStatus() != actual.getStatus()) {
+                if (++differences < 10) {
+                    errln(ballot + ": expected " + expected.getWinningValue() + ", got " + actual);
+                }
+            }
+        }
+        assertEquals("cached outcomes that differ", 0, differences);
+    }
+
+    /** The votes for one path in one locale */
+    private static class Ballot {
+        final CLDRLocale locale;
+        final String path;
+        final String baseline;
+        final String bailey;
+        final List<Integer> voters = new ArrayList<>();
+        final List<String> values = new ArrayList<>();
+        final List<Date> dates = new ArrayList<>();
+
+        Ballot(CLDRLocale locale, String path, CLDRFile file) {
+            this.locale = locale;
+            this.path = path;
+            this.baseline = file.getStringValue(path);
+            this.bailey = file.getBaileyValue(path, null, null);
+        }
+
+        void add(int voter, String value, Date date) {
+            voters.add(voter);
+            values.add(value);
+            dates.add(date);
+        }
+
+        /** As BallotBox does it */
+        VoteResolver<String> makeResolver(VoterInfoList voterInfoList) {
+            VoteResolver<String> r = new VoteResolver<>(voterInfoList);
+            r.setLocale(locale, null);
+            r.setBaseline(baseline, baseline == null ? Status.missing : Status.approved);
+            r.add(baseline);
+            r.setBaileyValue(bailey);
+            for (int i = 0; i < voters.size(); ++i) {
+                r.add(values.get(i), voters.get(i), null, dates.get(i));
+            }
+            return r;
+        }
+
+        @Override
+        public String toString() {
+            return locale + ":" + path;
+        }
+    }
+
+    /** Read a dump of the vote table, skipping votes for paths not in the trunk files */
+    private static List<Ballot> readBallots(String dump) throws IOException {
+        Factory factory = CLDRConfig.getInstance().getCldrFactory();
+        Map<String, CLDRFile> files = new HashMap<>();
+        Map<String, Ballot> ballots = new LinkedHashMap<>();
+        for (String line : Files.readAllLines(Paths.get(dump), StandardCharsets.UTF_8)) {
+            String[] fields = line.split("\t", -1);
+            if (fields.length < 5 || line.startsWith("#")) {
+                continue;
+            }
+            CLDRFile file = files.computeIfAbsent(fields[0], loc -> factory.make(loc, true));
+            if (file.getStringValue(fields[1]) == null
+                    && file.getBaileyValue(fields[1], null, null) == null) {
+                continue;
+            }
+            ballots.computeIfAbsent(
+                            fields[0] + "\t" + fields[1],
+                            k -> new Ballot(CLDRLocale.getInstance(fields[0]), fields[1], file))
+                    .add(
+                            Integer.parseInt(fields[2]),
+                            fields[3].isEmpty() ? null : fields[3],
+                            new Date(Long.parseLong(fields[4])));
+        }
+        return new ArrayList<>(ballots.values());
+    }
+
+    /**
+     * Make up ballots: for each path of fr and de, some of the test voters vote for the value, for
+     * inheritance or for something else
+     */
+    private static List<Ballot> makeBallots() {
+        Factory factory = CLDRConfig.getInstance().getCldrFactory();
+        TestHelper.TestUser[] users = TestHelper.TestUser.values();
+        Random random = new Random(0);
+        List<Ballot> ballots = new ArrayList<>();
+        for (String loc : List.of("fr", "de")) {
+            CLDRFile file = factory.make(loc, true);
+            CLDRLocale locale = CLDRLocale.getInstance(loc);
+            for (String path : factory.make(loc, false)) {
+                Ballot ballot = new Ballot(locale, path, file);
+                for (TestHelper.TestUser user : users) {
+                    if (random.nextInt(8) != 0) {
+                        continue;
+                    }
+                    int choice = random.nextInt(4);
+                    String value =
+                            choice < 2
+                                    ? ballot.baseline
+                                    : choice == 2
+                                            ? CldrUtility.INHERITANCE_MARKER
+                                            : "x" + path.length();
+                    ballot.add(user.voterId, value, new Date(1000L * random.nextInt(4)));
+                }
+                ballots.add(ballot);
+            }
+        }
+        return ballots;
+    }
+
     public void TestUnused() {}
 }
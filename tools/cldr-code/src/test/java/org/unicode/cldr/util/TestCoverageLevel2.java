@@ -8,7 +8,9 @@ import static org.junit.jupiter.api.Assumptions.assumeTrue;
 import com.google.common.collect.ImmutableSet;
 import com.ibm.icu.util.VersionInfo;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
@@ -38,6 +40,24 @@ public class TestCoverageLevel2 extends TestWithKnownIssues {
         }
     }
 
+    @Test
+    public void TestCompiledSameAsRegexLookup() {
+        final SupplementalDataInfo sdi = CLDRConfig.getInstance().getSupplementalDataInfo();
+        final Factory factory = CLDRConfig.getInstance().getCldrFactory();
+        for (String locale : List.of("root", "en", "fr_CA", "de_CH", "pt", "ja", "sr_Latn", "cy")) {
+            CoverageLevel2 c = CoverageLevel2.getInstance(sdi, locale);
+            List<String> paths = new ArrayList<>();
+            factory.make(locale, true).fullIterable().forEach(paths::add);
+            Map<String, Level> expected = new HashMap<>();
+            for (String path : paths) {
+                expected.put(path, c.getLevelFromRegexLookup(path));
+            }
+            // and from several threads at once
+            paths.parallelStream()
+                    .forEach(path -> assertEquals(expected.get(path), c.getLevel(path), path));
+        }
+    }
+
     @Test
     public void TestPriorBasicCoverage() throws IOException {
         // we need the CLDR Archive dir for this.
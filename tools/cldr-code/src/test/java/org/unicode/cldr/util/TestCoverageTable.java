@@ -0,0 +1,99 @@
+package org.unicode.cldr.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.unicode.cldr.test.CoverageLevel2;
+
+public class TestCoverageTable {
+    private static final List<String> LOCALES = List.of("fr", "fr_CA", "ja", "de", "sr_Latn");
+    private static final SupplementalDataInfo SDI =
+            CLDRConfig.getInstance().getSupplementalDataInfo();
+    private static final Set<String> PATHS = new TreeSet<>();
+    private static CoverageTable table;
+
+    @BeforeAll
+    static void build() {
+        Factory factory = CLDRConfig.getInstance().getCldrFactory();
+        for (String localeId : List.of("fr", "ja")) {
+            factory.make(localeId, true).fullIterable().forEach(PATHS::add);
+        }
+        table = CoverageTable.build(SDI, PATHS, LOCALES);
+    }
+
+    private static void assertSameAsRules(CoverageTable table) {
+        for (String localeId : LOCALES) {
+            CoverageLevel2 coverage = CoverageLevel2.getInstance(SDI, localeId);
+            for (String path : PATHS) {
+                assertEquals(coverage.getLevel(path), table.get(path, localeId), localeId + path);
+            }
+        }
+    }
+
+    @Test
+    void testSameAsRules() {
+        assertEquals(PATHS.size(), table.size());
+        assertEquals(List.of("de", "fr", "ja", "sr"), new ArrayList<>(table.getLanguages()));
+        assertTrue(table.getOverrideCount() > 0, "languages differ somewhere");
+        assertTrue(
+                table.getOverrideCount() < PATHS.size(),
+                "only the differences are stored: " + table.getOverrideCount());
+        assertSameAsRules(table);
+    }
+
+    @Test
+    void testMissing() {
+        String path = PATHS.iterator().next();
+        assertNull(table.get(path, "ko"), "language not in the table");
+        assertNull(table.get("//ldml/noSuchElement", "fr"), "path not in the table");
+
+        CoverageInfo coverageInfo = new CoverageInfo(SDI, table);
+        String missing = "//ldml/localeDisplayNames/territories/territory[@type=\"CA\"]";
+        assertEquals(
+                CoverageLevel2.getInstance(SDI, "ko").getLevel(missing),
+                coverageInfo.getCoverageLevel(missing, "ko"),
+                "falls back to the rules");
+        for (String localeId : LOCALES) {
+            assertEquals(table.get(path, localeId), coverageInfo.getCoverageLevel(path, localeId));
+        }
+    }
+
+    @Test
+    void testRoundTrip(@TempDir Path tempDir) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        table.write(bytes);
+        assertSameAsRules(CoverageTable.read(new ByteArrayInputStream(bytes.toByteArray())));
+
+        File directory = tempDir.toFile();
+        File written = table.save(directory);
+        assertEquals(CoverageTable.getFile(directory), written);
+        CoverageTable read = CoverageTable.readIfFresh(directory, SDI);
+        assertEquals(CLDRFile.GEN_VERSION, read.getDataVersion());
+        assertTrue(read.isFreshFor(SDI));
+        assertSameAsRules(read);
+    }
+
+    @Test
+    void testBadInput() {
+        assertThrows(
+                IOException.class,
+                () -> CoverageTable.read(new ByteArrayInputStream(new byte[] {1, 2, 3, 4})));
+        assertFalse(new File("nosuchdir").exists());
+        assertNull(CoverageTable.readIfFresh(new File("nosuchdir"), SDI));
+    }
+}
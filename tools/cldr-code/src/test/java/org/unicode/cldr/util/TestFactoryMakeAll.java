@@ -0,0 +1,75 @@
+package org.unicode.cldr.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.ibm.icu.util.ICUException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.Test;
+
+public class TestFactoryMakeAll {
+    private static final List<String> LOCALES = List.of("fr_CA", "es_MX", "fr_BE", "es_AR");
+
+    @Test
+    void testResolved() {
+        Factory factory = CLDRConfig.getInstance().getCldrFactory();
+        Map<String, Long> nanos = new TreeMap<>();
+        Map<String, CLDRFile> files = factory.makeAll(LOCALES, true, nanos);
+        assertEquals(LOCALES, new ArrayList<>(files.keySet()), "in the order asked for");
+        for (String localeID : LOCALES) {
+            CLDRFile file = files.get(localeID);
+            assertTrue(file.isResolved(), localeID);
+            assertEquals(localeID, file.getLocaleID());
+            CLDRFile expected = factory.make(localeID, true);
+            for (String path :
+                    List.of(
+                            "//ldml/localeDisplayNames/languages/language[@type=\"de\"]",
+                            "//ldml/numbers/defaultNumberingSystem")) {
+                assertEquals(expected.getStringValue(path), file.getStringValue(path), path);
+                assertEquals(
+                        expected.getSourceLocaleID(path, null),
+                        file.getSourceLocaleID(path, null),
+                        path);
+            }
+        }
+        // parents, including the ones not asked for, are timed once each
+        for (String localeID : List.of("fr_CA", "fr", "es_MX", "es_419", "es", "root")) {
+            assertTrue(nanos.containsKey(localeID), localeID + " in " + nanos.keySet());
+            assertTrue(nanos.get(localeID) > 0, localeID);
+        }
+    }
+
+    @Test
+    void testUnresolvedOnExecutor() {
+        Factory factory = CLDRConfig.getInstance().getCldrFactory();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Map<String, Long> nanos = new TreeMap<>();
+            Map<String, CLDRFile> files = factory.makeAll(LOCALES, false, executor, nanos);
+            assertEquals(LOCALES, new ArrayList<>(files.keySet()));
+            for (CLDRFile file : files.values()) {
+                assertFalse(file.isResolved());
+            }
+            assertEquals(LOCALES.size(), nanos.size(), "only the locales asked for");
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testFailure() {
+        Factory factory = CLDRConfig.getInstance().getCldrFactory();
+        ICUException e =
+                assertThrows(
+                        ICUException.class,
+                        () -> factory.makeAll(List.of("fr", "xx_NOSUCH"), false));
+        assertTrue(e.getMessage().contains("xx_NOSUCH"), e.getMessage());
+    }
+}
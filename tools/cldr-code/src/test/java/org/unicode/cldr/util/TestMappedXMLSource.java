@@ -0,0 +1,123 @@
+package org.unicode.cldr.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.google.common.collect.ImmutableList;
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.unicode.cldr.util.CLDRFile.DraftStatus;
+import org.unicode.cldr.util.CLDRFile.Status;
+
+public class TestMappedXMLSource {
+    @TempDir Path snapshotDir;
+
+    private XMLSource load(String localeId) {
+        return XMLNormalizingLoader.loadXMLFile(
+                        new File(CLDRPaths.MAIN_DIRECTORY, localeId + ".xml"),
+                        localeId,
+                        DraftStatus.unconfirmed)
+                .freeze();
+    }
+
+    private XMLSource map(String localeId) {
+        File xmlFile = new File(CLDRPaths.MAIN_DIRECTORY, localeId + ".xml");
+        XMLSourceSnapshot.build(snapshotDir.toFile(), xmlFile, localeId, DraftStatus.unconfirmed);
+        XMLSource result =
+                XMLSourceSnapshot.mapIfFresh(
+                        snapshotDir.toFile(), xmlFile, localeId, DraftStatus.unconfirmed);
+        assertTrue(result instanceof MappedXMLSource, localeId);
+        return result;
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"root", "fr", "sr_Latn"})
+    void testSameAsSimple(String localeId) {
+        XMLSource expected = load(localeId);
+        XMLSource mapped = map(localeId);
+        TestXMLSourceSnapshot.assertSameSource(expected, mapped);
+
+        String prefix = "//ldml/localeDisplayNames/languages/";
+        TreeSet<String> expectedPaths = new TreeSet<>();
+        expected.iterator(prefix).forEachRemaining(expectedPaths::add);
+        List<String> mappedPaths = new ArrayList<>();
+        mapped.iterator(prefix).forEachRemaining(mappedPaths::add);
+        assertEquals(new ArrayList<>(expectedPaths), mappedPaths, "sorted paths with prefix");
+
+        for (String value : new String[] {"français", "dimanche", "{0} {1}"}) {
+            TreeSet<String> expectedWithValue = new TreeSet<>();
+            expected.getPathsWithValue(value, "", expectedWithValue);
+            TreeSet<String> mappedWithValue = new TreeSet<>();
+            mapped.getPathsWithValue(value, "", mappedWithValue);
+            assertEquals(expectedWithValue, mappedWithValue, value);
+        }
+        assertNull(mapped.getValueAtDPath("//ldml/no/such/path"));
+        assertNull(mapped.getFullPathAtDPath("//ldml/no/such/path"));
+        assertFalse(mapped.iterator("//ldml/no/such/").hasNext());
+    }
+
+    @Test
+    void testReadOnly() {
+        XMLSource mapped = map("fr_CA");
+        String path = mapped.iterator().next();
+        assertThrows(UnsupportedOperationException.class, () -> mapped.putValueAtDPath(path, "x"));
+        assertThrows(UnsupportedOperationException.class, () -> mapped.removeValueAtDPath(path));
+        assertThrows(UnsupportedOperationException.class, () -> mapped.setLocaleID("fr"));
+
+        XMLSource thawed = mapped.cloneAsThawed();
+        assertFalse(thawed.isFrozen());
+        thawed.putValueAtDPath(path, "x");
+        assertEquals("x", thawed.getValueAtDPath(path));
+        assertEquals(load("fr_CA").getValueAtDPath(path), mapped.getValueAtDPath(path));
+    }
+
+    /** A resolved file over mapped sources must resolve exactly like one over SimpleXMLSources. */
+    @Test
+    void testResolution() {
+        List<String> chain = ImmutableList.of("fr_CA", "fr", "root");
+        List<XMLSource> simple = new ArrayList<>();
+        List<XMLSource> mapped = new ArrayList<>();
+        for (String localeId : chain) {
+            simple.add(load(localeId));
+            mapped.add(map(localeId));
+        }
+        CLDRFile expected =
+                new CLDRFile(
+                        simple.get(0), simple.subList(1, simple.size()).toArray(new XMLSource[0]));
+        CLDRFile actual =
+                new CLDRFile(
+                        mapped.get(0), mapped.subList(1, mapped.size()).toArray(new XMLSource[0]));
+
+        TreeSet<String> paths = new TreeSet<>();
+        expected.fullIterable().forEach(paths::add);
+        TreeSet<String> actualPaths = new TreeSet<>();
+        actual.fullIterable().forEach(actualPaths::add);
+        assertEquals(paths, actualPaths);
+        Status expectedStatus = new Status();
+        Status actualStatus = new Status();
+        for (String path : paths) {
+            assertEquals(expected.getStringValue(path), actual.getStringValue(path), path);
+            assertEquals(expected.getFullXPath(path), actual.getFullXPath(path), path);
+            assertEquals(
+                    expected.getSourceLocaleID(path, expectedStatus),
+                    actual.getSourceLocaleID(path, actualStatus),
+                    path);
+            assertEquals(expectedStatus.pathWhereFound, actualStatus.pathWhereFound, path);
+            assertEquals(
+                    expected.getBaileyValue(path, null, null),
+                    actual.getBaileyValue(path, null, null),
+                    path);
+        }
+        assertTrue(actual.iterator("//ldml/numbers/").hasNext());
+    }
+}
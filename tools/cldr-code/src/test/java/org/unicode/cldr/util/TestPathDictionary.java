@@ -0,0 +1,82 @@
+package org.unicode.cldr.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+public class TestPathDictionary {
+    @Test
+    void testRoundTrip() {
+        String path = "//ldml/test/pathDictionary[@type=\"" + System.nanoTime() + "\"]";
+        assertEquals(PathDictionary.NO_ID, PathDictionary.peekId(path));
+        int id = PathDictionary.getId(path);
+        assertTrue(id >= 0);
+        assertEquals(id, PathDictionary.getId(new String(path)), "equal strings, same id");
+        assertEquals(id, PathDictionary.peekId(path));
+        assertSame(path, PathDictionary.getPath(id), "canonical instance");
+        assertNull(PathDictionary.getPath(PathDictionary.NO_ID));
+        assertNull(PathDictionary.getPath(Integer.MAX_VALUE));
+    }
+
+    @Test
+    void testConcurrentIdsAreDense() {
+        String prefix = "//ldml/test/concurrent" + System.nanoTime() + "/item[@n=\"";
+        int before = PathDictionary.size();
+        List<String> paths = new ArrayList<>();
+        for (int i = 0; i < 20_000; ++i) {
+            paths.add(prefix + i + "\"]");
+        }
+        ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+        // every path is requested by several threads at once
+        IntStream.range(0, paths.size() * 4)
+                .parallel()
+                .forEach(
+                        i -> {
+                            String path = paths.get(i % paths.size());
+                            int id = PathDictionary.getId(path);
+                            Integer old = ids.putIfAbsent(path, id);
+                            assertTrue(old == null || old == id, path);
+                        });
+        Set<Integer> distinct = new HashSet<>(ids.values());
+        assertEquals(paths.size(), distinct.size());
+        for (String path : paths) {
+            assertEquals(path, PathDictionary.getPath(ids.get(path)));
+        }
+        assertTrue(PathDictionary.size() >= before + paths.size());
+    }
+
+    @Test
+    void testPathIdMap() {
+        PathIdMap<String> map = new PathIdMap<>();
+        assertNull(map.get(0));
+        assertNull(map.get(PathDictionary.NO_ID));
+        assertNull(map.put(5, "five"));
+        assertNull(map.put(100_000, "large"));
+        assertEquals("five", map.get(5));
+        assertEquals("large", map.get(100_000));
+        assertEquals(2, map.size());
+        assertEquals("five", map.putIfAbsent(5, "other"));
+        assertEquals("five", map.computeIfAbsent(5, id -> "other"));
+        assertEquals("seven", map.computeIfAbsent(7, id -> "seven"));
+        assertEquals("five", map.remove(5));
+        assertNull(map.get(5));
+        assertEquals(2, map.size());
+        map.clear();
+        assertNull(map.get(7));
+        assertEquals(0, map.size());
+
+        String path = "//ldml/test/pathIdMap";
+        map.put(PathDictionary.getId(path), "value");
+        assertEquals("value", map.get(path));
+        assertNull(map.get("//ldml/test/never/added/" + System.nanoTime()));
+    }
+}
@@ -0,0 +1,123 @@
+package org.unicode.cldr.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class TestPathHeaderTable {
+    private static final SupplementalDataInfo SDI =
+            CLDRConfig.getInstance().getSupplementalDataInfo();
+    private static final PathHeader.Factory FACTORY = PathHeader.getFactory();
+    private static final CLDRFile ENGLISH = CLDRConfig.getInstance().getEnglish();
+    private static final Set<String> PATHS = new TreeSet<>();
+    private static PathHeaderTable table;
+
+    @BeforeAll
+    static void build() {
+        Factory factory = CLDRConfig.getInstance().getCldrFactory();
+        for (String localeId : List.of("fr", "ja")) {
+            factory.make(localeId, true).fullIterable().forEach(PATHS::add);
+        }
+        table = PathHeaderTable.build(FACTORY, SDI, PATHS);
+    }
+
+    private static void assertSameAsRules(PathHeaderTable table) {
+        assertEquals(PATHS.size(), table.size());
+        for (String path : PATHS) {
+            PathHeader expected = FACTORY.fromPath(path);
+            PathHeader actual = table.get(path);
+            assertEquals(expected, actual, path);
+            assertEquals(0, expected.compareTo(actual), path);
+            assertEquals(expected.getSurveyToolStatus(), actual.getSurveyToolStatus(), path);
+            assertEquals(path, actual.getOriginalPath());
+        }
+    }
+
+    @Test
+    void testSameAsRules() {
+        assertSameAsRules(table);
+        assertNull(table.get("//ldml/noSuchElement"));
+    }
+
+    @Test
+    void testRoundTrip(@TempDir Path tempDir) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        table.write(bytes);
+        assertSameAsRules(PathHeaderTable.read(new ByteArrayInputStream(bytes.toByteArray())));
+
+        File directory = tempDir.toFile();
+        File written = table.save(directory);
+        assertEquals(PathHeaderTable.getFile(directory), written);
+        PathHeaderTable read = PathHeaderTable.readIfFresh(directory, SDI);
+        assertEquals(CLDRFile.GEN_VERSION, read.getDataVersion());
+        assertTrue(read.isFreshFor(SDI, ENGLISH));
+        assertFalse(
+                read.isFreshFor(SDI, CLDRConfig.getInstance().getCldrFactory().make("en", false)),
+                "stale for other English data");
+        assertSameAsRules(read);
+    }
+
+    @Test
+    void testBadInput() {
+        assertThrows(
+                IOException.class,
+                () -> PathHeaderTable.read(new ByteArrayInputStream(new byte[] {1, 2, 3, 4})));
+        assertNull(PathHeaderTable.readIfFresh(new File("nosuchdir"), SDI));
+    }
+
+    @Test
+    void testOtherLogicVersion() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        table.write(bytes);
+        byte[] content;
+        try (GZIPInputStream in =
+                new GZIPInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            content = in.readAllBytes();
+        }
+        // the logic version follows MAGIC and FORMAT_VERSION
+        ByteBuffer buffer = ByteBuffer.wrap(content);
+        assertEquals(PathHeader.LOGIC_VERSION, buffer.getInt(2 * Integer.BYTES));
+        buffer.putInt(2 * Integer.BYTES, PathHeader.LOGIC_VERSION + 1);
+        ByteArrayOutputStream changed = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(changed)) {
+            out.write(content);
+        }
+        PathHeaderTable read =
+                PathHeaderTable.read(new ByteArrayInputStream(changed.toByteArray()));
+        assertFalse(read.isFreshFor(SDI), "built by other PathHeader code");
+        assertFalse(read.isFreshFor(SDI, ENGLISH));
+    }
+
+    /**
+     * Only checked here, since hashing English is too slow for every start: the configured table,
+     * if any, must have been built from the current English data.
+     */
+    @Test
+    void testDefaultTableFresh() {
+        PathHeaderTable configured = PathHeaderTable.getDefault(SDI);
+        if (configured != null) {
+            assertTrue(
+                    configured.isFreshFor(SDI, ENGLISH),
+                    "The PathHeader table in "
+                            + XMLSourceSnapshot.getDefaultSnapshotDirectory()
+                            + " is stale for the English data; run GeneratePathHeaderTable again");
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package org.unicode.cldr.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.ibm.icu.util.Output;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.unicode.cldr.util.RegexLookup.Finder;
+import org.unicode.cldr.util.RegexLookup.LookupType;
+import org.unicode.cldr.util.RegexLookup.RegexFinder;
+
+public class TestRegexLookup {
+    private static final List<String> PATHS = new ArrayList<>();
+
+    @BeforeAll
+    static void loadPaths() {
+        CLDRConfig config = CLDRConfig.getInstance();
+        for (String localeId : List.of("en", "ja")) {
+            config.getCldrFactory().make(localeId, true).fullIterable().forEach(PATHS::add);
+        }
+        PATHS.add("//ldml/noSuchElement");
+    }
+
+    static RegexLookup<String> loadPathHeaders(LookupType type) {
+        return new RegexLookup<String>(type)
+                .setPatternTransform(RegexLookup.RegexFinderTransformPath)
+                .setValueTransform(source -> source)
+                .loadFromFile(PathHeader.class, "data/PathHeader.txt");
+    }
+
+    @Test
+    void testSameAsStandard() {
+        RegexLookup<String> standard = loadPathHeaders(LookupType.STANDARD);
+        RegexLookup<String> indexed = loadPathHeaders(LookupType.PREFIX_INDEXED_LOOKUP);
+        assertEquals(standard.size(), indexed.size());
+        Output<String[]> expectedArgs = new Output<>();
+        Output<String[]> actualArgs = new Output<>();
+        Output<Finder> expectedFinder = new Output<>();
+        Output<Finder> actualFinder = new Output<>();
+        for (String path : PATHS) {
+            String expected = standard.get(path, null, expectedArgs, expectedFinder, null);
+            String actual = indexed.get(path, null, actualArgs, actualFinder, null);
+            assertEquals(expected, actual, path);
+            assertArrayEquals(expectedArgs.value, actualArgs.value, path);
+            assertEquals(expectedFinder.value, actualFinder.value, path);
+        }
+        for (int i = 0; i < PATHS.size(); i += 97) {
+            String path = PATHS.get(i);
+            List<Finder> expectedFinders = new ArrayList<>();
+            List<Finder> actualFinders = new ArrayList<>();
+            assertEquals(
+                    standard.getAll(path, null, expectedFinders, null),
+                    indexed.getAll(path, null, actualFinders, null),
+                    path);
+            assertEquals(expectedFinders, actualFinders, path);
+        }
+    }
+
+    @Test
+    void testThreads() {
+        RegexLookup<String> standard = loadPathHeaders(LookupType.STANDARD);
+        RegexLookup<String> indexed = loadPathHeaders(LookupType.PREFIX_INDEXED_LOOKUP);
+        PATHS.parallelStream()
+                .forEach(
+                        path -> {
+                            Output<String[]> args = new Output<>();
+                            String actual = indexed.get(path, null, args);
+                            synchronized (standard) {
+                                Output<String[]> expectedArgs = new Output<>();
+                                assertEquals(standard.get(path, null, expectedArgs), actual, path);
+                                assertArrayEquals(expectedArgs.value, args.value, path);
+                            }
+                        });
+    }
+
+    @Test
+    void testFirstMatchWins() {
+        RegexLookup<String> lookup =
+                new RegexLookup<String>(LookupType.PREFIX_INDEXED_LOOKUP)
+                        .add("x", "anywhere")
+                        .add("^ab", "ab")
+                        .add("^a", "a")
+                        .add("^abc", "abc");
+        assertEquals("ab", lookup.get("abc"));
+        assertEquals("a", lookup.get("ac"));
+        assertEquals("anywhere", lookup.get("abx"));
+        assertNull(lookup.get("b"));
+        assertEquals(List.of("ab", "a", "abc"), lookup.getAll("abc", null, null, null));
+    }
+
+    @Test
+    void testLiteralPrefix() {
+        String[][] tests = {
+            {"^//ldml/dates/calendars", "//ldml/dates/calendars"},
+            {"^//ldml/units/unit\\[@type=\"([^\"]*)\"]", "//ldml/units/unit[@type=\""},
+            {"//ldml/dates", ""}, // not anchored
+            {"^//ldml/a|^//ldml/b", ""},
+            {"^//ldml/(a|b)", "//ldml/"},
+            {"^//ldml/ab?", "//ldml/a"},
+            {"^//ldml/ab{2}", "//ldml/a"},
+            {"^//ldml/ab ?", "//ldml/a"}, // COMMENTS: the space is ignored
+            {"^//ldml/a b", "//ldml/ab"},
+            {"^//ldml/a\\ b", "//ldml/a b"},
+            {"^//ldml/a.b", "//ldml/a"},
+            {"^//ldml/a\\db", "//ldml/a"},
+            {"^//ldml/a#comment", "//ldml/a"},
+            {"^//ldml/[|]a", "//ldml/"},
+        };
+        for (String[] test : tests) {
+            assertEquals(test[1], RegexLookup.getLiteralPrefix(new RegexFinder(test[0])), test[0]);
+        }
+    }
+}
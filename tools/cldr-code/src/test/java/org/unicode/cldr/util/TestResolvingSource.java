@@ -0,0 +1,88 @@
+package org.unicode.cldr.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.unicode.cldr.util.CLDRFile.DraftStatus;
+import org.unicode.cldr.util.CLDRFile.Status;
+import org.unicode.cldr.util.XMLSource.ResolvingSource;
+
+public class TestResolvingSource {
+    private static List<XMLSource> loadChain() {
+        List<XMLSource> result = new ArrayList<>();
+        for (String localeId : List.of("fr_CA", "fr", "root")) {
+            result.add(
+                    XMLNormalizingLoader.loadXMLFile(
+                            new File(CLDRPaths.MAIN_DIRECTORY, localeId + ".xml"),
+                            localeId,
+                            DraftStatus.unconfirmed));
+        }
+        return result;
+    }
+
+    @Test
+    void testIndexSameAsUncached() {
+        List<XMLSource> chain = loadChain();
+        CLDRFile cached = new CLDRFile(new ResolvingSource(chain));
+        ResolvingSource uncachedSource = new ResolvingSource(chain);
+        uncachedSource.disableCaching();
+        CLDRFile uncached = new CLDRFile(uncachedSource);
+
+        List<String> paths = new ArrayList<>();
+        cached.fullIterable().forEach(paths::add);
+        // fill the index from several threads at once
+        paths.parallelStream().forEach(path -> cached.getSourceLocaleID(path, null));
+        Status expectedStatus = new Status();
+        Status actualStatus = new Status();
+        for (String path : paths) {
+            assertEquals(
+                    uncached.getSourceLocaleID(path, expectedStatus),
+                    cached.getSourceLocaleID(path, actualStatus),
+                    path);
+            assertEquals(expectedStatus.pathWhereFound, actualStatus.pathWhereFound, path);
+            assertEquals(uncached.getStringValue(path), cached.getStringValue(path), path);
+            assertEquals(uncached.getFullXPath(path), cached.getFullXPath(path), path);
+        }
+    }
+
+    @Test
+    void testInvalidation() {
+        List<XMLSource> chain = loadChain();
+        XMLSource frCA = chain.get(0);
+        CLDRFile resolved = new CLDRFile(new ResolvingSource(chain));
+
+        // find a path that fr_CA inherits from fr through an alias
+        String aliased = null;
+        String target = null;
+        Status status = new Status();
+        for (String path : resolved.fullIterable()) {
+            if ("fr".equals(resolved.getSourceLocaleID(path, status))
+                    && !path.equals(status.pathWhereFound)
+                    && path.startsWith("//ldml/dates/calendars/calendar[@type=\"gregorian\"]")
+                    && status.pathWhereFound.startsWith("//ldml/dates/calendars/calendar")) {
+                aliased = path;
+                target = status.pathWhereFound;
+                break;
+            }
+        }
+        assertNotNull(aliased, "no aliased path found");
+        assertEquals("fr", resolved.getSourceLocaleID(target, null));
+
+        // as the Survey Tool does
+        frCA.putValueAtDPath(target, "changed");
+        frCA.notifyListeners(target);
+        assertEquals("fr_CA", resolved.getSourceLocaleID(target, null));
+        assertEquals("changed", resolved.getStringValue(target));
+        assertEquals("fr_CA", resolved.getSourceLocaleID(aliased, null), "dependent alias");
+        assertEquals("changed", resolved.getStringValue(aliased));
+
+        frCA.removeValueAtDPath(target);
+        frCA.notifyListeners(target);
+        assertEquals("fr", resolved.getSourceLocaleID(target, null));
+        assertEquals("fr", resolved.getSourceLocaleID(aliased, null));
+    }
+}
@@ -0,0 +1,227 @@
+package org.unicode.cldr.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.ToLongFunction;
+import org.junit.jupiter.api.Test;
+import org.unicode.cldr.util.StringId.IdTable;
+
+public class TestStringId {
+    @Test
+    void testRoundTrip() {
+        String path = "//ldml/localeDisplayNames/languages/language[@type=\"fr\"]";
+        long id = StringId.getId(path);
+        assertTrue(id >= 0);
+        assertEquals(StringId.hash(path), id);
+        assertEquals(id, StringId.getId(new StringBuilder(path)), "same for any CharSequence");
+        assertEquals(path, StringId.getStringFromId(id));
+        assertEquals(path, StringId.getStringFromHexId(StringId.getHexId(path)));
+        assertNull(StringId.getStringFromId(-1));
+    }
+
+    @Test
+    void testIdTableGrowth() {
+        IdTable table = new IdTable();
+        // enough for the reverse table to double a few times from 4096 slots, and path ids far
+        // enough apart for the chunk array to grow past its first 16 chunks of 4096
+        int count = 20_000;
+        int spacing = 7;
+        for (int i = 0; i < count; ++i) {
+            assertEquals(-1, table.getId(i * spacing));
+            table.put(i * spacing, StringId.hash("s" + i));
+        }
+        assertEquals(count, table.size());
+        for (int i = 0; i < count; ++i) {
+            long id = StringId.hash("s" + i);
+            assertEquals(id, table.getId(i * spacing), "id " + i);
+            assertEquals(i * spacing, table.getPathId(id), "path id " + i);
+            assertEquals(-1, table.getId(i * spacing + 1), "never put");
+        }
+        assertEquals(-1, table.getId(Integer.MAX_VALUE));
+        assertEquals(-1, table.getPathId(StringId.hash("not there")));
+        assertEquals(-1, table.getPathId(-5));
+
+        // putting again changes nothing
+        table.put(0, StringId.hash("other"));
+        assertEquals(StringId.hash("s0"), table.getId(0));
+        assertEquals(count, table.size());
+
+        // a collision in the hash keeps the first string
+        table.put(1, StringId.hash("s0"));
+        assertEquals(0, table.getPathId(StringId.hash("s0")));
+    }
+
+    @Test
+    void testIdTableConcurrentReaders() throws InterruptedException {
+        IdTable table = new IdTable();
+        int count = 50_000;
+        AtomicInteger written = new AtomicInteger();
+        AtomicReference<String> failure = new AtomicReference<>();
+        List<Thread> readers = new ArrayList<>();
+        for (int t = 0; t < 3; ++t) {
+            readers.add(
+                    new Thread(
+                            () -> {
+                                while (written.get() < count && failure.get() == null) {
+                                    // everything written so far must be found, through any growth
+                                    int upTo = written.get();
+                                    for (int i = 0; i < upTo; ++i) {
+                                        long id = i * 31L;
+                                        if (table.getId(i) != id || table.getPathId(id) != i) {
+                                            failure.set("lost " + i + " of " + upTo);
+                                            return;
+                                        }
+                                    }
+                                }
+                            }));
+        }
+        readers.forEach(Thread::start);
+        for (int i = 0; i < count; ++i) {
+            table.put(i, i * 31L);
+            written.set(i + 1);
+        }
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        assertNull(failure.get());
+    }
+
+    /**
+     * Compare StringId with the previous implementation, which hashed under one shared,
+     * synchronized MessageDigest and kept two ConcurrentHashMaps. Each round hashes fresh strings
+     * (misses) from several threads, then looks them all up again (hits).
+     *
+     * <p>The strings are made up for each round, so the current implementation runs with its own
+     * IdTable and dictionary rather than StringId's, which would keep them all for the rest of the
+     * run.
+     */
+    @Test
+    void testStringIdPerf() throws InterruptedException {
+        List<String> pathList = new ArrayList<>();
+        CLDRConfig.getInstance().getEnglish().forEach(pathList::add);
+        String[] paths = pathList.toArray(new String[0]);
+        int threads = 4;
+        int rounds = 5;
+        double legacySeconds = 0;
+        double currentSeconds = 0;
+        for (int round = 0; round <= rounds; ++round) { // round 0 is warmup
+            String suffix = "[@round=\"" + round + "\"]";
+            LegacyStringId legacy = new LegacyStringId();
+            double legacyTime = timeThreads(threads, () -> hashAll(paths, suffix, legacy::getId));
+            IsolatedStringId current = new IsolatedStringId();
+            double currentTime =
+                    timeThreads(threads, () -> hashAll(paths, suffix, current::getId));
+            if (round > 0) {
+                legacySeconds += legacyTime;
+                currentSeconds += currentTime;
+            }
+        }
+        System.out.println(
+                "StringId, "
+                        + threads
+                        + " threads x "
+                        + paths.length
+                        + " paths x 2: legacy "
+                        + legacySeconds / rounds
+                        + "s, current "
+                        + currentSeconds / rounds
+                        + "s");
+        // generous, since a single-CPU machine shows no contention
+        assertTrue(
+                currentSeconds <= legacySeconds * 1.5,
+                "current " + currentSeconds + "s, legacy " + legacySeconds + "s");
+    }
+
+    private static void hashAll(String[] paths, String suffix, ToLongFunction<String> getId) {
+        String[] fresh = new String[paths.length];
+        for (int i = 0; i < paths.length; ++i) {
+            fresh[i] = paths[i] + suffix;
+        }
+        long check = 0;
+        for (String path : fresh) {
+            check ^= getId.applyAsLong(path); // misses
+        }
+        for (String path : fresh) {
+            check ^= getId.applyAsLong(path); // hits
+        }
+        if (check != 0) {
+            throw new IllegalStateException("inconsistent ids");
+        }
+    }
+
+    private static double timeThreads(int count, Runnable runnable) throws InterruptedException {
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < count; ++i) {
+            threads.add(new Thread(runnable));
+        }
+        Timer timer = new Timer();
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        timer.stop();
+        return timer.getSeconds();
+    }
+
+    /** StringId with its own IdTable, and a dictionary that works like PathDictionary's */
+    private static class IsolatedStringId {
+        private final IdTable table = new IdTable();
+        private final Map<String, Integer> dictionary = new ConcurrentHashMap<>();
+        private final AtomicInteger nextId = new AtomicInteger();
+
+        long getId(String string) {
+            Integer pathId = dictionary.get(string);
+            if (pathId == null) {
+                pathId = dictionary.computeIfAbsent(string, s -> nextId.getAndIncrement());
+            }
+            return StringId.getId(table, pathId, string);
+        }
+    }
+
+    /** StringId as it was before it became lock-free, for comparison. */
+    private static class LegacyStringId {
+        private final Map<String, Long> stringToId = new ConcurrentHashMap<>();
+        private final Map<Long, String> idToString = new ConcurrentHashMap<>();
+        private final MessageDigest digest;
+
+        LegacyStringId() {
+            try {
+                digest = MessageDigest.getInstance("SHA-1");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalArgumentException(e);
+            }
+        }
+
+        long getId(String string) {
+            Long resultLong = stringToId.get(string);
+            if (resultLong != null) {
+                return resultLong;
+            }
+            synchronized (digest) {
+                byte[] hash = digest.digest(string.getBytes(StandardCharsets.UTF_8));
+                long result = 0;
+                for (int i = 0; i < 8; ++i) {
+                    result <<= 8;
+                    result ^= hash[i];
+                }
+                result &= 0x7FFFFFFFFFFFFFFFL;
+                stringToId.put(string, result);
+                idToString.put(result, string);
+                return result;
+            }
+        }
+    }
+}
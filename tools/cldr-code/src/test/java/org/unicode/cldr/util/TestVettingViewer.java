@@ -1,12 +1,19 @@
 package org.unicode.cldr.util;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 import com.ibm.icu.impl.Relation;
 import com.ibm.icu.impl.Row.R2;
+import java.util.EnumMap;
 import java.util.EnumSet;
+import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import org.junit.jupiter.api.Test;
 import org.unicode.cldr.test.OutdatedPaths;
 import org.unicode.cldr.unittest.TestHelper;
@@ -101,4 +108,168 @@ class TestVettingViewer {
         // but won't fail the test.
         assumeTrue(foundAny, "Did not find any English Changed. May need to revamp the test.");
     }
+
+    /** Nobody has voted except the one user, for the paths in the set */
+    private static final class VotedPaths implements VettingViewer.UsersChoice<Organization> {
+        private final Set<String> voted = ConcurrentHashMap.newKeySet();
+        private final PathHeader.Factory phf = PathHeader.getFactory();
+        private final VoterInfoList vil = new VoterInfoList();
+
+        @Override
+        public String getWinningValueForUsersOrganization(
+                CLDRFile cldrFile, String path, Organization user) {
+            return null;
+        }
+
+        @Override
+        public VoteStatus getStatusForUsersOrganization(
+                CLDRFile cldrFile, String path, Organization user) {
+            return VoteStatus.ok;
+        }
+
+        @Override
+        public boolean userDidVote(int userId, CLDRLocale loc, String path) {
+            return voted.contains(path);
+        }
+
+        @Override
+        public VoteType getUserVoteType(int userId, CLDRLocale loc, String path) {
+            return voted.contains(path) ? VoteType.DIRECT : VoteType.NONE;
+        }
+
+        @Override
+        public VoteResolver<String> getVoteResolver(
+                CLDRFile cldrFile, CLDRLocale loc, String path) {
+            VoteResolver<String> r = new VoteResolver<>(vil);
+            r.setLocale(loc, phf.fromPath(path));
+            r.setBaileyValue(cldrFile.getBaileyValue(path, null, null));
+            return r;
+        }
+    }
+
+    @Test
+    void testDashboardAggregate() {
+        final Factory factory = CLDRConfig.getInstance().getCldrFactory();
+        final CLDRLocale locale = CLDRLocale.getInstance("fr_CA");
+        final VotedPaths votedPaths = new VotedPaths();
+        final VettingViewer<Organization> vv =
+                new VettingViewer<>(SupplementalDataInfo.getInstance(), factory, votedPaths);
+        final VettingParameters args =
+                new VettingParameters(
+                        EnumSet.of(
+                                NotificationCategory.error,
+                                NotificationCategory.warning,
+                                NotificationCategory.missingCoverage,
+                                NotificationCategory.abstained),
+                        locale,
+                        Level.MODERN);
+        args.setUserAndOrganization(1, Organization.surveytool);
+        args.setFiles(locale, factory, factory);
+        final VettingViewer<Organization>.DashboardAggregate aggregate =
+                vv.newDashboardAggregate(args);
+
+        final VettingViewer<Organization>.DashboardData before = aggregate.getDashboardData();
+        final long abstained = aggregate.getCount(NotificationCategory.abstained);
+        assertTrue(abstained > 0, "nothing voted yet");
+        assertEquals(0, before.voterProgress.getVotedPathCount());
+        String path = null;
+        for (VettingViewer<Organization>.WritingInfo info : before.sorted.values()) {
+            if (info.problems.contains(NotificationCategory.abstained)) {
+                path = info.codeOutput.getOriginalPath();
+                break;
+            }
+        }
+        assertNotNull(path);
+
+        // vote for one path, and only that path is handled again
+        votedPaths.voted.add(path);
+        aggregate.pathChanged(path);
+        final VettingViewer<Organization>.DashboardData after = aggregate.getDashboardData();
+        assertEquals(1, after.voterProgress.getVotedPathCount());
+        assertEquals(
+                before.voterProgress.getVotablePathCount(),
+                after.voterProgress.getVotablePathCount());
+        assertEquals(abstained - 1, aggregate.getCount(NotificationCategory.abstained));
+        assertTrue(aggregate.getPathsUpdated() > 0);
+        assertEquals(0, before.voterProgress.getVotedPathCount(), "earlier data is a copy");
+
+        // the same as going through all of the paths
+        final VettingViewer<Organization>.DashboardData full = vv.generateDashboard(args);
+        assertEquals(full.sorted.size(), after.sorted.size());
+        assertEquals(
+                full.voterProgress.getVotedPathCount(), after.voterProgress.getVotedPathCount());
+        assertEquals(
+                full.localeCompletionData.problemCount(),
+                after.localeCompletionData.problemCount());
+        assertTrue(aggregate.recompute(), "no drift");
+        assertEquals(0, aggregate.getPathsUpdated());
+    }
+
+    @Test
+    void testDashboardAggregateHiddenPath() {
+        final Factory factory = CLDRConfig.getInstance().getCldrFactory();
+        final CLDRLocale locale = CLDRLocale.getInstance("fr_CA");
+        final VettingViewer<Organization> vv =
+                new VettingViewer<>(
+                        SupplementalDataInfo.getInstance(), factory, new VotedPaths());
+        final VettingParameters args =
+                new VettingParameters(
+                        EnumSet.of(
+                                NotificationCategory.error,
+                                NotificationCategory.warning,
+                                NotificationCategory.missingCoverage,
+                                NotificationCategory.abstained),
+                        locale,
+                        Level.MODERN);
+        args.setUserAndOrganization(1, Organization.surveytool);
+        args.setFiles(locale, factory, factory);
+        final VettingViewer<Organization>.DashboardAggregate aggregate =
+                vv.newDashboardAggregate(args);
+        final CLDRFile file = aggregate.getSourceFile();
+
+        // a path with notifications, handled on its own
+        String counted = null;
+        for (VettingViewer<Organization>.WritingInfo info :
+                aggregate.getDashboardData().sorted.values()) {
+            final String path = info.codeOutput.getOriginalPath();
+            if (info.problems.contains(NotificationCategory.abstained)
+                    && LogicalGrouping.getPaths(file, path).size() <= 1) {
+                counted = path;
+                break;
+            }
+        }
+        assertNotNull(counted);
+        String hidden = null;
+        final PathHeader.Factory phf = PathHeader.getFactory();
+        for (String path : file.fullIterable()) {
+            final PathHeader ph = phf.fromPath(path);
+            if (ph != null
+                    && ph.shouldHide()
+                    && LogicalGrouping.getPaths(file, path).size() <= 1) {
+                hidden = path;
+                break;
+            }
+        }
+        assertNotNull(hidden);
+        final Map<NotificationCategory, Long> expected = getCounts(aggregate);
+
+        // the hidden path, handled right after the other one, and then again
+        aggregate.pathChanged(counted);
+        aggregate.getDashboardData();
+        aggregate.pathChanged(hidden);
+        aggregate.getDashboardData();
+        aggregate.pathChanged(hidden);
+        aggregate.getDashboardData();
+        assertEquals(expected, getCounts(aggregate));
+        assertTrue(aggregate.recompute(), "no drift");
+    }
+
+    private static Map<NotificationCategory, Long> getCounts(
+            VettingViewer<Organization>.DashboardAggregate aggregate) {
+        final Map<NotificationCategory, Long> counts = new EnumMap<>(NotificationCategory.class);
+        for (NotificationCategory category : NotificationCategory.values()) {
+            counts.put(category, aggregate.getCount(category));
+        }
+        return counts;
+    }
 }
@@ -0,0 +1,139 @@
+package org.unicode.cldr.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.unicode.cldr.unittest.TestHelper;
+import org.unicode.cldr.unittest.TestHelper.TestUser;
+import org.unicode.cldr.util.VoteResolver.Status;
+
+/**
+ * @see VoteResolutionCache
+ */
+public class TestVoteResolutionCache {
+    private static final VoterInfoList VIL = TestHelper.getTestVoterInfoList();
+    private static final CLDRLocale LOCALE = CLDRLocale.getInstance("br");
+
+    /** One vote: who, for what, when */
+    private static final class Vote {
+        final TestUser user;
+        final String value;
+        final long time;
+
+        Vote(TestUser user, String value, long time) {
+            this.user = user;
+            this.value = value;
+            this.time = time;
+        }
+    }
+
+    private static VoteResolver<String> resolver(
+            String baseline, Status baselineStatus, String bailey, List<Vote> votes) {
+        final VoteResolver<String> r = new VoteResolver<>(VIL);
+        r.setLocale(LOCALE, null);
+        r.setBaseline(baseline, baselineStatus);
+        r.add(baseline);
+        r.setBaileyValue(bailey);
+        for (Vote v : votes) {
+            r.add(v.value, v.user.voterId, null, new Date(v.time));
+        }
+        return r;
+    }
+
+    @Test
+    void testSameShape() {
+        final VoteResolutionCache<String> cache = new VoteResolutionCache<>(100);
+        final List<Vote> votes = new ArrayList<>();
+        votes.add(new Vote(TestUser.bretonV1, "Bouvet", 1000));
+        votes.add(new Vote(TestUser.bretonV2, "Bouvet", 2000));
+        votes.add(new Vote(TestUser.googleV, "Bouvet Island", 3000));
+        final VoteResolutionCache.Outcome<String> first =
+                cache.resolve(resolver("Bouvet", Status.approved, "BV", votes));
+        final VoteResolver<String> expected = resolver("Bouvet", Status.approved, "BV", votes);
+        assertEquals(expected.getWinningValue(), first.getValue());
+        assertEquals(expected.getWinningStatus(), first.getStatus());
+
+        // the same shape, with other values (sorting the same way) and other times
+        final List<Vote> other = new ArrayList<>();
+        other.add(new Vote(TestUser.bretonV1, "Kerguelen", 10));
+        other.add(new Vote(TestUser.bretonV2, "Kerguelen", 20));
+        other.add(new Vote(TestUser.googleV, "Kerguelen Islands", 30));
+        final VoteResolutionCache.Outcome<String> second =
+                cache.resolve(resolver("Kerguelen", Status.approved, "KI", other));
+        assertEquals(1, cache.getStats().hitCount(), cache::toString);
+        assertEquals(
+                expected.getWinningValue()
+                        .replace("Bouvet", "Kerguelen")
+                        .replace("Island", "Islands"),
+                second.getValue());
+        assertEquals(first.getStatus(), second.getStatus());
+
+        // a different shape: the baseline no longer matches a vote
+        cache.resolve(resolver("Heard", Status.approved, "KI", other));
+        assertEquals(1, cache.getStats().hitCount(), cache::toString);
+    }
+
+    @Test
+    void testAnnotationsNotCached() {
+        final VoteResolutionCache<String> cache = new VoteResolutionCache<>(100);
+        final String path = "//ldml/annotations/annotation[@cp=\"😀\"]";
+        final VoteResolver<String> r = new VoteResolver<>(VIL);
+        r.setLocale(LOCALE, PathHeader.getFactory().fromPath(path));
+        r.setBaseline("face | grin", Status.approved);
+        r.add("face | grin");
+        r.setBaileyValue(null);
+        r.add("grin | smile", TestUser.bretonV1.voterId);
+        assertNull(r.getFingerprint(new ArrayList<>()));
+        assertNotNull(cache.resolve(r).getStatus());
+        assertEquals(1, cache.getUncacheableCount());
+    }
+
+    /** Random ballots from a few values and times, so that shapes repeat */
+    @Test
+    void testRandomBallots() {
+        final VoteResolutionCache<String> cache = new VoteResolutionCache<>(10_000);
+        final Random random = new Random(1234);
+        final String[] pool = {"a", "A", "b", "c", "BV", CldrUtility.INHERITANCE_MARKER};
+        final TestUser[] users = {
+            TestUser.bretonV1,
+            TestUser.bretonV2,
+            TestUser.bretonV3,
+            TestUser.googleV,
+            TestUser.googleV2,
+            TestUser.appleV,
+            TestUser.adobeE,
+            TestUser.ibmT,
+            TestUser.unaffiliatedS,
+        };
+        for (int i = 0; i < 5000; i++) {
+            final String baseline = random.nextInt(4) == 0 ? null : pool[random.nextInt(4)];
+            final Status status =
+                    baseline == null ? Status.missing : Status.values()[random.nextInt(5)];
+            final String bailey = random.nextBoolean() ? "BV" : null;
+            final List<Vote> votes = new ArrayList<>();
+            for (TestUser user : users) {
+                if (random.nextInt(3) == 0) {
+                    votes.add(
+                            new Vote(
+                                    user,
+                                    pool[random.nextInt(pool.length)],
+                                    1000L * random.nextInt(3)));
+                }
+            }
+            final VoteResolver<String> expected = resolver(baseline, status, bailey, votes);
+            final VoteResolutionCache.Outcome<String> actual =
+                    cache.resolve(resolver(baseline, status, bailey, votes));
+            final int n = i;
+            assertEquals(expected.getWinningValue(), actual.getValue(), () -> "value #" + n);
+            assertEquals(expected.getWinningStatus(), actual.getStatus(), () -> "status #" + n);
+        }
+        assertTrue(cache.getStats().hitCount() > 0, cache::toString);
+    }
+}
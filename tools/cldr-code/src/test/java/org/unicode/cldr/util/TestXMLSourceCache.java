@@ -0,0 +1,76 @@
+package org.unicode.cldr.util;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.LoadingCache;
+import java.io.File;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.unicode.cldr.util.CLDRFile.DraftStatus;
+import org.unicode.cldr.util.XMLNormalizingLoader.XMLSourceCacheKey;
+
+public class TestXMLSourceCache {
+    private static final List<File> MAIN = List.of(new File(CLDRPaths.MAIN_DIRECTORY));
+
+    @Test
+    void testStats() {
+        CacheStats before = XMLNormalizingLoader.getCacheStats();
+        XMLSource first =
+                XMLNormalizingLoader.getFrozenInstance("fr", MAIN, DraftStatus.contributed);
+        assertSame(
+                first, XMLNormalizingLoader.getFrozenInstance("fr", MAIN, DraftStatus.contributed));
+        CacheStats delta = XMLNormalizingLoader.getCacheStats().minus(before);
+        assertTrue(delta.requestCount() >= 2, delta.toString());
+        assertTrue(delta.hitCount() >= 1, delta.toString());
+        assertTrue(XMLNormalizingLoader.getCacheSize() > 0);
+    }
+
+    @Test
+    void testWeight() {
+        long root = XMLNormalizingLoader.estimateWeight(load("root"));
+        long small = XMLNormalizingLoader.estimateWeight(load("sr_Latn_XK"));
+        assertTrue(root > 10 * small, "root " + root + ", sr_Latn_XK " + small);
+    }
+
+    @Test
+    void testMappedWeight(@TempDir Path snapshotDir) {
+        File xmlFile = new File(CLDRPaths.MAIN_DIRECTORY, "fr.xml");
+        XMLSourceSnapshot.build(snapshotDir.toFile(), xmlFile, "fr", DraftStatus.unconfirmed);
+        XMLSource mapped =
+                XMLSourceSnapshot.mapIfFresh(
+                        snapshotDir.toFile(), xmlFile, "fr", DraftStatus.unconfirmed);
+        assertTrue(mapped instanceof MappedXMLSource, String.valueOf(mapped));
+        long mappedWeight = XMLNormalizingLoader.estimateWeight(mapped);
+        long heapWeight = XMLNormalizingLoader.estimateWeight(load("fr"));
+        assertTrue(
+                mappedWeight * 4 < heapWeight, "mapped " + mappedWeight + ", heap " + heapWeight);
+    }
+
+    @Test
+    void testWeightLimit() {
+        long budget = XMLNormalizingLoader.estimateWeight(load("root")) * 2;
+        LoadingCache<XMLSourceCacheKey, XMLSource> cache =
+                XMLNormalizingLoader.makeCache(0, budget);
+        for (String localeId : List.of("root", "fr", "de", "ja", "ru", "ar", "es", "root")) {
+            cache.getUnchecked(new XMLSourceCacheKey(localeId, MAIN, DraftStatus.unconfirmed));
+        }
+        long total = 0;
+        for (XMLSource source : cache.asMap().values()) {
+            total += XMLNormalizingLoader.estimateWeight(source);
+        }
+        assertTrue(total <= budget, "weight " + total + " over " + budget);
+        assertTrue(cache.stats().evictionCount() > 0, cache.stats().toString());
+        assertTrue(cache.stats().loadCount() >= 8, cache.stats().toString());
+    }
+
+    private static XMLSource load(String localeId) {
+        return XMLNormalizingLoader.loadXMLFile(
+                new File(CLDRPaths.MAIN_DIRECTORY, localeId + ".xml"),
+                localeId,
+                DraftStatus.unconfirmed);
+    }
+}
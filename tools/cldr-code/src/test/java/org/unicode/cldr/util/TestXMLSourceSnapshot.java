@@ -0,0 +1,166 @@
+package org.unicode.cldr.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.TreeSet;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.unicode.cldr.util.CLDRFile.DraftStatus;
+import org.unicode.cldr.util.XPathParts.Comments.CommentType;
+
+public class TestXMLSourceSnapshot {
+    @TempDir Path snapshotDir;
+
+    @ParameterizedTest
+    @ValueSource(strings = {"root", "fr", "sr_Latn"})
+    void testRoundTrip(String localeId) {
+        File xmlFile = new File(CLDRPaths.MAIN_DIRECTORY, localeId + ".xml");
+        XMLSource expected =
+                XMLNormalizingLoader.loadXMLFile(xmlFile, localeId, DraftStatus.unconfirmed);
+        XMLSourceSnapshot.build(snapshotDir.toFile(), xmlFile, localeId, DraftStatus.unconfirmed);
+        XMLSource actual =
+                XMLSourceSnapshot.loadIfFresh(
+                        snapshotDir.toFile(), xmlFile, localeId, DraftStatus.unconfirmed);
+        assertNotNull(actual, "snapshot should be fresh");
+        assertSameSource(expected, actual);
+    }
+
+    @Test
+    void testStaleSnapshotIgnored(@TempDir Path xmlDir) throws IOException {
+        File original = new File(CLDRPaths.MAIN_DIRECTORY, "fr_CA.xml");
+        File xmlFile = xmlDir.resolve("fr_CA.xml").toFile();
+        Files.copy(original.toPath(), xmlFile.toPath());
+
+        File snapshotFile =
+                XMLSourceSnapshot.getSnapshotFile(
+                        snapshotDir.toFile(), xmlFile, DraftStatus.unconfirmed);
+        assertTrue(
+                snapshotFile.getName().endsWith(XMLSourceSnapshot.SUFFIX), snapshotFile.getName());
+        assertNull(
+                XMLSourceSnapshot.loadIfFresh(
+                        snapshotDir.toFile(), xmlFile, "fr_CA", DraftStatus.unconfirmed),
+                "no snapshot yet");
+
+        XMLSourceSnapshot.build(snapshotDir.toFile(), original, "fr_CA", DraftStatus.unconfirmed);
+        Files.createDirectories(snapshotFile.getParentFile().toPath());
+        Files.copy(
+                XMLSourceSnapshot.getSnapshotFile(
+                                snapshotDir.toFile(), original, DraftStatus.unconfirmed)
+                        .toPath(),
+                snapshotFile.toPath());
+        assertNotNull(
+                XMLSourceSnapshot.loadIfFresh(
+                        snapshotDir.toFile(), xmlFile, "fr_CA", DraftStatus.unconfirmed),
+                "same content");
+        assertNull(
+                XMLSourceSnapshot.loadIfFresh(
+                        snapshotDir.toFile(), xmlFile, "fr_CA", DraftStatus.approved),
+                "different draft status");
+
+        Files.write(xmlFile.toPath(), "<!-- edited -->".getBytes(StandardCharsets.UTF_8));
+        assertNull(
+                XMLSourceSnapshot.loadIfFresh(
+                        snapshotDir.toFile(), xmlFile, "fr_CA", DraftStatus.unconfirmed),
+                "edited file");
+    }
+
+    @Test
+    void testCorruptSnapshotIgnored() throws IOException {
+        File xmlFile = new File(CLDRPaths.MAIN_DIRECTORY, "de_CH.xml");
+        File snapshotFile =
+                XMLSourceSnapshot.build(
+                        snapshotDir.toFile(), xmlFile, "de_CH", DraftStatus.unconfirmed);
+        byte[] bytes = Files.readAllBytes(snapshotFile.toPath());
+        Files.write(snapshotFile.toPath(), Arrays.copyOf(bytes, bytes.length / 2));
+        assertNull(
+                XMLSourceSnapshot.loadIfFresh(
+                        snapshotDir.toFile(), xmlFile, "de_CH", DraftStatus.unconfirmed));
+    }
+
+    @Test
+    void testDtdOrLoaderChangeIgnored() throws IOException {
+        File xmlFile = new File(CLDRPaths.MAIN_DIRECTORY, "it_CH.xml");
+        File snapshotFile =
+                XMLSourceSnapshot.build(
+                        snapshotDir.toFile(), xmlFile, "it_CH", DraftStatus.unconfirmed);
+        SimpleXMLSource source = XMLSourceSnapshot.read(snapshotFile).toSimpleXMLSource();
+        byte[] hash = XMLSourceSnapshot.hashFile(xmlFile);
+        byte[] dtdHash = XMLSourceSnapshot.hashDtd(DtdType.ldml);
+        assertTrue(dtdHash.length > 0, "the ldml DTD is hashed");
+
+        // another DTD
+        byte[] otherDtdHash = dtdHash.clone();
+        otherDtdHash[0] ^= 1;
+        try (OutputStream out = Files.newOutputStream(snapshotFile.toPath())) {
+            XMLSourceSnapshot.write(source, DraftStatus.unconfirmed, hash, otherDtdHash, out);
+        }
+        assertNull(
+                XMLSourceSnapshot.loadIfFresh(
+                        snapshotDir.toFile(), xmlFile, "it_CH", DraftStatus.unconfirmed),
+                "edited DTD");
+
+        try (OutputStream out = Files.newOutputStream(snapshotFile.toPath())) {
+            XMLSourceSnapshot.write(source, DraftStatus.unconfirmed, hash, dtdHash, out);
+        }
+        assertNotNull(
+                XMLSourceSnapshot.loadIfFresh(
+                        snapshotDir.toFile(), xmlFile, "it_CH", DraftStatus.unconfirmed),
+                "same DTD");
+
+        // built by another loader: the version follows MAGIC and FORMAT_VERSION
+        byte[] bytes = Files.readAllBytes(snapshotFile.toPath());
+        ByteBuffer.wrap(bytes).putInt(2 * Integer.BYTES, XMLSourceSnapshot.LOADER_VERSION + 1);
+        Files.write(snapshotFile.toPath(), bytes);
+        assertNull(
+                XMLSourceSnapshot.loadIfFresh(
+                        snapshotDir.toFile(), xmlFile, "it_CH", DraftStatus.unconfirmed),
+                "another loader");
+    }
+
+    static void assertSameSource(XMLSource expected, XMLSource actual) {
+        TreeSet<String> expectedPaths = new TreeSet<>();
+        expected.forEach(expectedPaths::add);
+        TreeSet<String> actualPaths = new TreeSet<>();
+        actual.forEach(actualPaths::add);
+        assertEquals(expectedPaths, actualPaths);
+        for (String path : expectedPaths) {
+            assertEquals(expected.getValueAtDPath(path), actual.getValueAtDPath(path), path);
+            String fullPath = expected.getFullPathAtDPath(path);
+            assertEquals(fullPath, actual.getFullPathAtDPath(path), path);
+            assertEquals(
+                    String.valueOf(expected.getSourceLocation(fullPath)),
+                    String.valueOf(actual.getSourceLocation(fullPath)),
+                    path);
+        }
+        assertEquals(expected.getLocaleID(), actual.getLocaleID());
+        assertEquals(expected.isNonInheriting(), actual.isNonInheriting());
+        assertEquals(expected.getXMLNormalizingDtdType(), actual.getXMLNormalizingDtdType());
+        assertEquals(expected.getDtdVersionInfo(), actual.getDtdVersionInfo());
+        assertTrue(actual.isFrozen());
+        assertEquals(
+                expected.getXpathComments().getInitialComment(),
+                actual.getXpathComments().getInitialComment());
+        assertEquals(
+                expected.getXpathComments().getFinalComment(),
+                actual.getXpathComments().getFinalComment());
+        for (CommentType type : CommentType.values()) {
+            assertEquals(
+                    expected.getXpathComments().getCommentMap(type),
+                    actual.getXpathComments().getCommentMap(type),
+                    type.toString());
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package org.unicode.cldr.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Random;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+public class TestXPathCursor {
+    private static final List<String> PATHS = new ArrayList<>();
+
+    @BeforeAll
+    static void loadPaths() {
+        CLDRConfig config = CLDRConfig.getInstance();
+        for (CLDRFile file :
+                List.of(
+                        config.getCldrFactory().make("fr", false),
+                        config.getCldrFactory().make("ja", false),
+                        config.getSupplementalFactory().make("supplementalData", false))) {
+            for (String path : file) {
+                PATHS.add(path);
+                PATHS.add(file.getFullXPath(path));
+            }
+        }
+        PATHS.add("//ldml/dates/calendars/calendar[@type='gregorian']/months");
+        PATHS.add("//ldml/numbers/symbols[@numberSystem=\"latn\"][@numberSystem=\"arab\"]/decimal");
+        PATHS.add("//ldml/units/unitLength[@alt=\"x\"][@type=\"long\"]/unit[@type=\"a/b[c]\"]");
+    }
+
+    @Test
+    void testSameAsXPathParts() {
+        XPathCursor cursor = new XPathCursor();
+        for (String path : PATHS) {
+            XPathParts parts = XPathParts.getFrozenInstance(path);
+            cursor.reset(path);
+            assertEquals(path, cursor.toString());
+            assertEquals(parts.size(), cursor.size(), path);
+            for (int i = 0; i < parts.size(); ++i) {
+                String element = parts.getElement(i);
+                assertEquals(element, cursor.getElement(i), path);
+                assertEquals(element, cursor.getElement(i - parts.size()), path);
+                assertTrue(cursor.elementEquals(i, element), path);
+                assertTrue(cursor.containsElement(element), path);
+                assertEquals(parts.findElement(element), cursor.findElement(element), path);
+                Map<String, String> attributes = parts.getAttributes(i);
+                assertEquals(parts.getAttributeCount(i), cursor.getAttributeCount(i), path);
+                assertEquals(attributes, cursor.getAttributes(i), path);
+                for (Entry<String, String> entry : attributes.entrySet()) {
+                    String value = entry.getValue();
+                    assertEquals(value, cursor.getAttributeValue(i, entry.getKey()), path);
+                    assertTrue(cursor.attributeValueEquals(i, entry.getKey(), value), path);
+                    assertFalse(cursor.attributeValueEquals(i, entry.getKey(), value + "x"), path);
+                    assertTrue(cursor.containsAttribute(entry.getKey()), path);
+                    assertEquals(
+                            parts.findAttributeValue(element, entry.getKey()),
+                            cursor.findAttributeValue(element, entry.getKey()),
+                            path);
+                }
+                assertNull(cursor.getAttributeValue(i, "noSuchAttribute"));
+            }
+            assertFalse(cursor.containsElement("noSuchElement"));
+            assertFalse(cursor.containsAttribute("noSuchAttribute"));
+            if (cursor.hasCanonicalAttributeOrder()) {
+                assertEquals(
+                        parts.toString(),
+                        path.replace('\'', '"'),
+                        "canonical order, so the same when written out: " + path);
+            }
+        }
+    }
+
+    @Test
+    void testAttributeOrder() {
+        XPathCursor cursor = new XPathCursor();
+        assertTrue(
+                cursor.reset("//ldml/units/unitLength[@type=\"long\"][@alt=\"x\"]")
+                        .hasCanonicalAttributeOrder());
+        assertFalse(
+                cursor.reset("//ldml/units/unitLength[@alt=\"x\"][@type=\"long\"]")
+                        .hasCanonicalAttributeOrder());
+        assertFalse(
+                cursor.reset("//ldml/units/unitLength[@type=\"a\"][@type=\"b\"]")
+                        .hasCanonicalAttributeOrder());
+        assertEquals("b", cursor.getAttributeValue(-1, "type"));
+        assertEquals(1, cursor.getAttributeCount(-1));
+    }
+
+    @Test
+    void testMalformed() {
+        XPathCursor cursor = new XPathCursor();
+        for (String path :
+                List.of(
+                        "/ldml/identity",
+                        "//ldml//identity",
+                        "//ldml/identity[",
+                        "//ldml/identity[@type]",
+                        "//ldml/identity[@type=\"x]",
+                        "//ldml/identity[@type=\"x\"",
+                        "//ldml/identity/")) {
+            IllegalArgumentException expected =
+                    assertThrows(
+                            IllegalArgumentException.class,
+                            () -> XPathParts.getFrozenInstance(path),
+                            path);
+            IllegalArgumentException actual =
+                    assertThrows(IllegalArgumentException.class, () -> cursor.reset(path), path);
+            assertEquals(expected.getMessage(), actual.getMessage());
+        }
+        // still usable afterwards
+        assertEquals(2, cursor.reset("//ldml/identity").size());
+    }
+
+    @Test
+    void testPathStarrer() {
+        for (String path : PATHS) {
+            XPathParts parts = XPathParts.getFrozenInstance(path).cloneAsThawed();
+            for (int i = 0; i < parts.size(); ++i) {
+                for (String key : parts.getAttributeKeys(i)) {
+                    parts.setAttribute(i, key, "([^\"]*+)");
+                }
+            }
+            assertEquals(parts.toString(), PathStarrer.get(path), path);
+        }
+    }
+
+    @Test
+    void testDtdComparator() {
+        XPathCursor a = new XPathCursor();
+        XPathCursor b = new XPathCursor();
+        Random random = new Random(0);
+        for (DtdType type : List.of(DtdType.ldml, DtdType.supplementalData)) {
+            DtdData.DtdComparator comparator = DtdData.getInstance(type).getDtdComparator();
+            List<String> paths = new ArrayList<>();
+            for (String path : PATHS) {
+                if (path.startsWith("//" + type.name() + "/")) {
+                    paths.add(path);
+                }
+            }
+            for (int i = 0; i < paths.size() * 4; ++i) {
+                String path1 = paths.get(random.nextInt(paths.size()));
+                String path2 = paths.get(random.nextInt(paths.size()));
+                int expected =
+                        comparator.xpathComparator(
+                                XPathParts.getFrozenInstance(path1),
+                                XPathParts.getFrozenInstance(path2));
+                int actual = comparator.xpathComparator(a.reset(path1), b.reset(path2));
+                assertEquals(Integer.signum(expected), Integer.signum(actual), path1 + " " + path2);
+                assertEquals(
+                        Integer.signum(actual), Integer.signum(comparator.compare(path1, path2)));
+            }
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package org.unicode.cldr.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheStats;
+import org.junit.jupiter.api.Test;
+
+public class TestXPathPartsCache {
+    private static final String PATH = "//ldml/localeDisplayNames/languages/language";
+
+    @Test
+    void testStats() {
+        String path = PATH + "[@type=\"x" + System.nanoTime() + "\"]";
+        CacheStats before = XPathParts.getCacheStats();
+        XPathParts first = XPathParts.getFrozenInstance(path);
+        assertSame(first, XPathParts.getFrozenInstance(path));
+        CacheStats delta = XPathParts.getCacheStats().minus(before);
+        assertTrue(delta.missCount() >= 1, delta.toString());
+        assertTrue(delta.hitCount() >= 1, delta.toString());
+        assertTrue(XPathParts.getCacheSize() > 0);
+    }
+
+    @Test
+    void testSizeLimit() {
+        Cache<String, XPathParts> cache = XPathParts.makeCache(10, 0);
+        for (int i = 0; i < 100; ++i) {
+            XPathParts parts = XPathParts.getFrozenInstance(cache, PATH + "[@type=\"x" + i + "\"]");
+            assertEquals(PATH + "[@type=\"x" + i + "\"]", parts.toString());
+            assertTrue(parts.isFrozen());
+        }
+        assertTrue(cache.size() <= 10, "size " + cache.size());
+        assertTrue(cache.stats().evictionCount() >= 90, cache.stats().toString());
+    }
+
+    @Test
+    void testWeightLimit() {
+        XPathParts sample = XPathParts.getFrozenInstance(PATH + "[@type=\"x0\"]");
+        int weight = sample.estimateWeight();
+        assertTrue(weight > PATH.length(), "weight " + weight);
+        Cache<String, XPathParts> cache = XPathParts.makeCache(0, weight * 5L);
+        for (int i = 0; i < 100; ++i) {
+            XPathParts.getFrozenInstance(cache, PATH + "[@type=\"x" + i + "\"]");
+        }
+        assertTrue(cache.size() <= 5, "size " + cache.size());
+        assertTrue(cache.stats().evictionCount() >= 95, cache.stats().toString());
+    }
+}